@@ -134,8 +134,8 @@ public class UiHtmlPropertyReference extends UiPropertyReference implements Html
 		// but handles any data that already has comments in html
 		if ((v != null) && this.dirty)
 		{
-			// clean
-			v = HtmlHelper.clean(v, true);
+			// clean - the same authored html is shown to every user, so re-use the last clean of it
+			v = HtmlHelper.cleanCached(v, true);
 
 			// and clean away forms (Note: done here only, not on input)
 			v = HtmlHelper.stripForms(v);
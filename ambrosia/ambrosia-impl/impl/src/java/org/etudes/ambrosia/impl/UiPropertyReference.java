@@ -35,6 +35,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.apache.commons.fileupload.FileItem;
 import org.apache.commons.logging.Log;
@@ -56,9 +57,38 @@ import org.w3c.dom.NodeList;
  */
 public class UiPropertyReference implements PropertyReference
 {
+	/**
+	 * A getter or setter found for a property of a class, or the lack of one (method null).
+	 */
+	protected static class Accessor
+	{
+		/** The method, or null if the class has none. */
+		protected Method method = null;
+
+		/**
+		 * Construct.
+		 * 
+		 * @param method
+		 *        The method, or null if there is none.
+		 */
+		protected Accessor(Method method)
+		{
+			this.method = method;
+		}
+	}
+
 	/** Our log (commons). */
 	private static Log M_log = LogFactory.getLog(UiPropertyReference.class);
 
+	/** Getters and setters found for each class, keyed by method name (released with the class). */
+	protected static final ClassValue<Map<String, Accessor>> accessors = new ClassValue<Map<String, Accessor>>()
+	{
+		protected Map<String, Accessor> computeValue(Class<?> type)
+		{
+			return new ConcurrentHashMap<String, Accessor>();
+		}
+	};
+
 	/** The entity reference. */
 	protected String entityReference = null;
 
@@ -538,6 +568,56 @@ public class UiPropertyReference implements PropertyReference
 		return rv.toString();
 	}
 
+	/**
+	 * Find the getter or setter method for a property of a class, introspecting only the first time each is asked for.
+	 * 
+	 * @param type
+	 *        The entity class.
+	 * @param property
+	 *        The property name.
+	 * @param read
+	 *        if true, find the "getFoo()" getter, otherwise the "setFoo()" setter.
+	 * @return The method, or null if the class does not have one.
+	 */
+	protected Method findAccessor(Class type, String property, boolean read)
+	{
+		// form a "getFoo()" or "setFoo()" based method name
+		StringBuilder name = new StringBuilder(property.length() + 3);
+		name.append(read ? "get" : "set");
+		name.append(Character.toUpperCase(property.charAt(0)));
+		name.append(property, 1, property.length());
+		String methodName = name.toString();
+
+		Map<String, Accessor> found = accessors.get(type);
+		Accessor accessor = found.get(methodName);
+		if (accessor == null)
+		{
+			Method method = null;
+			try
+			{
+				// use this form, providing only the getter or setter name, so we can support properties that are read-only or write-only
+				if (read)
+				{
+					method = new PropertyDescriptor(property, type, methodName, null).getReadMethod();
+				}
+				else
+				{
+					method = new PropertyDescriptor(property, type, null, methodName).getWriteMethod();
+				}
+			}
+			catch (IntrospectionException ie)
+			{
+				// remember the miss too, so we report it (and pay for the introspection) only once
+				M_log.warn("findAccessor: method: " + property + " object: " + type, ie);
+			}
+
+			accessor = new Accessor(method);
+			found.put(methodName, accessor);
+		}
+
+		return accessor.method;
+	}
+
 	/**
 	 * Format the value found into a display string.
 	 * 
@@ -693,23 +773,14 @@ public class UiPropertyReference implements PropertyReference
 			}
 		}
 
-		// form a "getFoo()" based getter method name
-		StringBuffer getter = new StringBuffer("get" + property);
-		getter.setCharAt(3, getter.substring(3, 4).toUpperCase().charAt(0));
-
 		try
 		{
-			// use this form, providing the getter name and no setter, so we can support properties that are read-only
-			PropertyDescriptor pd = new PropertyDescriptor(property, entity.getClass(), getter.toString(), null);
-			Method read = pd.getReadMethod();
+			Method read = findAccessor(entity.getClass(), property, true);
+			if (read == null) return null;
+
 			Object value = read.invoke(entity, (Object[]) null);
 			return value;
 		}
-		catch (IntrospectionException ie)
-		{
-			M_log.warn("getValue: method: " + property + " object: " + entity.getClass(), ie);
-			return null;
-		}
 		catch (IllegalAccessException ie)
 		{
 			M_log.warn("getValue: method: " + property + " object: " + entity.getClass(), ie);
@@ -777,15 +848,11 @@ public class UiPropertyReference implements PropertyReference
 	 */
 	protected void setFileValue(Object entity, String property, FileItem value)
 	{
-		// form a "setFoo()" based setter method name
-		StringBuffer setter = new StringBuffer("set" + property);
-		setter.setCharAt(3, setter.substring(3, 4).toUpperCase().charAt(0));
-
 		try
 		{
-			// use this form, providing the setter name and no getter, so we can support properties that are write-only
-			PropertyDescriptor pd = new PropertyDescriptor(property, entity.getClass(), null, setter.toString());
-			Method write = pd.getWriteMethod();
+			Method write = findAccessor(entity.getClass(), property, false);
+			if (write == null) return;
+
 			Object[] params = new Object[1];
 
 			Class[] paramTypes = write.getParameterTypes();
@@ -806,10 +873,6 @@ public class UiPropertyReference implements PropertyReference
 				M_log.warn("setFileValue: method: " + property + " object: " + entity.getClass() + " : no one parameter setter method defined");
 			}
 		}
-		catch (IntrospectionException ie)
-		{
-			M_log.warn("setFileValue: method: " + property + " object: " + entity.getClass() + " : " + ie);
-		}
 		catch (IllegalAccessException ie)
 		{
 			M_log.warn("setFileValue: method: " + property + " object: " + entity.getClass() + " :" + ie);
@@ -836,10 +899,6 @@ public class UiPropertyReference implements PropertyReference
 	 */
 	protected void setValue(Object entity, String property, String[] valueSource)
 	{
-		// form a "setFoo()" based setter method name
-		StringBuffer setter = new StringBuffer("set" + property);
-		setter.setCharAt(3, setter.substring(3, 4).toUpperCase().charAt(0));
-
 		// unformat the values - in any are invalid, give up
 		String[] value = null;
 		try
@@ -860,9 +919,9 @@ public class UiPropertyReference implements PropertyReference
 
 		try
 		{
-			// use this form, providing the setter name and no getter, so we can support properties that are write-only
-			PropertyDescriptor pd = new PropertyDescriptor(property, entity.getClass(), null, setter.toString());
-			Method write = pd.getWriteMethod();
+			Method write = findAccessor(entity.getClass(), property, false);
+			if (write == null) return;
+
 			Object[] params = new Object[1];
 			params[0] = null;
 
@@ -1077,10 +1136,6 @@ public class UiPropertyReference implements PropertyReference
 		catch (NumberFormatException ie)
 		{
 		}
-		catch (IntrospectionException ie)
-		{
-			M_log.warn("setValue: method: " + property + " object: " + entity.getClass(), ie);
-		}
 		catch (IllegalAccessException ie)
 		{
 			M_log.warn("setValue: method: " + property + " object: " + entity.getClass(), ie);
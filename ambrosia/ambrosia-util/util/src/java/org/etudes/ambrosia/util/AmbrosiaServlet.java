@@ -192,6 +192,9 @@ public class AmbrosiaServlet extends HttpServlet
 					context.setDocsPath(docsPath);
 				}
 
+				// pick up a changed view
+				if (destination instanceof ControllerImpl) ((ControllerImpl) destination).refresh();
+
 				destination.get(req, res, context, parts);
 			}
 			catch (IllegalArgumentException e)
@@ -233,6 +236,9 @@ public class AmbrosiaServlet extends HttpServlet
 				context.addMessages(destination.getSharedMessages());
 				context.addMessages(destination.getMessages());
 
+				// pick up a changed view
+				if (destination instanceof ControllerImpl) ((ControllerImpl) destination).refresh();
+
 				destination.post(req, res, context, parts);
 			}
 			catch (IllegalArgumentException e)
@@ -24,14 +24,11 @@
 
 package org.etudes.ambrosia.util;
 
-import java.io.IOException;
-
 import org.etudes.ambrosia.api.Component;
 import org.etudes.ambrosia.api.UiService;
 import org.etudes.ambrosia.api.Controller;
 import org.sakaiproject.i18n.InternationalizedMessages;
 import org.sakaiproject.util.ResourceLoader;
-import org.springframework.core.io.ClassPathResource;
 
 /**
  * A Controller
@@ -60,7 +57,7 @@ public abstract class ControllerImpl implements Controller
 	protected String toolId = null;
 
 	/** The UI. */
-	protected Component ui = null;
+	protected volatile Component ui = null;
 
 	/** ui service reference. */
 	protected UiService uiService = null;
@@ -114,17 +111,21 @@ public abstract class ControllerImpl implements Controller
 		// shared messages
 		if (this.sharedBundle != null) this.sharedMessages = new ResourceLoader(this.sharedBundle);
 
-		// interface from XML in the class path
+		// interface from XML in the class path, compiled once and shared
 		if (viewPath != null)
 		{
-			try
-			{
-				ClassPathResource rsrc = new ClassPathResource(viewPath);
-				this.ui = uiService.newInterface(rsrc.getInputStream());
-			}
-			catch (IOException e)
-			{
-			}
+			this.ui = ViewRegistry.getInterface(uiService, viewPath);
+		}
+	}
+
+	/**
+	 * Pick up the interface compiled again from a changed view declaration, if views are being reloaded.
+	 */
+	public void refresh()
+	{
+		if ((viewPath != null) && ViewRegistry.isReload())
+		{
+			this.ui = ViewRegistry.getInterface(uiService, viewPath);
 		}
 	}
 
@@ -24,8 +24,6 @@
 
 package org.etudes.ambrosia.util;
 
-import java.io.IOException;
-
 import org.etudes.ambrosia.api.Component;
 import org.etudes.ambrosia.api.Context;
 import org.etudes.ambrosia.api.Fragment;
@@ -33,7 +31,6 @@ import org.etudes.ambrosia.api.FragmentDelegate;
 import org.etudes.ambrosia.api.UiService;
 import org.sakaiproject.i18n.InternationalizedMessages;
 import org.sakaiproject.util.ResourceLoader;
-import org.springframework.core.io.ClassPathResource;
 
 /**
  * A FragmentDelegate.
@@ -53,7 +50,7 @@ public class FragmentDelegateImpl implements FragmentDelegate
 	protected String toolId = null;
 
 	/** The UI. */
-	protected Fragment ui = null;
+	protected volatile Fragment ui = null;
 
 	/** ui service reference. */
 	protected UiService uiService = null;
@@ -66,6 +63,12 @@ public class FragmentDelegateImpl implements FragmentDelegate
 	 */
 	public Fragment getFragment(Context context, Object focus)
 	{
+		// pick up the fragment compiled again from a changed view declaration
+		if ((viewPath != null) && ViewRegistry.isReload())
+		{
+			this.ui = ViewRegistry.getFragment(uiService, viewPath);
+		}
+
 		return this.ui;
 	}
 
@@ -96,17 +99,10 @@ public class FragmentDelegateImpl implements FragmentDelegate
 		// messages
 		this.messages = new ResourceLoader(this.bundle);
 
-		// interface from XML in the class path
+		// fragment from XML in the class path, compiled once and shared
 		if (viewPath != null)
 		{
-			try
-			{
-				ClassPathResource rsrc = new ClassPathResource(viewPath);
-				this.ui = uiService.newFragment(rsrc.getInputStream());
-			}
-			catch (IOException e)
-			{
-			}
+			this.ui = ViewRegistry.getFragment(uiService, viewPath);
 		}
 	}
 
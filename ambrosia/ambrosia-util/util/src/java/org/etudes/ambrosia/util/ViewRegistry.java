@@ -0,0 +1,184 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.ambrosia.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.etudes.ambrosia.api.Component;
+import org.etudes.ambrosia.api.Fragment;
+import org.etudes.ambrosia.api.UiService;
+import org.sakaiproject.component.cover.ServerConfigurationService;
+import org.springframework.core.io.ClassPathResource;
+
+/**
+ * ViewRegistry holds the component trees compiled from the view declaration XML files in the class path.<br />
+ * Each file is parsed once, and the one tree is shared by every controller or fragment delegate declared with it, and by all their requests.<br />
+ * With "ambrosia.views.reload" set (for development), a view is compiled again when its file changes.
+ */
+public class ViewRegistry
+{
+	/**
+	 * A compiled view.
+	 */
+	protected static class View
+	{
+		/** When the file was last modified when compiled, or 0 if not known. */
+		protected long modified = 0;
+
+		/** The component tree. */
+		protected Component ui = null;
+	}
+
+	/** Our log (commons). */
+	private static Log M_log = LogFactory.getLog(ViewRegistry.class);
+
+	/** The compiled views, keyed by the view file URL. */
+	protected static final Map<String, View> views = new ConcurrentHashMap<String, View>();
+
+	/**
+	 * Get the compiled fragment for a view declaration in the class path.
+	 * 
+	 * @param uiService
+	 *        The UiService.
+	 * @param viewPath
+	 *        The class path to the fragment XML declaration.
+	 * @return The fragment, or null if the file cannot be read.
+	 */
+	public static Fragment getFragment(UiService uiService, String viewPath)
+	{
+		return (Fragment) getView(uiService, viewPath, true);
+	}
+
+	/**
+	 * Get the compiled interface for a view declaration in the class path.
+	 * 
+	 * @param uiService
+	 *        The UiService.
+	 * @param viewPath
+	 *        The class path to the interface XML declaration.
+	 * @return The interface, or null if the file cannot be read.
+	 */
+	public static Component getInterface(UiService uiService, String viewPath)
+	{
+		return getView(uiService, viewPath, false);
+	}
+
+	/**
+	 * Check if views are to be compiled again when their files change.
+	 * 
+	 * @return true if views are reloaded, false if not.
+	 */
+	public static boolean isReload()
+	{
+		return ServerConfigurationService.getBoolean("ambrosia.views.reload", false);
+	}
+
+	/**
+	 * Compile a view declaration.
+	 * 
+	 * @param uiService
+	 *        The UiService.
+	 * @param rsrc
+	 *        The view file.
+	 * @param fragment
+	 *        if true, the view is a fragment, otherwise an interface.
+	 * @return The compiled view.
+	 * @throws IOException
+	 */
+	protected static View compile(UiService uiService, ClassPathResource rsrc, boolean fragment) throws IOException
+	{
+		View view = new View();
+		view.modified = lastModified(rsrc);
+
+		InputStream in = rsrc.getInputStream();
+		try
+		{
+			view.ui = fragment ? uiService.newFragment(in) : uiService.newInterface(in);
+		}
+		finally
+		{
+			in.close();
+		}
+
+		return view;
+	}
+
+	/**
+	 * Get the compiled view for a view declaration, compiling it if needed.
+	 * 
+	 * @param uiService
+	 *        The UiService.
+	 * @param viewPath
+	 *        The class path to the XML declaration.
+	 * @param fragment
+	 *        if true, the view is a fragment, otherwise an interface.
+	 * @return The compiled view, or null if the file cannot be read.
+	 */
+	protected static Component getView(UiService uiService, String viewPath, boolean fragment)
+	{
+		try
+		{
+			// key by the file's URL, so the same name in different webapps are different views
+			ClassPathResource rsrc = new ClassPathResource(viewPath);
+			String key = (fragment ? "fragment:" : "interface:") + rsrc.getURL().toString();
+
+			View view = views.get(key);
+			if ((view == null) || (isReload() && (view.modified != lastModified(rsrc))))
+			{
+				// two threads may compile the same view at once - either tree will do
+				view = compile(uiService, rsrc, fragment);
+				views.put(key, view);
+			}
+
+			return view.ui;
+		}
+		catch (IOException e)
+		{
+			M_log.warn("getView: " + viewPath + " : " + e);
+			return null;
+		}
+	}
+
+	/**
+	 * Find when a view file was last modified.
+	 * 
+	 * @param rsrc
+	 *        The view file.
+	 * @return The last modified time, or 0 if it cannot be found.
+	 */
+	protected static long lastModified(ClassPathResource rsrc)
+	{
+		try
+		{
+			return rsrc.lastModified();
+		}
+		catch (IOException e)
+		{
+			return 0;
+		}
+	}
+}
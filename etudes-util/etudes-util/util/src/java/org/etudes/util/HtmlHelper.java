@@ -21,7 +21,11 @@
 
 package org.etudes.util;
 
-import java.io.UnsupportedEncodingException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -33,9 +37,56 @@ import org.apache.commons.logging.LogFactory;
  */
 public class HtmlHelper
 {
+	/** Finds the <a> tags, and isolates the contents of a tag. */
+	protected static final Pattern ANCHOR_TAG = Pattern.compile("<a\\s+([^>]+)>", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+	/** The most characters (keys and cleaned results) kept by cleanCached(). */
+	protected static final int CLEAN_CACHE_MAX_CHARS = 4 * 1024 * 1024;
+
+	/** The longest source (in characters) cleanCached() will keep. */
+	protected static final int CLEAN_CACHE_MAX_SOURCE = 8192;
+
+	/**
+	 * Finds html comments. Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments
+	 * is not lost
+	 */
+	protected static final Pattern COMMENT = Pattern.compile("<!--.*?-->", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+	/** Finds the "comments damaged from IE and Tiny". */
+	protected static final Pattern DAMAGED_COMMENT = Pattern.compile("<!--\\[if.*?<! \\[endif\\] >", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+			| Pattern.DOTALL);
+
+	/** Finds the "comments from Word font definitions encoded into html by Tiny". */
+	protected static final Pattern ENCODED_FONT_DEFINITION_COMMENT = Pattern.compile("&lt;!--  /\\* Font Definitions \\*/.*?--&gt;",
+			Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+	/** Finds the "comments from Word style definitions encoded into html by Tiny". */
+	protected static final Pattern ENCODED_STYLE_DEFINITION_COMMENT = Pattern.compile("&lt;!-- /\\* Style Definitions \\*/.*?--&gt;",
+			Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+	/** Finds the tags only valid in headers. */
+	protected static final Pattern HEADER_TAG = Pattern.compile("<(link|meta|title|base|style)\\s+.*?(/*>)", Pattern.CASE_INSENSITIVE
+			| Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+	/** Finds the href attribute and isolates the value. */
+	protected static final Pattern HREF_ATTRIBUTE = Pattern.compile("href\\s*=\\s*[\"\'](.*?)[\"\']", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+			| Pattern.DOTALL);
+
+	/** Finds the onclick attribute. */
+	protected static final Pattern ONCLICK_ATTRIBUTE = Pattern.compile("onclick\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+
+	/** Finds the target attribute. */
+	protected static final Pattern TARGET_ATTRIBUTE = Pattern.compile("target\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+
 	/** Our log. */
 	private static Log M_log = LogFactory.getLog(HtmlHelper.class);
 
+	/** Sources after stripJunk(), by cleanCacheKey(), least recently used first. */
+	protected static final Map<String, String> cleaned = new LinkedHashMap<String, String>(256, 0.75f, true);
+
+	/** The characters, keys and cleaned results, now held in cleaned. Guarded by cleaned. */
+	protected static int cleanedChars = 0;
+
 	/**
 	 * Assure that any anchor tag to external content that does not have a target attribute gets one as target="_blank".
 	 * 
@@ -50,21 +101,12 @@ public class HtmlHelper
 			return null;
 		}
 
-		StringBuffer sb = new StringBuffer();
-
-		// find the <a> tags, and isolate the contents of a tag
-		Pattern p = Pattern.compile("<a\\s+([^>]+)>", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-
-		// find the href attribute and isolate the value
-		Pattern hrefPattern = Pattern.compile("href\\s*=\\s*[\"\'](.*?)[\"\']", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
-		// find the target attribute
-		Pattern targetPattern = Pattern.compile("target\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+		// quick check for any anchor
+		if ((data.indexOf("<a") == -1) && (data.indexOf("<A") == -1)) return data;
 
-		// find the onclick attribute
-		Pattern onclickPattern = Pattern.compile("onclick\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+		StringBuffer sb = new StringBuffer();
 
-		Matcher m = p.matcher(data);
+		Matcher m = ANCHOR_TAG.matcher(data);
 		while (m.find())
 		{
 			if (m.groupCount() == 1)
@@ -72,15 +114,15 @@ public class HtmlHelper
 				String tagContents = m.group(1);
 
 				// only if we do NOT have a target attribute at all
-				Matcher targetMatcher = targetPattern.matcher(tagContents);
+				Matcher targetMatcher = TARGET_ATTRIBUTE.matcher(tagContents);
 				if (!targetMatcher.find())
 				{
 					// only if we do not have an onclick (CKEditor puts this in for the "popup" target option in the link dialog
-					Matcher onclickMatcher = onclickPattern.matcher(tagContents);
+					Matcher onclickMatcher = ONCLICK_ATTRIBUTE.matcher(tagContents);
 					if (!onclickMatcher.find())
 					{
 						// only if we do NOT have an internal href
-						Matcher hrefMatcher = hrefPattern.matcher(tagContents);
+						Matcher hrefMatcher = HREF_ATTRIBUTE.matcher(tagContents);
 						if (hrefMatcher.find() && hrefMatcher.groupCount() == 1)
 						{
 							String href = hrefMatcher.group(1);
@@ -139,6 +181,63 @@ public class HtmlHelper
 		return rv;
 	}
 
+	/**
+	 * Clean some user entered HTML, as clean() does, re-using the result of an earlier clean of the same source. Use this where the same html is
+	 * cleaned over and over, such as for display.<br />
+	 * Only the passes that depend on the source alone are cached. Shortening the full URLs depends on the server URL of the current request, so that,
+	 * and the anchor targets that follow it, are done each time.
+	 * 
+	 * @param source
+	 *        The source HTML
+	 * @param fragment
+	 *        if true, return a fragment of html, else return a complete html document.
+	 * @return The cleaned up HTML.
+	 */
+	public static String cleanCached(String source, boolean fragment)
+	{
+		if (source == null) return null;
+
+		// key by a digest of the source, so the source itself is not held
+		String key = (source.length() > CLEAN_CACHE_MAX_SOURCE) ? null : cleanCacheKey(source, fragment);
+
+		String rv = null;
+		if (key != null)
+		{
+			synchronized (cleaned)
+			{
+				rv = cleaned.get(key);
+			}
+		}
+
+		if (rv == null)
+		{
+			rv = stripJunk(source, fragment);
+			if (key != null)
+			{
+				synchronized (cleaned)
+				{
+					String old = cleaned.put(key, rv);
+					cleanedChars += (old == null) ? (key.length() + rv.length()) : (rv.length() - old.length());
+
+					// drop the least recently used until we are back under the limit
+					Iterator<Map.Entry<String, String>> i = cleaned.entrySet().iterator();
+					while ((cleanedChars > CLEAN_CACHE_MAX_CHARS) && i.hasNext())
+					{
+						Map.Entry<String, String> eldest = i.next();
+						cleanedChars -= eldest.getKey().length() + eldest.getValue().length();
+						i.remove();
+					}
+				}
+			}
+		}
+
+		// the rest of preClean(), for the current request
+		rv = XrefHelper.shortenFullUrls(rv);
+		rv = assureAnchorTargetBlank(rv);
+
+		return rv;
+	}
+
 	/**
 	 * Clean some user entered HTML - also assure a target=_blank for all anchors to external content.
 	 * 
@@ -174,8 +273,8 @@ public class HtmlHelper
 
 		// MySQL does not support 4 byte UTF-8 characters, in versions before 5.5
 		// so we will replace any character in the data that needs 4 byte encoding with the html escape
-		// we also use the encoding for any multi-character codepoints
-		StringBuilder buf = new StringBuilder();
+		// Note: only the multi-character (surrogate pair) codepoints need 4 bytes, so data without them is returned as is
+		StringBuilder buf = null;
 		for (int cp, i = 0; i < data.length(); i += Character.charCount(cp))
 		{
 			cp = data.codePointAt(i);
@@ -183,35 +282,24 @@ public class HtmlHelper
 			// for single character codepoints
 			if (Character.charCount(cp) == 1)
 			{
-				try
-				{
-					String str = "" + (char) cp;
-					byte[] bytes = str.getBytes("UTF-8");
-					if (bytes.length < 4)
-					{
-						buf.append((char) cp);
-					}
-					else
-					{
-						// encode &#8704; for html
-						buf.append("&#" + cp + ";");
-					}
-				}
-				catch (UnsupportedEncodingException e)
-				{
-					buf.append((char) cp);
-				}
+				if (buf != null) buf.append((char) cp);
 			}
 
 			// for multi character surrogates
 			else
 			{
+				if (buf == null)
+				{
+					buf = new StringBuilder(data.length() + 16);
+					buf.append(data, 0, i);
+				}
+
 				// encode &#8704; for html
-				buf.append("&#" + cp + ";");
+				buf.append("&#").append(cp).append(';');
 			}
 		}
 
-		return buf.toString();
+		return (buf == null) ? data : buf.toString();
 	}
 
 	/**
@@ -228,11 +316,7 @@ public class HtmlHelper
 		// quick check for any comments
 		if (data.indexOf("<!--") == -1) return data;
 
-		// pattern to find html comments
-		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
-		Pattern p = Pattern.compile("<!--.*?-->", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
-		Matcher m = p.matcher(data);
+		Matcher m = COMMENT.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		while (m.find())
@@ -247,7 +331,7 @@ public class HtmlHelper
 		// if any open tags are left, likely because of missing a matching close tag, we will remove them.
 		// if we leave them in, a missing close comment tag will be inserted by HtmlCleaner at the very END of the document, making the rest a big comment.
 		// this fix exposes some comment text into the content, but preserves actual content.
-		data = data.replaceAll("<!--", "");
+		data = data.replace("<!--", "");
 
 		return data;
 	}
@@ -269,10 +353,7 @@ public class HtmlHelper
 		// log that we are doing this
 		M_log.warn("HtmlClean: stripDamagedComments");
 
-		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
-		Pattern p = Pattern.compile("<!--\\[if.*?<! \\[endif\\] >", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
-		Matcher m = p.matcher(data);
+		Matcher m = DAMAGED_COMMENT.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		while (m.find())
@@ -304,10 +385,7 @@ public class HtmlHelper
 		// log that we are doing this
 		M_log.warn("HtmlClean: stripEncodedFontDefinitionComments");
 
-		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
-		Pattern p = Pattern.compile("&lt;!--  /\\* Font Definitions \\*/.*?--&gt;", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
-		Matcher m = p.matcher(data);
+		Matcher m = ENCODED_FONT_DEFINITION_COMMENT.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		while (m.find())
@@ -337,10 +415,7 @@ public class HtmlHelper
 		// log that we are doing this
 		M_log.warn("HtmlClean: stripEncodedStyleDefinitionComments");
 
-		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
-		Pattern p = Pattern.compile("&lt;!-- /\\* Style Definitions \\*/.*?--&gt;", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
-		Matcher m = p.matcher(data);
+		Matcher m = ENCODED_STYLE_DEFINITION_COMMENT.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		while (m.find())
@@ -362,9 +437,9 @@ public class HtmlHelper
 	 */
 	public static String stripForms(String source)
 	{
-		source = source.replaceAll("<form", "<div");
-		source = source.replaceAll("</form", "</div");
-		source = source.replaceAll("<input", "<input disabled");
+		source = source.replace("<form", "<div");
+		source = source.replace("</form", "</div");
+		source = source.replace("<input", "<input disabled");
 		return source;
 	}
 
@@ -378,7 +453,7 @@ public class HtmlHelper
 	public static String stripEmptyCode(String source)
 	{
 		if (source == null) return source;
-		source = source.replaceAll("&#8203;", "");
+		source = source.replace("&#8203;", "");
 		return source;
 	}
 
@@ -393,10 +468,10 @@ public class HtmlHelper
 	{
 		if (data == null) return data;
 
-		// pattern to find link/meta tags
-		Pattern p = Pattern.compile("<(link|meta|title|base|style)\\s+.*?(/*>)", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+		// quick check for any tag
+		if (data.indexOf('<') == -1) return data;
 
-		Matcher m = p.matcher(data);
+		Matcher m = HEADER_TAG.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		while (m.find())
@@ -409,6 +484,47 @@ public class HtmlHelper
 		return sb.toString();
 	}
 
+	/**
+	 * Form the cleanCached() key for a source: a SHA-256 digest of its characters (not its UTF-8 bytes, which merge unpaired surrogates), and the
+	 * fragment setting.
+	 * 
+	 * @param source
+	 *        The source HTML
+	 * @param fragment
+	 *        if true, the key is for a fragment of html, else for a complete html document.
+	 * @return The key, or null if the digest is not available.
+	 */
+	protected static String cleanCacheKey(String source, boolean fragment)
+	{
+		byte[] chars = new byte[source.length() * 2];
+		for (int i = 0; i < source.length(); i++)
+		{
+			char c = source.charAt(i);
+			chars[2 * i] = (byte) (c >> 8);
+			chars[2 * i + 1] = (byte) c;
+		}
+
+		byte[] digest = null;
+		try
+		{
+			digest = MessageDigest.getInstance("SHA-256").digest(chars);
+		}
+		catch (NoSuchAlgorithmException e)
+		{
+			M_log.warn("cleanCacheKey: " + e);
+			return null;
+		}
+
+		StringBuilder rv = new StringBuilder(digest.length * 2 + 1);
+		rv.append(fragment ? 'f' : 'd');
+		for (byte b : digest)
+		{
+			rv.append(Character.forDigit((b >> 4) & 0xf, 16)).append(Character.forDigit(b & 0xf, 16));
+		}
+
+		return rv.toString();
+	}
+
 	/**
 	 * Clean some user entered HTML - all the steps before the actual parsing.
 	 * 
@@ -424,6 +540,30 @@ public class HtmlHelper
 	{
 		if (source == null) return null;
 
+		source = stripJunk(source, fragment);
+
+		// shorten any full URL embedded references (such as what editors puts in for "smilies")
+		source = XrefHelper.shortenFullUrls(source);
+
+		if (assureAnchorTarget)
+		{
+			source = assureAnchorTargetBlank(source);
+		}
+
+		return source;
+	}
+
+	/**
+	 * Clean some user entered HTML - the steps of preClean() that depend only on the source.
+	 * 
+	 * @param source
+	 *        The source HTML
+	 * @param fragment
+	 *        if true, return a fragment of html, else return a complete html document.
+	 * @return The cleaned up HTML.
+	 */
+	protected static String stripJunk(String source, boolean fragment)
+	{
 		// strip before cleaning for better tag structure (if something is removed by HtmlCleaner, it can split a content node into two)
 
 		// deal with some specifics conditions
@@ -443,14 +583,6 @@ public class HtmlHelper
 			source = stripHeaderTags(source);
 		}
 
-		// shorten any full URL embedded references (such as what editors puts in for "smilies")
-		source = XrefHelper.shortenFullUrls(source);
-
-		if (assureAnchorTarget)
-		{
-			source = assureAnchorTargetBlank(source);
-		}
-
 		return source;
 	}
 }
@@ -0,0 +1,240 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.util;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+import org.etudes.util.api.Translation;
+
+/**
+ * TranslationIndex applies a set of translations to strings, as if each translation were applied in turn, but finding the ones that apply in a
+ * single pass over the string.<br />
+ * The translations' "from" strings are compiled (on first use) into a trie with failure links (Aho-Corasick), so the cost of a translation does
+ * not grow with the number of translations. Only the translations found in the string are run.
+ */
+public class TranslationIndex
+{
+	/**
+	 * A trie node.
+	 */
+	protected static class Node
+	{
+		/** The node for the longest proper suffix of this node's string that is also in the trie. */
+		protected Node fail = null;
+
+		/** The children, by (case folded) character. */
+		protected Map<Character, Node> next = new HashMap<Character, Node>();
+
+		/** The positions of the translations whose "from" ends here (including those found by following the failure links). */
+		protected List<Integer> out = new ArrayList<Integer>();
+	}
+
+	/**
+	 * Get an index for a collection of translations - the one cached in a TranslationList, or a new one.
+	 * 
+	 * @param translations
+	 *        The translations.
+	 * @return The index.
+	 */
+	public static TranslationIndex forTranslations(Collection<Translation> translations)
+	{
+		if (translations instanceof TranslationList) return ((TranslationList) translations).getIndex();
+
+		return new TranslationIndex(translations);
+	}
+
+	/**
+	 * Fold a character for case-insensitive matching.
+	 * 
+	 * @param c
+	 *        The character.
+	 * @return The folded character.
+	 */
+	protected static char fold(char c)
+	{
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
+	/** The root of the trie, null until compiled - volatile, as it is read outside the compile() lock. */
+	protected volatile Node root = null;
+
+	/** The translations, in order. */
+	protected Translation[] translations = null;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param translations
+	 *        The translations, in the order they are to be applied.
+	 */
+	public TranslationIndex(Collection<Translation> translations)
+	{
+		this.translations = translations.toArray(new Translation[translations.size()]);
+	}
+
+	/**
+	 * Translate a target string with all the translations, in order.
+	 * 
+	 * @param target
+	 *        The target string.
+	 * @return The translated string.
+	 */
+	public String translate(String target)
+	{
+		if (target == null) return null;
+		if (this.translations.length == 0) return target;
+
+		// a translation that does not find its "from" leaves the target alone, so we need only run, in order, those that do
+		String rv = target;
+		int last = -1;
+		while (true)
+		{
+			int next = findNext(rv, last);
+			if (next == -1) break;
+
+			rv = this.translations[next].translate(rv);
+			last = next;
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Build the trie from the translations' "from" strings.
+	 */
+	protected synchronized void compile()
+	{
+		if (this.root != null) return;
+
+		Node top = new Node();
+		for (int i = 0; i < this.translations.length; i++)
+		{
+			// translations missing either side do nothing
+			String from = this.translations[i].getFrom();
+			if ((from == null) || (this.translations[i].getTo() == null)) continue;
+
+			Node node = top;
+			for (int c = 0; c < from.length(); c++)
+			{
+				Character key = Character.valueOf(fold(from.charAt(c)));
+				Node child = node.next.get(key);
+				if (child == null)
+				{
+					child = new Node();
+					node.next.put(key, child);
+				}
+				node = child;
+			}
+			node.out.add(Integer.valueOf(i));
+		}
+
+		// set the failure links, breadth first, merging in the outputs found through them
+		LinkedList<Node> queue = new LinkedList<Node>();
+		for (Node child : top.next.values())
+		{
+			child.fail = top;
+			queue.add(child);
+		}
+		while (!queue.isEmpty())
+		{
+			Node node = queue.removeFirst();
+			for (Map.Entry<Character, Node> entry : node.next.entrySet())
+			{
+				Node child = entry.getValue();
+				Node f = node.fail;
+				while ((f != null) && (!f.next.containsKey(entry.getKey())))
+				{
+					f = f.fail;
+				}
+				child.fail = (f == null) ? top : f.next.get(entry.getKey());
+				child.out.addAll(child.fail.out);
+				queue.add(child);
+			}
+		}
+
+		this.root = top;
+	}
+
+	/**
+	 * Find the first translation after the last one run whose "from" is in the target.
+	 * 
+	 * @param target
+	 *        The target string.
+	 * @param last
+	 *        The position of the last translation run, or -1 if none.
+	 * @return The position of the next translation to run, or -1 if there are none.
+	 */
+	protected int findNext(String target, int last)
+	{
+		if (this.root == null) compile();
+		Node top = this.root;
+
+		int rv = -1;
+		rv = nextOut(top, last, rv);
+
+		Node node = top;
+		for (int c = 0; c < target.length(); c++)
+		{
+			Character key = Character.valueOf(fold(target.charAt(c)));
+			while ((node != top) && (!node.next.containsKey(key)))
+			{
+				node = node.fail;
+			}
+			Node child = node.next.get(key);
+			if (child != null) node = child;
+
+			rv = nextOut(node, last, rv);
+
+			// the very next one can't be beaten
+			if (rv == last + 1) break;
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Pick the earliest translation after the last one run from this node's outputs and the best found so far.
+	 * 
+	 * @param node
+	 *        The node.
+	 * @param last
+	 *        The position of the last translation run, or -1 if none.
+	 * @param best
+	 *        The best found so far, or -1 if none.
+	 * @return The best found.
+	 */
+	protected int nextOut(Node node, int last, int best)
+	{
+		for (Integer i : node.out)
+		{
+			int pos = i.intValue();
+			if ((pos > last) && ((best == -1) || (pos < best))) best = pos;
+		}
+
+		return best;
+	}
+}
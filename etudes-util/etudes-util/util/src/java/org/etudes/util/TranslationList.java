@@ -0,0 +1,74 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ * 
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.util;
+
+import java.util.ArrayList;
+
+import org.etudes.util.api.Translation;
+
+/**
+ * TranslationList is a list of translations that keeps a TranslationIndex of itself, compiled once and kept until the list changes.
+ */
+public class TranslationList extends ArrayList<Translation>
+{
+	private static final long serialVersionUID = 1L;
+
+	/** The index, or null if not made or the list has changed. */
+	protected transient TranslationIndex index = null;
+
+	/** The list's modification count when the index was made. */
+	protected transient int indexModCount = -1;
+
+	/**
+	 * Construct, empty.
+	 */
+	public TranslationList()
+	{
+		super();
+	}
+
+	/**
+	 * Get the index of the translations now in the list.
+	 * 
+	 * @return The index.
+	 */
+	public synchronized TranslationIndex getIndex()
+	{
+		if ((this.index == null) || (this.indexModCount != this.modCount))
+		{
+			this.index = new TranslationIndex(this);
+			this.indexModCount = this.modCount;
+		}
+
+		return this.index;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public Translation set(int index, Translation element)
+	{
+		// a replaced translation changes the index, as adds and removes do
+		this.modCount++;
+		return super.set(index, element);
+	}
+}
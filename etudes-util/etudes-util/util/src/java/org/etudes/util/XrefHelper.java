@@ -74,6 +74,10 @@ public class XrefHelper
 	/** A thread-local key to the List of Translations we have made so far in the thread. */
 	public final static String THREAD_TRANSLATIONS_KEY = "XrefHelper.translations";
 
+	/** The embedded reference detection pattern, compiled once - see getPattern(). */
+	protected final static Pattern EMBEDDED_REFERENCE_PATTERN = Pattern.compile("(src|href|value)[\\s]*=[\\s]*\"([^#\"]*)([#\"])",
+			Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
 	/** Our log. */
 	private static Log M_log = LogFactory.getLog(XrefHelper.class);
 
@@ -517,19 +521,12 @@ public class XrefHelper
 					normal = decodeUrl(normal);
 
 					// translate the normal form
-					String translated = normal;
-					for (Translation translation : translations)
-					{
-						translated = translation.translate(translated);
-					}
+					String translated = TranslationIndex.forTranslations(translations).translate(normal);
 
 					// also translate with our global list
 					if (threadTranslations != null)
 					{
-						for (Translation translation : threadTranslations)
-						{
-							translated = translation.translate(translated);
-						}
+						translated = TranslationIndex.forTranslations(threadTranslations).translate(translated);
 					}
 
 					// URL encode translated
@@ -736,19 +733,12 @@ public class XrefHelper
 						normal = decodeUrl(normal);
 
 						// translate the normal form
-						String translated = normal;
-						for (Translation translation : translations)
-						{
-							translated = translation.translate(translated);
-						}
+						String translated = TranslationIndex.forTranslations(translations).translate(normal);
 
 						// also translate with our global list
 						if (threadTranslations != null)
 						{
-							for (Translation translation : threadTranslations)
-							{
-								translated = translation.translate(translated);
-							}
+							translated = TranslationIndex.forTranslations(threadTranslations).translate(translated);
 						}
 
 						// if changed, replace
@@ -1017,13 +1007,13 @@ public class XrefHelper
 	}
 
 	/**
-	 * Create the embedded reference detection pattern. It creates four groups: 0-the entire match, 1- src|href, 2-the reference, 3-the terminating character.
+	 * Get the embedded reference detection pattern. It creates four groups: 0-the entire match, 1- src|href, 2-the reference, 3-the terminating character.
 	 * 
 	 * @return The Pattern.
 	 */
 	protected static Pattern getPattern()
 	{
-		return Pattern.compile("(src|href|value)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+		return EMBEDDED_REFERENCE_PATTERN;
 	}
 
 	/**
@@ -1526,7 +1516,7 @@ public class XrefHelper
 		List<Translation> threadTranslations = (List<Translation>) ThreadLocalManager.get(THREAD_TRANSLATIONS_KEY);
 		if (threadTranslations == null)
 		{
-			threadTranslations = new ArrayList<Translation>();
+			threadTranslations = new TranslationList();
 			ThreadLocalManager.set(THREAD_TRANSLATIONS_KEY, threadTranslations);
 		}
 
@@ -1541,7 +1531,7 @@ public class XrefHelper
 		// collect any that may need html body translation in a second pass
 		List<Reference> toTranslate = new ArrayList<Reference>();
 
-		List<Translation> rv = new ArrayList<Translation>();
+		List<Translation> rv = new TranslationList();
 		for (String refString : refs)
 		{
 			// if we have done this already in the thread, just skip it
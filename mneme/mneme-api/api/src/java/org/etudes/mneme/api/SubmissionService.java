@@ -27,6 +27,7 @@ package org.etudes.mneme.api;
 import java.util.Collection;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.zip.ZipOutputStream;
 
 /**
@@ -557,6 +558,18 @@ public interface SubmissionService extends SubmissionUnscoredQuestionService
 	 */
 	void rescoreSubmission(Assessment assessment) throws AssessmentPermissionException;
 
+	/**
+	 * Re-score the answers to some of the assessment's questions in any submissions that exist for this assessment.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @param questionIds
+	 *        The ids of the questions whose answers need re-scoring, or null for all.
+	 * @throws AssessmentPermissionException
+	 *         If the user does not have permission to re-score.
+	 */
+	void rescoreSubmission(Assessment assessment, Set<String> questionIds) throws AssessmentPermissionException;
+
 	/**
 	 * Retract (i.e. unrelease) all completed submissions to this assessment.
 	 * 
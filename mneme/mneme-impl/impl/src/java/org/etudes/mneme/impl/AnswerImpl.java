@@ -446,6 +446,16 @@ public class AnswerImpl implements Answer
 		return this.partId;
 	}
 
+	/**
+	 * Access the question id.
+	 *
+	 * @return The question id.
+	 */
+	protected String getQuestionId()
+	{
+		return this.questionId;
+	}
+
 	/**
 	 * Initialize the id.
 	 *
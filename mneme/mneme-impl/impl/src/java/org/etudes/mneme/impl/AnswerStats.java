@@ -0,0 +1,292 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.etudes.ambrosia.api.Context;
+import org.etudes.mneme.api.Answer;
+import org.etudes.mneme.api.Question;
+import org.etudes.mneme.api.Submission;
+
+/**
+ * AnswerStats holds the answer distribution for one question over a list of submissions: how many answered and unanswered, how often each
+ * answer value was given, by position, and how often each value pair (match - choice, position - choice) was given.<br />
+ * The stats for all questions are computed in one pass over the submissions, the first time any are asked for in a render, and kept in the
+ * context for the rest of the render.
+ */
+public class AnswerStats
+{
+	/**
+	 * The stats for each question, and the submissions they were computed from.
+	 */
+	protected static class Computed
+	{
+		/** The stats, keyed by question id. */
+		protected Map<String, AnswerStats> stats = new HashMap<String, AnswerStats>();
+
+		/** The submissions the stats were computed from. */
+		protected List<Submission> submissions = null;
+	}
+
+	/** The context key for the stats of the submissions being rendered. */
+	protected static final String CONTEXT_KEY = "mneme:answerStats";
+
+	/** The answer count for each value pair. */
+	protected Map<String, Integer> pairs = new HashMap<String, Integer>();
+
+	/** The answer count for each value (exact), by position. */
+	protected List<Map<String, Integer>> positions = new ArrayList<Map<String, Integer>>();
+
+	/** The answer count for each value (case folded), by position. */
+	protected List<Map<String, Integer>> positionsFolded = new ArrayList<Map<String, Integer>>();
+
+	/** The number of answers. */
+	protected int total = 0;
+
+	/** The number of unanswered answers. */
+	protected int unanswered = 0;
+
+	/** The number of times each value was given, in any position. */
+	protected Map<String, Integer> values = new HashMap<String, Integer>();
+
+	/**
+	 * Get the stats for the answers to this question in the complete, non-phantom submissions.
+	 * 
+	 * @param context
+	 *        The render context, where the stats for the submissions are kept.
+	 * @param question
+	 *        The question.
+	 * @param submissions
+	 *        The submissions.
+	 * @return The question's stats.
+	 */
+	public static AnswerStats forQuestion(Context context, Question question, List<Submission> submissions)
+	{
+		Computed computed = (Computed) context.get(CONTEXT_KEY);
+		if ((computed == null) || (computed.submissions != submissions))
+		{
+			computed = compute(submissions);
+			context.put(CONTEXT_KEY, computed);
+		}
+
+		AnswerStats rv = computed.stats.get(question.getId());
+		if (rv == null) rv = new AnswerStats();
+
+		return rv;
+	}
+
+	/**
+	 * Get how many answers gave this value pair: a match id and choice id (match), or a position and choice id (order).
+	 * 
+	 * @param first
+	 *        The first value of the pair.
+	 * @param second
+	 *        The second value of the pair.
+	 * @return The count.
+	 */
+	public int getPairCount(String first, String second)
+	{
+		if ((first == null) || (second == null)) return 0;
+
+		Integer rv = this.pairs.get(pairKey(first, second));
+		return (rv == null) ? 0 : rv.intValue();
+	}
+
+	/**
+	 * Get how many answers gave this value in this position.
+	 * 
+	 * @param position
+	 *        The 0 based position.
+	 * @param value
+	 *        The value.
+	 * @param caseSensitive
+	 *        if true, match the value's case, otherwise ignore case.
+	 * @return The count.
+	 */
+	public int getPositionCount(int position, String value, boolean caseSensitive)
+	{
+		if ((value == null) || (position < 0) || (position >= this.positions.size())) return 0;
+
+		Integer rv = caseSensitive ? this.positions.get(position).get(value) : this.positionsFolded.get(position).get(fold(value));
+		return (rv == null) ? 0 : rv.intValue();
+	}
+
+	/**
+	 * @return The number of answers.
+	 */
+	public int getTotal()
+	{
+		return this.total;
+	}
+
+	/**
+	 * @return The number of answers not answered.
+	 */
+	public int getUnanswered()
+	{
+		return this.unanswered;
+	}
+
+	/**
+	 * Get how many times this value was given, in any position.
+	 * 
+	 * @param value
+	 *        The value.
+	 * @return The count.
+	 */
+	public int getValueCount(String value)
+	{
+		Integer rv = this.values.get(value);
+		return (rv == null) ? 0 : rv.intValue();
+	}
+
+	/**
+	 * Count an answer.
+	 * 
+	 * @param a
+	 *        The answer.
+	 */
+	protected void add(Answer a)
+	{
+		this.total++;
+
+		if (!a.getIsAnswered())
+		{
+			this.unanswered++;
+			return;
+		}
+
+		String[] data = a.getTypeSpecificAnswer().getData();
+		if (data == null) return;
+
+		for (int i = 0; i < data.length; i++)
+		{
+			if (data[i] == null) continue;
+
+			increment(this.values, data[i]);
+
+			while (this.positions.size() <= i)
+			{
+				this.positions.add(new HashMap<String, Integer>());
+				this.positionsFolded.add(new HashMap<String, Integer>());
+			}
+			increment(this.positions.get(i), data[i]);
+			increment(this.positionsFolded.get(i), fold(data[i]));
+		}
+
+		// the data read as pairs
+		for (int i = 0; i + 1 < data.length; i += 2)
+		{
+			if ((data[i] == null) || (data[i + 1] == null)) continue;
+
+			increment(this.pairs, pairKey(data[i], data[i + 1]));
+		}
+	}
+
+	/**
+	 * Compute the stats for all the questions answered in the complete, non-phantom submissions, in one pass.
+	 * 
+	 * @param submissions
+	 *        The submissions.
+	 * @return The stats.
+	 */
+	protected static Computed compute(List<Submission> submissions)
+	{
+		Computed rv = new Computed();
+		rv.submissions = submissions;
+
+		for (Submission s : submissions)
+		{
+			if (s.getIsPhantom()) continue;
+			if (!s.getIsComplete()) continue;
+
+			// the submission's first answer to a question is the one that counts
+			Map<String, Answer> seen = new HashMap<String, Answer>();
+			for (Answer a : s.getAnswers())
+			{
+				String questionId = ((AnswerImpl) a).getQuestionId();
+				if (seen.containsKey(questionId)) continue;
+				seen.put(questionId, a);
+
+				AnswerStats stats = rv.stats.get(questionId);
+				if (stats == null)
+				{
+					stats = new AnswerStats();
+					rv.stats.put(questionId, stats);
+				}
+				stats.add(a);
+			}
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Fold the case of a value, so values that match with equalsIgnoreCase() fold to the same string.
+	 * 
+	 * @param value
+	 *        The value.
+	 * @return The folded value.
+	 */
+	protected static String fold(String value)
+	{
+		char[] chars = value.toCharArray();
+		for (int i = 0; i < chars.length; i++)
+		{
+			chars[i] = Character.toLowerCase(Character.toUpperCase(chars[i]));
+		}
+
+		return new String(chars);
+	}
+
+	/**
+	 * Count an occurrence of a key.
+	 * 
+	 * @param counts
+	 *        The counts.
+	 * @param key
+	 *        The key.
+	 */
+	protected static void increment(Map<String, Integer> counts, String key)
+	{
+		Integer count = counts.get(key);
+		counts.put(key, Integer.valueOf((count == null) ? 1 : count.intValue() + 1));
+	}
+
+	/**
+	 * Form the key for a value pair.
+	 * 
+	 * @param first
+	 *        The first value.
+	 * @param second
+	 *        The second value.
+	 * @return The key.
+	 */
+	protected static String pairKey(String first, String second)
+	{
+		return first.length() + ":" + first + second;
+	}
+}
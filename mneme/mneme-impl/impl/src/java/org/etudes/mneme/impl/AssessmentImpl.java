@@ -27,8 +27,10 @@ package org.etudes.mneme.impl;
 import java.util.Arrays;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -160,6 +162,9 @@ public class AssessmentImpl implements Assessment
 
 	protected Boolean randomAccess = Boolean.TRUE;
 
+	/** If a re-score is needed, the questions whose answers need it, or null for all of them. */
+	protected Set<String> rescoreQuestions = null;
+
 	protected String resultsEmail = null;
 
 	protected Date resultsSent = null;
@@ -663,6 +668,14 @@ public class AssessmentImpl implements Assessment
 		return this.needsRescore;
 	}
 
+	/**
+	 * @return If a re-score is needed, the ids of the questions whose answers need it, or null for all of them.
+	 */
+	public Set<String> getRescoreQuestions()
+	{
+		return this.rescoreQuestions;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1115,6 +1128,25 @@ public class AssessmentImpl implements Assessment
 	public void setNeedsRescore()
 	{
 		needsRescore = true;
+		rescoreQuestions = null;
+	}
+
+	/**
+	 * Set that we need a re-score of the answers to this question.
+	 * 
+	 * @param questionId
+	 *        The question id.
+	 */
+	public void setNeedsRescore(String questionId)
+	{
+		// start a list, unless we already need them all
+		if (!needsRescore)
+		{
+			needsRescore = true;
+			rescoreQuestions = new HashSet<String>();
+		}
+
+		if (rescoreQuestions != null) rescoreQuestions.add(questionId);
 	}
 
 	/**
@@ -1587,6 +1619,7 @@ public class AssessmentImpl implements Assessment
 	protected void initNeedsRescore(boolean needsRescore)
 	{
 		this.needsRescore = needsRescore;
+		this.rescoreQuestions = null;
 	}
 
 	/**
@@ -1830,6 +1863,7 @@ public class AssessmentImpl implements Assessment
 		this.questionGrouping = other.questionGrouping;
 		this.questionService = other.questionService;
 		this.needsRescore = other.needsRescore;
+		this.rescoreQuestions = (other.rescoreQuestions == null) ? null : new HashSet<String>(other.rescoreQuestions);
 		this.randomAccess = other.randomAccess;
 		this.shuffleChoicesOverride = other.shuffleChoicesOverride;
 		this.resultsEmail = other.resultsEmail;
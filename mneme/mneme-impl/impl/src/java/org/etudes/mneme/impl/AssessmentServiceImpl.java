@@ -79,6 +79,12 @@ public class AssessmentServiceImpl implements AssessmentService
 	/** Dependency: AttachmentService */
 	protected AttachmentService attachmentService = null;
 
+	/** The process-wide cache of published assessments. */
+	protected SharedCache cache = null;
+
+	/** Dependency: SharedCacheBus */
+	protected SharedCacheBus cacheBus = null;
+
 	/** Dependency: EventTrackingService */
 	protected EventTrackingService eventTrackingService = null;
 
@@ -447,6 +453,19 @@ public class AssessmentServiceImpl implements AssessmentService
 			return this.storage.clone((AssessmentImpl) rv);
 		}
 
+		// for process-wide caching
+		long version = 0;
+		if (this.cache != null)
+		{
+			version = this.cache.getVersion(key);
+			rv = (AssessmentImpl) this.cache.get(key);
+			if (rv != null)
+			{
+				// return a copy
+				return this.storage.clone(rv);
+			}
+		}
+
 		if (M_log.isDebugEnabled()) M_log.debug("getAssessment: " + id);
 
 		rv = this.storage.getAssessment(id);
@@ -454,6 +473,9 @@ public class AssessmentServiceImpl implements AssessmentService
 		// thread-local cache a copy
 		if (rv != null) this.threadLocalManager.set(key, this.storage.clone((AssessmentImpl) rv));
 
+		// process-wide cache a copy, if published
+		if ((rv != null) && (this.cache != null) && rv.getPublished()) this.cache.put(key, this.storage.clone(rv), version);
+
 		return rv;
 	}
 
@@ -608,7 +630,10 @@ public class AssessmentServiceImpl implements AssessmentService
 
 			storage.init();
 
-			M_log.info("init(): storage: " + this.storage + " preLoadCache: " + this.preLoadCache);
+			// process-wide cache, if configured
+			if (this.cacheBus != null) this.cache = this.cacheBus.getCache("assessment");
+
+			M_log.info("init(): storage: " + this.storage + " preLoadCache: " + this.preLoadCache + " shared cache: " + (this.cache != null));
 		}
 		catch (Throwable t)
 		{
@@ -681,7 +706,7 @@ public class AssessmentServiceImpl implements AssessmentService
 		this.submissionService.removeTestDriveSubmissions(assessment);
 
 		// clear the cache
-		this.threadLocalManager.set(cacheKey(assessment.getId()), null);
+		uncache(assessment.getId());
 
 		// retract the test from the gb
 		if (assessment.getIsValid() && assessment.getGrading().getGradebookIntegration() && assessment.getPublished())
@@ -809,7 +834,7 @@ public class AssessmentServiceImpl implements AssessmentService
 				if (M_log.isDebugEnabled()) M_log.debug("saveAssessment: deleting mint: " + assessment.getId());
 
 				// clear the cache
-				this.threadLocalManager.set(cacheKey(assessment.getId()), null);
+				uncache(assessment.getId());
 
 				this.storage.removeAssessment((AssessmentImpl) assessment);
 
@@ -871,6 +896,7 @@ public class AssessmentServiceImpl implements AssessmentService
 
 		// see if we need to re-score (and clear)
 		boolean rescore = assessment.getIsLocked() && ((AssessmentImpl) assessment).getNeedsRescore();
+		Set<String> rescoreQuestions = ((AssessmentImpl) assessment).getRescoreQuestions();
 		((AssessmentImpl) assessment).initNeedsRescore(false);
 
 		// see if the type changed (and clear)
@@ -1075,7 +1101,7 @@ public class AssessmentServiceImpl implements AssessmentService
 		// re-score the submissions if needed
 		if (rescore)
 		{
-			this.submissionService.rescoreSubmission(assessment);
+			this.submissionService.rescoreSubmission(assessment, rescoreQuestions);
 		}
 
 		// if the name or due date has changed, or we are releasing submissions, or we are now published,
@@ -1199,6 +1225,17 @@ public class AssessmentServiceImpl implements AssessmentService
 		attachmentService = service;
 	}
 
+	/**
+	 * Dependency: SharedCacheBus.
+	 * 
+	 * @param bus
+	 *        The SharedCacheBus.
+	 */
+	public void setCacheBus(SharedCacheBus bus)
+	{
+		cacheBus = bus;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -1209,6 +1246,9 @@ public class AssessmentServiceImpl implements AssessmentService
 
 		// TODO: security?
 		this.storage.setEvaluationSent(assessment.getId(), date);
+
+		// clear the cache
+		uncache(assessment.getId());
 	}
 
 	/**
@@ -1281,6 +1321,9 @@ public class AssessmentServiceImpl implements AssessmentService
 
 		// TODO: security?
 		this.storage.setResultsSent(assessment.getId(), date);
+
+		// clear the cache
+		uncache(assessment.getId());
 	}
 
 	/**
@@ -1580,7 +1623,7 @@ public class AssessmentServiceImpl implements AssessmentService
 	protected void makeLive(Assessment assessment)
 	{
 		// clear the cache
-		this.threadLocalManager.set(cacheKey(assessment.getId()), null);
+		uncache(assessment.getId());
 
 		this.storage.makeLive(assessment);
 	}
@@ -1597,6 +1640,9 @@ public class AssessmentServiceImpl implements AssessmentService
 		this.submissionService.removeTestDriveSubmissions(pool.getContext());
 
 		this.storage.removeDependency(pool);
+
+		// any of the cached assessments may have changed
+		if (this.cache != null) this.cache.invalidateAll();
 	}
 
 	/**
@@ -1611,6 +1657,9 @@ public class AssessmentServiceImpl implements AssessmentService
 		this.submissionService.removeTestDriveSubmissions(question.getContext());
 
 		this.storage.removeDependency(question);
+
+		// any of the cached assessments may have changed
+		if (this.cache != null) this.cache.invalidateAll();
 	}
 
 	/**
@@ -1663,9 +1712,22 @@ public class AssessmentServiceImpl implements AssessmentService
 		this.storage.saveAssessment(assessment);
 
 		// clear the cache
-		this.threadLocalManager.set(cacheKey(assessment.getId()), null);
+		uncache(assessment.getId());
 
 		// event
 		eventTrackingService.post(eventTrackingService.newEvent(event, getAssessmentReference(assessment.getId()), true));
 	}
-}
\ No newline at end of file
+
+	/**
+	 * Remove an assessment from the caches - thread-local, and process-wide on all app servers.
+	 * 
+	 * @param assessmentId
+	 *        The assessment id.
+	 */
+	protected void uncache(String assessmentId)
+	{
+		String key = cacheKey(assessmentId);
+		this.threadLocalManager.set(key, null);
+		if (this.cache != null) this.cache.invalidate(key);
+	}
+}
@@ -88,6 +88,8 @@ import org.etudes.mneme.api.TypeSpecificQuestion;
 import org.etudes.mneme.impl.EssayQuestionImpl.SubmissionType;
 import org.etudes.util.DateHelper;
 import org.etudes.util.TranslationImpl;
+import org.etudes.util.TranslationIndex;
+import org.etudes.util.TranslationList;
 import org.etudes.util.api.Translation;
 import org.sakaiproject.authz.api.SecurityAdvisor;
 import org.sakaiproject.component.api.ServerConfigurationService;
@@ -214,6 +216,16 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 
 	protected final static String PROP_UNIQUE_HOLDER = "attachment:unique";
 
+	/**
+	 * Pattern to find any src= or href= text.<br />
+	 * Groups: 0: the whole matching text 1: src|href 2: the string in the quotes 3: the terminator character
+	 */
+	protected static final Pattern EMBEDDED_REFERENCE_PATTERN = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])",
+			Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+	/** How many submissions to read at a time for a streamed spreadsheet. */
+	protected static final int EXPORT_PAGE_SIZE = 200;
+
 	/** The chunk size used when streaming (100k). */
 	protected static final int STREAM_BUFFER_SIZE = 102400;
 
@@ -256,6 +268,9 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 	/** Dependency: SiteService */
 	protected SiteService siteService = null;
 
+	/** Configuration: to stream the export summary and stats spreadsheets as .xlsx, or build them as .xls. */
+	protected boolean streamExports = false;
+
 	/** Dependency: SubmissionService */
 	protected SubmissionService submissionService = null;
 
@@ -577,7 +592,16 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 
 				fileName = fileName.replace(' ', '_');
 
-				props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, "application/vnd.ms-excel");
+				// streamed as .xlsx
+				if (this.streamExports)
+				{
+					if (fileName.endsWith(".xls")) fileName = fileName + "x";
+					props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, XlsxWriter.CONTENT_TYPE);
+				}
+				else
+				{
+					props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, "application/vnd.ms-excel");
+				}
 				props.addProperty("DAV:displayname", fileName);
 				props.addProperty(ResourceProperties.PROP_IS_COLLECTION, "FALSE");
 
@@ -631,7 +655,16 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 
 				fileName = fileName.replace(' ', '_');
 
-				props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, "application/vnd.ms-excel");
+				// streamed as .xlsx
+				if (this.streamExports)
+				{
+					if (fileName.endsWith(".xls")) fileName = fileName + "x";
+					props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, XlsxWriter.CONTENT_TYPE);
+				}
+				else
+				{
+					props.addProperty(ResourceProperties.PROP_CONTENT_TYPE, "application/vnd.ms-excel");
+				}
 				props.addProperty("DAV:displayname", fileName);
 				props.addProperty(ResourceProperties.PROP_IS_COLLECTION, "FALSE");
 
@@ -908,7 +941,7 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		List<Translation> threadTranslations = (List<Translation>) threadLocalManager.get(threadKey);
 		if (threadTranslations == null)
 		{
-			threadTranslations = new ArrayList<Translation>();
+			threadTranslations = new TranslationList();
 			threadLocalManager.set(threadKey, threadTranslations);
 		}
 
@@ -925,7 +958,7 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		List<Reference> toTranslate = new ArrayList<Reference>();
 
 		// collect translations
-		List<Translation> rv = new ArrayList<Translation>();
+		List<Translation> rv = new TranslationList();
 
 		for (String refString : resources)
 		{
@@ -1267,6 +1300,17 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		this.siteService = service;
 	}
 
+	/**
+	 * Set the stream exports setting
+	 *
+	 * @param value
+	 *        the string of the boolean for the stream exports setting.
+	 */
+	public void setStreamExports(String value)
+	{
+		this.streamExports = Boolean.valueOf(value);
+	}
+
 	/**
 	 * Dependency: SubmissionService.
 	 *
@@ -2089,6 +2133,33 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 			OutputStream out = null;
 			try
 			{
+				// stream the .xlsx
+				if (this.streamExports)
+				{
+					List<String> header = new ArrayList<String>();
+					List<Object[]> rows = collectResponses(assessment, header);
+					if (rows != null)
+					{
+						String contentType = (String) ref.getProperties().get(ResourceProperties.PROP_CONTENT_TYPE);
+						String disposition = "attachment; filename=\"" + (String) ref.getProperties().get("DAV:displayname") + "\"";
+						res.setContentType(contentType);
+						res.addHeader("Content-Disposition", disposition);
+
+						out = res.getOutputStream();
+						writeResponsesXlsx(out, header, rows);
+						out.flush();
+					}
+					else
+					{
+						res.setContentType("text/plain; charset=UTF-8");
+						out = res.getOutputStream();
+						String msg = this.messages.getFormattedMessage("nosub_msg", null);
+						out.write(msg.getBytes());
+						out.flush();
+					}
+					return;
+				}
+
 				HSSFWorkbook wb = new HSSFWorkbook();
 
 				if (createResponsesSheet(wb, assessment) != null)
@@ -2203,12 +2274,38 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 				throw new EntityPermissionException(sessionManager.getCurrentSessionUserId(), "access", ref.getReference());
 			}
 
-			List<Submission> submissions = this.submissionService.findAssessmentSubmissions(assessment,
-					SubmissionService.FindAssessmentSubmissionsSort.userName_a, Boolean.FALSE, null, null, null, null);
-
 			OutputStream out = null;
 			try
 			{
+				// stream the .xlsx, submissions read a page at a time
+				if (this.streamExports)
+				{
+					List<Submission> summaries = findAsmtStatsSummaries(assessment);
+					if (!summaries.isEmpty())
+					{
+						String contentType = (String) ref.getProperties().get(ResourceProperties.PROP_CONTENT_TYPE);
+						String disposition = "attachment; filename=\"" + (String) ref.getProperties().get("DAV:displayname") + "\"";
+						res.setContentType(contentType);
+						res.addHeader("Content-Disposition", disposition);
+
+						out = res.getOutputStream();
+						writeAsmtStatsXlsx(out, assessment, summaries);
+						out.flush();
+					}
+					else
+					{
+						res.setContentType("text/plain; charset=UTF-8");
+						out = res.getOutputStream();
+						String msg = this.messages.getFormattedMessage("nosub_msg", null);
+						out.write(msg.getBytes());
+						out.flush();
+					}
+					return;
+				}
+
+				List<Submission> submissions = this.submissionService.findAssessmentSubmissions(assessment,
+						SubmissionService.FindAssessmentSubmissionsSort.userName_a, Boolean.FALSE, null, null, null, null);
+
 				HSSFWorkbook wb = new HSSFWorkbook();
 
 				if (createAsmtStatsSheet(wb, submissions) != null)
@@ -2467,11 +2564,7 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		Set<String> rv = new HashSet<String>();
 		if (data == null) return rv;
 
-		// pattern to find any src= or href= text
-		// groups: 0: the whole matching text 1: src|href 2: the string in the quotes 3: the terminator character
-		Pattern p = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-
-		Matcher m = p.matcher(data);
+		Matcher m = EMBEDDED_REFERENCE_PATTERN.matcher(data);
 		while (m.find())
 		{
 			if (m.groupCount() == 3)
@@ -2645,11 +2738,7 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		if (data == null) return data;
 		if (translations == null) return data;
 
-		// pattern to find any src= or href= text
-		// groups: 0: the whole matching text 1: src|href 2: the string in the quotes 3: the terminator character
-		Pattern p = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-
-		Matcher m = p.matcher(data);
+		Matcher m = EMBEDDED_REFERENCE_PATTERN.matcher(data);
 		StringBuffer sb = new StringBuffer();
 
 		// process each "harvested" string (avoiding like strings that are not in src= or href= patterns)
@@ -2692,11 +2781,7 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 					normal = decodeUrl(normal);
 
 					// translate the normal form
-					String translated = normal;
-					for (Translation translation : translations)
-					{
-						translated = translation.translate(translated);
-					}
+					String translated = TranslationIndex.forTranslations(translations).translate(normal);
 
 					// URL encode translated
 					String escaped = EscapeRefUrl.escapeUrl(translated);
@@ -2886,7 +2971,6 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 	{
 		if (submissions == null || submissions.size() == 0) return null;
 
-		Map<String, Integer> userRowMap = new HashMap();
 		HSSFSheet sheet = workbook.createSheet("Submission responses");
 
 		HSSFRow headerRow = sheet.createRow((short) 0);
@@ -2895,61 +2979,120 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 		HSSFFont font = workbook.createFont();
 		font.setBoldweight(HSSFFont.BOLDWEIGHT_BOLD);
 		style.setFont(font);
-		// Printing header row and question text
-		HSSFCell cell0 = headerRow.createCell((short) (0));
-		cell0.setCellStyle(style);
-		cell0.setCellValue(this.messages.getFormattedMessage("asmt_name", null));
-		HSSFCell cell1 = headerRow.createCell((short) (1));
-		cell1.setCellStyle(style);
-		cell1.setCellValue(this.messages.getFormattedMessage("asmt_uname", null));
-		HSSFCell cell2 = headerRow.createCell((short) (2));
-		cell2.setCellStyle(style);
-		cell2.setCellValue(this.messages.getFormattedMessage("asmt_started", null));
-		HSSFCell cell3 = headerRow.createCell((short) (3));
-		cell3.setCellStyle(style);
-		cell3.setCellValue(this.messages.getFormattedMessage("asmt_finished", null));
-		HSSFCell cell4 = headerRow.createCell((short) (4));
-		cell4.setCellStyle(style);
-		cell4.setCellValue(this.messages.getFormattedMessage("asmt_status", null));
-		HSSFCell cell5 = headerRow.createCell((short) (5));
-		cell5.setCellStyle(style);
-		cell5.setCellValue(this.messages.getFormattedMessage("asmt_ascore", null));
-		HSSFCell cell6 = headerRow.createCell((short) (6));
-		cell6.setCellStyle(style);
-		cell6.setCellValue(this.messages.getFormattedMessage("asmt_final", null)+" "+this.messages.getFormattedMessage("asmt_outof", null)+" "+submissions.get(0).getAssessment().getPoints()+")");
-		HSSFCell cell7 = headerRow.createCell((short) (7));
-		cell7.setCellStyle(style);
-		cell7.setCellValue(this.messages.getFormattedMessage("asmt_released", null));
+		// Printing header row
+		List<String> header = getAsmtStatsHeader(submissions.get(0).getAssessment());
+		for (int i = 0; i < header.size(); i++)
+		{
+			HSSFCell cell = headerRow.createCell((short) i);
+			cell.setCellStyle(style);
+			cell.setCellValue(header.get(i));
+		}
 
 		for (Submission sub : submissions)
 		{
-			HSSFRow row;
-
 			int rowNum = sheet.getLastRowNum() + 1;
-			row = sheet.createRow(rowNum);
-			try
-			{
-				User user = this.userDirectoryService.getUser(sub.getUserId());
-				row.createCell((short) 0).setCellValue(user.getSortName());
-				row.createCell((short) 1).setCellValue(user.getDisplayId());
+			HSSFRow row = sheet.createRow(rowNum);
+			Object[] cells = getAsmtStatsRow(sub);
+			for (int i = 0; i < cells.length; i++)
+			{
+				if (cells[i] == null) continue;
+				if (cells[i] instanceof Number)
+					row.createCell((short) i).setCellValue(((Number) cells[i]).doubleValue());
+				else if (cells[i] instanceof Boolean)
+					row.createCell((short) i).setCellValue(((Boolean) cells[i]).booleanValue());
+				else
+					row.createCell((short) i).setCellValue(cells[i].toString());
 			}
-			catch (UserNotDefinedException e)
+		}
+
+		return workbook;
+	}
+
+	/**
+	 * Reads the submissions for the assessment stats spreadsheet as summaries, without their answers
+	 * @param assessment Assessment object
+	 * @return The submission summaries, in user name order
+	 */
+	List<Submission> findAsmtStatsSummaries(Assessment assessment)
+	{
+		return ((SubmissionServiceImpl) this.submissionService).selectAssessmentSubmissions(assessment,
+				SubmissionService.FindAssessmentSubmissionsSort.userName_a, Boolean.FALSE, null, null, null, true);
+	}
+
+	/**
+	 * Writes the assessment stats spreadsheet as a streamed .xlsx, reading the submissions in full a page at a time
+	 * @param out Stream to write to
+	 * @param assessment Assessment object
+	 * @param summaries The submission summaries, in order
+	 * @throws IOException
+	 */
+	void writeAsmtStatsXlsx(OutputStream out, Assessment assessment, List<Submission> summaries) throws IOException
+	{
+		XlsxWriter writer = new XlsxWriter(out);
+		writer.startSheet("Submission responses");
+		writer.addHeaderRow(getAsmtStatsHeader(assessment));
+
+		for (int start = 0; start < summaries.size(); start += EXPORT_PAGE_SIZE)
+		{
+			int end = Math.min(start + EXPORT_PAGE_SIZE, summaries.size());
+			List<Submission> page = ((SubmissionServiceImpl) this.submissionService).completeSummaries(summaries.subList(start, end), assessment);
+			for (Submission sub : page)
 			{
-				M_log.warn("createAsmtStatsSheet: " + e.toString());
+				writer.addRow(getAsmtStatsRow(sub));
 			}
-			if (sub.getStartDate() != null && !sub.getIsNonSubmit()) row.createCell((short) 2).setCellValue(formatDate(sub.getStartDate()));
-			if (sub.getSubmittedDate() != null && !sub.getIsNonSubmit()) row.createCell((short) 3).setCellValue(formatDate(sub.getSubmittedDate()));
-			row.createCell((short) 4).setCellValue(getSubmissionStatus(sub));
-			
-			if (sub.getAnswersAutoScore() != null) row.createCell((short) 5).setCellValue(sub.getAnswersAutoScore().floatValue());
-			if (sub.getTotalScore() != null) row.createCell((short) 6).setCellValue(sub.getTotalScore().floatValue());
-			row.createCell((short) 7).setCellValue(sub.getIsReleased().booleanValue());
+		}
 
+		writer.finish();
+	}
+
+	/**
+	 * Returns the header row for the assessment stats spreadsheet
+	 * @param assessment Assessment object
+	 * @return Header text for each column
+	 */
+	List<String> getAsmtStatsHeader(Assessment assessment)
+	{
+		List<String> header = new ArrayList<String>();
+		header.add(this.messages.getFormattedMessage("asmt_name", null));
+		header.add(this.messages.getFormattedMessage("asmt_uname", null));
+		header.add(this.messages.getFormattedMessage("asmt_started", null));
+		header.add(this.messages.getFormattedMessage("asmt_finished", null));
+		header.add(this.messages.getFormattedMessage("asmt_status", null));
+		header.add(this.messages.getFormattedMessage("asmt_ascore", null));
+		header.add(this.messages.getFormattedMessage("asmt_final", null) + " " + this.messages.getFormattedMessage("asmt_outof", null) + " "
+				+ assessment.getPoints() + ")");
+		header.add(this.messages.getFormattedMessage("asmt_released", null));
+		return header;
+	}
+
+	/**
+	 * Returns the assessment stats spreadsheet row for a submission
+	 * @param sub Submission object
+	 * @return Cell values (String, Float or Boolean, null for empty)
+	 */
+	Object[] getAsmtStatsRow(Submission sub)
+	{
+		Object[] row = new Object[8];
+		try
+		{
+			User user = this.userDirectoryService.getUser(sub.getUserId());
+			row[0] = user.getSortName();
+			row[1] = user.getDisplayId();
 		}
+		catch (UserNotDefinedException e)
+		{
+			M_log.warn("createAsmtStatsSheet: " + e.toString());
+		}
+		if (sub.getStartDate() != null && !sub.getIsNonSubmit()) row[2] = formatDate(sub.getStartDate());
+		if (sub.getSubmittedDate() != null && !sub.getIsNonSubmit()) row[3] = formatDate(sub.getSubmittedDate());
+		row[4] = getSubmissionStatus(sub);
 
-		return workbook;
+		if (sub.getAnswersAutoScore() != null) row[5] = Float.valueOf(sub.getAnswersAutoScore().floatValue());
+		if (sub.getTotalScore() != null) row[6] = Float.valueOf(sub.getTotalScore().floatValue());
+		row[7] = sub.getIsReleased();
+		return row;
 	}
-	
+
 	/**
 	 * Returns submission status such as auto, late etc
 	 * @param sub Submission object
@@ -3833,15 +3976,77 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 	 * @return Spreadsheet with Export summary
 	 */
 	HSSFSheet createResponsesSheet(HSSFWorkbook workbook, Assessment assessment)
+	{
+		List<String> header = new ArrayList<String>();
+		List<Object[]> rows = collectResponses(assessment, header);
+		if (rows == null) return null;
+
+		HSSFSheet sheet = workbook.createSheet("Submission responses");
+
+		HSSFCellStyle style = workbook.createCellStyle();
+		HSSFFont font = workbook.createFont();
+		font.setBoldweight(HSSFFont.BOLDWEIGHT_BOLD);
+		style.setFont(font);
+		// Printing header row and question text
+		HSSFRow headerRow = sheet.createRow((short) 0);
+		for (int i = 0; i < header.size(); i++)
+		{
+			HSSFCell cell = headerRow.createCell((short) i);
+			cell.setCellStyle(style);
+			cell.setCellValue(header.get(i));
+		}
+
+		int rowNum = 1;
+		for (Object[] cells : rows)
+		{
+			HSSFRow row = sheet.createRow(rowNum++);
+			for (int i = 0; i < cells.length; i++)
+			{
+				if (cells[i] == null) continue;
+				if (cells[i] instanceof Number)
+					row.createCell((short) i).setCellValue(((Number) cells[i]).doubleValue());
+				else
+					row.createCell((short) i).setCellValue(cells[i].toString());
+			}
+		}
+
+		return sheet;
+	}
+
+	/**
+	 * Writes the export summary spreadsheet as a streamed .xlsx
+	 * @param out Stream to write to
+	 * @param header Header row
+	 * @param rows Rows of cell values, from collectResponses()
+	 * @throws IOException
+	 */
+	void writeResponsesXlsx(OutputStream out, List<String> header, List<Object[]> rows) throws IOException
+	{
+		XlsxWriter writer = new XlsxWriter(out);
+		writer.startSheet("Submission responses");
+		writer.addHeaderRow(header);
+		for (Object[] cells : rows)
+		{
+			writer.addRow(cells);
+		}
+		writer.finish();
+	}
+
+	/**
+	 * Captures the responses for the export summary, a row for each submission and a column for each question
+	 * @param assessment Assessment object
+	 * @param header Header row (user columns and question text) is added here
+	 * @return Rows of cell values (String or Double, null for empty), or null if there are no responses
+	 */
+	List<Object[]> collectResponses(Assessment assessment, List<String> header)
 	{
 		boolean isSurvey;
 		if (assessment.getType() == AssessmentType.survey) isSurvey = true;
 		else isSurvey = false;
-		
-		Map<String, Integer> userRowMap = new HashMap();
-		HSSFSheet sheet = workbook.createSheet("Submission responses");
 
-		HSSFRow headerRow = sheet.createRow((short) 0);
+		Map<String, Object[]> userRows = new HashMap<String, Object[]>();
+		List<Object[]> rows = new ArrayList<Object[]>();
+
 		AssessmentParts part = assessment.getParts();
 
 		List<Part> parts = part.getParts();
@@ -3855,37 +4060,19 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 			questions.addAll(questionsUsed);
 		}
 
-		HSSFCellStyle style = workbook.createCellStyle();
-		HSSFFont font = workbook.createFont();
-		font.setBoldweight(HSSFFont.BOLDWEIGHT_BOLD);
-		style.setFont(font);
-		// Printing header row and question text
+		// header row and question text
 		if (!isSurvey)
 		{
-			HSSFCell cell0 = headerRow.createCell((short) (0));
-			cell0.setCellStyle(style);
-			cell0.setCellValue(this.messages.getFormattedMessage("export_lastname", null));
-			HSSFCell cell1 = headerRow.createCell((short) (1));
-			cell1.setCellStyle(style);
-			cell1.setCellValue(this.messages.getFormattedMessage("export_firstname", null));
-			HSSFCell cell2 = headerRow.createCell((short) (2));
-			cell2.setCellStyle(style);
-			cell2.setCellValue(this.messages.getFormattedMessage("export_username", null));
-
-			HSSFCell cell3 = headerRow.createCell((short) (3));
-			cell3.setCellStyle(style);
-			cell3.setCellValue(this.messages.getFormattedMessage("export_score", null));
+			header.add(this.messages.getFormattedMessage("export_lastname", null));
+			header.add(this.messages.getFormattedMessage("export_firstname", null));
+			header.add(this.messages.getFormattedMessage("export_username", null));
+			header.add(this.messages.getFormattedMessage("export_score", null));
 		}
 		else
 		{
-			HSSFCell cell0 = headerRow.createCell((short) (0));
-			cell0.setCellStyle(style);
-			cell0.setCellValue(this.messages.getFormattedMessage("export_user", null));
+			header.add(this.messages.getFormattedMessage("export_user", null));
 		}
 
-		int i;
-		if (isSurvey) i = 1;
-		else i = 4;
 		for (Iterator it = questions.iterator(); it.hasNext();)
 		{
 			Question q = (Question) it.next();
@@ -3922,15 +4109,14 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 			}
 			if (quest_desc != null)
 			{
-				HSSFCell cell = headerRow.createCell((short) (i++));
-				cell.setCellStyle(style);
-				cell.setCellValue(quest_desc);
+				header.add(quest_desc);
 			}
 		}
 
 		int j;
 		if (isSurvey) j = 1;
 		else j = 4;
+		int width = j + questions.size();
 		boolean answersExist = false;
 		for (Iterator it = questions.iterator(); it.hasNext();)
 		{
@@ -3963,182 +4149,189 @@ public class AttachmentServiceImpl implements AttachmentService, EntityProducer
 				answersExist = true;
 			for (Answer answer : answers)
 			{
-				HSSFRow row;
 				try
 				{
 					String userId = answer.getSubmission().getUserId();
 					String subId = answer.getSubmission().getId();
-					if (userRowMap == null || userRowMap.size() == 0 || (userRowMap.get(userId + subId) == null))
+					Object[] row = userRows.get(userId + subId);
+					if (row == null)
 					{
-						int rowNum = sheet.getLastRowNum() + 1;
-						row = sheet.createRow(rowNum);
+						row = new Object[width];
+						rows.add(row);
 						if (!isSurvey)
 						{
 							User user = this.userDirectoryService.getUser(userId);
-							row.createCell((short) 0).setCellValue(user.getLastName());
-							row.createCell((short) 1).setCellValue(user.getFirstName());
-							row.createCell((short) 2).setCellValue(user.getDisplayId());
-							row.createCell((short) 3).setCellValue(roundTwoDecimals(answer.getSubmission().getTotalScore().floatValue()));
+							row[0] = user.getLastName();
+							row[1] = user.getFirstName();
+							row[2] = user.getDisplayId();
+							row[3] = Double.valueOf(roundTwoDecimals(answer.getSubmission().getTotalScore().floatValue()));
 						}
 						else
 						{
-							row.createCell((short) 0).setCellValue(this.messages.getFormattedMessage("export_user", null));
+							row[0] = this.messages.getFormattedMessage("export_user", null);
 						}
-						 userRowMap.put(userId + subId, new Integer(rowNum));
-					}
-					else
-					{
-						row = sheet.getRow(userRowMap.get(userId + subId).intValue());
+						userRows.put(userId + subId, row);
 					}
 
-					TypeSpecificAnswer a = answer.getTypeSpecificAnswer();
-					if (a instanceof EssayAnswerImpl)
-					{
-						EssayAnswerImpl essay = (EssayAnswerImpl) a;
-						row.createCell((short) j).setCellValue(stripHtml(essay.getAnswerData()));
-					}
-					if (a instanceof TrueFalseAnswerImpl)
-					{
-						TrueFalseAnswerImpl tf = (TrueFalseAnswerImpl) a;
-						if (!isSurvey && tf.getCompletelyCorrect().booleanValue()) row.createCell((short) j).setCellValue("*"+tf.getAnswer()+"*");
-						else row.createCell((short) j).setCellValue(tf.getAnswer());
-					}
-					if (a instanceof MultipleChoiceAnswerImpl)
-					{
-						MultipleChoiceAnswerImpl mc = (MultipleChoiceAnswerImpl) a;
-						List<MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice> choiceList = ((MultipleChoiceQuestionImpl) mc.getAnswerObject()
-								.getQuestion().getTypeSpecificQuestion()).getChoicesAsAuthored();
-						String[] ansArray = mc.getAnswers();
-						String[] choiceArray = new String[mc.getAnswers().length];
-						Set<Integer> correctAnswers = ((MultipleChoiceQuestionImpl) mc.getAnswerObject().getQuestion().getTypeSpecificQuestion())
-								.getCorrectAnswerSet();
-
-						int l = 0;
-						for (Iterator chIt = choiceList.iterator(); chIt.hasNext();)
-						{
-							MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice mq = (MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice) chIt
-									.next();
-
-							if (Arrays.asList(ansArray).contains(mq.getId()))
-							{
-								if (!isSurvey && correctAnswers.contains(Integer.parseInt(mq.getId())))
-								{
-									choiceArray[l] = "*" + stripHtml(mq.getText().trim()) + "*";
-								}
-								else
-								{
-									choiceArray[l] = stripHtml(mq.getText().trim());
-								}
-								l++;
-							}
-						}
+					String response = formatResponse(answer.getTypeSpecificAnswer(), isSurvey);
+					if (response != null) row[j] = response;
+				}
+				catch (UserNotDefinedException e)
+				{
+					M_log.warn("collectResponses: " + e.toString());
+				}
+			}
+			j = j + 1;
+		}
+		if (!answersExist) return null;
+		return rows;
+	}
 
-						row.createCell((short) j).setCellValue(getCommaAnswers(choiceArray));
-					}
-					if (a instanceof OrderAnswerImpl)
-					{
-						OrderAnswerImpl oa = (OrderAnswerImpl) a;
-						List<OrderQuestionImpl.OrderQuestionChoice> choiceList = ((OrderQuestionImpl) oa.getAnswerObject()
-								.getQuestion().getTypeSpecificQuestion()).getChoicesAsAuthored();
-						Map<String, Value>  ansMap = oa.getAnswer();
-						String[] choiceArray = new String[ansMap.size()];
-						int l = 0;
-						for (Map.Entry entry : ansMap.entrySet())
-						{
-							String entryId = (String) entry.getKey();
-							// Value value = ansMap.get(oqc.getId());
-							if (!isSurvey && entry.getValue() != null && ((Value)entry.getValue()).getValue() != null && ((Value)entry.getValue()).getValue().equals(entryId)/*((OrderQuestionImpl.OrderQuestionChoice) choiceList.get(l)).getId().equals(entryId)*/)
-							{
-								choiceArray[l] = "*" + stripHtml(getChoiceText(choiceList, entryId).trim()) + "*";
-							}
-							else
-							{
-								if (((Value)entry.getValue()).getValue() == null)
-								{
-								    choiceArray[l] = "Select";
-								}
-								else
-								{
-									choiceArray[l] = stripHtml(getChoiceText(choiceList, entryId).trim());
-								}
-							}
+	/**
+	 * Formats a response for the export summary, marking correct answers with * if not a survey
+	 * @param a Answer object
+	 * @param isSurvey true if the assessment is a survey
+	 * @return Response text, or null if there is none to show
+	 */
+	String formatResponse(TypeSpecificAnswer a, boolean isSurvey)
+	{
+		if (a instanceof EssayAnswerImpl)
+		{
+			EssayAnswerImpl essay = (EssayAnswerImpl) a;
+			return stripHtml(essay.getAnswerData());
+		}
+		if (a instanceof TrueFalseAnswerImpl)
+		{
+			TrueFalseAnswerImpl tf = (TrueFalseAnswerImpl) a;
+			if (!isSurvey && tf.getCompletelyCorrect().booleanValue()) return "*"+tf.getAnswer()+"*";
+			else return tf.getAnswer();
+		}
+		if (a instanceof MultipleChoiceAnswerImpl)
+		{
+			MultipleChoiceAnswerImpl mc = (MultipleChoiceAnswerImpl) a;
+			List<MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice> choiceList = ((MultipleChoiceQuestionImpl) mc.getAnswerObject()
+					.getQuestion().getTypeSpecificQuestion()).getChoicesAsAuthored();
+			String[] ansArray = mc.getAnswers();
+			String[] choiceArray = new String[mc.getAnswers().length];
+			Set<Integer> correctAnswers = ((MultipleChoiceQuestionImpl) mc.getAnswerObject().getQuestion().getTypeSpecificQuestion())
+					.getCorrectAnswerSet();
 
-							l++;
-						}
+			int l = 0;
+			for (Iterator chIt = choiceList.iterator(); chIt.hasNext();)
+			{
+				MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice mq = (MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice) chIt
+						.next();
 
-						row.createCell((short) j).setCellValue(getCommaAnswers(choiceArray));
-					}
-					if (a instanceof FillBlanksAnswerImpl)
-					{
-						FillBlanksAnswerImpl fb = (FillBlanksAnswerImpl) a;
-						row.createCell((short) j).setCellValue(stripHtml(getCommaAnswers(checkCorrectFill(fb, isSurvey))));
-					}
-					if (a instanceof FillInlineAnswerImpl)
+				if (Arrays.asList(ansArray).contains(mq.getId()))
+				{
+					if (!isSurvey && correctAnswers.contains(Integer.parseInt(mq.getId())))
 					{
-						FillInlineAnswerImpl fi = (FillInlineAnswerImpl) a;
-						row.createCell((short) j).setCellValue(stripHtml(getCommaAnswers(checkCorrectFillInline(fi, isSurvey))));
+						choiceArray[l] = "*" + stripHtml(mq.getText().trim()) + "*";
 					}
-					if (a instanceof LikertScaleAnswerImpl)
+					else
 					{
-						LikertScaleAnswerImpl ls = (LikertScaleAnswerImpl) a;
-						LikertScaleQuestionImpl lsq = (LikertScaleQuestionImpl) ls.getAnswerObject().getQuestion().getTypeSpecificQuestion();
-						List<LikertScaleQuestionImpl.LikertScaleQuestionChoice> choiceList = lsq.getChoices();
-						for (Iterator chIt = choiceList.iterator(); chIt.hasNext();)
-						{
-							LikertScaleQuestionImpl.LikertScaleQuestionChoice lqc = (LikertScaleQuestionImpl.LikertScaleQuestionChoice) chIt.next();
-							if (lqc.getId().equals(ls.getAnswer()))
-							{
-								row.createCell((short) j).setCellValue(stripHtml(lqc.getText()));
-								break;
-							}
-						}
+						choiceArray[l] = stripHtml(mq.getText().trim());
 					}
-					if (a instanceof MatchAnswerImpl)
-					{
-						MatchAnswerImpl ma = (MatchAnswerImpl) a;
-						Map matchMap = (LinkedHashMap) ma.getAnswer();
-						Iterator it2 = matchMap.entrySet().iterator();
-						StringBuffer matchStrBuf = new StringBuffer();
+					l++;
+				}
+			}
 
-						List choiceList = ((MatchQuestionImpl) ma.getAnswerObject().getQuestion().getTypeSpecificQuestion()).getPairsForDelivery();
-						while (it2.hasNext())
-						{
-							Map.Entry entry = (Map.Entry) it2.next();
-							String key = (String) entry.getKey();
-							String value = (String) ((Value) entry.getValue()).getValue();
-							String matchVal = fetchName(choiceList, key, true);
-							boolean correctMatch = checkCorrectMatch(choiceList, key, value);
-							if (!isSurvey && correctMatch) matchStrBuf.append("*");
-							matchStrBuf.append(stripHtml(matchVal.trim()));
-							matchStrBuf.append("->");
-							String choiceVal = fetchName(choiceList, value, false);
-							if (choiceVal == null) matchStrBuf.append(this.messages.getFormattedMessage("nosel_made", null));
-							else matchStrBuf.append(stripHtml(choiceVal.trim()));
-							
-							if (!isSurvey && correctMatch) matchStrBuf.append("*");
-							matchStrBuf.append(", ");
-						}
-						if (matchStrBuf.length() > 0 && matchStrBuf.charAt(matchStrBuf.length() - 2) == ',')
-						{
-							String matchStrBufTrim = matchStrBuf.substring(0, matchStrBuf.length() - 2);
-							row.createCell((short) j).setCellValue(stripHtml(matchStrBufTrim));
-						}
+			return getCommaAnswers(choiceArray);
+		}
+		if (a instanceof OrderAnswerImpl)
+		{
+			OrderAnswerImpl oa = (OrderAnswerImpl) a;
+			List<OrderQuestionImpl.OrderQuestionChoice> choiceList = ((OrderQuestionImpl) oa.getAnswerObject()
+					.getQuestion().getTypeSpecificQuestion()).getChoicesAsAuthored();
+			Map<String, Value>  ansMap = oa.getAnswer();
+			String[] choiceArray = new String[ansMap.size()];
+			int l = 0;
+			for (Map.Entry entry : ansMap.entrySet())
+			{
+				String entryId = (String) entry.getKey();
+				// Value value = ansMap.get(oqc.getId());
+				if (!isSurvey && entry.getValue() != null && ((Value)entry.getValue()).getValue() != null && ((Value)entry.getValue()).getValue().equals(entryId)/*((OrderQuestionImpl.OrderQuestionChoice) choiceList.get(l)).getId().equals(entryId)*/)
+				{
+					choiceArray[l] = "*" + stripHtml(getChoiceText(choiceList, entryId).trim()) + "*";
+				}
+				else
+				{
+					if (((Value)entry.getValue()).getValue() == null)
+					{
+					    choiceArray[l] = "Select";
 					}
-					if (a instanceof TaskAnswerImpl)
+					else
 					{
-						TaskAnswerImpl ta = (TaskAnswerImpl) a;
-						row.createCell((short) j).setCellValue(stripHtml(ta.getAnswerData()));
+						choiceArray[l] = stripHtml(getChoiceText(choiceList, entryId).trim());
 					}
 				}
-				catch (UserNotDefinedException e)
+
+				l++;
+			}
+
+			return getCommaAnswers(choiceArray);
+		}
+		if (a instanceof FillBlanksAnswerImpl)
+		{
+			FillBlanksAnswerImpl fb = (FillBlanksAnswerImpl) a;
+			return stripHtml(getCommaAnswers(checkCorrectFill(fb, isSurvey)));
+		}
+		if (a instanceof FillInlineAnswerImpl)
+		{
+			FillInlineAnswerImpl fi = (FillInlineAnswerImpl) a;
+			return stripHtml(getCommaAnswers(checkCorrectFillInline(fi, isSurvey)));
+		}
+		if (a instanceof LikertScaleAnswerImpl)
+		{
+			LikertScaleAnswerImpl ls = (LikertScaleAnswerImpl) a;
+			LikertScaleQuestionImpl lsq = (LikertScaleQuestionImpl) ls.getAnswerObject().getQuestion().getTypeSpecificQuestion();
+			List<LikertScaleQuestionImpl.LikertScaleQuestionChoice> choiceList = lsq.getChoices();
+			for (Iterator chIt = choiceList.iterator(); chIt.hasNext();)
+			{
+				LikertScaleQuestionImpl.LikertScaleQuestionChoice lqc = (LikertScaleQuestionImpl.LikertScaleQuestionChoice) chIt.next();
+				if (lqc.getId().equals(ls.getAnswer()))
 				{
-					M_log.warn("createResponsesSheet: " + e.toString());
+					return stripHtml(lqc.getText());
 				}
 			}
-			j = j + 1;
 		}
-		if (!answersExist) return null;
-		return sheet;
+		if (a instanceof MatchAnswerImpl)
+		{
+			MatchAnswerImpl ma = (MatchAnswerImpl) a;
+			Map matchMap = (LinkedHashMap) ma.getAnswer();
+			Iterator it2 = matchMap.entrySet().iterator();
+			StringBuffer matchStrBuf = new StringBuffer();
+
+			List choiceList = ((MatchQuestionImpl) ma.getAnswerObject().getQuestion().getTypeSpecificQuestion()).getPairsForDelivery();
+			while (it2.hasNext())
+			{
+				Map.Entry entry = (Map.Entry) it2.next();
+				String key = (String) entry.getKey();
+				String value = (String) ((Value) entry.getValue()).getValue();
+				String matchVal = fetchName(choiceList, key, true);
+				boolean correctMatch = checkCorrectMatch(choiceList, key, value);
+				if (!isSurvey && correctMatch) matchStrBuf.append("*");
+				matchStrBuf.append(stripHtml(matchVal.trim()));
+				matchStrBuf.append("->");
+				String choiceVal = fetchName(choiceList, value, false);
+				if (choiceVal == null) matchStrBuf.append(this.messages.getFormattedMessage("nosel_made", null));
+				else matchStrBuf.append(stripHtml(choiceVal.trim()));
+				
+				if (!isSurvey && correctMatch) matchStrBuf.append("*");
+				matchStrBuf.append(", ");
+			}
+			if (matchStrBuf.length() > 0 && matchStrBuf.charAt(matchStrBuf.length() - 2) == ',')
+			{
+				String matchStrBufTrim = matchStrBuf.substring(0, matchStrBuf.length() - 2);
+				return stripHtml(matchStrBufTrim);
+			}
+		}
+		if (a instanceof TaskAnswerImpl)
+		{
+			TaskAnswerImpl ta = (TaskAnswerImpl) a;
+			return stripHtml(ta.getAnswerData());
+		}
+		return null;
 	}
 
 	/**
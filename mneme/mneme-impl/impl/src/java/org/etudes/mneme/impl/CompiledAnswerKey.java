@@ -0,0 +1,326 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * CompiledAnswerKey holds the correct answers of a fill-in question, each compiled once into an entry that can check a response with set lookups
+ * and pre-compiled wild card patterns, instead of re-parsing the correct answer pattern for every response.<br />
+ * A key is made from the question text and the settings that change what is correct, and is not changed after; the question makes a new key
+ * when any of them changes.
+ */
+public class CompiledAnswerKey
+{
+	/**
+	 * Entry checks responses against one correct answer pattern (with option bars and wild cards, or a numeric value or range).
+	 */
+	public static class Entry
+	{
+		/** If we are case sensitive. */
+		protected final boolean caseSensitive;
+
+		/** The alternatives without wild cards, case folded if we are not case sensitive. */
+		protected final Set<String> exact = new HashSet<String>();
+
+		/** The correct answer pattern. */
+		protected final String pattern;
+
+		/** The numeric range, low and high, or null if the response is textual or the pattern is not numeric. */
+		protected final float[] range;
+
+		/** If the response is textual, not numeric. */
+		protected final boolean textual;
+
+		/** The alternatives with wild cards, compiled. */
+		protected final List<Pattern> wild = new ArrayList<Pattern>();
+
+		/**
+		 * Construct.
+		 * 
+		 * @param pattern
+		 *        The correct answer pattern.
+		 * @param caseSensitive
+		 *        if we are to be case sensitive.
+		 * @param textual
+		 *        if the response is to be textual, not numeric.
+		 */
+		public Entry(String pattern, boolean caseSensitive, boolean textual)
+		{
+			this.pattern = pattern;
+			this.caseSensitive = caseSensitive;
+			this.textual = textual;
+			this.range = textual ? null : compileRange(pattern);
+
+			if (textual) compileAlternatives(pattern);
+		}
+
+		/**
+		 * @return The correct answer pattern.
+		 */
+		public String getPattern()
+		{
+			return this.pattern;
+		}
+
+		/**
+		 * Check a response.
+		 * 
+		 * @param answer
+		 *        The response, already trimmed inside and out.
+		 * @return true if the response is correct, false if not.
+		 */
+		public boolean matches(String answer)
+		{
+			if (!this.textual) return inRange(answer);
+
+			if (this.exact.contains(this.caseSensitive ? answer : fold(answer))) return true;
+
+			for (Pattern p : this.wild)
+			{
+				if (p.matcher(answer).matches()) return true;
+			}
+
+			return false;
+		}
+
+		/**
+		 * Sort the pattern's alternatives into the exact set and the compiled wild card patterns.
+		 * 
+		 * @param pattern
+		 *        The correct answer pattern.
+		 */
+		protected void compileAlternatives(String pattern)
+		{
+			String[] valid = pattern.split("\\|");
+			for (String test : valid)
+			{
+				// ignore leading and trailing white space
+				test = test.replace("&nbsp;", " ").trim();
+
+				if (test.indexOf('*') == -1)
+				{
+					this.exact.add(this.caseSensitive ? test : fold(test));
+					continue;
+				}
+
+				// quote all non-wildcards, changing the wildcard "*" into a regex ".+"
+				StringBuilder regex = new StringBuilder();
+				String[] parts = test.replaceAll("\\*", "|*|").split("\\|");
+				for (String part : parts)
+				{
+					if ("*".equals(part))
+					{
+						regex.append(".+");
+					}
+					else
+					{
+						regex.append(Pattern.quote(part));
+					}
+				}
+
+				this.wild.add(Pattern.compile(regex.toString(), ((!this.caseSensitive) ? Pattern.CASE_INSENSITIVE : 0)));
+			}
+		}
+
+		/**
+		 * Parse the pattern as a numeric value, or a range of two values separated by a bar.
+		 * 
+		 * @param pattern
+		 *        The correct answer pattern.
+		 * @return The range, low and high, or null if the pattern is not numeric.
+		 */
+		protected float[] compileRange(String pattern)
+		{
+			// allow dot or comma for decimal point
+			String correct = pattern.replace(',', '.');
+
+			try
+			{
+				float[] rv = new float[2];
+				if (correct.indexOf("|") != -1)
+				{
+					String[] parts = correct.split("\\|");
+					if (parts.length < 2) return null;
+
+					rv[0] = Float.parseFloat(parts[0].replace("&nbsp;", " ").trim());
+					rv[1] = Float.parseFloat(parts[1].replace("&nbsp;", " ").trim());
+
+					// make sure [0] <= [1]
+					if (rv[0] > rv[1])
+					{
+						float hold = rv[0];
+						rv[0] = rv[1];
+						rv[1] = hold;
+					}
+				}
+				else
+				{
+					rv[0] = rv[1] = Float.parseFloat(correct.replace("&nbsp;", " ").trim());
+				}
+
+				return rv;
+			}
+			catch (NumberFormatException e)
+			{
+				return null;
+			}
+		}
+
+		/**
+		 * Check a numeric response against the range.
+		 * 
+		 * @param answer
+		 *        The response.
+		 * @return true if the response is a number in the range, false if not.
+		 */
+		protected boolean inRange(String answer)
+		{
+			if (this.range == null) return false;
+
+			try
+			{
+				float value = Float.parseFloat(answer.replace(',', '.'));
+				return (value >= this.range[0]) && (value <= this.range[1]);
+			}
+			catch (NumberFormatException e)
+			{
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Fold the upper case ASCII letters to lower case - the same folding Pattern.CASE_INSENSITIVE does, so the exact set and the wild card
+	 * patterns agree on what case insensitive means.
+	 * 
+	 * @param source
+	 *        The source string.
+	 * @return The folded string.
+	 */
+	protected static String fold(String source)
+	{
+		char[] chars = null;
+		for (int i = 0; i < source.length(); i++)
+		{
+			char c = source.charAt(i);
+			if ((c >= 'A') && (c <= 'Z'))
+			{
+				if (chars == null) chars = source.toCharArray();
+				chars[i] = (char) (c + ('a' - 'A'));
+			}
+		}
+
+		return (chars == null) ? source : new String(chars);
+	}
+
+	/** If we are case sensitive. */
+	protected final boolean caseSensitive;
+
+	/** The correct answers, one for each fill-in. */
+	protected final List<String> correctAnswers;
+
+	/** The compiled entry for each correct answer. */
+	protected final List<Entry> entries;
+
+	/** If the question was a survey. */
+	protected final boolean survey;
+
+	/** The question text the key was made from. */
+	protected final String text;
+
+	/** If the response is textual, not numeric. */
+	protected final boolean textual;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param text
+	 *        The question text the correct answers were parsed from.
+	 * @param survey
+	 *        if the question is a survey.
+	 * @param caseSensitive
+	 *        if we are to be case sensitive.
+	 * @param textual
+	 *        if the response is to be textual, not numeric.
+	 * @param correctAnswers
+	 *        The correct answers, one for each fill-in.
+	 */
+	public CompiledAnswerKey(String text, boolean survey, boolean caseSensitive, boolean textual, List<String> correctAnswers)
+	{
+		this.text = text;
+		this.survey = survey;
+		this.caseSensitive = caseSensitive;
+		this.textual = textual;
+		this.correctAnswers = Collections.unmodifiableList(new ArrayList<String>(correctAnswers));
+
+		List<Entry> entries = new ArrayList<Entry>(correctAnswers.size());
+		for (String correct : correctAnswers)
+		{
+			entries.add(new Entry(correct, caseSensitive, textual));
+		}
+		this.entries = Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * @return The correct answers, one for each fill-in (read only).
+	 */
+	public List<String> getCorrectAnswers()
+	{
+		return this.correctAnswers;
+	}
+
+	/**
+	 * @return The compiled entry for each correct answer (read only).
+	 */
+	public List<Entry> getEntries()
+	{
+		return this.entries;
+	}
+
+	/**
+	 * Check if this key was made from this question text and settings.
+	 * 
+	 * @param text
+	 *        The question text.
+	 * @param survey
+	 *        if the question is a survey.
+	 * @param caseSensitive
+	 *        if we are to be case sensitive.
+	 * @param textual
+	 *        if the response is to be textual, not numeric.
+	 * @return true if the key is current for these, false if it needs to be made again.
+	 */
+	public boolean isFor(String text, boolean survey, boolean caseSensitive, boolean textual)
+	{
+		if ((survey != this.survey) || (caseSensitive != this.caseSensitive) || (textual != this.textual)) return false;
+		if (text == this.text) return true;
+
+		return (text != null) && text.equals(this.text);
+	}
+}
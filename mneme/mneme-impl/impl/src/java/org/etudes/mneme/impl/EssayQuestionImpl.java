@@ -140,6 +140,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// submission type
 		Selection type = uiService.newSelection();
 		type.setProperty(this.uiService.newPropertyReference().setReference("question.typeSpecificQuestion.submissionType"));
@@ -158,7 +161,7 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 		Section modelAnswerSection = this.uiService.newSection();
 		modelAnswerSection.add(modelAnswer);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(typeSection).add(modelAnswerSection);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(typeSection).add(modelAnswerSection));
 	}
 
 	/**
@@ -178,6 +181,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "delivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -235,7 +241,7 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 		noSub.setIncluded(this.uiService.newCompareDecision().setEqualsConstant(SubmissionType.none.toString())
 				.setProperty(this.uiService.newPropertyReference().setReference("answer.question.typeSpecificQuestion.submissionType")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(answerSection).add(noSub);
+		return QuestionUiCache.put(getClass(), "delivery", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(answerSection).add(noSub));
 	}
 
 	/**
@@ -313,6 +319,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "review");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -453,8 +462,8 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 						this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("grading"))));
 		showModelAnswerSection.add(modelAnswer);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(questionSection2).add(type).add(answerSection)
-				.add(showModelAnswerSection);
+		return QuestionUiCache.put(getClass(), "review", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(questionSection2).add(type).add(answerSection)
+				.add(showModelAnswerSection));
 	}
 
 	/**
@@ -510,6 +519,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewAnswer");
+		if (rv != null) return rv;
+
 		Section answerSection = this.uiService.newSection();
 		answerSection.setTitle("answer", this.uiService.newIconPropertyReference().setIcon("/icons/answer.png"));
 
@@ -565,7 +577,7 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 						.setProperty(this.uiService.newPropertyReference().setReference("answer.typeSpecificAnswer.uploaded")));
 		answerSection.add(notAnswered);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(answerSection);
+		return QuestionUiCache.put(getClass(), "viewAnswer", this.uiService.newFragment().setMessages(this.messages).add(answerSection));
 	}
 
 	/**
@@ -573,6 +585,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewDelivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -594,7 +609,7 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 		Section typeSection = this.uiService.newSection();
 		typeSection.add(type);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(typeSection);
+		return QuestionUiCache.put(getClass(), "viewDelivery", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(typeSection));
 	}
 
 	/**
@@ -602,6 +617,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewQuestion");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -665,8 +683,8 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 		
 		showModelExpAnswerSection.add(modelAnswer);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(questionSection2).add(typeSection)
-				.add(showModelAnswerSection).add(showModelExpAnswerSection);
+		return QuestionUiCache.put(getClass(), "viewQuestion", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(questionSection2).add(typeSection)
+				.add(showModelAnswerSection).add(showModelExpAnswerSection));
 	}
 
 	/**
@@ -674,6 +692,9 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewStats");
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 
@@ -800,8 +821,8 @@ public class EssayQuestionImpl implements TypeSpecificQuestion
 						this.uiService.getFormatDelegate("FormatUnansweredPercent", "sakai.mneme")));
 		unansweredSection.add(unanswered);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(typeSection).add(showModelAnswerSection)
-				.add(distributionSection).add(section).add(unansweredSection);
+		return QuestionUiCache.put(getClass(), "viewStats", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(typeSection).add(showModelAnswerSection)
+				.add(distributionSection).add(section).add(unansweredSection));
 	}
 
 	/**
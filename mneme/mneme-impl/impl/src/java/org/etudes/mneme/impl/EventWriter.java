@@ -0,0 +1,210 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sakaiproject.event.api.Event;
+import org.sakaiproject.event.api.EventTrackingService;
+import org.sakaiproject.event.api.UsageSession;
+
+/**
+ * EventWriter posts events to the EventTrackingService from a background thread, so the posting adds no time to the request that made them.<br />
+ * Events are handed over a batch at a time, with the usage session they are for. The queue is bounded: if it is full, the batch is posted
+ * right away by the caller, so events are never lost.
+ */
+public class EventWriter implements Runnable
+{
+	/**
+	 * Events to post for a usage session.
+	 */
+	protected static class Batch
+	{
+		/** The events. */
+		protected List<Event> events = null;
+
+		/** The usage session the events are for. */
+		protected UsageSession session = null;
+
+		/**
+		 * Construct.
+		 * 
+		 * @param events
+		 *        The events.
+		 * @param session
+		 *        The usage session the events are for.
+		 */
+		protected Batch(List<Event> events, UsageSession session)
+		{
+			this.events = events;
+			this.session = session;
+		}
+	}
+
+	/** Our logger. */
+	private static Log M_log = LogFactory.getLog(EventWriter.class);
+
+	/** Dependency: EventTrackingService. */
+	protected EventTrackingService eventTrackingService = null;
+
+	/** The batches waiting to be posted. */
+	protected BlockingQueue<Batch> queue = null;
+
+	/** The writer thread. */
+	protected Thread writerThread = null;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param eventTrackingService
+	 *        The EventTrackingService.
+	 * @param capacity
+	 *        The most batches to hold waiting to be posted.
+	 */
+	public EventWriter(EventTrackingService eventTrackingService, int capacity)
+	{
+		this.eventTrackingService = eventTrackingService;
+		this.queue = new ArrayBlockingQueue<Batch>(capacity);
+	}
+
+	/**
+	 * @return The number of batches waiting to be posted.
+	 */
+	public int getQueueDepth()
+	{
+		return this.queue.size();
+	}
+
+	/**
+	 * Post these events.
+	 * 
+	 * @param events
+	 *        The events.
+	 * @param session
+	 *        The usage session the events are for. If null, the events are posted right away, for the current session.
+	 */
+	public void post(List<Event> events, UsageSession session)
+	{
+		if (events.isEmpty()) return;
+
+		// without a session to post for, or a writer, or room in the queue, post now
+		if ((session == null) || (this.writerThread == null) || (!this.queue.offer(new Batch(events, session))))
+		{
+			for (Event event : events)
+			{
+				if (session == null)
+				{
+					this.eventTrackingService.post(event);
+				}
+				else
+				{
+					this.eventTrackingService.post(event, session);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Run the writer thread, posting batches as they arrive.
+	 */
+	public void run()
+	{
+		List<Batch> batches = new ArrayList<Batch>();
+		while (!Thread.currentThread().isInterrupted())
+		{
+			try
+			{
+				// wait for one, then take all that are waiting
+				batches.add(this.queue.take());
+				this.queue.drainTo(batches);
+
+				write(batches);
+			}
+			catch (InterruptedException e)
+			{
+				break;
+			}
+			catch (Throwable e)
+			{
+				M_log.warn("run: will continue: ", e);
+			}
+			finally
+			{
+				batches.clear();
+			}
+		}
+	}
+
+	/**
+	 * Start the writer thread.
+	 */
+	public void start()
+	{
+		this.writerThread = new Thread(this, getClass().getName());
+		this.writerThread.setDaemon(true);
+		this.writerThread.start();
+	}
+
+	/**
+	 * Stop the writer thread, posting whatever is still waiting.
+	 */
+	public void stop()
+	{
+		if (this.writerThread == null) return;
+
+		this.writerThread.interrupt();
+		this.writerThread = null;
+
+		List<Batch> batches = new ArrayList<Batch>();
+		this.queue.drainTo(batches);
+		write(batches);
+	}
+
+	/**
+	 * Post the events in these batches.
+	 * 
+	 * @param batches
+	 *        The batches.
+	 */
+	protected void write(List<Batch> batches)
+	{
+		for (Batch batch : batches)
+		{
+			for (Event event : batch.events)
+			{
+				try
+				{
+					this.eventTrackingService.post(event, batch.session);
+				}
+				catch (Throwable e)
+				{
+					M_log.warn("write: event: " + event.getEvent() + " resource: " + event.getResource() + " : " + e.toString());
+				}
+			}
+		}
+	}
+}
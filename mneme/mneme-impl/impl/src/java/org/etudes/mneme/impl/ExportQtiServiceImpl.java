@@ -22,11 +22,13 @@
 package org.etudes.mneme.impl;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URLDecoder;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -36,6 +38,13 @@ import java.util.regex.Pattern;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.Transformer;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.mneme.api.Assessment;
@@ -74,6 +83,17 @@ import org.w3c.dom.NodeList;
  */
 public class ExportQtiServiceImpl implements ExportQtiService
 {
+	/** Finds the embedded media tags in question text. */
+	protected static final Pattern EMBED_TAG = Pattern.compile("<(img|a|embed)\\s+.*?/*>", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE
+			| Pattern.DOTALL);
+
+	/** Finds the src or href reference in html. */
+	protected static final Pattern SRC_ATTRIBUTE = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE
+			| Pattern.UNICODE_CASE);
+
+	/** The chunk size used when streaming (100k). */
+	protected static final int STREAM_BUFFER_SIZE = 102400;
+
 	/** Our logger. */
 	private static Log M_log = LogFactory.getLog(ExportQtiServiceImpl.class);
 
@@ -92,6 +112,9 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	/** Dependency: SecurityService */
 	protected org.sakaiproject.authz.api.SecurityService securityServiceSakai = null;
 
+	/** If true, documents are serialized straight into the zip, else each is written to a string first. */
+	protected boolean streamDocuments = true;
+
 	protected ContentHostingService contentHostingService = null;
 
 	private class PoolDetails
@@ -210,7 +233,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		Element schemaVersion = doc.createElementNS("http://www.imsglobal.org/xsd/imscp_v1p1", "schemaversion");
 		schemaVersion.setTextContent("2.1");
 		metadata.appendChild(schemaVersion);
-		Element lom = createLomElement(doc, null, title, null, null, "", null);
+		Element lom = createLomElement(doc, null, title, null, null, null, "", null);
 		metadata.appendChild(lom);
 
 		return metadata;
@@ -224,7 +247,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param poolFile
 	 * @return
 	 */
-	public Element createResourceElementforAssessment(ZipOutputStream zip, Document doc, int count, Assessment test)
+	public Element createResourceElementforAssessment(ZipOutputStream zip, Set<String> written, Document doc, int count, Assessment test)
 	{
 		String titleFile = test.getId() + "/assessment" + count + ".xml";
 
@@ -237,7 +260,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		Element metadata = doc.createElement("metadata");
 		String subFolder = test.getId() + "/Resources/";
 		metadata.appendChild(createLomElement(doc, test.getType().toString(), test.getTitle(), (test.getPresentation() != null) ? test
-				.getPresentation().getText() : null, zip, subFolder, mediaFiles));
+				.getPresentation().getText() : null, zip, written, subFolder, mediaFiles));
 
 		resource.appendChild(metadata);
 
@@ -280,7 +303,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 
 		// if question is a survey add imsmd:identifier similar to test type
 		Boolean survey = question.getIsSurvey();
-		if (Boolean.TRUE.equals(survey)) metadata.appendChild(createLomElement(doc, "survey", "", null, null, "", null));
+		if (Boolean.TRUE.equals(survey)) metadata.appendChild(createLomElement(doc, "survey", "", null, null, null, "", null));
 
 		metadata.appendChild(createQTIMetadataElement(doc, question.getType()));
 		resource.appendChild(metadata);
@@ -306,11 +329,12 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param title
 	 * @param description
 	 * @param zip
+	 * @param written
 	 * @param mediaFiles
 	 * @return
 	 */
-	public Element createLomElement(Document doc, String type, String title, String description, ZipOutputStream zip, String subFolder,
-			List<String> mediaFiles)
+	public Element createLomElement(Document doc, String type, String title, String description, ZipOutputStream zip, Set<String> written,
+			String subFolder, List<String> mediaFiles)
 	{
 		Element lom = doc.createElementNS("http://www.imsglobal.org/xsd/imsmd_v1p2", "imsmd:lom");
 		Element general = doc.createElementNS("http://www.imsglobal.org/xsd/imsmd_v1p2", "imsmd:general");
@@ -336,7 +360,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			Element descElement = doc.createElementNS("http://www.imsglobal.org/xsd/imsmd_v1p2", "imsmd:description");
 			Element langstring = doc.createElementNS("http://www.imsglobal.org/xsd/imsmd_v1p2", "imsmd:langstring");
 			description = FormattedText.unEscapeHtml(description);
-			if (zip != null && mediaFiles != null) description = translateEmbedData(zip, subFolder, subFolder, description, mediaFiles);
+			if (zip != null && mediaFiles != null) description = translateEmbedData(zip, written, subFolder, subFolder, description, mediaFiles);
 			langstring.setTextContent(description);
 			descElement.appendChild(langstring);
 			general.appendChild(descElement);
@@ -451,11 +475,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param text
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 * @return
 	 */
-	private Element createFinalFeedbackElement(Document assessmentTestDocument, String text, ZipOutputStream zip, String testId)
+	private Element createFinalFeedbackElement(Document assessmentTestDocument, String text, ZipOutputStream zip, Set<String> written, String testId)
 	{
 		Element testFeedbackElement = assessmentTestDocument.createElement("testFeedback");
 		testFeedbackElement.setAttribute("access", "atEnd");
@@ -464,7 +490,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 
 		Element feedbackContentElement = assessmentTestDocument.createElement("div");
 		ArrayList fbFiles = new ArrayList<String>();
-		text = translateEmbedData(zip,  testId + "/Resources/", "Resources/", text, fbFiles);
+		text = translateEmbedData(zip, written,  testId + "/Resources/", "Resources/", text, fbFiles);
 		
 		feedbackContentElement.appendChild(assessmentTestDocument.createCDATASection(text));
 		testFeedbackElement.appendChild(feedbackContentElement);
@@ -515,6 +541,25 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * {@inheritDoc}
 	 */
 	public void exportAssessments(String context, String[] ids, ZipOutputStream zip) throws AssessmentPermissionException, IOException
+	{
+		// the media files written so far, so each is written once
+		exportAssessmentsToZip(context, ids, zip, new HashSet<String>());
+	}
+
+	/**
+	 * Write the assessments and their questions, media and the manifest to the zip.
+	 * 
+	 * @param context
+	 *        The context.
+	 * @param ids
+	 *        The assessment ids.
+	 * @param zip
+	 *        The zip package.
+	 * @param written
+	 *        The media files already written to the zip.
+	 */
+	protected void exportAssessmentsToZip(String context, String[] ids, ZipOutputStream zip, Set<String> written)
+			throws AssessmentPermissionException, IOException
 	{
 		// create manifest element
 		Document doc = Xml.createDocument();
@@ -539,14 +584,14 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			if (test == null) continue;
 
 			// 2. add the resource element entry in manifest file
-			Element resourceAssessment = createResourceElementforAssessment(zip, doc, ++count, test);
-			resourceAssessment = getAttachments(zip, test.getId(), doc, resourceAssessment, test);
+			Element resourceAssessment = createResourceElementforAssessment(zip, written, doc, ++count, test);
+			resourceAssessment = getAttachments(zip, written, test.getId(), doc, resourceAssessment, test);
 
 			// 3. create assessmentTest document
 			String resourceAssessmentIdent = resourceAssessment.getAttribute("identifier");
 			String assessmentFileName = resourceAssessment.getAttribute("href");
 			HashMap<String, List<Element>> miscellaneousItems = createAssessmentDocument(context, test, doc, resourceAssessmentIdent,
-					assessmentFileName, zip, pools);
+					assessmentFileName, zip, written, pools);
 
 			List<Element> items = (miscellaneousItems.containsKey("questionItems")) ? miscellaneousItems.get("questionItems") : null;
 			List<String> questionIds = new ArrayList<String>();
@@ -623,10 +668,11 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param resourceAssessmentIdent
 	 * @param assessmentFileName
 	 * @param zip
+	 * @param written
 	 * @return
 	 */
 	public HashMap<String, List<Element>> createAssessmentDocument(String context, Assessment test, Document doc, String resourceAssessmentIdent,
-			String assessmentFileName, ZipOutputStream zip, ArrayList<PoolDetails> pools)
+			String assessmentFileName, ZipOutputStream zip, Set<String> written, ArrayList<PoolDetails> pools)
 	{
 		Document assessmentTestDocument = Xml.createDocument();
 		Element assessmentTestElement = assessmentTestDocument.createElement("assessmentTest");
@@ -716,7 +762,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 				String partDescription = p.getPresentation().getText();
 				ArrayList<String> mediaFiles = new ArrayList<String>();
 				String subFolder = test.getId() + "/Resources/";
-				if (zip != null && mediaFiles != null) partDescription = translateEmbedData(zip, subFolder,"Resources/", partDescription, mediaFiles);
+				if (zip != null && mediaFiles != null) partDescription = translateEmbedData(zip, written, subFolder,"Resources/", partDescription, mediaFiles);
 				rubricElement.setTextContent(partDescription);
 			}
 			assessmentSectionElement.appendChild(rubricElement);
@@ -740,10 +786,10 @@ public class ExportQtiServiceImpl implements ExportQtiService
 
 					// create question.xml file 
 					ArrayList<String> mediaFiles = new ArrayList<String>();
-					Element assessmentItem = createAssessmentItemforQuestion(zip, context, test.getId(), mediaFiles, question, question.getPartDetail().getQuestionPoints(), question_count++);
+					Element assessmentItem = createAssessmentItemforQuestion(zip, written, context, test.getId(), mediaFiles, question, question.getPartDetail().getQuestionPoints(), question_count++);
 					if (assessmentItem == null) continue;
 					Element itemResourceElement = createResourceElementforQuestion(doc, test.getId(), question, mediaFiles);
-					itemResourceElement = getAttachments(zip, test.getId(), doc, itemResourceElement, question);
+					itemResourceElement = getAttachments(zip, written, test.getId(), doc, itemResourceElement, question);
 					questionsList.put(question.getId(), itemResourceElement);
 
 					// add assessmentItemRef -- <assessmentItemRef identifier="item034" href="adaptive.xml">
@@ -769,7 +815,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			{
 				Float pdQuestionPoints = pd.getEffectivePoints()/pd.getNumQuestions();
 				
-				List<Element> otherResources = addOtherPoolQuestions(doc, assessmentTestDocument, questionsList, pd.getPool(), zip, context, test.getId(), pdQuestionPoints, question_count++);
+				List<Element> otherResources = addOtherPoolQuestions(doc, assessmentTestDocument, questionsList, pd.getPool(), zip, written, context, test.getId(), pdQuestionPoints, question_count++);
 				for (Element r : otherResources)
 					assessmentSectionElement.appendChild(r);
 				question_count = question_count + otherResources.size();
@@ -798,7 +844,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		// Final Message
 		if (test.getSubmitPresentation() != null && test.getSubmitPresentation().getText() != null)
 		{
-			Element testFeedbackElement = createFinalFeedbackElement(assessmentTestDocument, test.getSubmitPresentation().getText(), zip, test.getId());
+			Element testFeedbackElement = createFinalFeedbackElement(assessmentTestDocument, test.getSubmitPresentation().getText(), zip, written, test.getId());
 			assessmentTestElement.appendChild(testFeedbackElement);
 		}
 
@@ -813,13 +859,14 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * Creates the question.xml file and writes to the zip package
 	 * 
 	 * @param zip
+	 * @param written
 	 * @param question
 	 * @param count
 	 * @return
 	 * @throws Exception
 	 */
-	public Element createAssessmentItemforQuestion(ZipOutputStream zip, String context, String testId, List<String> mediaFiles, Question question,
-			float points, int count) throws Exception
+	public Element createAssessmentItemforQuestion(ZipOutputStream zip, Set<String> written, String context, String testId,
+			List<String> mediaFiles, Question question, float points, int count) throws Exception
 	{
 		if (question == null) return null;
 
@@ -840,7 +887,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		item.setAttribute("adaptive", "false");
 		item.setAttribute("timeDependent", "false");
 
-		Map<String, Element> map_question = getallQuestionElements(zip, assessmentItemDocument, testId, question, context, mediaFiles);
+		Map<String, Element> map_question = getallQuestionElements(zip, written, assessmentItemDocument, testId, question, context, mediaFiles);
 
 		// <responseDeclaration identifier="RESPONSE" cardinality="single" baseType="identifier">
 		if (map_question.containsKey("responseDeclarationCount"))
@@ -1009,7 +1056,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * 	List of AssessmentItemRef elements
 	 */
 	private List<Element> addOtherPoolQuestions(Document resourceDocument, Document assessmentDocument, HashMap<String, Element> questionsList,
-			Pool pool, ZipOutputStream zip, String context, String testId, float detailPoints, int questionCount)
+			Pool pool, ZipOutputStream zip, Set<String> written, String context, String testId, float detailPoints, int questionCount)
 	{
 		// get all pool questions
 		List<String> poolQuestions = pool.getAllQuestionIds(null, true);
@@ -1026,12 +1073,12 @@ public class ExportQtiServiceImpl implements ExportQtiService
 				Question question = questionService.getQuestion(chkId);
 
 				ArrayList<String> mediaFiles = new ArrayList<String>();
-				Element assessmentItem = createAssessmentItemforQuestion(zip, context, testId, mediaFiles, question, detailPoints, questionCount++);
+				Element assessmentItem = createAssessmentItemforQuestion(zip, written, context, testId, mediaFiles, question, detailPoints, questionCount++);
 				if (assessmentItem == null) continue;
 
 				// add to resourceDocument
 				Element itemResourceElement = createResourceElementforQuestion(resourceDocument, testId, question, mediaFiles);
-				itemResourceElement = getAttachments(zip, testId, resourceDocument, itemResourceElement, question);
+				itemResourceElement = getAttachments(zip, written, testId, resourceDocument, itemResourceElement, question);
 				questionsList.put(question.getId(), itemResourceElement);
 
 				// add to assessmentDocument and to arraylist
@@ -1052,42 +1099,48 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	/**
 	 * 
 	 * @param zip
+	 * @param written
 	 * @param questionDocument
 	 * @param questionResourceElement
 	 * @param question
 	 * @return
 	 */
-	public Element getAttachments(ZipOutputStream zip, String testId, Document document, Element questionResourceElement, Question question)
+	public Element getAttachments(ZipOutputStream zip, Set<String> written, String testId, Document document, Element questionResourceElement,
+			Question question)
 	{
 		List<Reference> attachments = question.getPresentation().getAttachments();
 
-		return getCoreAttachments(zip, testId, document, questionResourceElement, attachments);
+		return getCoreAttachments(zip, written, testId, document, questionResourceElement, attachments);
 	}
 	
 	/**
 	 * 
 	 * @param zip
+	 * @param written
 	 * @param assessmentDocument
 	 * @param assessmentResourceElement
 	 * @param assessment
 	 * @return
 	 */
-	public Element getAttachments(ZipOutputStream zip, String testId, Document document, Element assessmentResourceElement, Assessment assessment)
+	public Element getAttachments(ZipOutputStream zip, Set<String> written, String testId, Document document, Element assessmentResourceElement,
+			Assessment assessment)
 	{
 		List<Reference> attachments = assessment.getPresentation().getAttachments();
 
-		return getCoreAttachments(zip, testId, document, assessmentResourceElement, attachments);
+		return getCoreAttachments(zip, written, testId, document, assessmentResourceElement, attachments);
 	}
 
 	/**
 	 * 
 	 * @param zip
+	 * @param written
 	 * @param assessmentDocument
 	 * @param assessmentResourceElement
 	 * @param attachments
 	 * @return
 	 */
-	public Element getCoreAttachments(ZipOutputStream zip, String testId, Document document, Element resourceElement, List<Reference> attachments)
+	public Element getCoreAttachments(ZipOutputStream zip, Set<String> written, String testId, Document document, Element resourceElement,
+			List<Reference> attachments)
 	{
 		if (attachments != null && attachments.size() > 0)
 		{
@@ -1104,7 +1157,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 					fileName = fileName.replaceAll("%20", " ");
 					fileName = Validator.escapeResourceName(fileName);
 					
-					writeContentResourceToZip(zip, subFolder, attachment.getId(), fileName);
+					writeContentResourceToZip(zip, written, subFolder, attachment.getId(), fileName);
 
 					Element file = document.createElement("file");
 					file.setAttribute("href", subFolder + fileName);
@@ -1127,8 +1180,8 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param text
 	 * @return
 	 */
-	public Map<String, Element> getallQuestionElements(ZipOutputStream zip, Document questionDocument, String testId, Question question,
-			String context, List<String> mediaFiles) throws Exception
+	public Map<String, Element> getallQuestionElements(ZipOutputStream zip, Set<String> written, Document questionDocument, String testId,
+			Question question, String context, List<String> mediaFiles) throws Exception
 	{
 		Map<String, Element> questionParts = new HashMap<String, Element>();
 
@@ -1143,7 +1196,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 
 			// security advisor
 			pushAdvisor();
-			itemBody = translateEmbedData(zip, testId + "/Resources/", text, itemBody, mediaFiles, questionDocument);
+			itemBody = translateEmbedData(zip, written, testId + "/Resources/", text, itemBody, mediaFiles, questionDocument);
 	
 			popAdvisor();
 
@@ -1160,13 +1213,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		{
 			FillBlanksQuestionImpl f = (FillBlanksQuestionImpl) (question.getTypeSpecificQuestion());
 			text = f.getText();
-			itemBody = getFillBlanksResponseChoices(questionDocument, itemBody, f, questionParts, zip, testId);
+			itemBody = getFillBlanksResponseChoices(questionDocument, itemBody, f, questionParts, zip, written, testId);
 		}
 		else if ("mneme:FillInline".equals(question.getType()))
 		{
 			FillInlineQuestionImpl f = (FillInlineQuestionImpl) (question.getTypeSpecificQuestion());
 			text = f.getText();
-			itemBody = getFillInlineResponseChoices(questionDocument, itemBody, f, questionParts, zip, testId);
+			itemBody = getFillInlineResponseChoices(questionDocument, itemBody, f, questionParts, zip, written, testId);
 		}
 		else if ("mneme:TrueFalse".equals(question.getType()))
 		{
@@ -1175,22 +1228,22 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		}
 		else if ("mneme:MultipleChoice".equals(question.getType()))
 		{
-			getMCResponseChoices(questionDocument, question, questionParts, zip, testId);
+			getMCResponseChoices(questionDocument, question, questionParts, zip, written, testId);
 			if (questionParts.containsKey("choiceInteraction")) itemBody.appendChild(questionParts.get("choiceInteraction"));
 		}
 		else if ("mneme:Order".equals(question.getType()))
 		{
-			getOrderResponseChoices(questionDocument, question, questionParts, zip, testId);
+			getOrderResponseChoices(questionDocument, question, questionParts, zip, written, testId);
 			if (questionParts.containsKey("orderInteraction")) itemBody.appendChild(questionParts.get("orderInteraction"));
 		}
 		else if ("mneme:Match".equals(question.getType()))
 		{
-			getMatchResponseChoices(questionDocument, question, questionParts, zip, testId);
+			getMatchResponseChoices(questionDocument, question, questionParts, zip, written, testId);
 			if (questionParts.containsKey("matchInteraction")) itemBody.appendChild(questionParts.get("matchInteraction"));
 		}
 		else if ("mneme:Essay".equals(question.getType()))
 		{
-			getEssayResponseChoices(questionDocument, question, questionParts, zip, testId);
+			getEssayResponseChoices(questionDocument, question, questionParts, zip, written, testId);
 			if (questionParts.containsKey("extendedTextInteraction")) itemBody.appendChild(questionParts.get("extendedTextInteraction"));
 			if (questionParts.containsKey("uploadInteraction")) itemBody.appendChild(questionParts.get("uploadInteraction"));
 		}
@@ -1218,7 +1271,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			feedbackInlineElement.setAttribute("identifier", "FB_Hints");
 			ArrayList hintFiles = new ArrayList<String>();
 			String hints = question.getHints();
-			hints = translateEmbedData(zip,  testId + "/Resources/", "Resources/", hints, hintFiles);
+			hints = translateEmbedData(zip, written,  testId + "/Resources/", "Resources/", hints, hintFiles);
 			feedbackInlineElement.appendChild(questionDocument.createCDATASection(hints));
 			itemBody.appendChild(feedbackInlineElement);
 		}
@@ -1231,7 +1284,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			feedbackElement.setAttribute("identifier", "FB_Question");
 			ArrayList fbFiles = new ArrayList<String>();
 			String feedback = question.getFeedback();
-			feedback = translateEmbedData(zip,  testId + "/Resources/", "Resources/", feedback, fbFiles);
+			feedback = translateEmbedData(zip, written,  testId + "/Resources/", "Resources/", feedback, fbFiles);
 			feedbackElement.appendChild(questionDocument.createCDATASection(feedback));
 			questionParts.put("modalFeedback", feedbackElement);
 		}
@@ -1246,10 +1299,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param questionParts
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 */
-	public void getEssayResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+	public void getEssayResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip,
+			Set<String> written, String testId)
 	{
 		if (question == null) return;
 
@@ -1283,7 +1339,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		{
 			answer = FormattedText.unEscapeHtml(answer);
 			ArrayList anFiles = new ArrayList<String>();
-			answer = translateEmbedData(zip,  testId + "/Resources/", "Resources/", answer, anFiles);
+			answer = translateEmbedData(zip, written,  testId + "/Resources/", "Resources/", answer, anFiles);
 			Element correctResponseValue = questionDocument.createElement("value");			
 			correctResponseValue.setTextContent(answer);
 			correctResponse.appendChild(correctResponseValue);
@@ -1301,12 +1357,14 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param questionParts
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 * @return
 	 */
 	public Element getFillBlanksResponseChoices(Document questionDocument, Element itemBody, FillBlanksQuestionImpl question,
-			Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+			Map<String, Element> questionParts, ZipOutputStream zip, Set<String> written, String testId)
 	{
 		if (question == null) return itemBody;
 
@@ -1340,7 +1398,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		if (sb.length() > 0)
 		{
 			ArrayList mediaFiles = new ArrayList<String>();
-			itemBody = translateEmbedData(zip, testId + "/Resources/", sb.toString(), itemBody, mediaFiles, questionDocument);
+			itemBody = translateEmbedData(zip, written, testId + "/Resources/", sb.toString(), itemBody, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				Element textDiv = questionDocument.createElement("div");
@@ -1382,12 +1440,14 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param questionParts
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 * @return
 	 */
 	public Element getFillInlineResponseChoices(Document questionDocument, Element itemBody, FillInlineQuestionImpl question,
-			Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+			Map<String, Element> questionParts, ZipOutputStream zip, Set<String> written, String testId)
 	{
 		if (question == null) return itemBody;
 
@@ -1464,7 +1524,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		if (sb.length() > 0)
 		{
 			ArrayList mediaFiles = new ArrayList<String>();
-			itemBody = translateEmbedData(zip, testId + "/Resources/", sb.toString(), itemBody, mediaFiles, questionDocument);
+			itemBody = translateEmbedData(zip, written, testId + "/Resources/", sb.toString(), itemBody, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				Element textDiv = questionDocument.createElement("div");
@@ -1538,10 +1598,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 *        Map containing different w3c dom elements
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 */
-	public void getMCResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+	public void getMCResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip,
+			Set<String> written, String testId)
 	{
 		if (question == null) return;
 
@@ -1573,7 +1636,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			String choiceText = c.getText();
 			choiceText = FormattedText.unEscapeHtml(choiceText);
 			ArrayList mediaFiles = new ArrayList<String>();
-			simpleChoice = translateEmbedData(zip, testId + "/Resources/", choiceText, simpleChoice, mediaFiles, questionDocument);
+			simpleChoice = translateEmbedData(zip, written, testId + "/Resources/", choiceText, simpleChoice, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				simpleChoice.setTextContent(choiceText);
@@ -1604,10 +1667,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 *        Map containing different w3c dom elements
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 */
-	public void getOrderResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+	public void getOrderResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip,
+			Set<String> written, String testId)
 	{
 		if (question == null) return;
 
@@ -1637,7 +1703,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			String choiceText = c.getText();
 			choiceText = FormattedText.unEscapeHtml(choiceText);
 			ArrayList mediaFiles = new ArrayList<String>();
-			simpleChoice = translateEmbedData(zip, testId + "/Resources/", choiceText, simpleChoice, mediaFiles, questionDocument);
+			simpleChoice = translateEmbedData(zip, written, testId + "/Resources/", choiceText, simpleChoice, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				simpleChoice.setTextContent(choiceText);
@@ -1666,10 +1732,13 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * @param questionParts
 	 * @param zip
 	 *        The zip output stream for export
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param testId
 	 *        test id of folder to export to
 	 */
-	public void getMatchResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip, String testId)
+	public void getMatchResponseChoices(Document questionDocument, Question question, Map<String, Element> questionParts, ZipOutputStream zip,
+			Set<String> written, String testId)
 	{
 		if (question == null) return;
 
@@ -1706,7 +1775,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			String choiceText = c.getChoice();
 			choiceText = FormattedText.unEscapeHtml(choiceText);
 			ArrayList mediaFiles = new ArrayList<String>();
-			simpleAssociableChoice = translateEmbedData(zip, testId + "/Resources/", choiceText, simpleAssociableChoice, mediaFiles, questionDocument);
+			simpleAssociableChoice = translateEmbedData(zip, written, testId + "/Resources/", choiceText, simpleAssociableChoice, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				simpleAssociableChoice.setTextContent(choiceText);
@@ -1721,7 +1790,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			String matchText = c.getMatch();
 			matchText = FormattedText.unEscapeHtml(matchText);
 			mediaFiles = new ArrayList<String>();
-			simpleAssociableMatch = translateEmbedData(zip, testId + "/Resources/", matchText, simpleAssociableMatch, mediaFiles, questionDocument);
+			simpleAssociableMatch = translateEmbedData(zip, written, testId + "/Resources/", matchText, simpleAssociableMatch, mediaFiles, questionDocument);
 			if (mediaFiles.isEmpty())
 			{
 				simpleAssociableMatch.setTextContent(matchText);
@@ -1795,18 +1864,20 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * 
 	 * @param zip
 	 *        The zip package
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param text
 	 *        Text
 	 * @param mediaFiles
 	 *        List of embedded files found
 	 * @return The translated Text
 	 */
-	protected String translateEmbedData(ZipOutputStream zip, String subFolder, String writeSubFolder, String text, List<String> mediaFiles)
+	protected String translateEmbedData(ZipOutputStream zip, Set<String> written, String subFolder, String writeSubFolder, String text,
+			List<String> mediaFiles)
 	{
-		Pattern p = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
 		StringBuffer sb = new StringBuffer();
 		subFolder = (subFolder == null || subFolder.length() == 0) ? "Resources/" : subFolder;
-		Matcher m = p.matcher(text);
+		Matcher m = SRC_ATTRIBUTE.matcher(text);
 
 		// security advisor
 		pushAdvisor();
@@ -1832,7 +1903,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			mediaFiles.add(subFolder + resource_name);
 			m.appendReplacement(sb, m.group(1) + "= \"" + writeSubFolder + resource_name  + "\"");
 
-			writeContentResourceToZip(zip, subFolder, resource_id, resource_name);
+			writeContentResourceToZip(zip, written, subFolder, resource_id, resource_name);
 		}
 
 		popAdvisor();
@@ -1844,25 +1915,23 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * Creates elements for all embed media with in itembody element. Use this for question text
 	 * 
 	 * @param zip
+	 * @param written
 	 * @param subFolder
 	 * @param text
 	 * @param itemBody
 	 * @param mediaFiles
 	 * @return
 	 */
-	private Element translateEmbedData(ZipOutputStream zip, String subFolder, String text, Element itemBody, List<String> mediaFiles,
-			Document questionDocument)
+	private Element translateEmbedData(ZipOutputStream zip, Set<String> written, String subFolder, String text, Element itemBody,
+			List<String> mediaFiles, Document questionDocument)
 	{
 		if (text == null || text.length() == 0) return itemBody;
 		
 		Element media = null;
 		try
 		{
-			Pattern pa = Pattern.compile("<(img|a|embed)\\s+.*?/*>", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
-
 			// TODO: write all attributes
-			Pattern p_srcAttribute = Pattern.compile("(src|href)[\\s]*=[\\s]*\"([^#\"]*)([#\"])", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
-			Matcher m = pa.matcher(text);
+			Matcher m = EMBED_TAG.matcher(text);
 			StringBuffer sb = new StringBuffer();
 			subFolder = (subFolder == null || subFolder.length() == 0) ? "Resources/" : subFolder;
 			String embedSubFolder = "Resources/";
@@ -1873,7 +1942,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 				int startIdx = m.start();
 
 				String img_content = m.group(0);
-				Matcher m_src = p_srcAttribute.matcher(img_content);
+				Matcher m_src = SRC_ATTRIBUTE.matcher(img_content);
 				if (m_src.find())
 				{
 					String ref = m_src.group(2);
@@ -1906,7 +1975,7 @@ public class ExportQtiServiceImpl implements ExportQtiService
 					media.setAttribute(m_src.group(1), embedSubFolder + embedFileName);
 					m.appendReplacement(sb, "");
 
-					writeContentResourceToZip(zip, subFolder, resource_id, embedFileName);
+					writeContentResourceToZip(zip, written, subFolder, resource_id, embedFileName);
 					itemBody.appendChild(div);
 					itemBody.appendChild(media);
 				}				
@@ -1932,13 +2001,16 @@ public class ExportQtiServiceImpl implements ExportQtiService
 	 * 
 	 * @param zip
 	 *        The zip package
+	 * @param written
+	 *        The media files already written to the zip.
 	 * @param id
 	 *        resource id
 	 * @param fileName
 	 *        file name
 	 */
-	protected void writeContentResourceToZip(ZipOutputStream zip, String subFolder, String id, String fileName)
+	protected void writeContentResourceToZip(ZipOutputStream zip, Set<String> written, String subFolder, String id, String fileName)
 	{
+		InputStream content = null;
 		try
 		{
 			// Reference does not know how to make the id from a private docs reference.
@@ -1960,15 +2032,46 @@ public class ExportQtiServiceImpl implements ExportQtiService
 			{
 				// do nothing
 			}
+
+			// each file goes in once, no matter how many questions reference it - it counts as written once it is all in
+			if ((written != null) && (written.contains(fileName))) return;
+
 			ContentResource resource = this.contentHostingService.getResource(id);
+			content = resource.streamContent();
 			zip.putNextEntry(new ZipEntry(fileName));
-			zip.write(resource.getContent());
+
+			// read chunks of the body
+			if (content != null)
+			{
+				byte[] chunk = new byte[STREAM_BUFFER_SIZE];
+				int lenRead;
+				while ((lenRead = content.read(chunk)) != -1)
+				{
+					zip.write(chunk, 0, lenRead);
+				}
+			}
 			zip.closeEntry();
+			if (written != null) written.add(fileName);
 		}
 		catch (Exception e)
 		{
 			M_log.warn("ExportQtiService: zipping embed or attachments: " + e.toString());	
 		}
+		finally
+		{
+			// close the body stream
+			if (content != null)
+			{
+				try
+				{
+					content.close();
+				}
+				catch (IOException e)
+				{
+					M_log.warn("ExportQtiService: closing stream: " + e.toString());
+				}
+			}
+		}
 	}
 
 	/**
@@ -1984,7 +2087,17 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		{
 			if (subFolder != null) zip.putNextEntry(new ZipEntry(subFolder));
 			zip.putNextEntry(new ZipEntry(fileTitle));
-			zip.write(Xml.writeDocumentToString(document).getBytes("UTF-8"));
+			if (this.streamDocuments)
+			{
+				// serialize into the zip, without holding the whole document as a string and again as bytes
+				Transformer transformer = TransformerFactory.newInstance().newTransformer();
+				transformer.setOutputProperty(OutputKeys.ENCODING, "UTF-8");
+				transformer.transform(new DOMSource(document), new StreamResult(zip));
+			}
+			else
+			{
+				zip.write(Xml.writeDocumentToString(document).getBytes("UTF-8"));
+			}
 			zip.closeEntry();
 			zip.flush();
 		}
@@ -1992,6 +2105,10 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		{
 			M_log.warn("zipSubmissionsQuestion: zipping question: " + e.toString());
 		}
+		catch (TransformerException e)
+		{
+			M_log.warn("zipSubmissionsQuestion: writing question: " + e.toString());
+		}
 	}
 
 	/**
@@ -2061,6 +2178,17 @@ public class ExportQtiServiceImpl implements ExportQtiService
 		this.questionService = service;
 	}
 
+	/**
+	 * Set if documents are serialized straight into the zip.
+	 * 
+	 * @param value
+	 *        "true" to stream documents into the zip, "false" to write each to a string first.
+	 */
+	public void setStreamDocuments(String value)
+	{
+		this.streamDocuments = Boolean.parseBoolean(value);
+	}
+
 	public void setSecurityServiceSakai(org.sakaiproject.authz.api.SecurityService securityServiceSakai)
 	{
 		this.securityServiceSakai = securityServiceSakai;
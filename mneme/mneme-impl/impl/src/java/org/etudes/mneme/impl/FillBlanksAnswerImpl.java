@@ -24,9 +24,8 @@
 package org.etudes.mneme.impl;
 
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -43,6 +42,40 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 	/** Our log. */
 	private static Log M_log = LogFactory.getLog(FillBlanksAnswerImpl.class);
 
+	/**
+	 * Check if this answer is correct, using the question's compiled answer key.
+	 * 
+	 * @param answer
+	 *        The answer
+	 * @param correct
+	 *        The corresponding compiled correct answer, if order matters.
+	 * @param anyOrder
+	 *        if order does not matter.
+	 * @param availableCorrectAnswers
+	 *        The available compiled correct answers. If anyOrder, and this answer is correct, the entry it matched is removed from this list.
+	 * @return TRUE if the answer is correct, FALSE if not.
+	 */
+	protected static Boolean answerCorrect(String answer, CompiledAnswerKey.Entry correct, boolean anyOrder,
+			List<CompiledAnswerKey.Entry> availableCorrectAnswers)
+	{
+		String workingAnswer = fullTrim(answer);
+
+		// answer must match correct
+		if (!anyOrder) return Boolean.valueOf(correct.matches(workingAnswer));
+
+		// answer must match one of the available correct answers
+		for (Iterator<CompiledAnswerKey.Entry> i = availableCorrectAnswers.iterator(); i.hasNext();)
+		{
+			if (i.next().matches(workingAnswer))
+			{
+				i.remove();
+				return Boolean.TRUE;
+			}
+		}
+
+		return Boolean.FALSE;
+	}
+
 	/**
 	 * Check if this answer is correct.
 	 * 
@@ -151,37 +184,7 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 	 */
 	protected static boolean isFillInAnswerCorrect(String answer, String correct, boolean caseSensitive)
 	{
-		// get the set of valid answers from the correct answer pattern (each one may have wild cards)
-		String[] valid = correct.split("\\|");
-		for (String test : valid)
-		{
-			// ignore leading and trailing white space
-			test = trim(test);
-
-			// prepare the test as a regex, quoting all non-wildcards, changing the wildcard "*" into a regex ".+"
-			StringBuffer regex = new StringBuffer();
-			String[] parts = test.replaceAll("\\*", "|*|").split("\\|");
-			for (String part : parts)
-			{
-				if ("*".equals(part))
-				{
-					regex.append(".+");
-				}
-				else
-				{
-					regex.append(Pattern.quote(part));
-				}
-			}
-			Pattern p = Pattern.compile(regex.toString(), ((!caseSensitive) ? Pattern.CASE_INSENSITIVE : 0));
-
-			// test
-			Matcher m = p.matcher(answer);
-			boolean result = m.matches();
-
-			if (result) return true;
-		}
-
-		return false;
+		return new CompiledAnswerKey.Entry(correct, caseSensitive, true).matches(answer);
 	}
 
 	/**
@@ -195,52 +198,7 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 	 */
 	protected static boolean isNumericAnswerCorrect(String answer, String correct)
 	{
-		try
-		{
-			// allow dot or comma for decimal point
-			// TODO: this needs to be changed to respect locale, not just replace commas! -ggolden
-			answer = answer.replace(',', '.');
-			correct = correct.replace(',', '.');
-
-			// answer needs to become a float (allow dot or comma for decimal point)
-			float answerValue = Float.parseFloat(answer);
-
-			// form the range of correct answers
-			Float[] range = new Float[2];
-
-			// if there's a bar in the correct pattern, split and use the first two as the range
-			if (correct.indexOf("|") != -1)
-			{
-				String[] parts = correct.split("\\|");
-				range[0] = Float.parseFloat(trim(parts[0]));
-				range[1] = Float.parseFloat(trim(parts[1]));
-
-				// make sure [0] <= [1]
-				if (range[0].floatValue() > range[1].floatValue())
-				{
-					Float hold = range[0];
-					range[0] = range[1];
-					range[1] = hold;
-				}
-			}
-
-			// otherwise use the single value for both sides of the range
-			else
-			{
-				range[0] = range[1] = Float.parseFloat(trim(correct));
-			}
-
-			// test
-			if ((answerValue >= range[0].floatValue()) && (answerValue <= range[1].floatValue()))
-			{
-				return true;
-			}
-		}
-		catch (NumberFormatException e)
-		{
-		}
-
-		return false;
+		return new CompiledAnswerKey.Entry(correct, false, false).matches(answer);
 	}
 
 	/**
@@ -423,16 +381,12 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 	{
 		if (answer == null || answer.trim().length() == 0) return false;
 		Question question = this.answer.getQuestion();
-		List<String> correctAnswers = ((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getCorrectAnswers();
-		List<String> availableCorrectAnswers = new ArrayList<String>(correctAnswers);
-		
-		// Get all other question properties
-		boolean caseSensitive = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getCaseSensitive());
-		boolean anyOrder = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getAnyOrder());
-		boolean textual = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getResponseTextual());
+		FillBlanksQuestionImpl plugin = (FillBlanksQuestionImpl) question.getTypeSpecificQuestion();
+		List<CompiledAnswerKey.Entry> corrects = plugin.getCompiledAnswerKey().getEntries();
+		List<CompiledAnswerKey.Entry> availableCorrectAnswers = new ArrayList<CompiledAnswerKey.Entry>(corrects);
+		boolean anyOrder = Boolean.parseBoolean(plugin.getAnyOrder());
 
-		String correctAnswer = correctAnswers.get(i);
-		return answerCorrect(answer, correctAnswer, caseSensitive, anyOrder, textual, availableCorrectAnswers);
+		return answerCorrect(answer, corrects.get(i), anyOrder, availableCorrectAnswers);
 	}
 	
 	/**
@@ -461,15 +415,14 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 		// this.answers has an entry for each blank - null or filled in. Or is null if we have not been answered.
 
 		// we need an answer for each fill-in. The correct answers will give us that size
+		// the key is compiled once for the question, and kept while its text and settings are unchanged
 		Question question = answer.getQuestion();
-		List<String> correctAnswers = ((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getCorrectAnswers();
-		List<String> availableCorrectAnswers = new ArrayList<String>(correctAnswers);
+		FillBlanksQuestionImpl plugin = (FillBlanksQuestionImpl) question.getTypeSpecificQuestion();
+		List<CompiledAnswerKey.Entry> correctAnswers = plugin.getCompiledAnswerKey().getEntries();
+		List<CompiledAnswerKey.Entry> availableCorrectAnswers = new ArrayList<CompiledAnswerKey.Entry>(correctAnswers);
 		int size = correctAnswers.size();
 
-		// Get all other question properties
-		boolean caseSensitive = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getCaseSensitive());
-		boolean anyOrder = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getAnyOrder());
-		boolean textual = Boolean.parseBoolean(((FillBlanksQuestionImpl) question.getTypeSpecificQuestion()).getResponseTextual());
+		boolean anyOrder = Boolean.parseBoolean(plugin.getAnyOrder());
 
 		List<Boolean> rv = new ArrayList<Boolean>(size);
 
@@ -499,8 +452,7 @@ public class FillBlanksAnswerImpl implements TypeSpecificAnswer
 			}
 			else
 			{
-				String correctAnswer = correctAnswers.get(i);
-				rv.add(answerCorrect(answer, correctAnswer, caseSensitive, anyOrder, textual, availableCorrectAnswers));
+				rv.add(answerCorrect(answer, correctAnswers.get(i), anyOrder, availableCorrectAnswers));
 			}
 		}
 
@@ -60,6 +60,9 @@ import org.sakaiproject.util.StringUtil;
  */
 public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 {
+	/** Finds html comments in the question text. */
+	protected static final Pattern HTML_COMMENT = Pattern.compile("<!--(.|\\s)*?-->");
+
 	/** TRUE means any order is OK, FALSE means it is not */
 	protected Boolean anyOrder = Boolean.FALSE;
 
@@ -72,6 +75,9 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	/** TRUE means this is auto scored, if not it needs to be scored manually */
 	protected Boolean automateScore = Boolean.TRUE;
 
+	/** The correct answers, compiled for scoring, from the current text and settings - made when first needed. */
+	protected transient CompiledAnswerKey compiledKey = null;
+
 	protected InternationalizedMessages messages = null;
 
 	protected transient QuestionPlugin plugin = null;
@@ -107,6 +113,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		this.allowOneWord = other.allowOneWord;
 		this.blankSize = other.blankSize;
 		this.automateScore = other.automateScore;
+		this.compiledKey = other.compiledKey;
 		this.text = other.text;
 		this.uiService = other.uiService;
 		this.plugin = other.plugin;
@@ -203,6 +210,9 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// question (with instructions)
 		HtmlEdit question = uiService.newHtmlEdit();
 		question.setSize(HtmlEdit.Sizes.tall);
@@ -278,7 +288,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		answerSection.setIncluded(this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("question.isSurvey"))
 				.setReversed());
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(answerSection);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(questionSection).add(answerSection));
 	}
 	
 	/**
@@ -306,19 +316,38 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	}
 
 	/**
-	 * Get the correct answers for the question.
+	 * Get the correct answers compiled for scoring. The key is kept, and made again only when the text, the survey setting, the case sensitivity or
+	 * the textual setting has changed since.
 	 * 
-	 * @return A List containing each correct answer for the fill-ins in the question.
+	 * @return The compiled answer key, with no answers if the question is not valid.
 	 */
-	public List<String> getCorrectAnswers()
+	public CompiledAnswerKey getCompiledAnswerKey()
 	{
-		List<String> correctAnswers = new ArrayList<String>();
+		boolean survey = this.question.getIsSurvey().booleanValue();
+		boolean caseSensitive = this.caseSensitive.booleanValue();
+		boolean textual = this.responseTextual.booleanValue();
 
-		if (!getIsValid()) return correctAnswers;
+		CompiledAnswerKey rv = this.compiledKey;
+		if ((rv == null) || (!rv.isFor(this.text, survey, caseSensitive, textual)))
+		{
+			List<String> correctAnswers = new ArrayList<String>();
+			if (getIsValid()) parseCorrectAnswers(correctAnswers);
 
-		parseCorrectAnswers(correctAnswers);
+			rv = new CompiledAnswerKey(this.text, survey, caseSensitive, textual, correctAnswers);
+			this.compiledKey = rv;
+		}
 
-		return correctAnswers;
+		return rv;
+	}
+
+	/**
+	 * Get the correct answers for the question.
+	 * 
+	 * @return A List containing each correct answer for the fill-ins in the question.
+	 */
+	public List<String> getCorrectAnswers()
+	{
+		return new ArrayList<String>(getCompiledAnswerKey().getCorrectAnswers());
 	}
 
 	/**
@@ -343,6 +372,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		String key = "delivery/" + this.blankSize + "/" + this.responseTextual + "/" + this.allowOneWord;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		FillIn fillIn = this.uiService.newFillIn();
 		fillIn.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.typeSpecificQuestion.questionText"))
 				.setProperty(this.uiService.newPropertyReference().setReference("answer.typeSpecificAnswer.answers")).setWidth(Integer.parseInt(this.blankSize));
@@ -353,7 +386,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(fillIn);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -469,6 +502,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		String key = "review/" + this.blankSize + "/" + this.automateScore;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		// should we show correct marks?
 		AndDecision mayReviewAndShowCorrect = this.uiService.newAndDecision();
 		Decision[] decisionsMayReviewAndShowCorrect = new Decision[2];
@@ -532,7 +569,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		Section second = this.uiService.newSection();
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -588,6 +625,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 
 	public Component getViewAnswerUi()
 	{
+		String key = "viewAnswer/" + this.blankSize;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		FillIn fillIn = this.uiService.newFillIn();
 		fillIn.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.typeSpecificQuestion.questionText"));
 		fillIn.setProperty(this.uiService.newPropertyReference().setReference("answer.typeSpecificAnswer.answers"));
@@ -598,7 +639,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		fillIn.setCorrectDecision(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("answer.question.hasCorrect")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(fillIn);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(fillIn));
 	}
 
 	/**
@@ -606,6 +647,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		String key = "viewDelivery/" + this.blankSize;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		FillIn fillIn = this.uiService.newFillIn();
 		fillIn.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.typeSpecificQuestion.questionText"));
 		fillIn.setWidth(Integer.parseInt(this.blankSize));
@@ -614,7 +659,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		Section first = this.uiService.newSection();
 		first.add(fillIn);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first));
 	}
 
 	/**
@@ -622,6 +667,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		String key = "viewQuestion/" + this.blankSize;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		FillIn fillIn = this.uiService.newFillIn();
 		fillIn.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.typeSpecificQuestion.questionText"));
 		fillIn.setWidth(Integer.parseInt(this.blankSize));
@@ -640,7 +689,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		second.setIncluded(this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("question.hasCorrect")));
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -648,6 +697,10 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		String key = "viewStats/" + this.blankSize;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		FillIn fillIn = this.uiService.newFillIn();
 		fillIn.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.typeSpecificQuestion.questionText"));
 		fillIn.setWidth(Integer.parseInt(this.blankSize));
@@ -728,7 +781,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 		reasonSection.setIncluded(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("question.explainReason")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section).add(reasonSection);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(section).add(reasonSection));
 	}
 
 	/**
@@ -1188,8 +1241,7 @@ public class FillBlanksQuestionImpl implements TypeSpecificQuestion
 	{
 		if (source == null) return source;
 
-		Pattern p = Pattern.compile("<!--(.|\\s)*?-->");
-		Matcher m = p.matcher(source);
+		Matcher m = HTML_COMMENT.matcher(source);
 		StringBuffer sb = new StringBuffer();
 		while (m.find())
 		{
@@ -25,8 +25,6 @@ package org.etudes.mneme.impl;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
@@ -43,6 +41,20 @@ public class FillInlineAnswerImpl implements TypeSpecificAnswer
 	/** Our log. */
 	private static Log M_log = LogFactory.getLog(FillInlineAnswerImpl.class);
 
+	/**
+	 * Check if this answer is correct, using the question's compiled answer key.
+	 * 
+	 * @param answer
+	 *        The answer
+	 * @param correct
+	 *        The corresponding compiled correct answer.
+	 * @return TRUE if the answer is correct, FALSE if not.
+	 */
+	protected static Boolean answerCorrect(String answer, CompiledAnswerKey.Entry correct)
+	{
+		return Boolean.valueOf(correct.matches(fullTrim(answer)));
+	}
+
 	/**
 	 * Check if this answer is correct.
 	 * 
@@ -105,37 +117,7 @@ public class FillInlineAnswerImpl implements TypeSpecificAnswer
 	 */
 	protected static boolean isFillInAnswerCorrect(String answer, String correct)
 	{
-		// get the set of valid answers from the correct answer pattern (each one may have wild cards)
-		String[] valid = correct.split("\\|");
-		for (String test : valid)
-		{
-			// ignore leading and trailing white space
-			test = trim(test);
-
-			// prepare the test as a regex, quoting all non-wildcards, changing the wildcard "*" into a regex ".+"
-			StringBuffer regex = new StringBuffer();
-			String[] parts = test.replaceAll("\\*", "|*|").split("\\|");
-			for (String part : parts)
-			{
-				if ("*".equals(part))
-				{
-					regex.append(".+");
-				}
-				else
-				{
-					regex.append(Pattern.quote(part));
-				}
-			}
-			Pattern p = Pattern.compile(regex.toString(), Pattern.CASE_INSENSITIVE);
-
-			// test
-			Matcher m = p.matcher(answer);
-			boolean result = m.matches();
-
-			if (result) return true;
-		}
-
-		return false;
+		return new CompiledAnswerKey.Entry(correct, false, true).matches(answer);
 	}
 
 	/**
@@ -349,8 +331,7 @@ public class FillInlineAnswerImpl implements TypeSpecificAnswer
 
 		// we need an answer for each fill-in. The correct answers will give us that size
 		Question question = answer.getQuestion();
-		List<String> correctAnswers = ((FillInlineQuestionImpl) question.getTypeSpecificQuestion()).getCorrectAnswers();
-		List<String> availableCorrectAnswers = new ArrayList<String>(correctAnswers);
+		List<CompiledAnswerKey.Entry> correctAnswers = ((FillInlineQuestionImpl) question.getTypeSpecificQuestion()).getCompiledAnswerKey().getEntries();
 		int size = correctAnswers.size();
 
 		List<Boolean> rv = new ArrayList<Boolean>(size);
@@ -381,8 +362,7 @@ public class FillInlineAnswerImpl implements TypeSpecificAnswer
 			}
 			else
 			{
-				String correctAnswer = correctAnswers.get(i);
-				rv.add(answerCorrect(answer, correctAnswer, availableCorrectAnswers));
+				rv.add(answerCorrect(answer, correctAnswers.get(i)));
 			}
 		}
 
@@ -61,6 +61,12 @@ import org.sakaiproject.util.StringUtil;
  */
 public class FillInlineQuestionImpl implements TypeSpecificQuestion
 {
+	/** Finds html comments in the question text. */
+	protected static final Pattern HTML_COMMENT = Pattern.compile("<!--(.|\\s)*?-->");
+
+	/** The correct answers, compiled for scoring, from the current text - made when first needed. */
+	protected transient CompiledAnswerKey compiledKey = null;
+
 	protected InternationalizedMessages messages = null;
 
 	protected transient QuestionPlugin plugin = null;
@@ -82,6 +88,7 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 	 */
 	public FillInlineQuestionImpl(Question question, FillInlineQuestionImpl other)
 	{
+		this.compiledKey = other.compiledKey;
 		this.messages = other.messages;
 		this.question = question;
 		this.text = other.text;
@@ -160,6 +167,9 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// question (with instructions)
 		HtmlEdit question = uiService.newHtmlEdit();
 		question.setSize(HtmlEdit.Sizes.tall);
@@ -188,7 +198,7 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 		Section questionSection = this.uiService.newSection();
 		questionSection.add(question).add(instructions).add(viewInstructions);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(questionSection);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(questionSection));
 	}
 
 	/**
@@ -215,14 +225,31 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 	 */
 	public List<String> getCorrectAnswers()
 	{
-		List<ArrayList<String>> selectionLists = new ArrayList<ArrayList<String>>();
-		List<String> correctAnswers = new ArrayList<String>();
+		return new ArrayList<String>(getCompiledAnswerKey().getCorrectAnswers());
+	}
+
+	/**
+	 * Get the correct answers compiled for scoring (never case sensitive). The key is kept, and made again only when the text or the survey setting
+	 * has changed since.
+	 * 
+	 * @return The compiled answer key, with no answers if the question is not valid.
+	 */
+	public CompiledAnswerKey getCompiledAnswerKey()
+	{
+		boolean survey = this.question.getIsSurvey().booleanValue();
 
-		if (!getIsValid()) return correctAnswers;
+		CompiledAnswerKey rv = this.compiledKey;
+		if ((rv == null) || (!rv.isFor(this.text, survey, false, true)))
+		{
+			List<ArrayList<String>> selectionLists = new ArrayList<ArrayList<String>>();
+			List<String> correctAnswers = new ArrayList<String>();
+			if (getIsValid()) parseSelectionLists(selectionLists, correctAnswers);
 
-		parseSelectionLists(selectionLists, correctAnswers);
+			rv = new CompiledAnswerKey(this.text, survey, false, true, correctAnswers);
+			this.compiledKey = rv;
+		}
 
-		return correctAnswers;
+		return rv;
 	}
 
 	/**
@@ -241,6 +268,7 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		// not cached, as the other UIs are - the selection lists are this question's own
 		FillInline FillInline = this.uiService.newFillInline();
 		FillInline.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.typeSpecificQuestion.questionText"))
 				.setProperty(this.uiService.newPropertyReference().setReference("answer.typeSpecificAnswer.answers"))
@@ -964,8 +992,7 @@ public class FillInlineQuestionImpl implements TypeSpecificQuestion
 	{
 		if (source == null) return source;
 
-		Pattern p = Pattern.compile("<!--(.|\\s)*?-->");
-		Matcher m = p.matcher(source);
+		Matcher m = HTML_COMMENT.matcher(source);
 		StringBuffer sb = new StringBuffer();
 		while (m.find())
 		{
@@ -30,7 +30,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.ambrosia.api.Context;
 import org.etudes.ambrosia.util.FormatDelegateImpl;
-import org.etudes.mneme.api.Answer;
 import org.etudes.mneme.api.Question;
 import org.etudes.mneme.api.Submission;
 
@@ -72,36 +71,9 @@ public class FormatCountDelegate extends FormatDelegateImpl
 		if (!(o instanceof Question)) return value.toString();
 		Question question = (Question) o;
 
-		int count = 0;
-		int total = 0;
-		for (Submission s : submissions)
-		{
-			if (s.getIsPhantom()) continue;
-			if (!s.getIsComplete()) continue;
-
-			Answer a = s.getAnswer(question);
-			if (a != null)
-			{
-				total++;
-
-				if (a.getIsAnswered())
-				{
-					// does the answer's value match our target answer?
-					// Note: assume that the answer is one of the getData() strings
-					String[] answers = a.getTypeSpecificAnswer().getData();
-					if ((answers != null) && (answers.length > 0))
-					{
-						for (int i = 0; i < answers.length; i++)
-						{
-							if (answers[i].equals(target))
-							{
-								count++;
-							}
-						}
-					}
-				}
-			}
-		}
+		AnswerStats stats = AnswerStats.forQuestion(context, question, submissions);
+		int count = stats.getValueCount(target);
+		int total = stats.getTotal();
 
 		if (total > 0)
 		{
@@ -24,7 +24,6 @@
 
 package org.etudes.mneme.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.logging.Log;
@@ -71,7 +70,7 @@ public class FormatFillInlinePositionCorrectDelegate extends FormatDelegateImpl
 
 		FillInlineQuestionImpl plugin = (FillInlineQuestionImpl) tsq;
 
-		List<String> corrects = plugin.getCorrectAnswers();
+		List<CompiledAnswerKey.Entry> corrects = plugin.getCompiledAnswerKey().getEntries();
 
 		// "position" is the 1 based fill-in position
 		o = context.get("position");
@@ -84,9 +83,9 @@ public class FormatFillInlinePositionCorrectDelegate extends FormatDelegateImpl
 		{
 
 			correct = Boolean.FALSE;
-			for (String aCorrect : corrects)
+			for (CompiledAnswerKey.Entry aCorrect : corrects)
 			{
-				boolean thisCorrect = FillInlineAnswerImpl.answerCorrect(target, aCorrect, new ArrayList<String>());
+				boolean thisCorrect = FillInlineAnswerImpl.answerCorrect(target, aCorrect);
 				if (thisCorrect)
 				{
 					correct = Boolean.TRUE;
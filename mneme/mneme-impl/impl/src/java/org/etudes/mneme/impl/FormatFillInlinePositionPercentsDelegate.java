@@ -30,7 +30,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.ambrosia.api.Context;
 import org.etudes.ambrosia.util.FormatDelegateImpl;
-import org.etudes.mneme.api.Answer;
 import org.etudes.mneme.api.Question;
 import org.etudes.mneme.api.Submission;
 import org.etudes.mneme.api.TypeSpecificQuestion;
@@ -84,35 +83,9 @@ public class FormatFillInlinePositionPercentsDelegate extends FormatDelegateImpl
 		Integer position = (Integer) o;
 		int pos = position - 1;
 
-		int count = 0;
-		int total = 0;
-		for (Submission s : submissions)
-		{
-			if (s.getIsPhantom()) continue;
-			if (!s.getIsComplete()) continue;
-
-			Answer a = s.getAnswer(question);
-			if (a != null)
-			{
-				total++;
-
-				if (a.getIsAnswered())
-				{
-					// does the answer's value match our target answer?
-					// Note: assume that the answer for this position is the nth data element
-					String[] answers = a.getTypeSpecificAnswer().getData();
-					if ((answers != null) && (answers.length > pos) && (answers[pos] != null))
-					{
-						
-							if (answers[pos].equalsIgnoreCase(target))
-							{
-								count++;
-							}
-						
-					}
-				}
-			}
-		}
+		AnswerStats stats = AnswerStats.forQuestion(context, question, submissions);
+		int count = stats.getPositionCount(pos, target, false);
+		int total = stats.getTotal();
 
 		if (total > 0)
 		{
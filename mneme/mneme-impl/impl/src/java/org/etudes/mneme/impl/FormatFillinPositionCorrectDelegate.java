@@ -24,7 +24,6 @@
 
 package org.etudes.mneme.impl;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.commons.logging.Log;
@@ -71,7 +70,7 @@ public class FormatFillinPositionCorrectDelegate extends FormatDelegateImpl
 
 		FillBlanksQuestionImpl plugin = (FillBlanksQuestionImpl) tsq;
 
-		List<String> corrects = plugin.getCorrectAnswers();
+		List<CompiledAnswerKey.Entry> corrects = plugin.getCompiledAnswerKey().getEntries();
 
 		// "position" is the 1 based fill-in position
 		o = context.get("position");
@@ -80,8 +79,6 @@ public class FormatFillinPositionCorrectDelegate extends FormatDelegateImpl
 		int pos = position - 1;
 
 		boolean anyOrder = Boolean.valueOf(plugin.getAnyOrder());
-		boolean caseSensitive = Boolean.valueOf(plugin.getCaseSensitive());
-		boolean textual = Boolean.valueOf(plugin.getResponseTextual());
 
 		Boolean correct = null;
 		if (question.getHasCorrect() && (corrects != null))
@@ -91,16 +88,15 @@ public class FormatFillinPositionCorrectDelegate extends FormatDelegateImpl
 				if (corrects.size() > pos)
 				{
 					// for any order, target can match any corrects position
-					correct = FillBlanksAnswerImpl.answerCorrect(target, corrects.get(pos), caseSensitive, false, textual, new ArrayList<String>());
+					correct = FillBlanksAnswerImpl.answerCorrect(target, corrects.get(pos), false, null);
 				}
 			}
 			else
 			{
 				correct = Boolean.FALSE;
-				for (String aCorrect : corrects)
+				for (CompiledAnswerKey.Entry aCorrect : corrects)
 				{
-					boolean thisCorrect = FillBlanksAnswerImpl
-							.answerCorrect(target, aCorrect, caseSensitive, false, textual, new ArrayList<String>());
+					boolean thisCorrect = FillBlanksAnswerImpl.answerCorrect(target, aCorrect, false, null);
 					if (thisCorrect)
 					{
 						correct = Boolean.TRUE;
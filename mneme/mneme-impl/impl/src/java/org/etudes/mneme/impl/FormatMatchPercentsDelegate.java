@@ -30,7 +30,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.ambrosia.api.Context;
 import org.etudes.ambrosia.util.FormatDelegateImpl;
-import org.etudes.mneme.api.Answer;
 import org.etudes.mneme.api.Question;
 import org.etudes.mneme.api.Submission;
 import org.etudes.mneme.api.TypeSpecificQuestion;
@@ -86,41 +85,9 @@ public class FormatMatchPercentsDelegate extends FormatDelegateImpl
 		if (!(o instanceof String)) return null;
 		String choiceId = (String) o;
 
-		int count = 0;
-		int total = 0;
-		for (Submission s : submissions)
-		{
-			if (s.getIsPhantom()) continue;
-			if (!s.getIsComplete()) continue;
-
-			Answer a = s.getAnswer(question);
-			if (a != null)
-			{
-				total++;
-
-				if (a.getIsAnswered())
-				{
-					// does this answer's entry for this match id = the choice id?
-					// Note: assume that the answer data is match id, choice id, etc...
-					String[] answers = a.getTypeSpecificAnswer().getData();
-					if (answers != null)
-					{
-						for (int i = 0; i < answers.length; i++)
-						{
-							String answerMatchId = answers[i++];
-							String answerChoiceId = answers[i];
-							if ((answerMatchId != null) && (answerMatchId.equals(matchId)))
-							{
-								if ((answerChoiceId != null) && (answerChoiceId.equals(choiceId)))
-								{
-									count++;
-								}
-							}
-						}
-					}
-				}
-			}
-		}
+		AnswerStats stats = AnswerStats.forQuestion(context, question, submissions);
+		int count = stats.getPairCount(matchId, choiceId);
+		int total = stats.getTotal();
 
 		if (total > 0)
 		{
@@ -30,7 +30,6 @@ import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.ambrosia.api.Context;
 import org.etudes.ambrosia.util.FormatDelegateImpl;
-import org.etudes.mneme.api.Answer;
 import org.etudes.mneme.api.Question;
 import org.etudes.mneme.api.Submission;
 import org.etudes.mneme.api.TypeSpecificQuestion;
@@ -77,41 +76,9 @@ public class FormatOrderPercentDelegate extends FormatDelegateImpl
 		String choiceId = ((OrderQuestionChoice)o).getId();
 		String correctPos = ((OrderQuestionChoice)o).getCorrectPos();
 		
-		int count = 0;
-		int total = 0;
-		for (Submission s : submissions)
-		{
-			if (s.getIsPhantom()) continue;
-			if (!s.getIsComplete()) continue;
-
-			Answer a = s.getAnswer(question);
-			if (a != null)
-			{
-				total++;
-
-				if (a.getIsAnswered())
-				{
-					// does this answer's entry match by choice and position
-					String[] answers = a.getTypeSpecificAnswer().getData();
-					if (answers != null)
-					{
-						for (int i = 0; i < answers.length; i++)
-						{
-							String answerPos = answers[i++];
-							String answerChoiceId = answers[i];
-							if ((answerPos != null) && (answerPos.equals(correctPos)))
-							{
-								if ((answerChoiceId != null) && (answerChoiceId.equals(choiceId)))
-								{
-									count++;
-								}
-							}
-						}
-					}
-
-				}
-			}
-		}
+		AnswerStats stats = AnswerStats.forQuestion(context, question, submissions);
+		int count = stats.getPairCount(correctPos, choiceId);
+		int total = stats.getTotal();
 
 		if (total > 0)
 		{
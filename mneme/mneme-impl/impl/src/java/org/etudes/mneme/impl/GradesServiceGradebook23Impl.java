@@ -24,7 +24,14 @@
 
 package org.etudes.mneme.impl;
 
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 
 import org.apache.commons.logging.Log;
@@ -36,6 +43,8 @@ import org.etudes.mneme.api.GradesService;
 import org.etudes.mneme.api.SecurityService;
 import org.etudes.mneme.api.Submission;
 import org.etudes.mneme.api.SubmissionService;
+import org.sakaiproject.db.api.SqlReader;
+import org.sakaiproject.db.api.SqlService;
 import org.sakaiproject.service.gradebook.shared.AssessmentNotFoundException;
 import org.sakaiproject.service.gradebook.shared.AssignmentHasIllegalPointsException;
 import org.sakaiproject.service.gradebook.shared.ConflictingAssignmentNameException;
@@ -49,24 +58,121 @@ import org.sakaiproject.tool.api.SessionManager;
 import org.sakaiproject.user.api.UserDirectoryService;
 
 /**
- * GradesServiceGradebook23Impl implements GradesService, using the Sakai Gradebook, version 2.3, as the grading authority.
+ * GradesServiceGradebook23Impl implements GradesService, using the Sakai Gradebook, version 2.3, as the grading authority.<br />
+ * Grade reports are queued and pushed to the gradebook by a background thread, a batch per assessment, with repeated reports for the same
+ * assessment and user coalesced into one push of the then current score. The queue is kept in the MNEME_GRADE_QUEUE table as well, so reports
+ * not yet pushed at a shutdown or crash are pushed after the next start.
  */
-public class GradesServiceGradebook23Impl implements GradesService
+public class GradesServiceGradebook23Impl implements GradesService, Runnable
 {
+	/**
+	 * A queued grade report.
+	 */
+	protected static class PendingGrade
+	{
+		/** The user id stored for the all users report. */
+		protected static final String ALL_USERS = "*";
+
+		/** The assessment id. */
+		protected String assessmentId = null;
+
+		/** How many times the push has failed. */
+		protected int attempts = 0;
+
+		/** When first queued. */
+		protected long queued = 0;
+
+		/** The user id, or null for all users. */
+		protected String userId = null;
+
+		/** Counts the reports made again while queued, so a push that read an older score leaves the grade queued. */
+		protected int version = 0;
+
+		/**
+		 * Construct.
+		 * 
+		 * @param assessmentId
+		 *        The assessment id.
+		 * @param userId
+		 *        The user id, or null for all users.
+		 */
+		protected PendingGrade(String assessmentId, String userId)
+		{
+			this.assessmentId = assessmentId;
+			this.userId = userId;
+			this.queued = System.currentTimeMillis();
+		}
+
+		/**
+		 * @return The queue key.
+		 */
+		protected String getKey()
+		{
+			return key(this.assessmentId, this.userId);
+		}
+
+		/**
+		 * Form the queue key for an assessment and user.
+		 * 
+		 * @param assessmentId
+		 *        The assessment id.
+		 * @param userId
+		 *        The user id, or null for all users.
+		 * @return The key.
+		 */
+		protected static String key(String assessmentId, String userId)
+		{
+			return assessmentId + "/" + userColumn(userId);
+		}
+
+		/**
+		 * Form the queue table's USERID value for a user.
+		 * 
+		 * @param userId
+		 *        The user id, or null for all users.
+		 * @return The USERID value.
+		 */
+		protected static String userColumn(String userId)
+		{
+			return (userId == null) ? ALL_USERS : userId;
+		}
+	}
+
 	/** Our application name in the grade book UI. */
 	protected static final String APPLICATION_NAME = "AT&S";
 
+	/** How many queue table rows to delete with one statement. */
+	protected static final int DELETE_BATCH = 100;
+
+	/** How many times to try a push before giving up on it. */
+	protected static final int MAX_ATTEMPTS = 5;
+
 	/** Our logger. */
 	private static Log M_log = LogFactory.getLog(GradesServiceGradebook23Impl.class);
 
 	/** Dependency: AssessmentService */
 	protected AssessmentService assessmentService = null;
 
+	/** Configuration: to run the ddl on init or not. */
+	protected boolean autoDdl = false;
+
+	/** How long to wait (ms) between pushes of the queued grades. 0 pushes each report as it is made. */
+	protected long flushMs = 5000L;
+
+	/** The thread that pushes the queued grades. */
+	protected Thread flushThread = null;
+
 	/** Dependency: GradebookExternalAssessmentService */
 	// for 2.4 only: protected GradebookExternalAssessmentService m_gradebookService = null;
 	//protected GradebookService gradebookService = null;
 	protected GradebookExternalAssessmentService gradebookService = null;
 
+	/** The queued grade reports, keyed by assessment and user, in queued order. Changes are written through to the queue table. */
+	protected Map<String, PendingGrade> pending = new LinkedHashMap<String, PendingGrade>();
+
+	/** Held while pushing an assessment's batch, and while retracting, so a retract is not undone by a push already in flight. */
+	protected Object pushLock = new Object();
+
 	/** Dependency: SecurityService */
 	protected SecurityService securityService = null;
 
@@ -76,12 +182,18 @@ public class GradesServiceGradebook23Impl implements GradesService
 	/** The site service. */
 	protected SiteService siteService = null;
 
+	/** Dependency: SqlService. */
+	protected SqlService sqlService = null;
+
 	/** Dependency: SubmissionService */
 	protected SubmissionService submissionService = null;
 
 	/** Dependency: ThreadLocalManager */
 	protected ThreadLocalManager threadLocalManager = null;
 
+	/** The thread quit flag. */
+	protected volatile boolean threadStop = false;
+
 	/** Dependency: UserDirectoryService. */
 	protected UserDirectoryService userDirectoryService = null;
 
@@ -140,7 +252,58 @@ public class GradesServiceGradebook23Impl implements GradesService
 	 */
 	public void destroy()
 	{
-		M_log.info("destroy()");
+		// stop the flush thread - our dependencies may be gone already, so we do not push what is left; it stays in the queue table for the
+		// next start
+		if (this.flushThread != null)
+		{
+			this.threadStop = true;
+			this.flushThread.interrupt();
+
+			// let a push in flight finish
+			try
+			{
+				this.flushThread.join(this.flushMs);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
+			}
+
+			this.flushThread = null;
+		}
+
+		M_log.info("destroy(): unpushed: " + getQueueDepth());
+	}
+
+	/**
+	 * @return The number of grade reports queued to push.
+	 */
+	public int getQueueDepth()
+	{
+		synchronized (this.pending)
+		{
+			return this.pending.size();
+		}
+	}
+
+	/**
+	 * @return How long (ms) the oldest queued grade report has been waiting, 0 if none are waiting.
+	 */
+	public long getQueueLag()
+	{
+		synchronized (this.pending)
+		{
+			if (this.pending.isEmpty()) return 0;
+
+			// reports read back from the queue table keep their first queued time, so the oldest is not always first
+			long oldest = Long.MAX_VALUE;
+			for (PendingGrade grade : this.pending.values())
+			{
+				oldest = Math.min(oldest, grade.queued);
+			}
+
+			return System.currentTimeMillis() - oldest;
+		}
 	}
 
 	/**
@@ -148,7 +311,25 @@ public class GradesServiceGradebook23Impl implements GradesService
 	 */
 	public void init()
 	{
-		M_log.info("init()");
+		if (this.flushMs > 0)
+		{
+			// if we are auto-creating our schema, check and create
+			if (this.autoDdl)
+			{
+				this.sqlService.ddl(this.getClass().getClassLoader(), "mneme_grade_queue");
+			}
+
+			// pick up the reports not pushed before the last shutdown
+			readQueue();
+
+			// start the flush thread
+			this.threadStop = false;
+			this.flushThread = new Thread(this, getClass().getName());
+			this.flushThread.setDaemon(true);
+			this.flushThread.start();
+		}
+
+		M_log.info("init(): flush period (ms): " + this.flushMs + " queued: " + getQueueDepth());
 	}
 
 	/**
@@ -221,45 +402,20 @@ public class GradesServiceGradebook23Impl implements GradesService
 		if (assessment == null) throw new IllegalArgumentException();
 
 		// make sure we are published, valid, have a title, and desire gradebook integration
-		if (!(assessment.getPublished() && assessment.getGrading().getGradebookIntegration() && assessment.getIsValid() && (assessment.getTitle() != null)))
-			return Boolean.FALSE;
-
-		// make sure our assessment is in the gradebook
-		if (!assessmentReported(assessment)) return Boolean.FALSE;
+		if (!reportable(assessment)) return Boolean.FALSE;
 
 		M_log.debug("reportAssessmentGrades: " + assessment.getId());
 
-		try
+		// queue it, unless we are pushing as we go
+		if (this.flushMs > 0)
 		{
-			// make sure there's a gradebook
-			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
-			if (hasGradebook)
-			{
-				// get the "official" submissions map of user id -> Float score (for released completed submissions)
-				Map<String, Float> scores = this.submissionService.getAssessmentHighestScores(assessment, Boolean.TRUE);
-
-				// make them double for gb
-				Map<String, Double> dScores = new HashMap<String, Double>();
-				for (Map.Entry entry : scores.entrySet())
-				{
-					String key = (String) entry.getKey();
-					Float total = (Float) entry.getValue();
-					dScores.put(key, (total == null) ? null : Double.valueOf(toDoubleScore(total)));
-				}
-
-				// report them
-				gradebookService.updateExternalAssessmentScores(assessment.getContext(), assessment.getTitle(), dScores);
-
-				return Boolean.TRUE;
-			}
-		}
-		catch (GradebookNotFoundException e)
-		{
-			M_log.warn("reportAssessmentGrades: " + assessment.getId() + e.toString());
+			queue(assessment.getId(), null);
+			return Boolean.TRUE;
 		}
-		catch (AssessmentNotFoundException e)
+
+		try
 		{
-			M_log.warn("reportAssessmentGrades: " + assessment.getId() + e.toString());
+			return pushAssessmentGrades(assessment);
 		}
 		catch (Exception e)
 		{
@@ -278,51 +434,31 @@ public class GradesServiceGradebook23Impl implements GradesService
 
 		// make sure we are published, valid and desire gradebook integration
 		Assessment assessment = submission.getAssessment();
-		if (!(assessment.getPublished() && assessment.getGrading().getGradebookIntegration() && assessment.getIsValid() && (assessment.getTitle() != null)))
-			return Boolean.FALSE;
+		if (!reportable(assessment)) return Boolean.FALSE;
 
 		// if this one is not complete, it will not cause a change in what we report
 		if (!submission.getIsComplete()) return Boolean.FALSE;
 
 		M_log.debug("reportSubmissionGrade: " + submission.getId());
 
-		try
+		// queue it, unless we are pushing as we go
+		if (this.flushMs > 0)
 		{
-			// make sure there's an entry
-			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
-			if (hasGradebook)
-			{
-				boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
-				if (reported)
-				{
-					String dScore = null;
-
-					// get the official (highest) score for this submission, considering this and all other completed and released submissions
-					Float score = this.submissionService.getSubmissionOfficialScore(assessment, submission.getUserId());
-					if (score != null)
-					{
-						dScore = String.valueOf(toDoubleScore(score));
-					}
-
-					// report it
-					gradebookService.updateExternalAssessmentScore(assessment.getContext(), assessment.getTitle(), submission.getUserId(), dScore);
-
-					return Boolean.TRUE;
-				}
-			}
-		}
-		catch (GradebookNotFoundException e)
-		{
-			M_log.warn("reportSubmissionGrade: " + assessment.getId() + e.toString());
+			queue(assessment.getId(), submission.getUserId());
+			return Boolean.TRUE;
 		}
-		catch (AssessmentNotFoundException e)
+
+		try
 		{
-			M_log.warn("reportSubmissionGrade: " + assessment.getId() + e.toString());
+			List<String> userIds = new ArrayList<String>();
+			userIds.add(submission.getUserId());
+			return pushSubmissionGrades(assessment, userIds);
 		}
 		catch (Exception e)
 		{
 			M_log.warn("reportSubmissionGrade: aid: " + assessment.getId() + " : " + e.toString());
 		}
+
 		return Boolean.FALSE;
 	}
 
@@ -333,30 +469,37 @@ public class GradesServiceGradebook23Impl implements GradesService
 	{
 		M_log.debug("retractAssessmentGrades: " + assessment.getId());
 
-		try
+		// after any push in flight, and before the next
+		synchronized (this.pushLock)
 		{
-			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
-			if (hasGradebook && (assessment.getTitle() != null))
+			// anything queued for the assessment is moot
+			unqueue(assessment.getId(), null);
+
+			try
 			{
-				boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
-				if (reported)
+				boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
+				if (hasGradebook && (assessment.getTitle() != null))
 				{
-					gradebookService.removeExternalAssessment(assessment.getContext(), assessment.getTitle());
-					return Boolean.TRUE;
+					boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
+					if (reported)
+					{
+						gradebookService.removeExternalAssessment(assessment.getContext(), assessment.getTitle());
+						return Boolean.TRUE;
+					}
 				}
 			}
-		}
-		catch (GradebookNotFoundException e)
-		{
-			M_log.warn("retractAssessmentGrades: " + e.toString());
-		}
-		catch (AssessmentNotFoundException e)
-		{
-			M_log.warn("retractAssessmentGrades" + e.toString());
-		}
-		catch (Exception e)
-		{
-			M_log.warn("retractAssessmentGrades: aid: " + assessment.getId() + " : " + e.toString());
+			catch (GradebookNotFoundException e)
+			{
+				M_log.warn("retractAssessmentGrades: " + e.toString());
+			}
+			catch (AssessmentNotFoundException e)
+			{
+				M_log.warn("retractAssessmentGrades" + e.toString());
+			}
+			catch (Exception e)
+			{
+				M_log.warn("retractAssessmentGrades: aid: " + assessment.getId() + " : " + e.toString());
+			}
 		}
 
 		return Boolean.FALSE;
@@ -371,41 +514,80 @@ public class GradesServiceGradebook23Impl implements GradesService
 
 		M_log.debug("retractSubmissionGrade: " + submission.getId());
 
-		try
+		// after any push in flight, and before the next
+		synchronized (this.pushLock)
 		{
-			// make sure there's an entry
-			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
-			if (hasGradebook && (assessment.getTitle() != null))
+			// so a queued report does not put the score back
+			unqueue(assessment.getId(), submission.getUserId());
+
+			try
 			{
-				boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
-				if (reported)
+				// make sure there's an entry
+				boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
+				if (hasGradebook && (assessment.getTitle() != null))
 				{
-					// null retracts the score
-					String score = null;
+					boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
+					if (reported)
+					{
+						// null retracts the score
+						String score = null;
 
-					// report it
-					gradebookService.updateExternalAssessmentScore(assessment.getContext(), assessment.getTitle(), submission.getUserId(), score);
+						// report it
+						gradebookService.updateExternalAssessmentScore(assessment.getContext(), assessment.getTitle(), submission.getUserId(), score);
 
-					return Boolean.TRUE;
+						return Boolean.TRUE;
+					}
 				}
 			}
-		}
-		catch (GradebookNotFoundException e)
-		{
-			M_log.warn("retractSubmissionGrade: " + assessment.getId() + e.toString());
-		}
-		catch (AssessmentNotFoundException e)
-		{
-			M_log.warn("retractSubmissionGrade: " + assessment.getId() + e.toString());
-		}
-		catch (Exception e)
-		{
-			M_log.warn("retractSubmissionGrade: aid: " + assessment.getId() + " : " + e.toString());
+			catch (GradebookNotFoundException e)
+			{
+				M_log.warn("retractSubmissionGrade: " + assessment.getId() + e.toString());
+			}
+			catch (AssessmentNotFoundException e)
+			{
+				M_log.warn("retractSubmissionGrade: " + assessment.getId() + e.toString());
+			}
+			catch (Exception e)
+			{
+				M_log.warn("retractSubmissionGrade: aid: " + assessment.getId() + " : " + e.toString());
+			}
 		}
 
 		return Boolean.FALSE;
 	}
 
+	/**
+	 * Run the flush thread, pushing the queued grades periodically.
+	 */
+	public void run()
+	{
+		while ((!this.threadStop) && (!Thread.currentThread().isInterrupted()))
+		{
+			try
+			{
+				Thread.sleep(this.flushMs);
+			}
+			catch (InterruptedException e)
+			{
+				break;
+			}
+
+			try
+			{
+				flush();
+			}
+			catch (Throwable e)
+			{
+				M_log.warn("run: will continue: ", e);
+			}
+			finally
+			{
+				// clear out any current current bindings
+				this.threadLocalManager.clear();
+			}
+		}
+	}
+
 	/**
 	 * Dependency: AssessmentService.
 	 * 
@@ -417,6 +599,28 @@ public class GradesServiceGradebook23Impl implements GradesService
 		this.assessmentService = service;
 	}
 
+	/**
+	 * Configuration: to run the ddl on init or not.
+	 * 
+	 * @param value
+	 *        the auto ddl value.
+	 */
+	public void setAutoDdl(String value)
+	{
+		this.autoDdl = Boolean.valueOf(value).booleanValue();
+	}
+
+	/**
+	 * Set how long to wait between pushes of the queued grades.
+	 * 
+	 * @param ms
+	 *        The time (ms) between pushes, 0 to push each report as it is made.
+	 */
+	public void setFlushMs(String ms)
+	{
+		this.flushMs = Long.parseLong(ms);
+	}
+
 	/**
 	 * Dependency: GradebookService.
 	 * 
@@ -461,6 +665,17 @@ public class GradesServiceGradebook23Impl implements GradesService
 		this.siteService = service;
 	}
 
+	/**
+	 * Dependency: SqlService.
+	 * 
+	 * @param service
+	 *        The SqlService.
+	 */
+	public void setSqlService(SqlService service)
+	{
+		this.sqlService = service;
+	}
+
 	/**
 	 * Dependency: SubmissionService.
 	 * 
@@ -491,6 +706,425 @@ public class GradesServiceGradebook23Impl implements GradesService
 		this.userDirectoryService = service;
 	}
 
+	/**
+	 * Take grade reports out of the queue table.
+	 * 
+	 * @param assessmentId
+	 *        The assessment id.
+	 * @param userIds
+	 *        The user ids (null for the all users report), or null for all the assessment's reports.
+	 */
+	protected void deleteQueued(String assessmentId, List<String> userIds)
+	{
+		if (userIds == null)
+		{
+			Object[] fields = new Object[1];
+			fields[0] = assessmentId;
+			if (!this.sqlService.dbWrite("DELETE FROM MNEME_GRADE_QUEUE WHERE ASSESSMENT_ID=?", fields))
+			{
+				M_log.warn("deleteQueued: db write failed: aid: " + assessmentId);
+			}
+			return;
+		}
+
+		for (int i = 0; i < userIds.size(); i += DELETE_BATCH)
+		{
+			List<String> batch = userIds.subList(i, Math.min(i + DELETE_BATCH, userIds.size()));
+
+			StringBuilder sql = new StringBuilder();
+			sql.append("DELETE FROM MNEME_GRADE_QUEUE WHERE ASSESSMENT_ID=? AND USERID IN (");
+			Object[] fields = new Object[batch.size() + 1];
+			fields[0] = assessmentId;
+			for (int u = 0; u < batch.size(); u++)
+			{
+				sql.append((u == 0) ? "?" : ",?");
+				fields[u + 1] = PendingGrade.userColumn(batch.get(u));
+			}
+			sql.append(")");
+
+			if (!this.sqlService.dbWrite(sql.toString(), fields))
+			{
+				M_log.warn("deleteQueued: db write failed: aid: " + assessmentId);
+			}
+		}
+	}
+
+	/**
+	 * Push the queued grades to the gradebook, a batch per assessment. Failed pushes stay queued to retry.
+	 */
+	protected void flush()
+	{
+		// what is queued, and the version of each as we found it
+		List<PendingGrade> grades = null;
+		Map<PendingGrade, Integer> versions = new HashMap<PendingGrade, Integer>();
+		synchronized (this.pending)
+		{
+			if (this.pending.isEmpty()) return;
+
+			grades = new ArrayList<PendingGrade>(this.pending.values());
+			for (PendingGrade grade : grades)
+			{
+				versions.put(grade, Integer.valueOf(grade.version));
+			}
+		}
+
+		long start = System.currentTimeMillis();
+
+		// group by assessment
+		Map<String, List<PendingGrade>> byAssessment = new LinkedHashMap<String, List<PendingGrade>>();
+		for (PendingGrade grade : grades)
+		{
+			List<PendingGrade> group = byAssessment.get(grade.assessmentId);
+			if (group == null)
+			{
+				group = new ArrayList<PendingGrade>();
+				byAssessment.put(grade.assessmentId, group);
+			}
+			group.add(grade);
+		}
+
+		for (Map.Entry<String, List<PendingGrade>> entry : byAssessment.entrySet())
+		{
+			// a retract waits for this push to finish, or this push skips what the retract took off the queue
+			synchronized (this.pushLock)
+			{
+				List<PendingGrade> group = stillQueued(entry.getValue());
+				if (group.isEmpty()) continue;
+
+				try
+				{
+					// the assessment as it is now - it may have changed, or no longer be reportable, since the grades were queued
+					Assessment assessment = this.assessmentService.getAssessment(entry.getKey());
+					if ((assessment != null) && reportable(assessment))
+					{
+						// all users covers any single users
+						List<String> userIds = new ArrayList<String>();
+						for (PendingGrade grade : group)
+						{
+							if (grade.userId == null)
+							{
+								userIds = null;
+								break;
+							}
+							userIds.add(grade.userId);
+						}
+
+						if (userIds == null)
+						{
+							pushAssessmentGrades(assessment);
+						}
+						else
+						{
+							pushSubmissionGrades(assessment, userIds);
+						}
+					}
+
+					markPushed(group, versions);
+				}
+				catch (Exception e)
+				{
+					M_log.warn("flush: aid: " + entry.getKey() + " : " + e.toString());
+					markFailed(group);
+				}
+			}
+		}
+
+		if (M_log.isDebugEnabled())
+			M_log.debug("flush: pushed: " + grades.size() + " assessments: " + byAssessment.size() + " ms: " + (System.currentTimeMillis() - start)
+					+ " depth: " + getQueueDepth() + " lag: " + getQueueLag());
+	}
+
+	/**
+	 * Add a grade report to the queue table, replacing any row left for the same assessment and user.
+	 * 
+	 * @param grade
+	 *        The grade report.
+	 */
+	protected void insertQueued(PendingGrade grade)
+	{
+		Object[] fields = new Object[2];
+		fields[0] = grade.assessmentId;
+		fields[1] = PendingGrade.userColumn(grade.userId);
+		this.sqlService.dbWrite("DELETE FROM MNEME_GRADE_QUEUE WHERE ASSESSMENT_ID=? AND USERID=?", fields);
+
+		fields = new Object[4];
+		fields[0] = grade.assessmentId;
+		fields[1] = PendingGrade.userColumn(grade.userId);
+		fields[2] = Long.valueOf(grade.queued);
+		fields[3] = Integer.valueOf(grade.attempts);
+		if (!this.sqlService.dbWrite("INSERT INTO MNEME_GRADE_QUEUE (ASSESSMENT_ID, USERID, QUEUED, ATTEMPTS) VALUES (?,?,?,?)", fields))
+		{
+			M_log.warn("insertQueued: db write failed, queued in memory only: aid: " + grade.assessmentId + " user: " + grade.userId);
+		}
+	}
+
+	/**
+	 * Count a failed push for these grade reports. Those that have failed too often are taken off the queue, but left in the queue table, to be
+	 * tried again after the next start.
+	 * 
+	 * @param grades
+	 *        The grade reports, all for the same assessment.
+	 */
+	protected void markFailed(List<PendingGrade> grades)
+	{
+		synchronized (this.pending)
+		{
+			for (PendingGrade grade : grades)
+			{
+				// retracted while we pushed
+				if (this.pending.get(grade.getKey()) != grade) continue;
+
+				grade.attempts++;
+				if (grade.attempts >= MAX_ATTEMPTS)
+				{
+					M_log.warn("markFailed: giving up until restart: aid: " + grade.assessmentId + " user: " + grade.userId);
+					this.pending.remove(grade.getKey());
+				}
+
+				updateQueued(grade);
+			}
+		}
+	}
+
+	/**
+	 * Take pushed grade reports off the queue - except those reported again since the push read their scores.
+	 * 
+	 * @param grades
+	 *        The grade reports, all for the same assessment.
+	 * @param versions
+	 *        The version of each report when the push started.
+	 */
+	protected void markPushed(List<PendingGrade> grades, Map<PendingGrade, Integer> versions)
+	{
+		synchronized (this.pending)
+		{
+			List<String> userIds = new ArrayList<String>();
+			for (PendingGrade grade : grades)
+			{
+				if (this.pending.get(grade.getKey()) != grade) continue;
+				if (grade.version != versions.get(grade).intValue()) continue;
+
+				this.pending.remove(grade.getKey());
+				userIds.add(grade.userId);
+			}
+
+			if (!userIds.isEmpty()) deleteQueued(grades.get(0).assessmentId, userIds);
+		}
+	}
+
+	/**
+	 * Push all users' grades for the assessment to the gradebook.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @return TRUE if pushed, FALSE if there is no gradebook or gradebook entry for the assessment.
+	 * @throws Exception
+	 *         if the gradebook fails, and the push is worth trying again.
+	 */
+	protected Boolean pushAssessmentGrades(Assessment assessment) throws Exception
+	{
+		// make sure our assessment is in the gradebook
+		if (!assessmentReported(assessment)) return Boolean.FALSE;
+
+		try
+		{
+			// make sure there's a gradebook
+			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
+			if (hasGradebook)
+			{
+				// get the "official" submissions map of user id -> Float score (for released completed submissions)
+				Map<String, Float> scores = this.submissionService.getAssessmentHighestScores(assessment, Boolean.TRUE);
+
+				// make them double for gb
+				Map<String, Double> dScores = new HashMap<String, Double>();
+				for (Map.Entry entry : scores.entrySet())
+				{
+					String key = (String) entry.getKey();
+					Float total = (Float) entry.getValue();
+					dScores.put(key, (total == null) ? null : Double.valueOf(toDoubleScore(total)));
+				}
+
+				// report them
+				gradebookService.updateExternalAssessmentScores(assessment.getContext(), assessment.getTitle(), dScores);
+
+				return Boolean.TRUE;
+			}
+		}
+		catch (GradebookNotFoundException e)
+		{
+			M_log.warn("pushAssessmentGrades: " + assessment.getId() + e.toString());
+		}
+		catch (AssessmentNotFoundException e)
+		{
+			M_log.warn("pushAssessmentGrades: " + assessment.getId() + e.toString());
+		}
+
+		return Boolean.FALSE;
+	}
+
+	/**
+	 * Push these users' grades for the assessment to the gradebook, as one batch.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @param userIds
+	 *        The user ids.
+	 * @return TRUE if pushed, FALSE if there is no gradebook or gradebook entry for the assessment.
+	 * @throws Exception
+	 *         if the gradebook fails, and the push is worth trying again.
+	 */
+	protected Boolean pushSubmissionGrades(Assessment assessment, Collection<String> userIds) throws Exception
+	{
+		try
+		{
+			// make sure there's an entry
+			boolean hasGradebook = gradebookService.isGradebookDefined(assessment.getContext());
+			if (hasGradebook)
+			{
+				boolean reported = gradebookService.isExternalAssignmentDefined(assessment.getContext(), assessment.getTitle());
+				if (reported)
+				{
+					// get the official (highest) score for each user, considering all their completed and released submissions
+					Map<String, Double> dScores = new HashMap<String, Double>();
+					for (String userId : userIds)
+					{
+						Float score = this.submissionService.getSubmissionOfficialScore(assessment, userId);
+						dScores.put(userId, (score == null) ? null : Double.valueOf(toDoubleScore(score)));
+					}
+
+					// report them
+					gradebookService.updateExternalAssessmentScores(assessment.getContext(), assessment.getTitle(), dScores);
+
+					return Boolean.TRUE;
+				}
+			}
+		}
+		catch (GradebookNotFoundException e)
+		{
+			M_log.warn("pushSubmissionGrades: " + assessment.getId() + e.toString());
+		}
+		catch (AssessmentNotFoundException e)
+		{
+			M_log.warn("pushSubmissionGrades: " + assessment.getId() + e.toString());
+		}
+
+		return Boolean.FALSE;
+	}
+
+	/**
+	 * Queue a grade report, unless one is already queued for the assessment and user.
+	 * 
+	 * @param assessmentId
+	 *        The assessment id.
+	 * @param userId
+	 *        The user id, or null for all users.
+	 */
+	protected void queue(String assessmentId, String userId)
+	{
+		String key = PendingGrade.key(assessmentId, userId);
+		PendingGrade grade = null;
+		synchronized (this.pending)
+		{
+			grade = this.pending.get(key);
+			if (grade != null)
+			{
+				// a push in flight may have read the score before this report
+				grade.version++;
+				return;
+			}
+
+			grade = new PendingGrade(assessmentId, userId);
+			this.pending.put(key, grade);
+		}
+
+		// write the queue table outside the lock, so reports for other assessments and users, and the flush, don't wait on the db
+		insertQueued(grade);
+
+		// pushed or retracted while we wrote - take back the row we may have written after its delete
+		List<PendingGrade> written = new ArrayList<PendingGrade>();
+		written.add(grade);
+		if (stillQueued(written).isEmpty())
+		{
+			List<String> userIds = new ArrayList<String>();
+			userIds.add(userId);
+			deleteQueued(assessmentId, userIds);
+		}
+	}
+
+	/**
+	 * Read the queue table into the queue, to push the reports that were not pushed before the last shutdown.
+	 */
+	protected void readQueue()
+	{
+		final List<PendingGrade> grades = new ArrayList<PendingGrade>();
+		this.sqlService.dbRead("SELECT ASSESSMENT_ID, USERID, QUEUED FROM MNEME_GRADE_QUEUE ORDER BY QUEUED", null, new SqlReader()
+		{
+			public Object readSqlResultRecord(ResultSet result)
+			{
+				try
+				{
+					String userId = SqlHelper.readString(result, 2);
+					PendingGrade grade = new PendingGrade(SqlHelper.readString(result, 1), PendingGrade.ALL_USERS.equals(userId) ? null : userId);
+					Long queued = SqlHelper.readLong(result, 3);
+					if (queued != null) grade.queued = queued.longValue();
+					grades.add(grade);
+
+					return null;
+				}
+				catch (SQLException e)
+				{
+					M_log.warn("readQueue: " + e);
+					return null;
+				}
+			}
+		});
+
+		synchronized (this.pending)
+		{
+			for (PendingGrade grade : grades)
+			{
+				if (!this.pending.containsKey(grade.getKey()))
+				{
+					this.pending.put(grade.getKey(), grade);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Check that the assessment is published, valid, has a title, and desires gradebook integration.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @return true if the assessment's grades go to the gradebook, false if not.
+	 */
+	protected boolean reportable(Assessment assessment)
+	{
+		return assessment.getPublished() && assessment.getGrading().getGradebookIntegration() && assessment.getIsValid()
+				&& (assessment.getTitle() != null);
+	}
+
+	/**
+	 * Pick the grade reports that are still queued - not retracted since they were read from the queue.
+	 * 
+	 * @param grades
+	 *        The grade reports.
+	 * @return The grade reports still queued.
+	 */
+	protected List<PendingGrade> stillQueued(List<PendingGrade> grades)
+	{
+		List<PendingGrade> rv = new ArrayList<PendingGrade>(grades.size());
+		synchronized (this.pending)
+		{
+			for (PendingGrade grade : grades)
+			{
+				if (this.pending.get(grade.getKey()) == grade) rv.add(grade);
+			}
+		}
+
+		return rv;
+	}
+
 	/**
 	 * Convert the points / score value into a double, without picking up float to double conversion junk
 	 * 
@@ -510,4 +1144,55 @@ public class GradesServiceGradebook23Impl implements GradesService
 		rv = rv / 100d;
 		return rv;
 	}
+
+	/**
+	 * Remove queued grade reports.
+	 * 
+	 * @param assessmentId
+	 *        The assessment id.
+	 * @param userId
+	 *        The user id, or null for all reports for the assessment.
+	 */
+	protected void unqueue(String assessmentId, String userId)
+	{
+		synchronized (this.pending)
+		{
+			if (userId != null)
+			{
+				if (this.pending.remove(PendingGrade.key(assessmentId, userId)) != null)
+				{
+					List<String> userIds = new ArrayList<String>();
+					userIds.add(userId);
+					deleteQueued(assessmentId, userIds);
+				}
+				return;
+			}
+
+			for (Iterator<PendingGrade> i = this.pending.values().iterator(); i.hasNext();)
+			{
+				if (i.next().assessmentId.equals(assessmentId)) i.remove();
+			}
+
+			// including any rows given up on until restart
+			if (this.flushMs > 0) deleteQueued(assessmentId, null);
+		}
+	}
+
+	/**
+	 * Record a grade report's failed push attempts in the queue table.
+	 * 
+	 * @param grade
+	 *        The grade report.
+	 */
+	protected void updateQueued(PendingGrade grade)
+	{
+		Object[] fields = new Object[3];
+		fields[0] = Integer.valueOf(grade.attempts);
+		fields[1] = grade.assessmentId;
+		fields[2] = PendingGrade.userColumn(grade.userId);
+		if (!this.sqlService.dbWrite("UPDATE MNEME_GRADE_QUEUE SET ATTEMPTS=? WHERE ASSESSMENT_ID=? AND USERID=?", fields))
+		{
+			M_log.warn("updateQueued: db write failed: aid: " + grade.assessmentId + " user: " + grade.userId);
+		}
+	}
 }
@@ -32,6 +32,8 @@ import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -113,8 +115,20 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 	}
 
+	/** Path from a metadata element to its lom general element, whatever the prefix. */
+	protected static final String LOM_GENERAL_PATH = "*[contains(local-name(),'lom')]/*[contains(local-name(),'general')]";
+
 	public static final int MAX_NAME_LENGTH = 150;
 
+	/** Path from a manifest or resource element to its metadata element, whatever the prefix. */
+	protected static final String METADATA_PATH = "*[contains(local-name(),'metadata')]";
+
+	/** How many item files are read ahead of the one being made into a question. */
+	protected static final int READ_AHEAD = 16;
+
+	/** The most bytes (on disk) of item files read ahead of the one being made into a question. */
+	protected static final long READ_AHEAD_BYTES = 4L * 1024L * 1024L;
+
 	/** Our logger. */
 	private static Log M_log = LogFactory.getLog(ImportQti2ServiceImpl.class);
 
@@ -139,6 +153,12 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	/** Dependency: PoolService */
 	protected PoolService poolService = null;
 
+	/** The workers that read and parse item files ahead of the import. */
+	protected ExecutorService readExecutor = null;
+
+	/** How many worker threads read item files. */
+	protected int readThreads = 2;
+
 	/** Dependency: QuestionService */
 	protected QuestionService questionService = null;
 
@@ -156,6 +176,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	 */
 	public void destroy()
 	{
+		// stop the read workers
+		if (this.readExecutor != null)
+		{
+			this.readExecutor.shutdownNow();
+			this.readExecutor = null;
+		}
+
 		M_log.info("destroy()");
 	}
 
@@ -184,9 +211,9 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		try
 		{
 			// if etudes export package has pool resources
-			XPath poolPath = new DOMXPath("//resources/resource[starts-with(@identifier,'POOL')]");
+			XPath poolPath = XPathCache.path("resources/resource[starts-with(@identifier,'POOL')]");
 
-			List<Element> poolItems = poolPath.selectNodes(doc);
+			List<Element> poolItems = poolPath.selectNodes(doc.getDocumentElement());
 			for (Element poolItem : poolItems)
 			{
 				String pId = poolItem.getAttribute("identifier");
@@ -200,19 +227,31 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 				}
 			}
 
-			XPath itemPath = new DOMXPath("//*[contains(local-name(),'resource')]");
-			List<Element> items = itemPath.selectNodes(doc);
+			XPath itemPath = XPathCache.path("*[contains(local-name(),'resources')]/*[contains(local-name(),'resource')]");
+			List<Element> items = itemPath.selectNodes(doc.getDocumentElement());
 
+			// the question items, in order
+			List<Element> questionItems = new ArrayList<Element>();
+			List<String> questionFiles = new ArrayList<String>();
 			for (Element item : items)
 			{
 				String type = item.getAttribute("type");
 				if (type == null || !type.startsWith("imsqti_item_")) continue;
 
 				// read href value
+				if ("".equals(item.getAttribute("href"))) continue;
+
+				questionItems.add(item);
+				questionFiles.add(unzipBackUpLocation + File.separator + item.getAttribute("href").replace("\\", "/"));
+			}
+
+			// the item files are read and parsed on the workers, a few ahead, while the questions are made here in package order
+			XmlReadAhead itemFiles = new XmlReadAhead(this.readExecutor, questionFiles, READ_AHEAD, READ_AHEAD_BYTES);
+			for (Element item : questionItems)
+			{
 				String fileLocation = item.getAttribute("href");
-				if ("".equals(fileLocation)) continue;
 
-				// read Xml file and create question
+				// create question
 				Question question = null;
 				try
 				{
@@ -220,7 +259,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 					fileLocation = fileLocation.replace("\\", "/");
 					if (fileLocation.lastIndexOf("/") != -1) baseName = "/"+ fileLocation.substring(0,fileLocation.lastIndexOf("/"));
 
-					question = processQuestionItemFile(allPools, allQuestions, context, doc, item, allQuestionPoints, pointsAverage,
+					question = processQuestionItemFile(allPools, allQuestions, context, doc, item, itemFiles.next(), allQuestionPoints, pointsAverage,
 							unzipBackUpLocation, fileLocation, baseName);
 				}
 				catch (Exception e)
@@ -378,7 +417,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 
 		// time limit
-		XPath timeLimitPath = new DOMXPath("/assessmentTest/timeLimits");
+		XPath timeLimitPath = XPathCache.path("/assessmentTest/timeLimits");
 		Element timeElement = (Element) timeLimitPath.selectSingleNode(contentsDOM);
 		String maxTime = (timeElement != null) ? timeElement.getAttribute("maxTime") : "";
 
@@ -398,7 +437,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			partNumbering = new Boolean(settings.get("PartNumbering")).booleanValue();
 	
 		// final message
-		XPath finalMessagePath = new DOMXPath("/assessmentTest/testFeedback[@access='atEnd']");
+		XPath finalMessagePath = XPathCache.path("/assessmentTest/testFeedback[@access='atEnd']");
 		String finalMessage = finalMessagePath.stringValueOf(contentsDOM);
 		if (finalMessage != null && finalMessage.length() > 0)
 		{
@@ -408,7 +447,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 
 		// add parts and questions
 		List<Element> partElements = new ArrayList();
-		XPath partsPath = new DOMXPath("/assessmentTest/testPart");
+		XPath partsPath = XPathCache.path("/assessmentTest/testPart");
 		partElements = partsPath.selectNodes(contentsDOM);
 
 		// <itemSessionControl maxAttempts="2" allowReview="true" showFeedback="true">
@@ -427,19 +466,18 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 				
 				// section if more than one section bring as etudes parts
 				List<Element> sectionElements = new ArrayList();
-				XPath sectionPath = new DOMXPath("assessmentSection");
+				XPath sectionPath = XPathCache.path("assessmentSection");
 				sectionElements = sectionPath.selectNodes(partElement);
 
 				if (sectionElements == null || sectionElements.size() == 0) continue;
 				for (Element sectionElement : sectionElements)
 				{
-					String sectionIdentifier = sectionElement.getAttribute("identifier");
 					// rubric
-					XPath rubricPath = new DOMXPath("rubricBlock");
+					XPath rubricPath = XPathCache.path("rubricBlock");
 					Element rubricElement = (Element) rubricPath.selectSingleNode(sectionElement);
 
 					// if part has no questions then skip
-					XPath ItemRefPath = new DOMXPath("assessmentItemRef");
+					XPath ItemRefPath = XPathCache.path("assessmentItemRef");
 					List<Element> refElements = ItemRefPath.selectNodes(sectionElement);
 					if (refElements == null || refElements.size() == 0)
 					{
@@ -474,8 +512,8 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 					int totalPartQuestions = 0;
 					List<Element> requiredQuestions = new ArrayList<Element>();
 
-					XPath randomSelectionPath = new DOMXPath(".//assessmentSection[@identifier='" + sectionIdentifier + "']/selection");
-					Element selection = (Element) randomSelectionPath.selectSingleNode(contentsDOM);
+					XPath randomSelectionPath = XPathCache.path("selection");
+					Element selection = (Element) randomSelectionPath.selectSingleNode(sectionElement);
 
 					// look for selection if yes then there is random draw
 					if (selection != null)
@@ -488,15 +526,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 						totalPartQuestions = Integer.parseInt(randomSelectionCount);
 
 						// select assessmentItemRef with required clause and add as question pick
-						XPath assessmentItemRefPath = new DOMXPath(".//assessmentSection[@identifier='" + sectionIdentifier
-								+ "']/assessmentItemRef[@required='true']");
-						requiredQuestions = assessmentItemRefPath.selectNodes(contentsDOM);
+						XPath assessmentItemRefPath = XPathCache.path("assessmentItemRef[@required='true']");
+						requiredQuestions = assessmentItemRefPath.selectNodes(sectionElement);
 					}
 					else
 					{
 						// add questions to assessment
-						XPath assessmentItemRefPath = new DOMXPath(".//assessmentSection[@identifier='" + sectionIdentifier + "']/assessmentItemRef");
-						requiredQuestions = assessmentItemRefPath.selectNodes(contentsDOM);
+						requiredQuestions = refElements;
 					} // else end
 
 					for (Element questionElement : requiredQuestions)
@@ -534,7 +570,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 
 					// add Random detail
 					int randomCount = totalPartQuestions - requiredQuestions.size();
-					part = buildRandomDrawPart(randomDraw, randomCount, context, sectionIdentifier, unzipBackUpLocation.concat(baseName), contentsDOM, part, allPools, allQuestions,
+					part = buildRandomDrawPart(randomDraw, randomCount, context, sectionElement, unzipBackUpLocation.concat(baseName), contentsDOM, part, allPools, allQuestions,
 							allQuestionPoints);
 
 				} // section element for
@@ -572,7 +608,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		HashMap<String, String> settings = new HashMap<String, String>();
 		try
 		{
-			XPath outcomes = new DOMXPath("/assessmentTest/outcomeDeclaration");
+			XPath outcomes = XPathCache.path("/assessmentTest/outcomeDeclaration");
 			List<Element> outcomeElements = outcomes.selectNodes(contentsDOM);
 
 			for (Element e : outcomeElements)
@@ -603,7 +639,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (partElements != null && partElements.size() > 0)
 		{
 			Element partElement = partElements.get(0);
-			XPath itemSessionControlPath = new DOMXPath("itemSessionControl");
+			XPath itemSessionControlPath = XPathCache.path("itemSessionControl");
 			Element itemSessionControlElement = (Element) itemSessionControlPath.selectSingleNode(partElement);
 
 			if (itemSessionControlElement != null)
@@ -803,6 +839,8 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	 * @param context
 	 * @param doc
 	 * @param resourceItem
+	 * @param contentsDOM
+	 *        The item file, read.
 	 * @param allQuestionPoints
 	 * @param pointsAvg
 	 * @param unzipBackUpLocation
@@ -812,15 +850,14 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	 * @throws Exception
 	 */
 	private Question processQuestionItemFile(HashMap<String, Pool> allPools, HashMap<String, Question> allQuestions, String context, Document doc,
-			Element resourceItem, HashMap<String, String> allQuestionPoints, Average pointsAvg, String unzipBackUpLocation, String fileName,
-			String baseName) throws Exception
+			Element resourceItem, Document contentsDOM, HashMap<String, String> allQuestionPoints, Average pointsAvg, String unzipBackUpLocation,
+			String fileName, String baseName) throws Exception
 	{
-		Document contentsDOM = Xml.readDocument(unzipBackUpLocation + File.separator + fileName);
 		if (contentsDOM == null) return null;
 
 		String interaction = null;
 
-		XPath textPath = new DOMXPath("/assessmentItem/itemBody");
+		XPath textPath = XPathCache.path("/assessmentItem/itemBody");
 		Element itemBody = (Element) textPath.selectSingleNode(contentsDOM);
 		boolean likertClass = (itemBody != null && "likert".equals(itemBody.getAttribute("class"))) ? true : false;
 		boolean surveyType = findQuestionSurvey(resourceItem);
@@ -873,7 +910,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			// question description
 			String description = findDescription(resourceItem);
 
-			XPath questionPath = new DOMXPath("/assessmentItem");
+			XPath questionPath = XPathCache.path("/assessmentItem");
 			Element aiElement = (Element) questionPath.selectSingleNode(contentsDOM);
 			String title = aiElement.getAttribute("title");
 			if (!title.startsWith("question")) question.setTitle(title);
@@ -891,13 +928,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			question.setHints(hints);
 
 			// feedback
-			XPath modalFeedbackPath = new DOMXPath("/assessmentItem/modalFeedback");
+			XPath modalFeedbackPath = XPathCache.path("/assessmentItem/modalFeedback");
 			String feedback = modalFeedbackPath.stringValueOf(contentsDOM);
 			feedback = processInstructionsEmbedMedia(unzipBackUpLocation.concat(baseName), context, feedback, embedMedia);
 			question.setFeedback(feedback);
 
 			// points ...some packages have que_score or score1 or SCORE or MAXSCORE or multiple of these records
-			XPath outcomePath = new DOMXPath(
+			XPath outcomePath = XPathCache.path(
 					"/assessmentItem/outcomeDeclaration[contains(@identifier,'SCORE')] | /assessmentItem/outcomeDeclaration[contains(@identifier,'score')]");
 			List<Element> scores = outcomePath.selectNodes(contentsDOM);
 
@@ -963,7 +1000,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	{
 		String interaction = null;
 		Element interactionElement = null;
-		XPath interactionTypePath = new DOMXPath("/assessmentItem/itemBody//*[contains(local-name(),'Interaction')]");
+		XPath interactionTypePath = XPathCache.path("/assessmentItem/itemBody//*[contains(local-name(),'Interaction')]");
 		interaction = ((interactionElement = (Element) interactionTypePath.selectSingleNode(contentsDOM)) != null) ? interactionElement.getNodeName()
 				: "";
 		return interaction;
@@ -981,7 +1018,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		List<Element> interactionElements = new ArrayList<Element>();
 		Set<String> allTypesInteraction = new HashSet<String>();
 
-		XPath interactionTypePath = new DOMXPath("/assessmentItem/itemBody//*[contains(local-name(),'Interaction')]");
+		XPath interactionTypePath = XPathCache.path("/assessmentItem/itemBody//*[contains(local-name(),'Interaction')]");
 		interactionElements = interactionTypePath.selectNodes(contentsDOM);
 
 		for (Element i : interactionElements)
@@ -1001,10 +1038,10 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		try
 		{
 			Element manifestElement = doc.getDocumentElement();
-			XPath metadataPath = new DOMXPath(".//*[contains(local-name(),'metadata')]");
+			XPath metadataPath = XPathCache.path(METADATA_PATH);
 			Element metadataElement = (Element) metadataPath.selectSingleNode(manifestElement);
 
-			XPath poolDescriptionPath = new DOMXPath(".//*[contains(local-name(),'description')]");
+			XPath poolDescriptionPath = XPathCache.path(LOM_GENERAL_PATH + "/*[contains(local-name(),'description')]");
 			Element descElement = (Element) poolDescriptionPath.selectSingleNode(metadataElement);
 			poolDesc = descElement.getTextContent().trim();
 		}
@@ -1021,10 +1058,10 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		try
 		{
 			Element manifestElement = doc.getDocumentElement();
-			XPath metadataPath = new DOMXPath(".//*[contains(local-name(),'metadata')]");
+			XPath metadataPath = XPathCache.path(METADATA_PATH);
 			Element metadataElement = (Element) metadataPath.selectSingleNode(manifestElement);
 
-			XPath rightsPath = new DOMXPath(".//*[contains(local-name(),'rights')]");
+			XPath rightsPath = XPathCache.path("*[contains(local-name(),'lom')]/*[contains(local-name(),'rights')]");
 			Element rightElement = (Element) rightsPath.selectSingleNode(metadataElement);
 			
 			rights = rightElement.getTextContent().trim();
@@ -1094,11 +1131,11 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			if ("".equals(title))
 			{
 				Element manifestElement = doc.getDocumentElement();
-				XPath metadataPath = new DOMXPath(".//*[contains(local-name(),'metadata')]");
+				XPath metadataPath = XPathCache.path(METADATA_PATH);
 				Element metadataElement = (Element) metadataPath.selectSingleNode(manifestElement);
 				if (metadataElement == null) return poolTitle;
 				
-				XPath poolTitlePath = new DOMXPath(".//*[contains(local-name(),'title')]");
+				XPath poolTitlePath = XPathCache.path(LOM_GENERAL_PATH + "/*[contains(local-name(),'title')]");
 				Element titleElement = (Element) poolTitlePath.selectSingleNode(metadataElement);
 				if (titleElement != null && titleElement.getTextContent().length() > 0) poolTitle = titleElement.getTextContent().trim();
 				if (poolTitle.length() > 255) poolTitle = poolTitle.substring(0, 245);
@@ -1144,12 +1181,12 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	{
 		try
 		{
-			XPath descPath = new DOMXPath(".//*[contains(local-name(),'description')]");
+			XPath descPath = XPathCache.path(METADATA_PATH + "/" + LOM_GENERAL_PATH + "/*[contains(local-name(),'description')]");
 			Element descElement = (Element) descPath.selectSingleNode(testItem);
 			if (descElement != null)
 			{
 				// return descElement.getTextContent().trim();
-				descPath = new DOMXPath(".//*[contains(local-name(),'langstring')]");
+				descPath = XPathCache.path("*[contains(local-name(),'langstring')]");
 				descElement = (Element) descPath.selectSingleNode(descElement);
 				if (descElement != null) return normalizeElementBody(descElement.getOwnerDocument(), descElement);
 			}
@@ -1170,7 +1207,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		AssessmentType testType = AssessmentType.test;
 		try
 		{
-			XPath typePath = new DOMXPath(".//*[contains(local-name(),'identifier')]");
+			XPath typePath = XPathCache.path(METADATA_PATH + "/" + LOM_GENERAL_PATH + "/*[contains(local-name(),'identifier')]");
 			Element typeElement = (Element) typePath.selectSingleNode(testItem);
 			if (typeElement != null)
 			{
@@ -1213,7 +1250,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (testItem == null) return false;
 		try
 		{
-			XPath typePath = new DOMXPath(".//*[contains(local-name(),'identifier')]");
+			XPath typePath = XPathCache.path(METADATA_PATH + "/" + LOM_GENERAL_PATH + "/*[contains(local-name(),'identifier')]");
 			Element typeElement = (Element) typePath.selectSingleNode(testItem);
 			if (typeElement != null)
 			{
@@ -1286,13 +1323,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			{
 				// match element
 				Element matchElement = (Element) answerIdElement.getParentNode();
-				answerPath = new DOMXPath(".//*[@baseType='identifier']");
+				answerPath = XPathCache.path(".//*[@baseType='identifier']");
 				answerIdElement = (Element) answerPath.selectSingleNode(matchElement);
 				String answerIdentifier = answerIdElement.getTextContent();
 
 				// setoutcome element
 				Element responseConditionElement = (Element) matchElement.getParentNode();
-				XPath outcomePath = new DOMXPath(
+				XPath outcomePath = XPathCache.path(
 						".//setOutcomeValue[contains(@identifier,'SCORE')] | .//setOutcomeValue[contains(@identifier,'score')] | .//setOutcomeValue[contains(@identifier,'Correct')]");
 				List<Element> scoreElements = outcomePath.selectNodes(responseConditionElement);
 				String scoreValue = "";
@@ -1381,15 +1418,15 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	private String getQuestionHints(Document contentsDOM, String unzipBackUpLocation, String context, List<String> embedMedia) throws Exception
 	{
 		String hints = "";
-		XPath hintsPath = new DOMXPath(".//feedbackInline[@identifier='Correct'] | .//feedbackBlock[@identifier='Correct']");
+		XPath hintsPath = XPathCache.path(".//feedbackInline[@identifier='Correct'] | .//feedbackBlock[@identifier='Correct']");
 		hints = hintsPath.stringValueOf(contentsDOM);
 
-		XPath feedbackIdDeterminePath = new DOMXPath(
+		XPath feedbackIdDeterminePath = XPathCache.path(
 				"/assessmentItem/responseProcessing/setOutcomeValue[@identifier='FEEDBACK']/variable[@identifier='RESPONSE']");
 		String feedbackIdentifier = feedbackIdDeterminePath.stringValueOf(contentsDOM);
 		if (feedbackIdentifier != null && feedbackIdentifier.length() > 0)
 		{
-			XPath correctAnswerPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+			XPath correctAnswerPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 			
 			String correctAnswerIdentifier = correctAnswerPath.stringValueOf(contentsDOM);
 			if (correctAnswerIdentifier != null && correctAnswerIdentifier.length() > 0)
@@ -1401,7 +1438,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 		else
 		{
-			feedbackIdDeterminePath = new DOMXPath("/assessmentItem/responseProcessing/responseIf/setOutcomeValue[@identifier='FEEDBACK']/baseValue");
+			feedbackIdDeterminePath = XPathCache.path("/assessmentItem/responseProcessing/responseIf/setOutcomeValue[@identifier='FEEDBACK']/baseValue");
 			feedbackIdentifier = feedbackIdDeterminePath.stringValueOf(contentsDOM);
 			if (feedbackIdentifier != null && feedbackIdentifier.length() > 0)
 			{
@@ -1411,7 +1448,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			}
 			else
 			{
-				hintsPath = new DOMXPath(".//feedbackInline");
+				hintsPath = XPathCache.path(".//feedbackInline");
 				hints = hintsPath.stringValueOf(contentsDOM);
 				hints = processInstructionsEmbedMedia(unzipBackUpLocation, context, hints, embedMedia);
 			}
@@ -1471,7 +1508,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 		else
 		{
-			XPath objectPath = new DOMXPath(".//object|.//img|.//a");
+			XPath objectPath = XPathCache.path(".//object|.//img|.//a");
 			objects = objectPath.selectNodes(itemBodyElement);
 		}
 
@@ -1543,7 +1580,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		for (Element i : interactionElements)
 		{
 			String additionalText = "";
-			XPath promptPath = new DOMXPath("prompt|blockquote");
+			XPath promptPath = XPathCache.path("prompt|blockquote");
 			List<Element> prompts = promptPath.selectNodes(i);
 			for (Element prompt : prompts)
 			{
@@ -1749,7 +1786,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		boolean essayType = false;
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
 		if (interactionText != null)
@@ -1762,13 +1799,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			if ("uploadInteraction".equals(interactionText)) essayType = true;
 		}
 		
-		XPath itemBodyPath = new DOMXPath(".//itemBody");
+		XPath itemBodyPath = XPathCache.path(".//itemBody");
 		Element itemBody = (Element)itemBodyPath.selectSingleNode(contentsDOM);
 //		if (containsPrintedText(itemBody))essayType = true;
 		
 		if (interactions == null || !essayType) return null;
 		// submission type
-		XPath responsePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responsePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		Element responseElement = (Element) responsePath.selectSingleNode(contentsDOM);
 		String baseType = (responseElement != null && responseElement.getAttribute("baseType") != null) ? responseElement.getAttribute("baseType")
 				: null;
@@ -1816,7 +1853,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (interactions == null || interactions.size() == 0) return null;
 
 		// correct answer
-		XPath responsePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responsePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		List<Element> responses = responsePath.selectNodes(contentsDOM);
 		Boolean responseTextual = null;
 
@@ -1826,7 +1863,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			{	
 				String answerText = ""; 
 				
-				XPath valuePath = new DOMXPath(".//correctResponse/*[translate(name(), 'VALUE', 'value')='value']"); 
+				XPath valuePath = XPathCache.path(".//correctResponse/*[translate(name(), 'VALUE', 'value')='value']"); 
 				 
 				Element value = (Element)valuePath.selectSingleNode(response);
 			
@@ -1880,7 +1917,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		List<String> correctAnswerChoices = new ArrayList<String>();
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
@@ -1974,7 +2011,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		boolean printedVariable = false;
 		try
 		{
-			XPath printedPath = new DOMXPath(".//printedVariable");
+			XPath printedPath = XPathCache.path(".//printedVariable");
 			List<Element> variables = printedPath.selectNodes(itemBody);
 			if (variables != null && variables.size() > 0) printedVariable = true;
 		}
@@ -1990,14 +2027,14 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	 * @param randomDraw
 	 * @param randomCount
 	 * @param context
-	 * @param sectionIdentifier
+	 * @param sectionElement
 	 * @param contentsDOM
 	 * @param part
 	 * @param allPools
 	 * @param allQuestions
 	 * @return
 	 */
-	private Part buildRandomDrawPart(boolean randomDraw, int randomCount, String context, String sectionIdentifier, String unzipLocation, Document contentsDOM, Part part,
+	private Part buildRandomDrawPart(boolean randomDraw, int randomCount, String context, Element sectionElement, String unzipLocation, Document contentsDOM, Part part,
 			HashMap<String, Pool> allPools, HashMap<String, Question> allQuestions, HashMap<String, String> allQuestionPoints)
 	{
 		try
@@ -2005,13 +2042,11 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			if (!randomDraw) return part;
 
 			// find all questions
-			XPath assessmentItemRefPath = new DOMXPath(".//assessmentSection[@identifier='" + sectionIdentifier + "']/assessmentItemRef");
-			List<Element> optionalQuestions = assessmentItemRefPath.selectNodes(contentsDOM);
+			XPath assessmentItemRefPath = XPathCache.path("assessmentItemRef");
+			List<Element> optionalQuestions = assessmentItemRefPath.selectNodes(sectionElement);
 
 			// create randomPool for these questions
-			XPath assessmentSectionPath = new DOMXPath(".//assessmentSection[@identifier='" + sectionIdentifier + "']");
-			Element section = (Element) assessmentSectionPath.selectSingleNode(contentsDOM);
-			String randomPoolTitle = (section != null) ? section.getAttribute("title") : part.getId() + "_randomPool";
+			String randomPoolTitle = sectionElement.getAttribute("title");
 			Pool randomPool = poolService.newPool(context);
 			randomPool.setTitle(findPoolTitle(context, randomPoolTitle , contentsDOM));
 
@@ -2119,13 +2154,13 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	{
 		if (interactionText == null || !interactionText.equals("choiceInteraction")) return null;
 
-		XPath scalePath = new DOMXPath(".//correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath scalePath = XPathCache.path(".//correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		
 		String scale = scalePath.stringValueOf(contentsDOM);
 
 		if (scale == null || scale.length() == 0)
 		{
-			XPath simpleChoicesPath = new DOMXPath("//simpleChoice");
+			XPath simpleChoicesPath = XPathCache.path("//simpleChoice");
 			List<Element> choiceList = (List<Element>) simpleChoicesPath.selectNodes(contentsDOM);
 			List<String> answerChoices = new ArrayList<String>();
 
@@ -2161,7 +2196,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	{
 		if (!(("matchInteraction").equals(interactionText) || ("associateInteraction").equals(interactionText))) return null;
 
-		XPath responsePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responsePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		Element responseElement = (Element) responsePath.selectSingleNode(contentsDOM);
 		String baseType = (responseElement != null && responseElement.getAttribute("baseType") != null) ? responseElement.getAttribute("baseType")
 				: null;
@@ -2172,7 +2207,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		Element choices = (Element) choicesPath.selectSingleNode(contentsDOM);
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = (List<Element>) identifierPath.selectNodes(contentsDOM);
 
 		if (choices == null || values == null) return null;
@@ -2249,7 +2284,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			doneAssociation++;
 		}
 		// distractor
-		XPath choicePath = new DOMXPath(".//simpleAssociableChoice");
+		XPath choicePath = XPathCache.path(".//simpleAssociableChoice");
 		List<Element> allChoices = choicePath.selectNodes(contentsDOM);
 
 		for (Element c : allChoices)
@@ -2289,7 +2324,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		for (Element choice: choices)
 		{
 			String choice1 = "";
-			XPath promptPath = new DOMXPath(".//prompt|.//blockquote");
+			XPath promptPath = XPathCache.path(".//prompt|.//blockquote");
 			List<Element> prompts = promptPath.selectNodes(choice);
 			for (Element prompt : prompts)
 			{
@@ -2320,7 +2355,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 
 		// find distractor
-/*		XPath distractorPath = new DOMXPath(".//simpleChoice");
+/*		XPath distractorPath = XPathCache.path(".//simpleChoice");
 		List<Element> distractors = distractorPath.selectNodes(contentsDOM);
 		for (Element distractor : distractors)
 		{
@@ -2352,15 +2387,15 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		String questionText = "";
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
-		XPath gapInteractionPath = new DOMXPath("/assessmentItem/itemBody//gapMatchInteraction");
+		XPath gapInteractionPath = XPathCache.path("/assessmentItem/itemBody//gapMatchInteraction");
 		Element gapInteractionElement = (Element) gapInteractionPath.selectSingleNode(contentsDOM);
 		String interactionIdentifier = gapInteractionElement.getAttribute("responseIdentifier");
 
 		// The bandit killed her <gap identifier="G1"/>
-		XPath gapPath = new DOMXPath("/assessmentItem/itemBody//gap");
+		XPath gapPath = XPathCache.path("/assessmentItem/itemBody//gap");
 		List<Element> gaps = gapPath.selectNodes(contentsDOM);
 
 		for (Element gap : gaps)
@@ -2394,7 +2429,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 
 		// add hints
-		XPath gaptextPath = new DOMXPath(".//gapText");
+		XPath gaptextPath = XPathCache.path(".//gapText");
 		List<Element> allGapTexts = gaptextPath.selectNodes(contentsDOM);
 
 		String hints = "";
@@ -2404,7 +2439,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 			g.setTextContent("");
 		}
 
-		XPath itemBodyPath = new DOMXPath("/assessmentItem/itemBody");
+		XPath itemBodyPath = XPathCache.path("/assessmentItem/itemBody");
 		Element itemBodyElement = (Element) itemBodyPath.selectSingleNode(contentsDOM);
 		questionText = normalizeElementBody(contentsDOM, itemBodyElement);
 
@@ -2428,7 +2463,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (!"orderInteraction".equals(interactionText)) return null;
 
 		// correct answer
-		XPath responseDeclarePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responseDeclarePath = XPathCache.path("/assessmentItem/responseDeclaration");
 
 		// choice interaction
 		XPath choicesPath = new DOMXPath("/assessmentItem/itemBody//" + interactionText);
@@ -2437,10 +2472,10 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (choices == null) return null;
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
-		XPath simpleChoicesPath = new DOMXPath("//simpleChoice");
+		XPath simpleChoicesPath = XPathCache.path("//simpleChoice");
 		List<Element> choiceList = simpleChoicesPath.selectNodes(contentsDOM);
 		
 		text = text.concat("\n <table width='55%' border='0'>");
@@ -2481,7 +2516,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	private Question buildMultipleChoiceforUnsupported(Pool pool, String text, String unzipLocation, String context, Document contentsDOM) throws Exception
 	{
 		// text has all content
-		XPath itemPath = new DOMXPath(".//itemBody");
+		XPath itemPath = XPathCache.path(".//itemBody");
 		Element item = (Element) itemPath.selectSingleNode(contentsDOM);
 		List<String> bringMedia = new ArrayList<String>();
 		text = normalizeItemBodyElement(contentsDOM, item, true, unzipLocation, context, bringMedia);
@@ -2521,7 +2556,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		}
 
 		int i = 0;
-		XPath choicePath = new DOMXPath(".//simpleAssociableChoice");
+		XPath choicePath = XPathCache.path(".//simpleAssociableChoice");
 		List<Element> allChoices = choicePath.selectNodes(contentsDOM);
 
 		for (Element c : allChoices)
@@ -2559,7 +2594,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (!("choiceInteraction").equals(interactionText)) return null;
 
 		// correct answer
-		XPath responseDeclarePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responseDeclarePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		Element responseDeclare = (Element) responseDeclarePath.selectSingleNode(contentsDOM);
 		String cardinality = (responseDeclare.getAttribute("cardinality") != null) ? responseDeclare.getAttribute("cardinality") : null;
 		String basetype = (responseDeclare.getAttribute("baseType") != null) ? responseDeclare.getAttribute("baseType") : null;
@@ -2571,10 +2606,10 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (choices == null) return null;
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
-		XPath simpleChoicesPath = new DOMXPath("//simpleChoice");
+		XPath simpleChoicesPath = XPathCache.path("//simpleChoice");
 		List<Element> choiceList = simpleChoicesPath.selectNodes(contentsDOM);
 
 		if (!("identifier".equalsIgnoreCase(basetype) && cardinality != null && choiceList.size() > 0)) return null;
@@ -2632,7 +2667,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (!("orderInteraction").equals(interactionText)) return null;
 
 		// correct answer
-		XPath responseDeclarePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responseDeclarePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		Element responseDeclare = (Element) responseDeclarePath.selectSingleNode(contentsDOM);
 		String cardinality = (responseDeclare.getAttribute("cardinality") != null) ? responseDeclare.getAttribute("cardinality") : null;
 		String basetype = (responseDeclare.getAttribute("baseType") != null) ? responseDeclare.getAttribute("baseType") : null;
@@ -2644,10 +2679,10 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		if (choices == null) return null;
 
 		// correct answer
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
-		XPath simpleChoicesPath = new DOMXPath("//simpleChoice");
+		XPath simpleChoicesPath = XPathCache.path("//simpleChoice");
 		List<Element> choiceList = simpleChoicesPath.selectNodes(contentsDOM);
 
 		if (!("identifier".equalsIgnoreCase(basetype) && cardinality != null && choiceList.size() > 0)) return null;
@@ -2808,21 +2843,21 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 
 		if (interactionText == null || !interactionText.equals("choiceInteraction")) return null;
 
-		XPath responseDeclarePath = new DOMXPath("/assessmentItem/responseDeclaration");
+		XPath responseDeclarePath = XPathCache.path("/assessmentItem/responseDeclaration");
 		Element responseDeclare = (Element) responseDeclarePath.selectSingleNode(contentsDOM);
 		String cardinality = (responseDeclare.getAttribute("cardinality") != null) ? responseDeclare.getAttribute("cardinality") : null;
 		String basetype = (responseDeclare.getAttribute("baseType") != null) ? responseDeclare.getAttribute("baseType") : null;
 
 		// choice interaction
-		XPath choicesPath = new DOMXPath("/assessmentItem/itemBody//choiceInteraction");
+		XPath choicesPath = XPathCache.path("/assessmentItem/itemBody//choiceInteraction");
 		Element choices = (Element) choicesPath.selectSingleNode(contentsDOM);
 
 		if (choices == null) return null;
 
-		XPath identifierPath = new DOMXPath("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
+		XPath identifierPath = XPathCache.path("/assessmentItem/responseDeclaration/correctResponse/*[translate(name(), 'VALUE', 'value')='value']");
 		List<Element> values = identifierPath.selectNodes(contentsDOM);
 
-		XPath simpleChoicesPath = new DOMXPath("//simpleChoice");
+		XPath simpleChoicesPath = XPathCache.path("//simpleChoice");
 		List<Element> choiceList = simpleChoicesPath.selectNodes(contentsDOM);
 
 		// check for true/false traits
@@ -2917,7 +2952,7 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 	 */
 	private Element removeFeedback(Element itemBodyElement) throws Exception
 	{
-		XPath inlineFeedbackPath = new DOMXPath(".//feedbackInline | .//feedbackBlock");
+		XPath inlineFeedbackPath = XPathCache.path(".//feedbackInline | .//feedbackBlock");
 		List<Element> feedbackElements = inlineFeedbackPath.selectNodes(itemBodyElement);
 
 		if (feedbackElements != null && feedbackElements.size() > 0)
@@ -2980,6 +3015,9 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		// messages
 		if (this.bundle != null) this.messages = new ResourceLoader(this.bundle);
 
+		// the read workers
+		this.readExecutor = Executors.newFixedThreadPool(this.readThreads);
+
 		M_log.info("init()");
 	}
 
@@ -3060,6 +3098,17 @@ public class ImportQti2ServiceImpl implements ImportQti2Service
 		this.questionService = service;
 	}
 
+	/**
+	 * Set the number of worker threads that read item files.
+	 * 
+	 * @param count
+	 *        The number of threads.
+	 */
+	public void setReadThreads(String count)
+	{
+		this.readThreads = Integer.parseInt(count);
+	}
+
 	/**
 	 * Dependency: SecurityService.
 	 * 
@@ -30,6 +30,8 @@ import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.regex.Matcher;
 
 import org.apache.commons.logging.Log;
@@ -58,7 +60,6 @@ import org.sakaiproject.thread_local.api.ThreadLocalManager;
 import org.sakaiproject.tool.api.SessionManager;
 import org.sakaiproject.util.ResourceLoader;
 import org.sakaiproject.util.StringUtil;
-import org.sakaiproject.util.Xml;
 import org.w3c.dom.Attr;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -92,6 +93,12 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		}
 	}
 
+	/** How many package files are read ahead of the one being imported. */
+	protected static final int READ_AHEAD = 4;
+
+	/** The most bytes (on disk) of package files read ahead of the one being imported. */
+	protected static final long READ_AHEAD_BYTES = 4L * 1024L * 1024L;
+
 	/** Our logger. */
 	private static Log M_log = LogFactory.getLog(ImportQtiServiceImpl.class);
 
@@ -125,6 +132,12 @@ public class ImportQtiServiceImpl implements ImportQtiService
 	/** Dependency: QuestionService */
 	protected QuestionService questionService = null;
 
+	/** The workers that read and parse package files ahead of the import. */
+	protected ExecutorService readExecutor = null;
+
+	/** How many worker threads read package files. */
+	protected int readThreads = 2;
+
 	/** Dependency: SecurityService */
 	protected SecurityService securityService = null;
 
@@ -142,6 +155,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 	 */
 	public void destroy()
 	{
+		// stop the read workers
+		if (this.readExecutor != null)
+		{
+			this.readExecutor.shutdownNow();
+			this.readExecutor = null;
+		}
+
 		M_log.info("destroy()");
 	}
 
@@ -155,9 +175,10 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		if ((doc == null) || (!doc.hasChildNodes())) return qti1File;
 		try
 		{
-			XPath itemPath = new DOMXPath("//*[contains(local-name(),'resource')]");
-			List<Element> items = itemPath.selectNodes(doc);
+			XPath itemPath = XPathCache.path("*[contains(local-name(),'resources')]/*[contains(local-name(),'resource')]");
+			List<Element> items = itemPath.selectNodes(doc.getDocumentElement());
 
+			List<String> fileNames = new ArrayList<String>();
 			for (Element item : items)
 			{
 				String type = item.getAttribute("type");
@@ -170,9 +191,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				String fileLocation = item.getAttribute("href");
 				if ("".equals(fileLocation)) continue;
 
-				// read Xml file and create question
-				Document fileDoc = Xml.readDocument(unzipBackUpLocation + File.separator + fileLocation);
-				importPool(fileDoc, context);
+				fileNames.add(unzipBackUpLocation + File.separator + fileLocation);
+			}
+
+			// read Xml files on the workers, a few ahead, and create questions here in package order
+			XmlReadAhead files = new XmlReadAhead(this.readExecutor, fileNames, READ_AHEAD, READ_AHEAD_BYTES);
+			for (int i = 0; i < fileNames.size(); i++)
+			{
+				importPool(files.next(), context);
 			}
 		}
 		catch (Exception ex)
@@ -194,12 +220,12 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		String description = "";
 		try
 		{
-			XPath assessmentTitlePath = new DOMXPath("/questestinterop/assessment/@title");
+			XPath assessmentTitlePath = XPathCache.path("/questestinterop/assessment/@title");
 			String title = StringUtil.trimToNull(assessmentTitlePath.stringValueOf(doc));
 			if (title == null)
 			{
 				// try for a single /item
-				XPath itemTitlePath = new DOMXPath("/item/@title");
+				XPath itemTitlePath = XPathCache.path("/item/@title");
 				title = StringUtil.trimToNull(itemTitlePath.stringValueOf(doc));
 			}
 
@@ -207,7 +233,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			{
 				poolId = title;
 			}
-			XPath descriptionPath = new DOMXPath("/questestinterop/assessment/presentation_material//mattext");
+			XPath descriptionPath = XPathCache.path("/questestinterop/assessment/presentation_material//mattext");
 			description = StringUtil.trimToNull(descriptionPath.stringValueOf(doc));
 		}
 		catch (JaxenException e)
@@ -230,7 +256,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		// process questions
 		try
 		{
-			XPath itemPath = new DOMXPath("//item");
+			XPath itemPath = XPathCache.path("//item");
 			List items = itemPath.selectNodes(doc);
 
 			for (Object oItem : items)
@@ -275,6 +301,9 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		// messages
 		if (this.bundle != null) this.messages = new ResourceLoader(this.bundle);
 
+		// the read workers
+		this.readExecutor = Executors.newFixedThreadPool(this.readThreads);
+
 		M_log.info("init()");
 	}
 
@@ -377,6 +406,17 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		this.questionService = service;
 	}
 
+	/**
+	 * Set the number of worker threads that read package files.
+	 * 
+	 * @param count
+	 *        The number of threads.
+	 */
+	public void setReadThreads(String count)
+	{
+		this.readThreads = Integer.parseInt(count);
+	}
+
 	/**
 	 * Dependency: SecurityService.
 	 * 
@@ -579,7 +619,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			externalId = StringUtil.trimToNull(item.getAttribute("ident"));
 
-			XPath metaDataPath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
+			XPath metaDataPath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
 			String qmdItemType = StringUtil.trimToNull(metaDataPath.stringValueOf(item));
 			if ("Multiple Correct Answer".equalsIgnoreCase(qmdItemType))
 			{
@@ -590,17 +630,17 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				return false;
 			}
 
-			XPath rationalePath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
+			XPath rationalePath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
 			String rationaleValue = StringUtil.trimToNull(rationalePath.stringValueOf(item));
 			if (rationaleValue == null) return false;
 			rationale = "true".equalsIgnoreCase(rationaleValue);
 
-			XPath shufflePath = new DOMXPath("presentation//response_lid//render_choice/@shuffle");
+			XPath shufflePath = XPathCache.path("presentation//response_lid//render_choice/@shuffle");
 			String shuffleValue = StringUtil.trimToNull(shufflePath.stringValueOf(item));
 			if (shuffleValue != null)
 				shuffle = "yes".equalsIgnoreCase(shuffleValue);
 
-			// XPath singleAnswerPath = new DOMXPath("presentation//response_lid/@rcardinality");
+			// XPath singleAnswerPath = XPathCache.path("presentation//response_lid/@rcardinality");
 			// String singleAnswerValue = StringUtil.trimToNull(singleAnswerPath.stringValueOf(item));
 			// if (singleAnswerValue == null) return false;
 			// boolean singleAnswer2 = "single".equalsIgnoreCase(singleAnswerValue);
@@ -610,11 +650,11 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			// System.out.println(" !!!!!!!!!!! single answer mismatch");
 			// }
 
-			XPath textPath = new DOMXPath("presentation//material[not(ancestor::response_lid)]/mattext");
+			XPath textPath = XPathCache.path("presentation//material[not(ancestor::response_lid)]/mattext");
 			presentation = combineHits(textPath, item);
 			if (presentation == null) return false;
 
-			XPath pointsPath = new DOMXPath("resprocessing/outcomes/decvar/@maxvalue");
+			XPath pointsPath = XPathCache.path("resprocessing/outcomes/decvar/@maxvalue");
 			String pointsValue = StringUtil.trimToNull(pointsPath.stringValueOf(item));
 			if (pointsValue == null) return false;
 			try
@@ -627,7 +667,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			}
 
 			// use the first (correct / incorrect) feedback as the feedback
-			XPath feedbackPath = new DOMXPath(".//itemfeedback//material/mattext");
+			XPath feedbackPath = XPathCache.path(".//itemfeedback//material/mattext");
 			List feedbacks = feedbackPath.selectNodes(item);
 			for (Object oFeedback : feedbacks)
 			{
@@ -642,7 +682,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// answers - w/ id
 			Map<String, String> answerMap = new LinkedHashMap<String, String>();
-			XPath answersPath = new DOMXPath(".//presentation//response_lid//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//presentation//response_lid//render_choice//response_label");
 			List answers = answersPath.selectNodes(item);
 			for (Object oAnswer : answers)
 			{
@@ -651,7 +691,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 				if (id == null) continue;
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer == null) continue;
 
@@ -688,7 +728,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			List<MultipleChoiceQuestionImpl.MultipleChoiceQuestionChoice> choicesAuthored = mc.getChoicesAsAuthored();
 
 			// the correct answers
-			XPath correctAnswerPath = new DOMXPath("resprocessing/respcondition[displayfeedback/@linkrefid='Correct']/conditionvar/varequal");
+			XPath correctAnswerPath = XPathCache.path("resprocessing/respcondition[displayfeedback/@linkrefid='Correct']/conditionvar/varequal");
 			List corrects = correctAnswerPath.selectNodes(item);
 			for (Object oCorrect : corrects)
 			{
@@ -758,26 +798,26 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			externalId = StringUtil.trimToNull(item.getAttribute("ident"));
 
-			XPath metaDataPath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
+			XPath metaDataPath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
 			String qmdItemType = StringUtil.trimToNull(metaDataPath.stringValueOf(item));
 			if (!"Multiple Choice Survey".equalsIgnoreCase(qmdItemType))
 			{
 				return false;
 			}
 
-			XPath rationalePath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
+			XPath rationalePath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
 			String rationaleValue = StringUtil.trimToNull(rationalePath.stringValueOf(item));
 			if (rationaleValue != null)
 			{
 				rationale = "true".equalsIgnoreCase(rationaleValue);
 			}
 
-			XPath textPath = new DOMXPath("presentation//material[not(ancestor::response_lid)]/mattext");
+			XPath textPath = XPathCache.path("presentation//material[not(ancestor::response_lid)]/mattext");
 			presentation = combineHits(textPath, item);
 			if (presentation == null) return false;
 
 			// use the first (correct / incorrect) feedback as the feedback
-			XPath feedbackPath = new DOMXPath(".//itemfeedback//material/mattext");
+			XPath feedbackPath = XPathCache.path(".//itemfeedback//material/mattext");
 			List feedbacks = feedbackPath.selectNodes(item);
 			for (Object oFeedback : feedbacks)
 			{
@@ -792,7 +832,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// answers
 			Set<String> answerSet = new HashSet<String>();
-			XPath answersPath = new DOMXPath(".//presentation//response_lid//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//presentation//response_lid//render_choice//response_label");
 			List answers = answersPath.selectNodes(item);
 			for (Object oAnswer : answers)
 			{
@@ -801,7 +841,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 				if (id == null) continue;
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer == null) continue;
 
@@ -931,20 +971,20 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			externalId = StringUtil.trimToNull(item.getAttribute("ident"));
 
-			XPath metaDataPath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
+			XPath metaDataPath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
 			String qmdItemType = StringUtil.trimToNull(metaDataPath.stringValueOf(item));
 			if (!"True False".equalsIgnoreCase(qmdItemType)) return false;
 
-			XPath rationalePath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
+			XPath rationalePath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='hasRationale']/fieldentry");
 			String rationaleValue = StringUtil.trimToNull(rationalePath.stringValueOf(item));
 			if (rationaleValue == null) return false;
 			rationale = "true".equalsIgnoreCase(rationaleValue);
 
-			XPath textPath = new DOMXPath("presentation//material[not(ancestor::response_lid)]/mattext");
+			XPath textPath = XPathCache.path("presentation//material[not(ancestor::response_lid)]/mattext");
 			presentation = combineHits(textPath, item);
 			if (presentation == null) return false;
 
-			XPath pointsPath = new DOMXPath("resprocessing/outcomes/decvar/@maxvalue");
+			XPath pointsPath = XPathCache.path("resprocessing/outcomes/decvar/@maxvalue");
 			String pointsValue = StringUtil.trimToNull(pointsPath.stringValueOf(item));
 			if (pointsValue == null) return false;
 			try
@@ -957,7 +997,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			}
 
 			// use the first (correct / incorrect) feedback as the feedback
-			XPath feedbackPath = new DOMXPath(".//itemfeedback//material/mattext");
+			XPath feedbackPath = XPathCache.path(".//itemfeedback//material/mattext");
 			List feedbacks = feedbackPath.selectNodes(item);
 			for (Object oFeedback : feedbacks)
 			{
@@ -972,7 +1012,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// answers - w/ id
 			Map<String, String> answerMap = new HashMap<String, String>();
-			XPath answersPath = new DOMXPath(".//presentation//response_lid//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//presentation//response_lid//render_choice//response_label");
 			List answers = answersPath.selectNodes(item);
 			for (Object oAnswer : answers)
 			{
@@ -980,7 +1020,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer != null)
 				{
@@ -1001,7 +1041,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (!trueSeen) return false;
 
 			// the id of the correct answer
-			XPath correctAnswerPath = new DOMXPath("resprocessing/respcondition[@title='Correct']/conditionvar/varequal");
+			XPath correctAnswerPath = XPathCache.path("resprocessing/respcondition[@title='Correct']/conditionvar/varequal");
 			String correctId = StringUtil.trimToNull(correctAnswerPath.stringValueOf(item));
 			if (correctId == null) return false;
 			String correctValue = answerMap.get(correctId);
@@ -1070,26 +1110,26 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		try
 		{
 			XPath metaDataPath;
-			metaDataPath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
+			metaDataPath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='qmd_itemtype']/fieldentry");
 			String qmdItemType = StringUtil.trimToNull(metaDataPath.stringValueOf(item));
 			if (!"Fill In the Blank".equalsIgnoreCase(qmdItemType)) return false;
 
-			XPath caseSensitivePath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='CASE_SENSITIVE']/fieldentry");
+			XPath caseSensitivePath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='CASE_SENSITIVE']/fieldentry");
 			String caseSensitiveValue = StringUtil.trimToNull(caseSensitivePath.stringValueOf(item));
 			if (caseSensitiveValue != null) caseSensitive = "true".equalsIgnoreCase(caseSensitiveValue);
 
-			XPath mutuallyExclusivePath = new DOMXPath("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='MUTUALLY_EXCLUSIVE']/fieldentry");
+			XPath mutuallyExclusivePath = XPathCache.path("itemmetadata/qtimetadata/qtimetadatafield[fieldlabel='MUTUALLY_EXCLUSIVE']/fieldentry");
 			String mutuallyExclusiveValue = StringUtil.trimToNull(mutuallyExclusivePath.stringValueOf(item));
 			if (mutuallyExclusiveValue != null) mutuallyExclusive = "true".equalsIgnoreCase(mutuallyExclusiveValue);
 
-			XPath textPath = new DOMXPath("presentation//material[not(ancestor::response_lid)]/mattext");
-			XPath blanksPath = new DOMXPath("presentation//response_str/render_fib");
-			XPath answersPath = new DOMXPath("resprocessing//respcondition/conditionvar/or/varequal");
+			XPath textPath = XPathCache.path("presentation//material[not(ancestor::response_lid)]/mattext");
+			XPath blanksPath = XPathCache.path("presentation//response_str/render_fib");
+			XPath answersPath = XPathCache.path("resprocessing//respcondition/conditionvar/or/varequal");
 
 			presentation = buildFillInQuestionText(textPath, blanksPath, answersPath, item);
 			if (presentation == null) return false;
 
-			XPath pointsPath = new DOMXPath("resprocessing/outcomes/decvar/@maxvalue");
+			XPath pointsPath = XPathCache.path("resprocessing/outcomes/decvar/@maxvalue");
 			String pointsValue = StringUtil.trimToNull(pointsPath.stringValueOf(item));
 			if (pointsValue == null) return false;
 			try
@@ -1169,13 +1209,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 		{
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null) presentationTextBuilder.append(matText);
@@ -1185,14 +1225,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null)
 			{
 				// QTI format - presentation/flow/material/mattext
-				presentationTextPath = new DOMXPath("presentation/flow/material/mattext");
+				presentationTextPath = XPathCache.path("presentation/flow/material/mattext");
 				presentation = StringUtil.trimToNull(presentationTextPath.stringValueOf(item));
 			}
 
 			if (presentation == null) return false;
 
 			// reponse_lid
-			XPath reponseLidPath = new DOMXPath("presentation//response_lid");
+			XPath reponseLidPath = XPathCache.path("presentation//response_lid");
 			List responseLids = reponseLidPath.selectNodes(item);
 
 			if ((responseLids.size() == 0) || (responseLids.size() > 1)) return false;
@@ -1206,7 +1246,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// answers - w/ id
 			Map<String, String> answerMap = new HashMap<String, String>();
-			XPath answersPath = new DOMXPath(".//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//render_choice//response_label");
 			List answers = answersPath.selectNodes(responseLidElement);
 			for (Object oAnswer : answers)
 			{
@@ -1214,7 +1254,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer != null)
 				{
@@ -1239,7 +1279,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (!trueSeen) return false;
 
 			// score declaration - decvar
-			XPath scoreDecVarPath = new DOMXPath("resprocessing/outcomes/decvar");
+			XPath scoreDecVarPath = XPathCache.path("resprocessing/outcomes/decvar");
 			Element scoreDecVarElement = (Element) scoreDecVarPath.selectSingleNode(item);
 
 			if (scoreDecVarElement == null) return false;
@@ -1249,7 +1289,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if ((vartype != null) && !("Integer".equalsIgnoreCase(vartype) || "Decimal".equalsIgnoreCase(vartype))) return false;
 
 			// correct answer
-			XPath respConditionPath = new DOMXPath("resprocessing/respcondition");
+			XPath respConditionPath = XPathCache.path("resprocessing/respcondition");
 			List responses = respConditionPath.selectNodes(item);
 
 			if (responses == null || responses.size() == 0) return false;
@@ -1258,7 +1298,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			{
 				Element responseElement = (Element) oResponse;
 
-				XPath responsePath = new DOMXPath("conditionvar/varequal");
+				XPath responsePath = XPathCache.path("conditionvar/varequal");
 				String responseText = StringUtil.trimToNull(responsePath.stringValueOf(responseElement));
 
 				if (responseText != null)
@@ -1266,7 +1306,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 					if (!answerMap.containsKey(responseText)) return false;
 
 					// score
-					XPath setVarPath = new DOMXPath("setvar");
+					XPath setVarPath = XPathCache.path("setvar");
 					Element setVarElement = (Element) setVarPath.selectSingleNode(responseElement);
 
 					if (setVarElement == null) return false;
@@ -1288,7 +1328,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 						}
 
 						// feedback optional and can be Response, Solution, Hint
-						XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+						XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 						Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 						if (displayFeedbackElement == null) continue;
@@ -1306,7 +1346,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 							if (feedbackElement == null) continue;
 
-							XPath feedbackTextPath = new DOMXPath("material/mattext");
+							XPath feedbackTextPath = XPathCache.path("material/mattext");
 							String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 							feedback = feedbackText;
@@ -1381,13 +1421,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null) presentationTextBuilder.append(matText);
@@ -1397,14 +1437,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null)
 			{
 				// QTI format - presentation/flow/material/mattext
-				presentationTextPath = new DOMXPath("presentation/flow/material/mattext");
+				presentationTextPath = XPathCache.path("presentation/flow/material/mattext");
 				presentation = StringUtil.trimToNull(presentationTextPath.stringValueOf(item));
 			}
 
 			if (presentation == null) return false;
 			
 			// reponse_lid
-			XPath reponseLidPath = new DOMXPath("presentation//response_lid");
+			XPath reponseLidPath = XPathCache.path("presentation//response_lid");
 			List responseLids = reponseLidPath.selectNodes(item);
 
 			if ((responseLids.size() == 0) || (responseLids.size() > 1)) return false;
@@ -1418,14 +1458,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			if ("Multiple".equalsIgnoreCase(rcardinality)) singleAnswer = false;
 
-			XPath shufflePath = new DOMXPath(".//render_choice/@shuffle");
+			XPath shufflePath = XPathCache.path(".//render_choice/@shuffle");
 			String shuffleValue = StringUtil.trimToNull(shufflePath.stringValueOf(responseLidElement));
 			if (shuffleValue != null)
 				shuffle = "yes".equalsIgnoreCase(shuffleValue);
 			
 			// answers - w/ id
 			Map<String, String> answerMap = new LinkedHashMap<String, String>();
-			XPath answersPath = new DOMXPath(".//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//render_choice//response_label");
 			List answers = answersPath.selectNodes(responseLidElement);
 			for (Object oAnswer : answers)
 			{
@@ -1433,7 +1473,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer != null)
 				{
@@ -1447,7 +1487,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (answerMap.size() < 2) return false;
 
 			// score declaration - decvar
-			XPath scoreDecVarPath = new DOMXPath("resprocessing/outcomes/decvar");
+			XPath scoreDecVarPath = XPathCache.path("resprocessing/outcomes/decvar");
 			Element scoreDecVarElement = (Element) scoreDecVarPath.selectSingleNode(item);
 
 			if (scoreDecVarElement == null) return false;
@@ -1469,7 +1509,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			}
 			
 			// correct answer
-			XPath respConditionPath = new DOMXPath("resprocessing/respcondition");
+			XPath respConditionPath = XPathCache.path("resprocessing/respcondition");
 			List responses = respConditionPath.selectNodes(item);
 
 			// correct answers
@@ -1481,7 +1521,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			{
 				Element responseElement = (Element) oResponse;
 
-				XPath responsePath = new DOMXPath("conditionvar/varequal");
+				XPath responsePath = XPathCache.path("conditionvar/varequal");
 				String responseText = StringUtil.trimToNull(responsePath.stringValueOf(responseElement));
 
 				if (responseText != null)
@@ -1489,7 +1529,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 					if (!answerMap.containsKey(responseText)) continue;
 					
 					// score
-					XPath setVarPath = new DOMXPath("setvar");
+					XPath setVarPath = XPathCache.path("setvar");
 					Element setVarElement = (Element) setVarPath.selectSingleNode(responseElement);
 
 					if (setVarElement == null) continue;
@@ -1520,7 +1560,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 						}
 
 						// feedback optional and can be Response, Solution, Hint
-						XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+						XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 						Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 						if (displayFeedbackElement == null) continue;
@@ -1538,7 +1578,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 							if (feedbackElement == null) continue;
 
-							XPath feedbackTextPath = new DOMXPath("material/mattext");
+							XPath feedbackTextPath = XPathCache.path("material/mattext");
 							String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 							feedback = feedbackText;
@@ -1567,7 +1607,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 						points += resPoints;
 
 						// feedback optional and can be Response, Solution, Hint
-						XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+						XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 						Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 						if (displayFeedbackElement == null) continue;
@@ -1588,7 +1628,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 							if (feedbackElement == null) continue;
 
-							XPath feedbackTextPath = new DOMXPath("material/mattext");
+							XPath feedbackTextPath = XPathCache.path("material/mattext");
 							String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 							feedback = feedbackText;
@@ -1711,13 +1751,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null) presentationTextBuilder.append(matText);
@@ -1727,14 +1767,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null)
 			{
 				// QTI format - presentation/flow/material/mattext
-				presentationTextPath = new DOMXPath("presentation/flow/material/mattext");
+				presentationTextPath = XPathCache.path("presentation/flow/material/mattext");
 				presentation = StringUtil.trimToNull(presentationTextPath.stringValueOf(item));
 			}
 
 			if (presentation == null) return false;
 
 			// reponse_str/response_fib
-			XPath renderFibPath = new DOMXPath("presentation/response_str/render_fib");
+			XPath renderFibPath = XPathCache.path("presentation/response_str/render_fib");
 			Element responseFib = (Element) renderFibPath.selectSingleNode(item);
 
 			if (responseFib == null) return false;
@@ -1758,7 +1798,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			// type
 			e.setSubmissionType(EssayQuestionImpl.SubmissionType.inline);
 
-			XPath itemfeedbackPath = new DOMXPath("itemfeedback/material/mattext");
+			XPath itemfeedbackPath = XPathCache.path("itemfeedback/material/mattext");
 			feedback = StringUtil.trimToNull(itemfeedbackPath.stringValueOf(item));
 
 			// add feedback
@@ -1810,13 +1850,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null) presentationTextBuilder.append(matText);
@@ -1826,14 +1866,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null)
 			{
 				// QTI format - presentation/flow/material/mattext
-				presentationTextPath = new DOMXPath("presentation/flow/material/mattext");
+				presentationTextPath = XPathCache.path("presentation/flow/material/mattext");
 				presentation = StringUtil.trimToNull(presentationTextPath.stringValueOf(item));
 			}
 
 			if (presentation == null) return false;
 
 			// reponse_str/response_fib
-			XPath renderFibPath = new DOMXPath("presentation/response_str/render_fib");
+			XPath renderFibPath = XPathCache.path("presentation/response_str/render_fib");
 			Element responseFib = (Element) renderFibPath.selectSingleNode(item);
 
 			if (responseFib == null) return false;
@@ -1847,7 +1887,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (!"Box".equalsIgnoreCase(promptAttr.getValue().trim())) return false;
 
 			// score declaration - decvar
-			XPath scoreDecVarPath = new DOMXPath("resprocessing/outcomes/decvar");
+			XPath scoreDecVarPath = XPathCache.path("resprocessing/outcomes/decvar");
 			Element scoreDecVarElement = (Element) scoreDecVarPath.selectSingleNode(item);
 
 			if (scoreDecVarElement == null) return false;
@@ -1869,7 +1909,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			}
 
 			// correct answer
-			XPath respConditionPath = new DOMXPath("resprocessing/respcondition");
+			XPath respConditionPath = XPathCache.path("resprocessing/respcondition");
 			List responses = respConditionPath.selectNodes(item);
 
 			if (responses == null || responses.size() == 0) return false;
@@ -1878,13 +1918,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			{
 				Element responseElement = (Element) oResponse;
 
-				XPath responsePath = new DOMXPath("conditionvar/varequal");
+				XPath responsePath = XPathCache.path("conditionvar/varequal");
 				String responseText = StringUtil.trimToNull(responsePath.stringValueOf(responseElement));
 
 				if (responseText != null)
 				{
 					// score
-					XPath setVarPath = new DOMXPath("setvar");
+					XPath setVarPath = XPathCache.path("setvar");
 					Element setVarElement = (Element) setVarPath.selectSingleNode(responseElement);
 
 					if (setVarElement == null) continue;
@@ -1898,7 +1938,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 						answers.add(responseText.trim());
 
 						// feedback optional and can be Response, Solution, Hint
-						XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+						XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 						Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 						if (displayFeedbackElement == null) continue;
@@ -1916,7 +1956,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 							if (feedbackElement == null) continue;
 
-							XPath feedbackTextPath = new DOMXPath("material/mattext");
+							XPath feedbackTextPath = XPathCache.path("material/mattext");
 							String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 							feedback = feedbackText;
@@ -2011,13 +2051,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null) presentationTextBuilder.append(matText);
@@ -2027,14 +2067,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null)
 			{
 				// QTI format - presentation/flow/material/mattext
-				presentationTextPath = new DOMXPath("presentation/flow/material/mattext");
+				presentationTextPath = XPathCache.path("presentation/flow/material/mattext");
 				presentation = StringUtil.trimToNull(presentationTextPath.stringValueOf(item));
 			}
 
 			if (presentation == null) return false;
 
 			// reponse_lid
-			XPath reponseLidPath = new DOMXPath("presentation//response_lid");
+			XPath reponseLidPath = XPathCache.path("presentation//response_lid");
 			List responseLids = reponseLidPath.selectNodes(item);
 
 			if (responseLids.size() == 0) return false;
@@ -2050,13 +2090,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 				if (StringUtil.trimToNull(identifier) == null) continue;
 
-				XPath matchPresentationPath = new DOMXPath("material/mattext");
+				XPath matchPresentationPath = XPathCache.path("material/mattext");
 				String matchPresentationText = StringUtil.trimToNull(matchPresentationPath.stringValueOf(responseLidElement));
 
 				matchPresentations.put(identifier, matchPresentationText);
 
 				// response_label
-				XPath reponseChoicePath = new DOMXPath("render_choice/response_label");
+				XPath reponseChoicePath = XPathCache.path("render_choice/response_label");
 				List reponseChoices = reponseChoicePath.selectNodes(responseLidElement);
 
 				Map<String, String> answerChoices = new HashMap<String, String>();
@@ -2068,7 +2108,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 					if (StringUtil.trimToNull(responseChoiceId) == null) continue;
 
-					XPath choicePresentation = new DOMXPath("material/mattext");
+					XPath choicePresentation = XPathCache.path("material/mattext");
 					String matchChoicesText = StringUtil.trimToNull(choicePresentation.stringValueOf(reponseChoiceElement));
 
 					if (StringUtil.trimToNull(matchChoicesText) == null) continue;
@@ -2092,7 +2132,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 					if (answerElement == null) continue;
 
-					XPath setvarPath = new DOMXPath("../../setvar");
+					XPath setvarPath = XPathCache.path("../../setvar");
 					Element setvarElement = (Element) setvarPath.selectSingleNode(answerElement);
 
 					if (setvarElement == null) continue;
@@ -2105,7 +2145,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				}
 			}
 
-			XPath pointsPath = new DOMXPath("resprocessing/outcomes/decvar[@varname='Respondus_Correct']/@maxvalue");
+			XPath pointsPath = XPathCache.path("resprocessing/outcomes/decvar[@varname='Respondus_Correct']/@maxvalue");
 			String pointsValue = StringUtil.trimToNull(pointsPath.stringValueOf(item));
 
 			try
@@ -2149,7 +2189,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				index++;
 			}
 
-			XPath itemfeedbackPath = new DOMXPath("itemfeedback/material/mattext");
+			XPath itemfeedbackPath = XPathCache.path("itemfeedback/material/mattext");
 			feedback = StringUtil.trimToNull(itemfeedbackPath.stringValueOf(item));
 
 			if (feedback != null)
@@ -2192,13 +2232,13 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 			// presentation text
 			// Respondous is using the format - presentation/material/mattext
-			XPath presentationTextPath = new DOMXPath("presentation/material/mattext");
+			XPath presentationTextPath = XPathCache.path("presentation/material/mattext");
 			List presentationMaterialTexts = presentationTextPath.selectNodes(item);
 			StringBuilder presentationTextBuilder = new StringBuilder();
 			for (Object presentationMaterialText : presentationMaterialTexts)
 			{
 				Element presentationTextElement = (Element) presentationMaterialText;
-				XPath matTextPath = new DOMXPath(".");
+				XPath matTextPath = XPathCache.path(".");
 				String matText = StringUtil.trimToNull(matTextPath.stringValueOf(presentationTextElement));
 
 				if (matText != null)
@@ -2209,7 +2249,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if (presentation == null) return false;
 
 			// reponse_lid
-			XPath reponseLidPath = new DOMXPath("presentation//response_lid");
+			XPath reponseLidPath = XPathCache.path("presentation//response_lid");
 			List responseLids = reponseLidPath.selectNodes(item);
 
 			if ((responseLids.size() == 0) || (responseLids.size() > 1)) 
@@ -2227,14 +2267,14 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			if ("Multiple".equalsIgnoreCase(rcardinality))
 				singleAnswer = false;
 
-			XPath shufflePath = new DOMXPath(".//render_choice/@shuffle");
+			XPath shufflePath = XPathCache.path(".//render_choice/@shuffle");
 			String shuffleValue = StringUtil.trimToNull(shufflePath.stringValueOf(item));
 			if (shuffleValue != null)
 				shuffle = "yes".equalsIgnoreCase(shuffleValue);
 
 			// answers - w/ id
 			Map<String, String> answerMap = new LinkedHashMap<String, String>();
-			XPath answersPath = new DOMXPath(".//render_choice//response_label");
+			XPath answersPath = XPathCache.path(".//render_choice//response_label");
 			List answers = answersPath.selectNodes(responseLidElement);
 			for (Object oAnswer : answers)
 			{
@@ -2242,7 +2282,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 
 				String id = StringUtil.trimToNull(answerElement.getAttribute("ident"));
 
-				XPath answerMaterialPath = new DOMXPath(".//material//mattext");
+				XPath answerMaterialPath = XPathCache.path(".//material//mattext");
 				String answer = combineHits(answerMaterialPath, answerElement);
 				if (answer != null)
 				{
@@ -2253,7 +2293,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			//if (answerMap.size() < 2) return false;
 
 			// score declaration - decvar
-			XPath scoreDecVarPath = new DOMXPath("resprocessing/outcomes/decvar");
+			XPath scoreDecVarPath = XPathCache.path("resprocessing/outcomes/decvar");
 			Element scoreDecVarElement = (Element) scoreDecVarPath.selectSingleNode(item);
 
 			if (scoreDecVarElement != null)
@@ -2283,7 +2323,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 			}
 
 			// correct answer
-			XPath respConditionPath = new DOMXPath("resprocessing/respcondition");
+			XPath respConditionPath = XPathCache.path("resprocessing/respcondition");
 			List responses = respConditionPath.selectNodes(item);
 
 			// correct answers
@@ -2298,7 +2338,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 				{
 					Element responseElement = (Element) oResponse;
 
-					XPath responsePath = new DOMXPath("conditionvar/varequal");
+					XPath responsePath = XPathCache.path("conditionvar/varequal");
 					String responseText = StringUtil.trimToNull(responsePath.stringValueOf(responseElement));
 
 					if (responseText != null)
@@ -2307,7 +2347,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 							return false;
 
 						// score
-						XPath setVarPath = new DOMXPath("setvar");
+						XPath setVarPath = XPathCache.path("setvar");
 						Element setVarElement = (Element) setVarPath.selectSingleNode(responseElement);
 
 						if (setVarElement == null)
@@ -2341,7 +2381,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 							}
 
 							// feedback optional and can be Response, Solution, Hint
-							XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+							XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 							Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 							if (displayFeedbackElement == null)
@@ -2362,7 +2402,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 								if (feedbackElement == null)
 									continue;
 
-								XPath feedbackTextPath = new DOMXPath("material/mattext");
+								XPath feedbackTextPath = XPathCache.path("material/mattext");
 								String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 								feedback = feedbackText;
@@ -2393,7 +2433,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 							points += resPoints;
 
 							// feedback optional and can be Response, Solution, Hint
-							XPath displayFeedbackPath = new DOMXPath("displayfeedback");
+							XPath displayFeedbackPath = XPathCache.path("displayfeedback");
 							Element displayFeedbackElement = (Element) displayFeedbackPath.selectSingleNode(responseElement);
 
 							if (displayFeedbackElement == null)
@@ -2418,7 +2458,7 @@ public class ImportQtiServiceImpl implements ImportQtiService
 								if (feedbackElement == null)
 									continue;
 
-								XPath feedbackTextPath = new DOMXPath("material/mattext");
+								XPath feedbackTextPath = XPathCache.path("material/mattext");
 								String feedbackText = StringUtil.trimToNull(feedbackTextPath.stringValueOf(feedbackElement));
 
 								feedback = feedbackText;
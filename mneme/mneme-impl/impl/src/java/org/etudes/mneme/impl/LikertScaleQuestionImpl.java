@@ -156,6 +156,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// scale
 		Selection scale = uiService.newSelection();
 		scale.setProperty(this.uiService.newPropertyReference().setReference("question.typeSpecificQuestion.scale"));
@@ -168,7 +171,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(scale);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -244,6 +247,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "delivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -270,7 +276,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "delivery", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -340,6 +346,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "review");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -367,7 +376,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "review", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -496,6 +505,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewAnswer");
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 		entityList.setIterator(this.uiService.newPropertyReference().setReference("answer.question.typeSpecificQuestion.choices"), "choice");
@@ -520,7 +532,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		propCol.setProperty(this.uiService.newHtmlPropertyReference().setReference("choice.text"));
 		entityList.addColumn(propCol);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(entityList);
+		return QuestionUiCache.put(getClass(), "viewAnswer", this.uiService.newFragment().setMessages(this.messages).add(entityList));
 	}
 
 	/**
@@ -528,6 +540,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewDelivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -554,7 +569,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "viewDelivery", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -562,6 +577,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewQuestion");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -588,7 +606,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "viewQuestion", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -596,6 +614,9 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewStats");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -658,7 +679,7 @@ public class LikertScaleQuestionImpl implements TypeSpecificQuestion
 		reasonSection.setIncluded(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("question.explainReason")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section).add(reasonSection);
+		return QuestionUiCache.put(getClass(), "viewStats", this.uiService.newFragment().setMessages(this.messages).add(section).add(reasonSection));
 	}
 
 	/**
@@ -489,6 +489,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// list of choices
 		EntityList choices = this.uiService.newEntityList();
 		choices.setStyle(EntityList.Style.form);
@@ -549,7 +552,7 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 		choicesSection.setTitle("choices", this.uiService.newIconPropertyReference().setIcon("/icons/answer_key.png"));
 		choicesSection.add(choices).add(distractor).add(addMore).add(noMore);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(choicesSection);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(choicesSection));
 	}
 
 	/**
@@ -590,6 +593,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "delivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -663,9 +669,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 
 		// Section alternateUI = getDeliveryUiMatchSection();
 
-		return this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
+		return QuestionUiCache.put(getClass(), "delivery", this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
 		// .add(alternateUI)
-		;
+		);
 	}
 
 	/**
@@ -931,6 +937,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "review");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -1083,8 +1092,8 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 		Section answerKeySection = this.uiService.newSection();
 		answerKeySection.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
-				.add(answerKeySection);
+		return QuestionUiCache.put(getClass(), "review", this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
+				.add(answerKeySection));
 	}
 
 	/**
@@ -1132,6 +1141,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewAnswer");
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 		entityList.setIterator(this.uiService.newPropertyReference().setReference("answer.question.typeSpecificQuestion.pairsForDelivery")
@@ -1234,7 +1246,7 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 				this.uiService.newPropertyReference().setReference("answer.question.hasCorrect")));
 		answerKeySection.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(choiceSection).add(matchSection).add(answerKeySection);
+		return QuestionUiCache.put(getClass(), "viewAnswer", this.uiService.newFragment().setMessages(this.messages).add(choiceSection).add(matchSection).add(answerKeySection));
 	}
 
 	/**
@@ -1242,6 +1254,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewDelivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1311,7 +1326,7 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 		Section matchSection = this.uiService.newSection();
 		matchSection.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection);
+		return QuestionUiCache.put(getClass(), "viewDelivery", this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection));
 	}
 
 	/**
@@ -1319,6 +1334,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewQuestion");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1399,8 +1417,8 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 				this.uiService.newPropertyReference().setReference("question.hasCorrect")));
 		answerKeySection.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
-				.add(answerKeySection);
+		return QuestionUiCache.put(getClass(), "viewQuestion", this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(choiceSection).add(matchSection)
+				.add(answerKeySection));
 	}
 
 	/**
@@ -1408,6 +1426,9 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewStats");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1473,7 +1494,7 @@ public class MatchQuestionImpl implements TypeSpecificQuestion
 				this.uiService.newHtmlPropertyReference().setFormatDelegate(
 						this.uiService.getFormatDelegate("FormatUnansweredPercent", "sakai.mneme")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(matches).add(unanswered);
+		return QuestionUiCache.put(getClass(), "viewStats", this.uiService.newFragment().setMessages(this.messages).add(quesitonSection).add(matches).add(unanswered));
 	}
 
 	/**
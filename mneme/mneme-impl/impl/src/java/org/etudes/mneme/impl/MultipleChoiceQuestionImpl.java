@@ -396,6 +396,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		String key = "authoring/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		// single or multiple answers
 		Selection singleMultiple = uiService.newSelection();
 		singleMultiple.setProperty(this.uiService.newPropertyReference().setReference("question.typeSpecificQuestion.singleCorrect"));
@@ -482,7 +486,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		choices.setTitle("choices");
 		choices.add(choicesList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(answer).add(choices);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(answer).add(choices));
 	}
 
 	/**
@@ -626,6 +630,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		String key = "delivery/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -666,7 +674,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -755,6 +763,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		String key = "review/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -864,7 +876,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		Section second = this.uiService.newSection();
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -946,6 +958,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		String key = "viewAnswer/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 		entityList
@@ -991,7 +1007,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		propCol.setProperty(this.uiService.newHtmlPropertyReference().setDirty().setStripP().setReference("choice.text"));
 		entityList.addColumn(propCol);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(entityList);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(entityList));
 	}
 
 	/**
@@ -999,6 +1015,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		String key = "viewDelivery/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1039,7 +1059,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		Section first = this.uiService.newSection();
 		first.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first));
 	}
 
 	/**
@@ -1047,6 +1067,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		String key = "viewQuestion/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1100,7 +1124,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		second.setIncluded(this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("question.hasCorrect")));
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -1108,6 +1132,10 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		String key = "viewStats/" + this.singleCorrect;
+		Component rv = QuestionUiCache.get(getClass(), key);
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1204,7 +1232,7 @@ public class MultipleChoiceQuestionImpl implements TypeSpecificQuestion
 		reasonSection.setIncluded(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("question.explainReason")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection);
+		return QuestionUiCache.put(getClass(), key, this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection));
 	}
 
 	/**
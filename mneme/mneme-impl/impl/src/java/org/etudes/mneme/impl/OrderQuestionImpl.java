@@ -474,6 +474,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		// answer section// add more choices control
 		Selection addMore = uiService.newSelection();
 		addMore.addSelection(this.uiService.newMessage().setMessage("none"), this.uiService.newMessage().setTemplate("ADD:0"));
@@ -547,7 +550,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		choices.setTitle("choices");
 		choices.add(choicesList);
 		
-		return this.uiService.newFragment().setMessages(this.messages).add(answer).add(choices);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(answer).add(choices));
 	}
 
 	/**
@@ -706,6 +709,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "delivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -757,7 +763,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "delivery", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -856,6 +862,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "review");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -981,7 +990,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		Section second = this.uiService.newSection();
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), "review", this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -1029,6 +1038,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewAnswer");
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 		entityList
@@ -1092,7 +1104,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		dropDownCol.add(sel);
 		entityList.addColumn(dropDownCol);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(entityList);
+		return QuestionUiCache.put(getClass(), "viewAnswer", this.uiService.newFragment().setMessages(this.messages).add(entityList));
 	}
 
 	/**
@@ -1100,6 +1112,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewDelivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1120,7 +1135,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		Section first = this.uiService.newSection();
 		first.add(question)/* .add(attachments) */.add(entityList);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first);
+		return QuestionUiCache.put(getClass(), "viewDelivery", this.uiService.newFragment().setMessages(this.messages).add(first));
 	}
 
 	/**
@@ -1128,6 +1143,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewQuestion");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1178,7 +1196,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		second.setIncluded(this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("question.hasCorrect")));
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), "viewQuestion", this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -1186,6 +1204,9 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewStats");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -1256,7 +1277,7 @@ public class OrderQuestionImpl implements TypeSpecificQuestion
 		reasonSection.setIncluded(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("question.explainReason")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection);
+		return QuestionUiCache.put(getClass(), "viewStats", this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection));
 	}
 
 	/**
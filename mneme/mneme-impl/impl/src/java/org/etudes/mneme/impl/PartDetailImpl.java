@@ -371,7 +371,7 @@ public abstract class PartDetailImpl implements PartDetail, Changeable
 		setChanged();
 
 		// a points change in a locked assessments needs a submission re-scoring
-		((AssessmentImpl) this.getPart().getAssessment()).setNeedsRescore();
+		setNeedsRescore();
 	}
 
 	/**
@@ -427,4 +427,12 @@ public abstract class PartDetailImpl implements PartDetail, Changeable
 		this.seq = other.seq;
 		this.points = other.points;
 	}
+
+	/**
+	 * Mark our assessment as needing a re-score of the answers to our questions.
+	 */
+	protected void setNeedsRescore()
+	{
+		((AssessmentImpl) this.getPart().getAssessment()).setNeedsRescore();
+	}
 }
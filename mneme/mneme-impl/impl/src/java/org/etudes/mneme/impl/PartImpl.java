@@ -242,6 +242,12 @@ public class PartImpl implements Part, Changeable
 	/** Part presentation. */
 	protected PresentationImpl presentation = null;
 
+	/** The question pick order last computed, for questionPickOrderKey. */
+	protected transient List<QuestionPick> questionPickOrder = null;
+
+	/** What the question pick order was last computed from - see getQuestionPickOrderKey(). */
+	protected transient String questionPickOrderKey = null;
+
 	/** Dependency: QuestionService. */
 	protected QuestionService questionService = null;
 
@@ -994,6 +1000,13 @@ public class PartImpl implements Part, Changeable
 	 */
 	protected List<QuestionPick> getQuestionPickOrder()
 	{
+		// the draws read the pools, so reuse the order computed from the same submission and part definitions
+		String key = getQuestionPickOrderKey();
+		if ((this.questionPickOrder != null) && key.equals(this.questionPickOrderKey))
+		{
+			return new ArrayList<QuestionPick>(this.questionPickOrder);
+		}
+
 		Shuffler shuffler = new ShufflerImpl(this);
 
 		// Note: old DrawPart or ManualPart on conversion will be uniform draws (with shuffle) or picks (no shuffle).
@@ -1027,9 +1040,43 @@ public class PartImpl implements Part, Changeable
 			shuffler.shuffle(rv, this.id);
 		}
 
+		this.questionPickOrder = new ArrayList<QuestionPick>(rv);
+		this.questionPickOrderKey = key;
+
 		return rv;
 	}
 
+	/**
+	 * Describe what the question pick order depends on: the submission context (the shuffle seed), the assessment type, and the picks and draws
+	 * of all the assessment's parts (a draw leaves out questions picked manually anywhere in the assessment).
+	 * 
+	 * @return The description.
+	 */
+	protected String getQuestionPickOrderKey()
+	{
+		StringBuilder rv = new StringBuilder();
+		rv.append((this.assessment.getSubmissionContext() != null) ? this.assessment.getSubmissionContext().getId() : "-");
+		rv.append("|").append(this.assessment.getType()).append("|").append(this.id).append("|").append(getRandomize());
+
+		for (Part part : this.assessment.getParts().getParts())
+		{
+			rv.append("|").append(part.getId());
+			for (PartDetail detail : part.getDetails())
+			{
+				if (detail instanceof PoolDraw)
+				{
+					rv.append(",d").append(((PoolDraw) detail).getPoolId()).append(":").append(((PoolDraw) detail).getNumQuestions());
+				}
+				else if (detail instanceof QuestionPick)
+				{
+					rv.append(",p").append(((QuestionPick) detail).getQuestionId());
+				}
+			}
+		}
+
+		return rv.toString();
+	}
+
 	/**
 	 * Establish the assessment.
 	 * 
@@ -67,6 +67,12 @@ public class PoolServiceImpl implements PoolService
 	/** Messages bundle name. */
 	protected String bundle = null;
 
+	/** The process-wide cache of pools. */
+	protected SharedCache cache = null;
+
+	/** Dependency: SharedCacheBus */
+	protected SharedCacheBus cacheBus = null;
+
 	/** Dependency: EventTrackingService */
 	protected EventTrackingService eventTrackingService = null;
 
@@ -233,6 +239,19 @@ public class PoolServiceImpl implements PoolService
 			return this.storage.clone((PoolImpl) rv);
 		}
 
+		// for process-wide caching
+		long version = 0;
+		if (this.cache != null)
+		{
+			version = this.cache.getVersion(key);
+			rv = (PoolImpl) this.cache.get(key);
+			if (rv != null)
+			{
+				// return a copy
+				return this.storage.clone(rv);
+			}
+		}
+
 		if (M_log.isDebugEnabled()) M_log.debug("getPool: " + poolId);
 
 		rv = this.storage.getPool(poolId);
@@ -240,6 +259,9 @@ public class PoolServiceImpl implements PoolService
 		// thread-local cache a copy
 		if (rv != null) this.threadLocalManager.set(key, this.storage.clone((PoolImpl) rv));
 
+		// process-wide cache a copy, unless still being created
+		if ((rv != null) && (this.cache != null) && (!rv.getMint())) this.cache.put(key, this.storage.clone(rv), version);
+
 		return rv;
 	}
 
@@ -290,7 +312,10 @@ public class PoolServiceImpl implements PoolService
 
 			storage.init();
 
-			M_log.info("init(): storage: " + this.storage);
+			// process-wide cache, if configured
+			if (this.cacheBus != null) this.cache = this.cacheBus.getCache("pool");
+
+			M_log.info("init(): storage: " + this.storage + " shared cache: " + (this.cache != null));
 		}
 		catch (Throwable t)
 		{
@@ -420,6 +445,17 @@ public class PoolServiceImpl implements PoolService
 		this.bundle = name;
 	}
 
+	/**
+	 * Dependency: SharedCacheBus.
+	 * 
+	 * @param bus
+	 *        The SharedCacheBus.
+	 */
+	public void setCacheBus(SharedCacheBus bus)
+	{
+		cacheBus = bus;
+	}
+
 	/**
 	 * Dependency: EventTrackingService.
 	 * 
@@ -655,7 +691,7 @@ public class PoolServiceImpl implements PoolService
 		this.assessmentService.removeDependency(pool);
 
 		// clear the cache
-		this.threadLocalManager.set(this.storage.poolCacheKey(pool.getId()), null);
+		uncache(pool.getId());
 
 		// remove the pool
 		storage.removePool(pool);
@@ -699,8 +735,15 @@ public class PoolServiceImpl implements PoolService
 		// save
 		storage.savePool(pool);
 
-		// clear the cache
-		this.threadLocalManager.set(this.storage.poolCacheKey(pool.getId()), null);
+		// clear the cache - a new pool cannot yet be in the process-wide cache
+		if (MnemeService.POOL_NEW.equals(event))
+		{
+			this.threadLocalManager.set(this.storage.poolCacheKey(pool.getId()), null);
+		}
+		else
+		{
+			uncache(pool.getId());
+		}
 
 		// event
 		eventTrackingService.post(eventTrackingService.newEvent(event, getPoolReference(pool.getId()), true));
@@ -738,4 +781,17 @@ public class PoolServiceImpl implements PoolService
 
 		return rv;
 	}
+
+	/**
+	 * Remove a pool from the caches - thread-local, and process-wide on all app servers.
+	 * 
+	 * @param poolId
+	 *        The pool id.
+	 */
+	protected void uncache(String poolId)
+	{
+		String key = this.storage.poolCacheKey(poolId);
+		this.threadLocalManager.set(key, null);
+		if (this.cache != null) this.cache.invalidate(key);
+	}
 }
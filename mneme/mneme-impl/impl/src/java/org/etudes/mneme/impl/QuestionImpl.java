@@ -24,6 +24,7 @@
 
 package org.etudes.mneme.impl;
 
+import java.util.Arrays;
 import java.util.List;
 
 import org.etudes.mneme.api.Answer;
@@ -940,6 +941,21 @@ public class QuestionImpl implements Question
 		return (!a.equals(b));
 	}
 
+	/**
+	 * Compute a fingerprint of the question content that matches() compares: questions that match have the same fingerprint, so only questions
+	 * with the same fingerprint need to be compared.
+	 * 
+	 * @return The fingerprint.
+	 */
+	protected int getFingerprint()
+	{
+		int rv = Arrays.hashCode(new Object[] {this.getExplainReason(), this.getFeedback(), this.getHints(), this.getIsSurvey(),
+				this.getPresentation().getText(), this.getType()});
+		rv = 31 * rv + Arrays.hashCode(this.getTypeSpecificQuestion().getData());
+
+		return rv;
+	}
+
 	/**
 	 * Check if there was a survey change but no other change
 	 * 
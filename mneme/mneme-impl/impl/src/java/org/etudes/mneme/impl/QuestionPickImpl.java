@@ -410,4 +410,13 @@ public class QuestionPickImpl extends PartDetailImpl implements QuestionPick
 		this.questionId = other.questionId;
 		this.questionService = other.questionService;
 	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	protected void setNeedsRescore()
+	{
+		// just the answers to our question
+		((AssessmentImpl) this.getPart().getAssessment()).setNeedsRescore(this.questionId);
+	}
 }
@@ -95,6 +95,12 @@ public class QuestionServiceImpl implements QuestionService
 	/** Dependency: AssessmentService */
 	protected AssessmentServiceImpl assessmentService = null;
 
+	/** The process-wide cache of questions. */
+	protected SharedCache cache = null;
+
+	/** Dependency: SharedCacheBus */
+	protected SharedCacheBus cacheBus = null;
+
 	/** Dependency: EventTrackingService */
 	protected EventTrackingService eventTrackingService = null;
 
@@ -471,8 +477,8 @@ public class QuestionServiceImpl implements QuestionService
 		((QuestionImpl) question).clearChanged();
 		this.storage.saveQuestion((QuestionImpl) question);
 
-		// clear thread-local caches
-		this.threadLocalManager.set(this.storage.questionCacheKey(question.getId()), null);
+		// clear caches
+		uncache(question.getId());
 		this.threadLocalManager.set(this.cacheKeyPoolCount(question.getPool().getId()), null);
 		this.threadLocalManager.set(this.cacheKeyContextCount(question.getContext()), null);
 		this.threadLocalManager.set(this.cacheKeyPoolQuestions(question.getPool().getId()), null);
@@ -529,6 +535,19 @@ public class QuestionServiceImpl implements QuestionService
 			return this.storage.clone(rv);
 		}
 
+		// for process-wide caching
+		long version = 0;
+		if (this.cache != null)
+		{
+			version = this.cache.getVersion(key);
+			rv = (QuestionImpl) this.cache.get(key);
+			if (rv != null)
+			{
+				// return a copy
+				return this.storage.clone(rv);
+			}
+		}
+
 		if (M_log.isDebugEnabled()) M_log.debug("getQuestion: " + questionId);
 
 		rv = this.storage.getQuestion(questionId);
@@ -536,6 +555,9 @@ public class QuestionServiceImpl implements QuestionService
 		// thread-local cache a copy
 		if (rv != null) this.threadLocalManager.set(key, this.storage.clone(rv));
 
+		// process-wide cache a copy, unless still being created
+		if ((rv != null) && (this.cache != null) && (!rv.getMint())) this.cache.put(key, this.storage.clone(rv), version);
+
 		return rv;
 	}
 
@@ -568,7 +590,10 @@ public class QuestionServiceImpl implements QuestionService
 
 			storage.init();
 
-			M_log.info("init() storage: " + this.storage);
+			// process-wide cache, if configured
+			if (this.cacheBus != null) this.cache = this.cacheBus.getCache("question");
+
+			M_log.info("init() storage: " + this.storage + " shared cache: " + (this.cache != null));
 		}
 		catch (Throwable t)
 		{
@@ -605,8 +630,7 @@ public class QuestionServiceImpl implements QuestionService
 		}
 
 		// clear the cache
-		String key = this.storage.questionCacheKey(question.getId());
-		this.threadLocalManager.set(key, null);
+		uncache(question.getId());
 
 		// do the move
 		this.storage.moveQuestion(question, pool);
@@ -864,6 +888,17 @@ public class QuestionServiceImpl implements QuestionService
 		assessmentService = service;
 	}
 
+	/**
+	 * Dependency: SharedCacheBus.
+	 * 
+	 * @param bus
+	 *        The SharedCacheBus.
+	 */
+	public void setCacheBus(SharedCacheBus bus)
+	{
+		cacheBus = bus;
+	}
+
 	/**
 	 * Dependency: EventTrackingService.
 	 * 
@@ -1074,7 +1109,7 @@ public class QuestionServiceImpl implements QuestionService
 		this.storage.removeQuestion((QuestionImpl) question);
 
 		// clear caches
-		this.threadLocalManager.set(this.storage.questionCacheKey(question.getId()), null);
+		uncache(question.getId());
 		this.threadLocalManager.set(cacheKeyPoolCount(question.getPool().getId()), null);
 		this.threadLocalManager.set(cacheKeyContextCount(question.getContext()), null);
 		this.threadLocalManager.set(cacheKeyPoolQuestions(question.getPool().getId()), null);
@@ -1116,8 +1151,15 @@ public class QuestionServiceImpl implements QuestionService
 		((QuestionImpl) question).clearChanged();
 		this.storage.saveQuestion((QuestionImpl) question);
 
-		// clear thread-local caches
-		this.threadLocalManager.set(this.storage.questionCacheKey(question.getId()), null);
+		// clear caches - a new question cannot yet be in the process-wide cache
+		if (MnemeService.QUESTION_NEW.equals(event))
+		{
+			this.threadLocalManager.set(this.storage.questionCacheKey(question.getId()), null);
+		}
+		else
+		{
+			uncache(question.getId());
+		}
 		this.threadLocalManager.set(this.cacheKeyPoolCount(question.getPool().getId()), null);
 		this.threadLocalManager.set(this.cacheKeyContextCount(question.getContext()), null);
 		this.threadLocalManager.set(this.cacheKeyPoolQuestions(question.getPool().getId()), null);
@@ -1215,4 +1257,17 @@ public class QuestionServiceImpl implements QuestionService
 			M_log.warn("setTypeHandler: no plugin for type: " + type);
 		}
 	}
+
+	/**
+	 * Remove a question from the caches - thread-local, and process-wide on all app servers.
+	 * 
+	 * @param questionId
+	 *        The question id.
+	 */
+	protected void uncache(String questionId)
+	{
+		String key = this.storage.questionCacheKey(questionId);
+		this.threadLocalManager.set(key, null);
+		if (this.cache != null) this.cache.invalidate(key);
+	}
 }
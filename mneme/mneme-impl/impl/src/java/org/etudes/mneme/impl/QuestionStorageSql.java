@@ -893,6 +893,17 @@ public abstract class QuestionStorageSql implements QuestionStorage
 	{
 		List<String> rv = new ArrayList<String>();
 
+		// if merging, read the destination pool's questions once, indexed by fingerprint (in created date order within a fingerprint)
+		Map<Integer, List<QuestionImpl>> existingQuestions = null;
+		if (merge)
+		{
+			existingQuestions = new HashMap<Integer, List<QuestionImpl>>();
+			for (QuestionImpl existing : findPoolQuestions(destination, FindQuestionsSort.cdate_a, null, null, null, null, null))
+			{
+				indexQuestion(existingQuestions, existing);
+			}
+		}
+
 		List<QuestionImpl> questions = findPoolQuestions(source, QuestionService.FindQuestionsSort.cdate_a, null, null, null, null, null);
 		for (QuestionImpl question : questions)
 		{
@@ -952,8 +963,9 @@ public abstract class QuestionStorageSql implements QuestionStorage
 			boolean skipping = false;
 			if (merge)
 			{
-				List<QuestionImpl> existingQuestions = findPoolQuestions(destination, FindQuestionsSort.cdate_a, q.getType(), null, null, null, null);
-				for (Question candidate : existingQuestions)
+				List<QuestionImpl> candidates = existingQuestions.get(Integer.valueOf(q.getFingerprint()));
+				if (candidates == null) candidates = new ArrayList<QuestionImpl>();
+				for (Question candidate : candidates)
 				{
 					if (candidate.matches(q))
 					{
@@ -982,6 +994,9 @@ public abstract class QuestionStorageSql implements QuestionStorage
 				{
 					oldToNew.put(question.getId(), q.getId());
 				}
+
+				// the new question is now in the destination pool, to be matched by those that follow
+				if (merge) indexQuestion(existingQuestions, q);
 			}
 		}
 
@@ -1059,6 +1074,26 @@ public abstract class QuestionStorageSql implements QuestionStorage
 		}
 	}
 
+	/**
+	 * Add a question to an index of questions by fingerprint.
+	 * 
+	 * @param index
+	 *        The index.
+	 * @param question
+	 *        The question.
+	 */
+	protected void indexQuestion(Map<Integer, List<QuestionImpl>> index, QuestionImpl question)
+	{
+		Integer fingerprint = Integer.valueOf(question.getFingerprint());
+		List<QuestionImpl> questions = index.get(fingerprint);
+		if (questions == null)
+		{
+			questions = new ArrayList<QuestionImpl>();
+			index.put(fingerprint, questions);
+		}
+		questions.add(question);
+	}
+
 	/**
 	 * Insert a new question.
 	 * 
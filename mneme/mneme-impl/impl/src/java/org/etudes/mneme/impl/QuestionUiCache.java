@@ -0,0 +1,75 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.etudes.ambrosia.api.Component;
+
+/**
+ * QuestionUiCache keeps the component trees the type specific questions build for their authoring, delivery, review and view UIs. A tree depends
+ * only on the question type, which UI it is, and a few question level settings, and is not changed once built, so one tree serves every question
+ * and request that agree on these.
+ */
+public class QuestionUiCache
+{
+	/** The most trees kept - well past the types, UIs and settings in use. */
+	protected static final int MAX_TREES = 1000;
+
+	/** The trees, by question class and key. */
+	protected static final ConcurrentMap<String, Component> trees = new ConcurrentHashMap<String, Component>();
+
+	/**
+	 * Get the cached tree for this question type and key.
+	 * 
+	 * @param type
+	 *        The type specific question class.
+	 * @param key
+	 *        The UI, and the settings the tree depends on.
+	 * @return The cached tree, or null if there is none yet.
+	 */
+	public static Component get(Class<?> type, String key)
+	{
+		return trees.get(type.getName() + "/" + key);
+	}
+
+	/**
+	 * Cache a newly built tree for this question type and key.
+	 * 
+	 * @param type
+	 *        The type specific question class.
+	 * @param key
+	 *        The UI, and the settings the tree depends on.
+	 * @param ui
+	 *        The tree.
+	 * @return The tree to use - the one already cached if another thread got there first.
+	 */
+	public static Component put(Class<?> type, String key, Component ui)
+	{
+		if (trees.size() >= MAX_TREES) return ui;
+
+		Component rv = trees.putIfAbsent(type.getName() + "/" + key, ui);
+		return (rv != null) ? rv : ui;
+	}
+}
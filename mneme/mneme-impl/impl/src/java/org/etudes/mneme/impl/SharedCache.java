@@ -0,0 +1,234 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * SharedCache is a process-wide, size bounded cache of objects read from storage, with entries expiring after a time to live.<br />
+ * Removing an entry with invalidate() also removes it from the caches of the same name on the other app servers, by way of the SharedCacheBus.<br />
+ * Each key has a version stamp, advanced when the key is invalidated: read the version before reading from storage, and put() with that version -
+ * if the key was invalidated in between, the (possibly stale) value is not cached.
+ */
+public class SharedCache
+{
+	/**
+	 * A cached value.
+	 */
+	protected static class Entry
+	{
+		/** When the entry expires. */
+		protected long expires = 0;
+
+		/** The value. */
+		protected Object value = null;
+	}
+
+	/** The number of version stamps - keys share stamps, which at worst skips caching a value. */
+	protected static final int STAMPS = 1024;
+
+	/** The bus carrying invalidations to the other app servers. */
+	protected SharedCacheBus bus = null;
+
+	/** The entries, least recently used first. */
+	protected Map<String, Entry> entries = null;
+
+	/** The most entries to hold. */
+	protected int maxSize = 0;
+
+	/** The cache name, the same on all app servers. */
+	protected String name = null;
+
+	/** The version stamps. */
+	protected AtomicLongArray stamps = new AtomicLongArray(STAMPS);
+
+	/** How long (ms) an entry lives. */
+	protected long timeToLive = 0;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param name
+	 *        The cache name.
+	 * @param maxSize
+	 *        The most entries to hold - 0 disables the cache.
+	 * @param timeToLive
+	 *        How long (ms) an entry lives.
+	 * @param bus
+	 *        The bus carrying invalidations to the other app servers.
+	 */
+	public SharedCache(String name, final int maxSize, long timeToLive, SharedCacheBus bus)
+	{
+		this.name = name;
+		this.maxSize = maxSize;
+		this.timeToLive = timeToLive;
+		this.bus = bus;
+		this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true)
+		{
+			private static final long serialVersionUID = 1L;
+
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest)
+			{
+				return size() > maxSize;
+			}
+		};
+	}
+
+	/**
+	 * Get a cached value.
+	 * 
+	 * @param key
+	 *        The key.
+	 * @return The value, or null if not cached (or expired).
+	 */
+	public Object get(String key)
+	{
+		if (this.maxSize <= 0) return null;
+
+		synchronized (this.entries)
+		{
+			Entry entry = this.entries.get(key);
+			if (entry == null) return null;
+
+			if (entry.expires < System.currentTimeMillis())
+			{
+				this.entries.remove(key);
+				return null;
+			}
+
+			return entry.value;
+		}
+	}
+
+	/**
+	 * @return The cache name.
+	 */
+	public String getName()
+	{
+		return this.name;
+	}
+
+	/**
+	 * Get the current version stamp for a key - read before reading the value from storage, to use in put().
+	 * 
+	 * @param key
+	 *        The key.
+	 * @return The version stamp.
+	 */
+	public long getVersion(String key)
+	{
+		return this.stamps.get(stamp(key));
+	}
+
+	/**
+	 * Remove a value from this cache, and from the caches of this name on the other app servers.
+	 * 
+	 * @param key
+	 *        The key.
+	 */
+	public void invalidate(String key)
+	{
+		invalidateLocal(key);
+		if (this.bus != null) this.bus.publish(this.name, key);
+	}
+
+	/**
+	 * Remove all values from this cache, and from the caches of this name on the other app servers.
+	 */
+	public void invalidateAll()
+	{
+		invalidateAllLocal();
+		if (this.bus != null) this.bus.publish(this.name, null);
+	}
+
+	/**
+	 * Remove all values from this cache only.
+	 */
+	public void invalidateAllLocal()
+	{
+		for (int i = 0; i < STAMPS; i++)
+		{
+			this.stamps.incrementAndGet(i);
+		}
+
+		synchronized (this.entries)
+		{
+			this.entries.clear();
+		}
+	}
+
+	/**
+	 * Remove a value from this cache only.
+	 * 
+	 * @param key
+	 *        The key.
+	 */
+	public void invalidateLocal(String key)
+	{
+		// advance the stamp first, so a put() of a value read before now is refused
+		this.stamps.incrementAndGet(stamp(key));
+
+		synchronized (this.entries)
+		{
+			this.entries.remove(key);
+		}
+	}
+
+	/**
+	 * Cache a value, unless the key has been invalidated since the version was read.
+	 * 
+	 * @param key
+	 *        The key.
+	 * @param value
+	 *        The value.
+	 * @param version
+	 *        The version stamp, from getVersion(), read before the value was read.
+	 */
+	public void put(String key, Object value, long version)
+	{
+		if (this.maxSize <= 0) return;
+
+		Entry entry = new Entry();
+		entry.value = value;
+		entry.expires = System.currentTimeMillis() + this.timeToLive;
+
+		synchronized (this.entries)
+		{
+			if (this.stamps.get(stamp(key)) != version) return;
+			this.entries.put(key, entry);
+		}
+	}
+
+	/**
+	 * Find the version stamp for a key.
+	 * 
+	 * @param key
+	 *        The key.
+	 * @return The stamp index.
+	 */
+	protected int stamp(String key)
+	{
+		return (key.hashCode() & 0x7fffffff) % STAMPS;
+	}
+}
@@ -0,0 +1,119 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * SharedCacheBus holds the SharedCaches of this app server, and carries cache invalidations between the app servers.<br />
+ * Extensions provide the transport.
+ */
+public abstract class SharedCacheBus
+{
+	/** Configuration: how long (seconds) a cache entry lives. */
+	protected int cacheSeconds = 600;
+
+	/** Configuration: the most entries each cache holds - 0 disables the caches. */
+	protected int cacheSize = 2000;
+
+	/** The caches, by name. */
+	protected Map<String, SharedCache> caches = new HashMap<String, SharedCache>();
+
+	/**
+	 * Get the cache with this name, creating it if needed.
+	 * 
+	 * @param name
+	 *        The cache name.
+	 * @return The cache.
+	 */
+	public synchronized SharedCache getCache(String name)
+	{
+		SharedCache rv = this.caches.get(name);
+		if (rv == null)
+		{
+			rv = new SharedCache(name, this.cacheSize, this.cacheSeconds * 1000L, this);
+			this.caches.put(name, rv);
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Send an invalidation to the other app servers.
+	 * 
+	 * @param cacheName
+	 *        The cache name.
+	 * @param key
+	 *        The key invalidated, or null if the entire cache is invalidated.
+	 */
+	public abstract void publish(String cacheName, String key);
+
+	/**
+	 * Set how long a cache entry lives.
+	 * 
+	 * @param seconds
+	 *        The time to live, in seconds.
+	 */
+	public void setCacheSeconds(String seconds)
+	{
+		this.cacheSeconds = Integer.parseInt(seconds);
+	}
+
+	/**
+	 * Set the most entries each cache holds.
+	 * 
+	 * @param size
+	 *        The cache size (0 to disable caching).
+	 */
+	public void setCacheSize(String size)
+	{
+		this.cacheSize = Integer.parseInt(size);
+	}
+
+	/**
+	 * Apply an invalidation received from another app server.
+	 * 
+	 * @param cacheName
+	 *        The cache name.
+	 * @param key
+	 *        The key invalidated, or null if the entire cache is invalidated.
+	 */
+	protected void received(String cacheName, String key)
+	{
+		SharedCache cache = null;
+		synchronized (this)
+		{
+			cache = this.caches.get(cacheName);
+		}
+		if (cache == null) return;
+
+		if (key == null)
+		{
+			cache.invalidateAllLocal();
+		}
+		else
+		{
+			cache.invalidateLocal(key);
+		}
+	}
+}
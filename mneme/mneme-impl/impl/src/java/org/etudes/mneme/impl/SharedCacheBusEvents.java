@@ -0,0 +1,106 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.Observable;
+import java.util.Observer;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.sakaiproject.event.api.Event;
+import org.sakaiproject.event.api.EventTrackingService;
+
+/**
+ * SharedCacheBusEvents carries cache invalidations between the app servers as events, which the EventTrackingService delivers cluster wide.
+ */
+public class SharedCacheBusEvents extends SharedCacheBus implements Observer
+{
+	/** The event posted for an invalidation. */
+	public static final String CACHE_INVALIDATE = "mneme.cache.invalidate";
+
+	/** The event resource prefix, followed by the cache name, "/" and the key (or "*" for all). */
+	protected static final String RESOURCE_PREFIX = "/mneme/cache/";
+
+	/** Our logger. */
+	private static Log M_log = LogFactory.getLog(SharedCacheBusEvents.class);
+
+	/** Dependency: EventTrackingService */
+	protected EventTrackingService eventTrackingService = null;
+
+	/**
+	 * Returns to uninitialized state.
+	 */
+	public void destroy()
+	{
+		this.eventTrackingService.deleteObserver(this);
+		M_log.info("destroy()");
+	}
+
+	/**
+	 * Final initialization, once all dependencies are set.
+	 */
+	public void init()
+	{
+		this.eventTrackingService.addObserver(this);
+		M_log.info("init(): cacheSize: " + this.cacheSize + " cacheSeconds: " + this.cacheSeconds);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void publish(String cacheName, String key)
+	{
+		String resource = RESOURCE_PREFIX + cacheName + "/" + ((key == null) ? "*" : key);
+		this.eventTrackingService.post(this.eventTrackingService.newEvent(CACHE_INVALIDATE, resource, false));
+	}
+
+	/**
+	 * Dependency: EventTrackingService.
+	 * 
+	 * @param service
+	 *        The EventTrackingService.
+	 */
+	public void setEventTrackingService(EventTrackingService service)
+	{
+		this.eventTrackingService = service;
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void update(Observable o, Object arg)
+	{
+		if (!(arg instanceof Event)) return;
+		Event event = (Event) arg;
+		if (!CACHE_INVALIDATE.equals(event.getEvent())) return;
+
+		// our own invalidations come back to us too - applying them again is harmless
+		String resource = event.getResource();
+		if ((resource == null) || (!resource.startsWith(RESOURCE_PREFIX))) return;
+		int pos = resource.indexOf('/', RESOURCE_PREFIX.length());
+		if (pos == -1) return;
+
+		String cacheName = resource.substring(RESOURCE_PREFIX.length(), pos);
+		String key = resource.substring(pos + 1);
+		received(cacheName, "*".equals(key) ? null : key);
+	}
+}
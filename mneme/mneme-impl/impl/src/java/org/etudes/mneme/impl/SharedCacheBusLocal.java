@@ -0,0 +1,66 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * SharedCacheBusLocal carries cache invalidations between buses connected in the same JVM - a stand-in for the cluster, for a single app server
+ * or for testing.
+ */
+public class SharedCacheBusLocal extends SharedCacheBus
+{
+	/** The other buses. */
+	protected List<SharedCacheBusLocal> peers = new ArrayList<SharedCacheBusLocal>();
+
+	/**
+	 * Connect to another bus, so each receives the other's invalidations.
+	 * 
+	 * @param other
+	 *        The other bus.
+	 */
+	public synchronized void connect(SharedCacheBusLocal other)
+	{
+		if ((other == this) || this.peers.contains(other)) return;
+
+		this.peers.add(other);
+		other.connect(this);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void publish(String cacheName, String key)
+	{
+		List<SharedCacheBusLocal> peers = null;
+		synchronized (this)
+		{
+			peers = new ArrayList<SharedCacheBusLocal>(this.peers);
+		}
+
+		for (SharedCacheBusLocal peer : peers)
+		{
+			peer.received(cacheName, key);
+		}
+	}
+}
@@ -25,8 +25,10 @@
 package org.etudes.mneme.impl;
 
 import java.math.BigDecimal;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Types;
 import java.util.ArrayList;
 import java.util.Date;
 import java.util.List;
@@ -332,4 +334,48 @@ public class SqlHelper
 	{
 		return StringUtil.trimToNull(result.getString(index));
 	}
+
+	/**
+	 * Set the bind variables of a prepared statement, with the same value encoding the SqlService uses for its dbWrite fields.
+	 * 
+	 * @param statement
+	 *        The prepared statement.
+	 * @param fields
+	 *        The bind variables.
+	 * @throws SQLException
+	 */
+	public static void setFields(PreparedStatement statement, Object[] fields) throws SQLException
+	{
+		for (int i = 0; i < fields.length; i++)
+		{
+			int pos = i + 1;
+			Object field = fields[i];
+
+			// null and empty strings are both SQL null
+			if ((field == null) || ((field instanceof String) && (((String) field).length() == 0)))
+			{
+				statement.setNull(pos, Types.VARCHAR);
+			}
+			else if (field instanceof Long)
+			{
+				statement.setLong(pos, ((Long) field).longValue());
+			}
+			else if (field instanceof Integer)
+			{
+				statement.setInt(pos, ((Integer) field).intValue());
+			}
+			else if (field instanceof Float)
+			{
+				statement.setFloat(pos, ((Float) field).floatValue());
+			}
+			else if (field instanceof Boolean)
+			{
+				statement.setBoolean(pos, ((Boolean) field).booleanValue());
+			}
+			else
+			{
+				statement.setString(pos, field.toString());
+			}
+		}
+	}
 }
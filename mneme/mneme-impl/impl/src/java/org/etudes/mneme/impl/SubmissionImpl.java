@@ -27,7 +27,9 @@ package org.etudes.mneme.impl;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 import org.apache.commons.logging.Log;
@@ -76,6 +78,12 @@ public class SubmissionImpl implements Submission
 
 	protected List<Answer> answers = new ArrayList<Answer>();
 
+	/** The answers keyed by answer id, built when needed. */
+	protected transient Map<String, Answer> answersById = null;
+
+	/** The answers keyed by question id, built when needed. */
+	protected transient Map<String, Answer> answersByQuestion = null;
+
 	protected SubmissionAssessmentImpl assessment = null;
 
 	protected transient AssessmentService assessmentService = null;
@@ -113,6 +121,15 @@ public class SubmissionImpl implements Submission
 
 	protected Date submittedDate = null;
 
+	/** For summaries (read without answers): the total score, computed by storage. */
+	protected transient Float summaryTotalScore = null;
+
+	/** For summaries (read without answers): if any answered non-survey answers have no score. */
+	protected transient boolean summaryUnscored = false;
+
+	/** For summaries (read without answers): if any answered non-survey answers have a reason not yet evaluated or commented on. */
+	protected transient boolean summaryUnscoredReasons = false;
+
 	protected Boolean testDrive = Boolean.FALSE;
 
 	/** A value sent to setTotalScore before it is applied. */
@@ -285,15 +302,17 @@ public class SubmissionImpl implements Submission
 	 */
 	public Answer getAnswer(String answerId)
 	{
-		for (Answer answer : this.answers)
+		if (this.answersById == null) indexAnswers();
+		Answer rv = this.answersById.get(answerId);
+
+		// new answers get their ids when saved, after they are indexed
+		if ((rv == null) && (this.answersById.size() < this.answers.size()))
 		{
-			if (answer.getId().equals(answerId))
-			{
-				return answer;
-			}
+			indexAnswers();
+			rv = this.answersById.get(answerId);
 		}
 
-		return null;
+		return rv;
 	}
 
 	/**
@@ -802,6 +821,13 @@ public class SubmissionImpl implements Submission
 		// if the overall score has been set, none of the answers are considered unscored
 		if (getEvaluation().getScore() != null) return Boolean.FALSE;
 
+		// for summaries, use what storage found in the answers
+		if (getIsSummary())
+		{
+			return Boolean.valueOf(this.summaryUnscored
+					|| ((!getIsReleased()) && (getEvaluation().getComment() == null) && this.summaryUnscoredReasons));
+		}
+
 		for (Answer answer : getAnswers())
 		{
 			// check answered non-survey that have not been evaluation scored
@@ -1431,6 +1457,9 @@ public class SubmissionImpl implements Submission
 		// phantoms don't have a total score
 		if (getIsPhantom()) return null;
 
+		// summaries have the total from storage
+		if (getIsSummary()) return this.summaryTotalScore;
+
 		// add up the scores from the answers
 		float total = 0;
 		for (Answer answer : answers)
@@ -1465,66 +1494,9 @@ public class SubmissionImpl implements Submission
 	/**
 	 * {@inheritDoc}
 	 */
-	@SuppressWarnings(
-	{ "rawtypes", "unchecked" })
 	public String getUserSection()
 	{
-		String rv = null;
-
-		try
-		{
-			Site site = siteService().getSite(this.getAssessment().getContext());
-
-			String titleActive = null;
-			String titleInactive = null;
-			Collection groups = site.getGroups();
-			for (Object groupO : groups)
-			{
-				Group g = (Group) groupO;
-
-				// skip non-section groups
-				if (g.getProperties().getProperty("sections_category") == null) continue;
-
-				// we want to find the user even if not active, so we cannot use g.getUsers(), which only returns active users -ggolden
-				// if (g.getUsers().contains(userId))
-
-				// since we are getting all the groups for the site to get the section for this submission, and we are likely to be doing this for all the submissions / users in the site, cache the groups.
-				Set<Member> groupMemebers = (Set<Member>) ThreadLocalManager.get("mneme:submission:group:" + g.getId());
-				if (groupMemebers == null)
-				{
-					groupMemebers = g.getMembers();
-					ThreadLocalManager.set("mneme:submission:group:" + g.getId(), groupMemebers);
-				}
-
-				for (Member gm : groupMemebers)
-				{
-					if (gm.getUserId().equals(this.userId))
-					{
-						if (gm.isActive())
-						{
-							if (titleActive == null) titleActive = g.getTitle();
-						}
-						else
-						{
-							if (titleInactive == null) titleInactive = g.getTitle();
-						}
-					}
-				}
-			}
-			if (titleActive != null)
-			{
-				rv = titleActive;
-			}
-			else if (titleInactive != null)
-			{
-				rv = titleInactive;
-			}
-		}
-		catch (IdUnusedException e)
-		{
-		}
-
-		return rv;
+		return getSectionIndex(this.getAssessment().getContext()).get(this.userId);
 	}
 
 	/**
@@ -1728,6 +1700,8 @@ public class SubmissionImpl implements Submission
 	protected void clearAnswers()
 	{
 		this.answers.clear();
+		this.answersById = null;
+		this.answersByQuestion = null;
 	}
 
 	/**
@@ -1764,15 +1738,8 @@ public class SubmissionImpl implements Submission
 	protected Answer findAnswer(String questionId)
 	{
 		// find the answer to this assessment question
-		for (Answer answer : this.answers)
-		{
-			if (((AnswerImpl) answer).questionId.equals(questionId))
-			{
-				return answer;
-			}
-		}
-
-		return null;
+		if (this.answersByQuestion == null) indexAnswers();
+		return this.answersByQuestion.get(questionId);
 	}
 
 	/**
@@ -1805,6 +1772,72 @@ public class SubmissionImpl implements Submission
 		return this.releasedChanged.getChanged();
 	}
 
+	/**
+	 * Check if this is a summary - a submission read without answers.
+	 * 
+	 * @return TRUE if this is a summary, FALSE if not.
+	 */
+	protected Boolean getIsSummary()
+	{
+		return Boolean.valueOf(this.answers == null);
+	}
+
+	/**
+	 * Get the section index for a site: each user in a section group, mapped to the title of the user's section - the first section the user is
+	 * active in, or if none, the first the user is an inactive member of.<br />
+	 * The index is built once per request (thread), since if we need one user's section, we are likely to need them all.
+	 * 
+	 * @param context
+	 *        The site id.
+	 * @return The section index, empty if the site is not found.
+	 */
+	@SuppressWarnings(
+	{ "rawtypes", "unchecked" })
+	protected Map<String, String> getSectionIndex(String context)
+	{
+		String key = "mneme:submission:sections:" + context;
+		Map<String, String> rv = (Map<String, String>) ThreadLocalManager.get(key);
+		if (rv != null) return rv;
+
+		rv = new HashMap<String, String>();
+		try
+		{
+			Site site = siteService().getSite(context);
+
+			Map<String, String> inactive = new HashMap<String, String>();
+			Collection groups = site.getGroups();
+			for (Object groupO : groups)
+			{
+				Group g = (Group) groupO;
+
+				// skip non-section groups
+				if (g.getProperties().getProperty("sections_category") == null) continue;
+
+				// we want to find the user even if not active, so we cannot use g.getUsers(), which only returns active users -ggolden
+				for (Member gm : (Set<Member>) g.getMembers())
+				{
+					if (gm.getUserId() == null) continue;
+
+					// keep the first section found
+					Map<String, String> sections = gm.isActive() ? rv : inactive;
+					if (sections.get(gm.getUserId()) == null) sections.put(gm.getUserId(), g.getTitle());
+				}
+			}
+
+			// use the inactive section for those with no active section
+			for (Map.Entry<String, String> entry : inactive.entrySet())
+			{
+				if (rv.get(entry.getKey()) == null) rv.put(entry.getKey(), entry.getValue());
+			}
+		}
+		catch (IdUnusedException e)
+		{
+		}
+
+		ThreadLocalManager.set(key, rv);
+		return rv;
+	}
+
 	/**
 	 * @return getMayReview test, but don't check if the current user is the student.
 	 */
@@ -1830,6 +1863,25 @@ public class SubmissionImpl implements Submission
 		return Boolean.TRUE;
 	}
 
+	/**
+	 * Index the answers by id and by question id. Where more than one answer matches, the first in the list wins.
+	 */
+	protected void indexAnswers()
+	{
+		Map<String, Answer> byId = new HashMap<String, Answer>();
+		Map<String, Answer> byQuestion = new HashMap<String, Answer>();
+		for (Answer answer : this.answers)
+		{
+			if ((answer.getId() != null) && (!byId.containsKey(answer.getId()))) byId.put(answer.getId(), answer);
+
+			String questionId = ((AnswerImpl) answer).questionId;
+			if (!byQuestion.containsKey(questionId)) byQuestion.put(questionId, answer);
+		}
+
+		this.answersById = byId;
+		this.answersByQuestion = byQuestion;
+	}
+
 	/**
 	 * Establish another answer.
 	 * 
@@ -1840,6 +1892,8 @@ public class SubmissionImpl implements Submission
 	{
 		answer.initSubmission(this);
 		this.answers.add(answer);
+		this.answersById = null;
+		this.answersByQuestion = null;
 	}
 
 	/**
@@ -1887,6 +1941,19 @@ public class SubmissionImpl implements Submission
 		this.id = id;
 	}
 
+	/**
+	 * Initialize the official settings (best, sibling count and ungraded siblings) as they were set in another submission.
+	 * 
+	 * @param other
+	 *        The other submission.
+	 */
+	protected void initOfficial(SubmissionImpl other)
+	{
+		this.bestSubmissionId = other.bestSubmissionId;
+		this.siblingCount = other.siblingCount;
+		this.ungradedSiblings = other.ungradedSiblings;
+	}
+
 	/**
 	 * Initialize the released setting.
 	 * 
@@ -1906,6 +1973,33 @@ public class SubmissionImpl implements Submission
 		this.siblingCount = count;
 	}
 
+	/**
+	 * Initialize the answer information for a summary.
+	 * 
+	 * @param evalScore
+	 *        The submission's evaluation score.
+	 * @param answersEvalScore
+	 *        The sum of the answer evaluation scores.
+	 * @param answersAutoScore
+	 *        The sum of the answer auto scores.
+	 * @param unscored
+	 *        The count of answered non-survey answers with no score.
+	 * @param unscoredReasons
+	 *        The count of answered non-survey answers with a reason, not evaluation scored or commented on.
+	 */
+	protected void initSummary(Float evalScore, Float answersEvalScore, Float answersAutoScore, int unscored, int unscoredReasons)
+	{
+		float total = (evalScore == null ? 0f : evalScore.floatValue()) + (answersEvalScore == null ? 0f : answersEvalScore.floatValue())
+				+ (answersAutoScore == null ? 0f : answersAutoScore.floatValue());
+
+		// round away bogus decimals
+		total = Math.round(total * 100.0f) / 100.0f;
+
+		this.summaryTotalScore = Float.valueOf(total);
+		this.summaryUnscored = (unscored > 0);
+		this.summaryUnscoredReasons = (unscoredReasons > 0);
+	}
+
 	/**
 	 * Initialize the test-drive setting.
 	 * 
@@ -1945,18 +2039,16 @@ public class SubmissionImpl implements Submission
 	protected void replaceAnswer(AnswerImpl answer)
 	{
 		// preserve the (question) order
-		for (Answer current : this.answers)
+		Answer current = findAnswer(answer.questionId);
+		if (current != null)
 		{
-			if (((AnswerImpl) current).questionId.equals(answer.questionId))
-			{
-				((AnswerImpl) current).set(answer, this);
-				return;
-			}
+			((AnswerImpl) current).set(answer, this);
+			this.answersById = null;
+			return;
 		}
 
 		// add it
-		answer.initSubmission(this);
-		this.answers.add(answer);
+		initAnswer(answer);
 	}
 
 	/**
@@ -1967,7 +2059,7 @@ public class SubmissionImpl implements Submission
 	 */
 	protected void set(SubmissionImpl other)
 	{
-		this.answers.clear();
+		clearAnswers();
 		for (Answer answer : other.answers)
 		{
 			AnswerImpl a = new AnswerImpl((AnswerImpl) answer, this);
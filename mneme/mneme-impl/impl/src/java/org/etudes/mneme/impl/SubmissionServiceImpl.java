@@ -38,10 +38,19 @@ import java.util.Comparator;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.ListIterator;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.zip.ZipEntry;
 import java.util.zip.ZipOutputStream;
 
@@ -73,6 +82,7 @@ import org.etudes.util.HtmlHelper;
 import org.etudes.util.api.AccessAdvisor;
 import org.sakaiproject.authz.api.Member;
 import org.sakaiproject.authz.api.SecurityAdvisor;
+import org.sakaiproject.cluster.api.ClusterService;
 import org.sakaiproject.component.api.ServerConfigurationService;
 import org.sakaiproject.component.cover.ComponentManager;
 import org.sakaiproject.content.api.ContentHostingService;
@@ -80,7 +90,9 @@ import org.sakaiproject.content.api.ContentResource;
 import org.sakaiproject.db.api.SqlService;
 import org.sakaiproject.email.api.EmailService;
 import org.sakaiproject.entity.api.Reference;
+import org.sakaiproject.event.api.Event;
 import org.sakaiproject.event.api.EventTrackingService;
+import org.sakaiproject.event.api.UsageSessionService;
 import org.sakaiproject.exception.IdUnusedException;
 import org.sakaiproject.exception.PermissionException;
 import org.sakaiproject.exception.ServerOverloadException;
@@ -103,9 +115,18 @@ import org.sakaiproject.util.Validator;
  */
 public class SubmissionServiceImpl implements SubmissionService, Runnable
 {
+	/** The most requests' events to hold waiting for the event writer. */
+	protected static final int EVENT_QUEUE_SIZE = 5000;
+
+	/** How many submissions each re-score worker reads, scores and writes at a time. */
+	protected static final int RESCORE_CHUNK_SIZE = 100;
+
 	/** The chunk size used when streaming (100k). */
 	protected static final int STREAM_BUFFER_SIZE = 102400;
 
+	/** How many timed-out submissions each maintenance worker completes in a batch. */
+	protected static final int TIMEOUT_BATCH_SIZE = 50;
+
 	/** Our logger. */
 	private static Log M_log = LogFactory.getLog(SubmissionServiceImpl.class);
 
@@ -121,6 +142,9 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	/** The checker thread. */
 	protected Thread checkerThread = null;
 
+	/** Dependency: ClusterService. */
+	protected ClusterService clusterService = null;
+
 	/** Dependency: ContentHostingService */
 	protected ContentHostingService contentHostingService = null;
 
@@ -130,15 +154,30 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	/** Dependency: EventTrackingService */
 	protected EventTrackingService eventTrackingService = null;
 
+	/** Posts events off the request thread. */
+	protected EventWriter eventWriter = null;
+
+	/** If set, an answer save posts one answer event for the submission, rather than one per answer. */
+	protected boolean foldAnswerEvents = false;
+
 	/** Dependency: GradesService */
 	protected GradesService gradesService = null;
 
+	/** If set, the maintenance thread runs on every app server, and each check is done by the one elected from the cluster. */
+	protected boolean maintenanceElect = false;
+
 	/** Messages. */
 	protected transient InternationalizedMessages messages = null;
 
 	/** Dependency: QuestionService */
 	protected QuestionService questionService = null;
 
+	/** The workers that re-score submissions. */
+	protected ExecutorService rescoreExecutor = null;
+
+	/** How many worker threads re-score submissions. */
+	protected int rescoreThreads = 4;
+
 	/** Dependency: SecurityService */
 	protected SecurityService securityService = null;
 
@@ -178,6 +217,15 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	/** How long to wait (ms) between checks for timed-out submission in the db. 0 disables. */
 	protected long timeoutCheckMs = 1000L * 300L;
 
+	/** How many worker threads complete timed-out submissions. */
+	protected int timeoutCheckThreads = 4;
+
+	/** The workers that complete timed-out submissions. */
+	protected ExecutorService timeoutExecutor = null;
+
+	/** Dependency: UsageSessionService. */
+	protected UsageSessionService usageSessionService = null;
+
 	/** Dependency: UserDirectoryService. */
 	protected UserDirectoryService userDirectoryService = null;
 
@@ -510,8 +558,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		if (M_log.isDebugEnabled())
 			M_log.debug("countAssessmentSubmissions: assessment: " + assessment.getId() + " official: " + official + " allUid: " + allUid);
 
-		// get the submissions to the assessment made by all possible submitters
-		List<SubmissionImpl> all = getAssessmentSubmissions(assessment, FindAssessmentSubmissionsSort.status_a, null, true);
+		// get the submissions to the assessment made by all possible submitters - summaries are enough to count
+		List<SubmissionImpl> all = getAssessmentSubmissions(assessment, FindAssessmentSubmissionsSort.status_a, null, true, true);
 
 		// see if any needs to be completed based on time limit or dates
 		checkAutoComplete(all, asOf);
@@ -569,6 +617,20 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		// stop the checking thread
 		stop();
 
+		// post any events still waiting
+		if (this.eventWriter != null)
+		{
+			this.eventWriter.stop();
+			this.eventWriter = null;
+		}
+
+		// stop the re-score workers
+		if (this.rescoreExecutor != null)
+		{
+			this.rescoreExecutor.shutdownNow();
+			this.rescoreExecutor = null;
+		}
+
 		M_log.info("destroy()");
 	}
 
@@ -1220,47 +1282,11 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	{
 		if (assessment == null) throw new IllegalArgumentException();
 		if (official == null) throw new IllegalArgumentException();
-		if (sort == null) sort = FindAssessmentSubmissionsSort.userName_a;
-
-		Date asOf = new Date();
-
-		// get the submissions to the assessment made by all possible submitters
-		List<SubmissionImpl> all = getAssessmentSubmissions(assessment, sort, null,
-				((filterByPermission == null) ? true : filterByPermission.booleanValue()));
-
-		// see if any needs to be completed based on time limit or dates
-		checkAutoComplete(all, asOf);
-
-		// pick one for each assessment - the one in progress, or the official complete one (if official)
-		List<Submission> rv = null;
-		if (official)
-		{
-			rv = officializeByUser(all, allUid);
-		}
-		else
-		{
-			rv = new ArrayList<Submission>(all.size());
-			rv.addAll(all);
-		}
 
-		// if sorting by status, do that sort
-		if (sort == FindAssessmentSubmissionsSort.status_a || sort == FindAssessmentSubmissionsSort.status_d)
-		{
-			rv = sortByGradingSubmissionStatus((sort == FindAssessmentSubmissionsSort.status_d), rv);
-		}
+		// if paging, work with submission summaries, reading the answers only for the submissions on the page
+		boolean paging = (pageNum != null) && (pageSize != null);
 
-		// filter by section
-		if (sectionFilter != null)
-		{
-			for (Iterator<Submission> i = rv.iterator(); i.hasNext();)
-			{
-				Submission s = i.next();
-				if (!sectionFilter.equalsIgnoreCase(s.getUserSection()))
-				{
-					i.remove();
-				}
-			}
-		}
+		List<Submission> rv = selectAssessmentSubmissions(assessment, sort, official, allUid, filterByPermission, sectionFilter, paging);
 
 		// page the results
 		if ((pageNum != null) && (pageSize != null))
@@ -1275,7 +1301,7 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 			if (end < 0) end = 0;
 			if (end > rv.size()) end = rv.size();
 
-			rv = rv.subList(start, end);
+			rv = completeSummaries(rv.subList(start, end), assessment);
 		}
 
 		return rv;
@@ -2006,13 +2032,22 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 
 			storage.init();
 
+			// the re-score workers
+			this.rescoreExecutor = Executors.newFixedThreadPool(this.rescoreThreads);
+
+			// the event writer
+			this.eventWriter = new EventWriter(this.eventTrackingService, EVENT_QUEUE_SIZE);
+			this.eventWriter.start();
+
 			// if this is the app server configured to run the maintenance thread, get it started
+			// (or if the cluster elects the maintenance server, every server runs the thread)
 			String msg = "";
 			String id = serverConfigurationService.getServerId();
+			this.maintenanceElect = serverConfigurationService.getBoolean("mneme.maintenance.elect", false) && (this.clusterService != null);
 			if (id != null)
 			{
 				String maintenanceServerId = serverConfigurationService.getString("mneme.maintenance.server");
-				if (id.equals(maintenanceServerId))
+				if (id.equals(maintenanceServerId) || this.maintenanceElect)
 				{
 					// start the checking thread
 					if (timeoutCheckMs > 0)
@@ -2107,31 +2142,78 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	 */
 	public void rescoreSubmission(Assessment assessment) throws AssessmentPermissionException
 	{
+		rescoreSubmission(assessment, null);
+	}
+
+	/**
+	 * {@inheritDoc}
+	 */
+	public void rescoreSubmission(final Assessment assessment, final Set<String> questionIds) throws AssessmentPermissionException
+	{
+		if (assessment == null) throw new IllegalArgumentException();
+
 		// TODO: secure
 		this.securityService.secure(this.sessionManager.getCurrentSessionUserId(), MnemeService.MANAGE_PERMISSION, assessment.getContext());
 
-		// get all the submissions answers to the assessment
-		List<SubmissionImpl> submissions = this.storage.getAssessmentSubmissions(assessment);
+		// nothing to re-score
+		if ((questionIds != null) && questionIds.isEmpty()) return;
 
-		// collect any that changed
-		List<Answer> toSave = new ArrayList<Answer>();
+		long start = System.currentTimeMillis();
 
-		// recompute the auto score for each answer
-		for (SubmissionImpl submission : submissions)
+		// just the ids now - each chunk of submissions is read, scored and written on the workers, so we never hold them all
+		final List<String> ids = this.storage.getAssessmentSubmissionIds(assessment);
+		final AtomicInteger scored = new AtomicInteger();
+		final AtomicInteger changed = new AtomicInteger();
+
+		List<Callable<Object>> chunks = new ArrayList<Callable<Object>>();
+		for (int i = 0; i < ids.size(); i += RESCORE_CHUNK_SIZE)
 		{
-			for (Answer answer : submission.getAnswers())
+			final List<String> chunk = ids.subList(i, Math.min(i + RESCORE_CHUNK_SIZE, ids.size()));
+			chunks.add(new Callable<Object>()
 			{
-				Float autoScore = ((AnswerImpl) answer).computeAutoScore();
-				if (Different.different(autoScore, answer.getAutoScore()))
+				public Object call()
 				{
-					((AnswerImpl) answer).initStoredAutoScore(autoScore);
-					toSave.add(answer);
+					try
+					{
+						changed.addAndGet(rescoreSubmissions(chunk, questionIds));
+
+						int done = scored.addAndGet(chunk.size());
+						if (M_log.isDebugEnabled())
+							M_log.debug("rescoreSubmission: assessment: " + assessment.getId() + " scored: " + done + " of " + ids.size());
+					}
+					finally
+					{
+						// the worker's bindings are good only for this chunk
+						threadLocalManager.clear();
+					}
+
+					return null;
 				}
+			});
+		}
+
+		// the re-score is complete when we return, as the callers send the new scores to the gradebook next - so a failed or interrupted
+		// re-score fails the call, rather than letting the callers report partly re-scored grades
+		try
+		{
+			for (Future<Object> f : this.rescoreExecutor.invokeAll(chunks))
+			{
+				f.get();
 			}
 		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new RuntimeException("rescoreSubmission: interrupted: assessment: " + assessment.getId(), e);
+		}
+		catch (ExecutionException e)
+		{
+			M_log.warn("rescoreSubmission: assessment: " + assessment.getId(), e.getCause());
+			throw new RuntimeException("rescoreSubmission: assessment: " + assessment.getId(), e.getCause());
+		}
 
-		// save any changed answers
-		this.storage.saveAnswers(toSave);
+		M_log.info("rescoreSubmission: assessment: " + assessment.getId() + " submissions: " + scored.get() + " of " + ids.size() + " answers changed: "
+				+ changed.get() + " ms: " + (System.currentTimeMillis() - start));
 	}
 
 	/**
@@ -2194,6 +2276,13 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		{
 			if (M_log.isDebugEnabled()) M_log.debug("run: running");
 
+			// the rest is done by only one server in the cluster
+			if (!isMaintenanceLeader())
+			{
+				napMaintenance();
+				continue;
+			}
+
 			// first, close as needed submissions
 			try
 			{
@@ -2201,29 +2290,27 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 				// or open and past an accept-until date
 				List<Submission> submissions = getTimedOutSubmissions(2 * MnemeService.GRACE);
 
-				// for each one, close it if it is still open
-				for (Submission submission : submissions)
+				// close them, in batches, on the workers
+				List<Callable<Object>> batches = new ArrayList<Callable<Object>>();
+				for (int start = 0; start < submissions.size(); start += TIMEOUT_BATCH_SIZE)
 				{
-					// we need to establish the "current" user to be the submission user
-					// so that various attributions of the complete process have the proper user
-					String user = submission.getUserId();
-					Session s = sessionManager.getCurrentSession();
-					if (s != null)
-					{
-						s.setUserId(user);
-					}
-					else
-					{
-						M_log.warn("run - no SessionManager.getCurrentSession, cannot set to user");
-					}
-
-					// complete this submission, using the exact 'over' date for the final date
-					Date over = submission.getWhenOver();
-					if (over != null)
+					final List<Submission> batch = submissions.subList(start, Math.min(start + TIMEOUT_BATCH_SIZE, submissions.size()));
+					batches.add(new Callable<Object>()
 					{
-						autoCompleteSubmission(over, submission);
-					}
+						public Object call()
+						{
+							autoCompleteTimedOutSubmissions(batch);
+							return null;
+						}
+					});
 				}
+
+				// wait for all the batches to finish before moving on
+				this.timeoutExecutor.invokeAll(batches);
+			}
+			catch (InterruptedException e)
+			{
+				Thread.currentThread().interrupt();
 			}
 			catch (Throwable e)
 			{
@@ -2280,13 +2367,7 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 			}
 
 			// take a small nap
-			try
-			{
-				Thread.sleep(timeoutCheckMs);
-			}
-			catch (Exception ignore)
-			{
-			}
+			napMaintenance();
 		}
 	}
 
@@ -2323,6 +2404,17 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.bundle = name;
 	}
 
+	/**
+	 * Dependency: ClusterService.
+	 * 
+	 * @param service
+	 *        The ClusterService.
+	 */
+	public void setClusterService(ClusterService service)
+	{
+		this.clusterService = service;
+	}
+
 	/**
 	 * Dependency: ContentHostingService.
 	 * 
@@ -2356,6 +2448,17 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.eventTrackingService = service;
 	}
 
+	/**
+	 * Set if an answer save posts one answer event for the submission, rather than one per answer.
+	 * 
+	 * @param value
+	 *        "true" to post one event per save.
+	 */
+	public void setFoldAnswerEvents(String value)
+	{
+		this.foldAnswerEvents = Boolean.valueOf(value);
+	}
+
 	/**
 	 * Dependency: GradesService.
 	 * 
@@ -2378,6 +2481,17 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.questionService = service;
 	}
 
+	/**
+	 * Set the number of worker threads that re-score submissions.
+	 * 
+	 * @param count
+	 *        The number of threads.
+	 */
+	public void setRescoreThreads(String count)
+	{
+		this.rescoreThreads = Integer.parseInt(count);
+	}
+
 	/**
 	 * Dependency: SecurityService.
 	 * 
@@ -2488,6 +2602,28 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.timeoutCheckMs = Integer.parseInt(time) * 1000L;
 	}
 
+	/**
+	 * Set the number of worker threads that complete timed-out submissions.
+	 * 
+	 * @param count
+	 *        The number of threads.
+	 */
+	public void setTimeoutCheckThreads(String count)
+	{
+		this.timeoutCheckThreads = Integer.parseInt(count);
+	}
+
+	/**
+	 * Dependency: UsageSessionService.
+	 * 
+	 * @param service
+	 *        The UsageSessionService.
+	 */
+	public void setUsageSessionService(UsageSessionService service)
+	{
+		this.usageSessionService = service;
+	}
+
 	/**
 	 * Dependency: UserDirectoryService.
 	 * 
@@ -2669,12 +2805,24 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.storage.saveSubmission((SubmissionImpl) submission);
 		this.storage.saveAnswers(work);
 
-		// event track it (one for each answer)
-		for (Answer answer : work)
+		// event track it (one for each answer, or one for them all), posted off this thread
+		List<Event> events = new ArrayList<Event>();
+		if (this.foldAnswerEvents)
+		{
+			if (!work.isEmpty())
+			{
+				events.add(eventTrackingService.newEvent(MnemeService.SUBMISSION_ANSWER, getSubmissionReference(submission.getId()), true));
+			}
+		}
+		else
 		{
-			eventTrackingService.post(eventTrackingService.newEvent(MnemeService.SUBMISSION_ANSWER, getSubmissionReference(submission.getId()) + ":"
-					+ answer.getQuestion().getId(), true));
+			for (Answer answer : work)
+			{
+				events.add(eventTrackingService.newEvent(MnemeService.SUBMISSION_ANSWER, getSubmissionReference(submission.getId()) + ":"
+						+ answer.getQuestion().getId(), true));
+			}
 		}
+		this.eventWriter.post(events, (this.usageSessionService == null) ? null : this.usageSessionService.getSession());
 
 		// if complete
 		if (submission.getIsComplete())
@@ -2758,11 +2906,29 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 
 		// get all the submissions
 		List<Answer> answers = findSubmissionAnswers(assessment, question, FindAssessmentSubmissionsSort.userName_a, null, null);
+
+		// read all the users at once
+		Set<String> userIds = new HashSet<String>();
+		for (Answer answer : answers)
+		{
+			userIds.add(answer.getSubmission().getUserId());
+		}
+		Map<String, User> users = new HashMap<String, User>();
+		for (User user : this.userDirectoryService.getUsers(userIds))
+		{
+			users.put(user.getId(), user);
+		}
+
 		for (Answer answer : answers)
 		{
 			try
 			{
-				User user = this.userDirectoryService.getUser(answer.getSubmission().getUserId());
+				User user = users.get(answer.getSubmission().getUserId());
+				if (user == null)
+				{
+					M_log.warn("zipSubmissionsQuestion: zipping answers: user not defined: " + answer.getSubmission().getUserId());
+					continue;
+				}
 
 				// keep track of how many submissions for each user
 				int uCount = 1;
@@ -2809,10 +2975,6 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 					indexHtml.append("</ul>\n");
 				}
 			}
-			catch (UserNotDefinedException e)
-			{
-				M_log.warn("zipSubmissionsQuestion: zipping answers: " + e.toString());
-			}
 			catch (IOException e)
 			{
 				M_log.warn("zipSubmissionsQuestion: zipping answers: " + e.toString());
@@ -2878,6 +3040,54 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		return true;
 	}
 
+	/**
+	 * Auto-complete a batch of timed-out submissions, each as its own user.
+	 * 
+	 * @param submissions
+	 *        The timed-out submissions.
+	 */
+	protected void autoCompleteTimedOutSubmissions(List<Submission> submissions)
+	{
+		try
+		{
+			// for each one, close it if it is still open
+			for (Submission submission : submissions)
+			{
+				try
+				{
+					// we need to establish the "current" user to be the submission user
+					// so that various attributions of the complete process have the proper user
+					String user = submission.getUserId();
+					Session s = sessionManager.getCurrentSession();
+					if (s != null)
+					{
+						s.setUserId(user);
+					}
+					else
+					{
+						M_log.warn("autoCompleteTimedOutSubmissions - no SessionManager.getCurrentSession, cannot set to user");
+					}
+
+					// complete this submission, using the exact 'over' date for the final date
+					Date over = submission.getWhenOver();
+					if (over != null)
+					{
+						autoCompleteSubmission(over, submission);
+					}
+				}
+				catch (Throwable e)
+				{
+					M_log.warn("autoCompleteTimedOutSubmissions: will continue: " + submission.getId(), e);
+				}
+			}
+		}
+		finally
+		{
+			// clear out any current current bindings
+			this.threadLocalManager.clear();
+		}
+	}
+
 	/**
 	 * Form a key for caching a submission.
 	 * 
@@ -2921,11 +3131,21 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	 */
 	protected void checkAutoComplete(List<SubmissionImpl> submissions, Date asOf)
 	{
-		for (Submission submission : submissions)
+		for (ListIterator<SubmissionImpl> i = submissions.listIterator(); i.hasNext();)
 		{
+			SubmissionImpl submission = i.next();
+
 			// check if this is over time limit / deadline
 			if (submission.getIsOver(asOf, 0))
 			{
+				// a summary needs to be read in full to be completed
+				if (submission.getIsSummary())
+				{
+					submission = this.storage.getSubmission(submission.getId());
+					if (submission == null) continue;
+					i.set(submission);
+				}
+
 				// complete this one, using the exact 'over' date for the final date
 				Date over = submission.getWhenOver();
 				autoCompleteSubmission(over, submission);
@@ -2933,6 +3153,56 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		}
 	}
 
+	/**
+	 * Replace any submission summaries in the list with the full submissions, carrying over the official settings, and finish any phantoms.
+	 * 
+	 * @param submissions
+	 *        The submissions, some of which may be summaries or unfinished phantoms.
+	 * @param assessment
+	 *        The assessment.
+	 * @return A new list of the full submissions, in the same order.
+	 */
+	protected List<Submission> completeSummaries(List<Submission> submissions, Assessment assessment)
+	{
+		// read all the summarized submissions at once
+		List<String> ids = new ArrayList<String>();
+		for (Submission s : submissions)
+		{
+			if (((SubmissionImpl) s).getIsSummary()) ids.add(s.getId());
+		}
+		Map<String, SubmissionImpl> full = new HashMap<String, SubmissionImpl>();
+		if (!ids.isEmpty())
+		{
+			for (SubmissionImpl s : this.storage.getSubmissions(ids))
+			{
+				full.put(s.getId(), s);
+			}
+		}
+
+		List<Submission> rv = new ArrayList<Submission>(submissions.size());
+		for (Submission s : submissions)
+		{
+			SubmissionImpl submission = (SubmissionImpl) s;
+			if (submission.getIsPhantom())
+			{
+				initPhantomTestDrive(submission, assessment);
+			}
+			else if (submission.getIsSummary())
+			{
+				SubmissionImpl fullSubmission = full.get(submission.getId());
+				if (fullSubmission != null)
+				{
+					fullSubmission.initOfficial(submission);
+					submission = fullSubmission;
+				}
+			}
+
+			rv.add(submission);
+		}
+
+		return rv;
+	}
+
 	/**
 	 * Check how many additional submissions are allowed to this assessment by this user.<br />
 	 * If the user has no permission to submit, has submitted the maximum, or the assessment is closed for submissions as of this time, return 0.
@@ -3044,17 +3314,41 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	 *        if true, return submissions only from users who are currently permitted to submit, otherwise return any submissions found.
 	 * @return A List<Submission> of the submissions for the assessment.
 	 */
-	@SuppressWarnings(
-	{ "unchecked", "rawtypes" })
 	protected List<SubmissionImpl> getAssessmentSubmissions(Assessment assessment, final FindAssessmentSubmissionsSort sort, final Question question,
 			boolean filterByPermission)
 	{
-		// collect the submissions to this assessment
-		List<SubmissionImpl> rv = this.storage.getAssessmentSubmissions(assessment);
+		return getAssessmentSubmissions(assessment, sort, question, filterByPermission, false);
+	}
+
+	/**
+	 * Get the submissions to the assessment made by all users.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @param sort
+	 *        The sort.
+	 * @param question
+	 *        An optional question, to use for sort-by-score (the score would be for this question in the submission, not the overall).
+	 * @param filterByPermission
+	 *        if true, return submissions only from users who are currently permitted to submit, otherwise return any submissions found.
+	 * @param summary
+	 *        if true, return submission summaries (no answers) and phantoms not yet checked for test drive - see completeSummaries().
+	 * @return A List<Submission> of the submissions for the assessment.
+	 */
+	@SuppressWarnings(
+	{ "unchecked", "rawtypes" })
+	protected List<SubmissionImpl> getAssessmentSubmissions(Assessment assessment, final FindAssessmentSubmissionsSort sort, final Question question,
+			boolean filterByPermission, boolean summary)
+	{
+		// collect the submissions to this assessment
+		List<SubmissionImpl> rv = summary ? this.storage.getAssessmentSubmissionsSummary(assessment) : this.storage.getAssessmentSubmissions(assessment);
 
 		// get all possible users who can submit
 		Set<String> userIds = this.securityService.getUsersIsAllowed(MnemeService.SUBMIT_PERMISSION, assessment.getContext());
 
+		// remember everyone with submit, defined or not, for the permission filter below
+		Set<String> allowedIds = new HashSet<String>(userIds);
+
 		// filter out any userIds that are not currently defined
 		List<User> users = this.userDirectoryService.getUsers(userIds);
 		userIds.clear();
@@ -3063,37 +3357,48 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 			userIds.add(user.getId());
 		}
 
+		// index the users represented in the submissions we found
+		Set<String> submittedIds = new HashSet<String>();
+		for (Submission s : rv)
+		{
+			submittedIds.add(s.getUserId());
+		}
+
 		// if any user is not represented in the submissions we found, add an empty submission
 		for (String userId : userIds)
 		{
-			boolean found = false;
-			for (Submission s : rv)
-			{
-				if (s.getUserId().equals(userId))
-				{
-					found = true;
-					break;
-				}
-			}
-
-			if (!found)
+			if (!submittedIds.contains(userId))
 			{
-				SubmissionImpl s = this.getPhantomSubmission(userId, assessment);
+				SubmissionImpl s = summary ? this.newPhantomSubmission(userId, assessment) : this.getPhantomSubmission(userId, assessment);
 				rv.add(s);
 			}
 		}
 
-		// Disregard submissions from any users who no longer can submit
+		// Disregard submissions from any users who no longer can submit - the allowed set answers for most users,
+		// the rest (super users, for example) get checked individually, once per user
+		Map<String, Boolean> checked = new HashMap<String, Boolean>();
 		for (Iterator<SubmissionImpl> i = rv.iterator(); i.hasNext();)
 		{
-			// TODO: Optimise / re-think if this is a performance hit for lots of users!!
 			SubmissionImpl s = i.next();
-			if (!securityService.checkSecurity(s.getUserId(), MnemeService.SUBMIT_PERMISSION, 
-					s.getAssessment().getContext())) {
+			if (allowedIds.contains(s.getUserId())) continue;
+
+			Boolean allowed = checked.get(s.getUserId());
+			if (allowed == null)
+			{
+				allowed = Boolean.valueOf(securityService.checkSecurity(s.getUserId(), MnemeService.SUBMIT_PERMISSION, assessment.getContext()));
+				checked.put(s.getUserId(), allowed);
+			}
+
+			if (!allowed.booleanValue())
+			{
 				i.remove();
 			}
 		}
 
+		// compute the user sort names once, rather than in each compare, for all the submissions - including those separated out below
+		// (reading any users not already found all at once)
+		final Map<String, String> sortNames = getSortNames(rv, users);
+
 		// for all but user name, section & status sorts, separate out the completed, not-started, in-progress
 		List<SubmissionImpl> inProgress = new ArrayList<SubmissionImpl>();
 		List<SubmissionImpl> notStarted = new ArrayList<SubmissionImpl>();
@@ -3118,6 +3423,16 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 			}
 		}
 
+		// for the section sorts, compute each submission's section once, rather than in each compare
+		final Map<Object, String> sections = new IdentityHashMap<Object, String>();
+		if ((sort == FindAssessmentSubmissionsSort.section_a) || (sort == FindAssessmentSubmissionsSort.section_d))
+		{
+			for (Submission submission : rv)
+			{
+				sections.put(submission, StringUtil.trimToZero(submission.getUserSection()));
+			}
+		}
+
 		// sort - secondary sort of user name, or if primary is title, on submit date
 		Collections.sort(rv, new Comparator()
 		{
@@ -3132,25 +3447,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 					case status_a:
 					case status_d:
 					{
-						String id0 = ((Submission) arg0).getUserId();
-						try
-						{
-							User u = userDirectoryService.getUser(id0);
-							id0 = u.getSortName();
-						}
-						catch (UserNotDefinedException e)
-						{
-						}
-
-						String id1 = ((Submission) arg1).getUserId();
-						try
-						{
-							User u = userDirectoryService.getUser(id1);
-							id1 = u.getSortName();
-						}
-						catch (UserNotDefinedException e)
-						{
-						}
+						String id0 = sortNames.get(((Submission) arg0).getUserId());
+						String id1 = sortNames.get(((Submission) arg1).getUserId());
 
 						rv = id0.compareToIgnoreCase(id1);
 
@@ -3231,8 +3529,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 					case section_a:
 					case section_d:
 					{
-						String section0 = StringUtil.trimToZero(((Submission) arg0).getUserSection());
-						String section1 = StringUtil.trimToZero(((Submission) arg1).getUserSection());
+						String section0 = sections.get(arg0);
+						String section1 = sections.get(arg1);
 
 						rv = section0.compareToIgnoreCase(section1);
 
@@ -3275,25 +3573,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 					{
 						case userName_a:
 						{
-							String id0 = ((Submission) arg0).getUserId();
-							try
-							{
-								User u = userDirectoryService.getUser(id0);
-								id0 = u.getSortName();
-							}
-							catch (UserNotDefinedException e)
-							{
-							}
-
-							String id1 = ((Submission) arg1).getUserId();
-							try
-							{
-								User u = userDirectoryService.getUser(id1);
-								id1 = u.getSortName();
-							}
-							catch (UserNotDefinedException e)
-							{
-							}
+							String id0 = sortNames.get(((Submission) arg0).getUserId());
+							String id1 = sortNames.get(((Submission) arg1).getUserId());
 
 							rv = id0.compareToIgnoreCase(id1);
 							third = FindAssessmentSubmissionsSort.sdate_a;
@@ -3368,25 +3649,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 				public int compare(Object arg0, Object arg1)
 				{
 					int rv = 0;
-					String id0 = ((Submission) arg0).getUserId();
-					try
-					{
-						User u = userDirectoryService.getUser(id0);
-						id0 = u.getSortName();
-					}
-					catch (UserNotDefinedException e)
-					{
-					}
-
-					String id1 = ((Submission) arg1).getUserId();
-					try
-					{
-						User u = userDirectoryService.getUser(id1);
-						id1 = u.getSortName();
-					}
-					catch (UserNotDefinedException e)
-					{
-					}
+					String id0 = sortNames.get(((Submission) arg0).getUserId());
+					String id1 = sortNames.get(((Submission) arg1).getUserId());
 
 					rv = id0.compareToIgnoreCase(id1);
 					return rv;
@@ -3404,25 +3668,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 				public int compare(Object arg0, Object arg1)
 				{
 					int rv = 0;
-					String id0 = ((Submission) arg0).getUserId();
-					try
-					{
-						User u = userDirectoryService.getUser(id0);
-						id0 = u.getSortName();
-					}
-					catch (UserNotDefinedException e)
-					{
-					}
-
-					String id1 = ((Submission) arg1).getUserId();
-					try
-					{
-						User u = userDirectoryService.getUser(id1);
-						id1 = u.getSortName();
-					}
-					catch (UserNotDefinedException e)
-					{
-					}
+					String id0 = sortNames.get(((Submission) arg0).getUserId());
+					String id1 = sortNames.get(((Submission) arg1).getUserId());
 
 					rv = id0.compareToIgnoreCase(id1);
 					return rv;
@@ -3446,21 +3693,51 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	 */
 	protected SubmissionImpl getPhantomSubmission(String userId, Assessment assessment)
 	{
-		SubmissionImpl s = this.storage.newSubmission();
-		s.initUserId(userId);
-		s.initAssessmentId(assessment.getId());
+		SubmissionImpl s = newPhantomSubmission(userId, assessment);
+		initPhantomTestDrive(s, assessment);
 
-		// if the user does not have submit, mark it as test drive
-		if ((!securityService.checkSecurity(userId, MnemeService.SUBMIT_PERMISSION, assessment.getContext()))
-				&& securityService.checkSecurity(userId, MnemeService.MANAGE_PERMISSION, assessment.getContext()))
+		return s;
+	}
+
+	/**
+	 * Find the sort names for the users of these submissions, for sorting.
+	 * 
+	 * @param submissions
+	 *        The submissions.
+	 * @param users
+	 *        Users already read from the directory.
+	 * @return A map of user id to sort name - the user id itself for users not defined.
+	 */
+	protected Map<String, String> getSortNames(List<? extends Submission> submissions, List<User> users)
+	{
+		Map<String, String> rv = new HashMap<String, String>();
+		for (User user : users)
 		{
-			s.initTestDrive(Boolean.TRUE);
+			rv.put(user.getId(), user.getSortName());
 		}
 
-		// set the id so we know it is a phantom
-		s.initId(SubmissionService.PHANTOM_PREFIX + assessment.getId() + "/" + userId);
+		// read the rest of the users all at once
+		Set<String> missing = new HashSet<String>();
+		for (Submission submission : submissions)
+		{
+			if (!rv.containsKey(submission.getUserId())) missing.add(submission.getUserId());
+		}
+		if (!missing.isEmpty())
+		{
+			List<User> more = this.userDirectoryService.getUsers(missing);
+			for (User user : more)
+			{
+				rv.put(user.getId(), user.getSortName());
+			}
 
-		return s;
+			// users not defined sort by id
+			for (String id : missing)
+			{
+				if (!rv.containsKey(id)) rv.put(id, id);
+			}
+		}
+
+		return rv;
 	}
 
 	/**
@@ -3488,11 +3765,10 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 
 		final Date asOf = new Date();
 
-		// select all open submission for every user assessment context
-		// TODO: tune this so more is done in the db, fewer are read -ggolden
-		List<SubmissionImpl> all = this.storage.getOpenSubmissions();
+		// select the open submissions that storage finds may be timed out
+		List<SubmissionImpl> all = this.storage.getTimedOutSubmissions(asOf, grace);
 
-		// filter the ones we really want
+		// filter the ones we really want (considering the user's special access)
 		List<Submission> rv = new ArrayList<Submission>();
 		for (Submission submission : all)
 		{
@@ -3872,6 +4148,104 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		return official;
 	}
 
+	/**
+	 * Group a list of submissions by assessment or by user, in one pass.
+	 * 
+	 * @param all
+	 *        The submissions.
+	 * @param byUser
+	 *        if true, group by user, else group by assessment.
+	 * @return The groups, keyed by user or assessment id, in the order each is first found in all, each holding its submissions in all's order.
+	 */
+	protected Map<String, List<SubmissionImpl>> groupSubmissions(List<SubmissionImpl> all, boolean byUser)
+	{
+		Map<String, List<SubmissionImpl>> rv = new LinkedHashMap<String, List<SubmissionImpl>>();
+		for (SubmissionImpl submission : all)
+		{
+			String key = byUser ? submission.getUserId() : submission.getAssessmentId();
+			List<SubmissionImpl> group = rv.get(key);
+			if (group == null)
+			{
+				group = new ArrayList<SubmissionImpl>();
+				rv.put(key, group);
+			}
+			group.add(submission);
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Mark a phantom submission as test drive if the user does not have submit but does have manage permission.
+	 * 
+	 * @param s
+	 *        The phantom submission.
+	 * @param assessment
+	 *        The assessment.
+	 */
+	protected void initPhantomTestDrive(SubmissionImpl s, Assessment assessment)
+	{
+		// if the user does not have submit, mark it as test drive
+		if ((!securityService.checkSecurity(s.getUserId(), MnemeService.SUBMIT_PERMISSION, assessment.getContext()))
+				&& securityService.checkSecurity(s.getUserId(), MnemeService.MANAGE_PERMISSION, assessment.getContext()))
+		{
+			s.initTestDrive(Boolean.TRUE);
+		}
+	}
+
+	/**
+	 * Check if this server is the one to do the maintenance work now.
+	 * 
+	 * @return true if this server should do the maintenance work, false if not.
+	 */
+	protected boolean isMaintenanceLeader()
+	{
+		// if not electing, we run only on the configured server
+		if (!this.maintenanceElect) return true;
+
+		// the first of the live servers (sorted by server id and instance) is the leader
+		List<String> servers = new ArrayList<String>(this.clusterService.getServers());
+		if (servers.isEmpty()) return true;
+		Collections.sort(servers);
+
+		return servers.get(0).equals(this.serverConfigurationService.getServerIdInstance());
+	}
+
+	/**
+	 * Take the maintenance thread's nap between checks.
+	 */
+	protected void napMaintenance()
+	{
+		try
+		{
+			Thread.sleep(timeoutCheckMs);
+		}
+		catch (Exception ignore)
+		{
+		}
+	}
+
+	/**
+	 * Create a phantom submission for this user and this assessment, without the test drive check.
+	 * 
+	 * @param userId
+	 *        The user id.
+	 * @param assessment
+	 *        The assessment.
+	 * @return A phantom submission for this user and this assessment.
+	 */
+	protected SubmissionImpl newPhantomSubmission(String userId, Assessment assessment)
+	{
+		SubmissionImpl s = this.storage.newSubmission();
+		s.initUserId(userId);
+		s.initAssessmentId(assessment.getId());
+
+		// set the id so we know it is a phantom
+		s.initId(SubmissionService.PHANTOM_PREFIX + assessment.getId() + "/" + userId);
+
+		return s;
+	}
+
 	/**
 	 * Notifies students about the evaluation
 	 * 
@@ -3939,10 +4313,10 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		// pick one for each assessment - the one in progress, or the official complete one
 		List<Submission> official = new ArrayList<Submission>();
 
-		while (all.size() > 0)
+		for (List<SubmissionImpl> group : groupSubmissions(all, false).values())
 		{
-			// take the first one out
-			SubmissionImpl submission = all.remove(0);
+			// the first one
+			SubmissionImpl submission = group.get(0);
 
 			// count the submissions actually present in the list for this assessment
 			int count = 0;
@@ -3985,82 +4359,75 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 			// track if any are not completely graded and released
 			boolean ungradedSiblings = (submission.getIsComplete() && !submission.getIsReleased()) || submission.getHasUnscoredAnswers();
 
-			// remove all others with this one's assessment id - keeping track of the best score if complete
-			for (Iterator i = all.iterator(); i.hasNext();)
+			// consider all the others for this assessment - keeping track of the best score if complete
+			for (SubmissionImpl candidateSub : group.subList(1, group.size()))
 			{
-				SubmissionImpl candidateSub = (SubmissionImpl) i.next();
-				if (candidateSub.getAssessmentId().equals(aid))
+				// we should not get a second one that is not started
+				if (candidateSub.getStartDate() == null)
 				{
-					// take this one out
-					i.remove();
+					M_log.warn("officializeByAssessment: another unstarted for aid: " + aid + " sid:" + candidateSub.getId());
+					continue;
+				}
 
-					// we should not get a second one that is not started
-					if (candidateSub.getStartDate() == null)
-					{
-						M_log.warn("officializeByAssessment: another unstarted for aid: " + aid + " sid:" + candidateSub.getId());
-						continue;
-					}
+				// count as a sibling
+				count++;
 
-					// count as a sibling
-					count++;
+				// track the in-progress one, if any
+				if ((candidateSub.getIsComplete() == null) || (!candidateSub.getIsComplete()))
+				{
+					inProgressSubmission = candidateSub;
+				}
 
-					// track the in-progress one, if any
-					if ((candidateSub.getIsComplete() == null) || (!candidateSub.getIsComplete()))
-					{
-						inProgressSubmission = candidateSub;
-					}
+				// if not in progress, then see if it has the best score so far
+				else
+				{
+					// track if any are not completely graded and released
+					if (!ungradedSiblings)
+						ungradedSiblings = (candidateSub.getIsComplete() && !candidateSub.getIsReleased())
+								|| candidateSub.getHasUnscoredAnswers();
 
-					// if not in progress, then see if it has the best score so far
-					else
+					// consider for "best" if candidate is released
+					if (candidateSub.getIsReleased())
 					{
-						// track if any are not completely graded and released
-						if (!ungradedSiblings)
-							ungradedSiblings = (candidateSub.getIsComplete() && !candidateSub.getIsReleased())
-									|| candidateSub.getHasUnscoredAnswers();
+						if (bestSubmission == null)
+						{
+							bestSubmission = candidateSub;
+						}
 
-						// consider for "best" if candidate is released
-						if (candidateSub.getIsReleased())
+						// take the new one if it exceeds the best so far
+						else if (candidateBetter(bestSubmission, candidateSub))
+						// else if (bestSubmission.getTotalScore().floatValue() < candidateSub.getTotalScore().floatValue())
 						{
-							if (bestSubmission == null)
-							{
-								bestSubmission = candidateSub;
-							}
+							bestSubmission = candidateSub;
+						}
 
-							// take the new one if it exceeds the best so far
-							else if (candidateBetter(bestSubmission, candidateSub))
-							// else if (bestSubmission.getTotalScore().floatValue() < candidateSub.getTotalScore().floatValue())
+						// if we match the best, pick the latest submit date
+						else if (sameScores(bestSubmission, candidateSub))
+						// else if (bestSubmission.getTotalScore().floatValue() == candidateSub.getTotalScore().floatValue())
+						{
+							if ((bestSubmission.getSubmittedDate() != null) && (candidateSub.getSubmittedDate() != null)
+									&& (bestSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
 							{
 								bestSubmission = candidateSub;
 							}
-
-							// if we match the best, pick the latest submit date
-							else if (sameScores(bestSubmission, candidateSub))
-							// else if (bestSubmission.getTotalScore().floatValue() == candidateSub.getTotalScore().floatValue())
-							{
-								if ((bestSubmission.getSubmittedDate() != null) && (candidateSub.getSubmittedDate() != null)
-										&& (bestSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
-								{
-									bestSubmission = candidateSub;
-								}
-							}
 						}
+					}
 
-						// if not released, consider for the most recent
+					// if not released, consider for the most recent
+					else
+					{
+						if (mostRecentCompletedNotReleasedSubmission == null)
+						{
+							mostRecentCompletedNotReleasedSubmission = candidateSub;
+						}
 						else
 						{
-							if (mostRecentCompletedNotReleasedSubmission == null)
+							if ((mostRecentCompletedNotReleasedSubmission.getSubmittedDate() != null)
+									&& (candidateSub.getSubmittedDate() != null)
+									&& (mostRecentCompletedNotReleasedSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
 							{
 								mostRecentCompletedNotReleasedSubmission = candidateSub;
 							}
-							else
-							{
-								if ((mostRecentCompletedNotReleasedSubmission.getSubmittedDate() != null)
-										&& (candidateSub.getSubmittedDate() != null)
-										&& (mostRecentCompletedNotReleasedSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
-								{
-									mostRecentCompletedNotReleasedSubmission = candidateSub;
-								}
-							}
 						}
 					}
 				}
@@ -4110,13 +4477,13 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		// pick one for each user - the one in progress, or the official complete one
 		// List<Submission> official = new ArrayList<Submission>();
 
-		// in all's order
-		List<Submission> allOrder = new ArrayList<Submission>(all);
+		// the loosers to leave out of the result
+		Set<Submission> removed = new HashSet<Submission>();
 
-		while (all.size() > 0)
+		for (List<SubmissionImpl> group : groupSubmissions(all, true).values())
 		{
-			// take the first one out
-			SubmissionImpl submission = all.remove(0);
+			// the first one
+			SubmissionImpl submission = group.get(0);
 
 			// count the submissions actually present in the list for this user
 			int count = 0;
@@ -4151,77 +4518,70 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 				}
 			}
 
-			// remove all others with this one's user id - keeping track of the best score if complete
+			// consider all the others for this user - keeping track of the best score if complete
 			List<Submission> loosers = new ArrayList<Submission>();
-			for (Iterator i = all.iterator(); i.hasNext();)
+			for (SubmissionImpl candidateSub : group.subList(1, group.size()))
 			{
-				SubmissionImpl candidateSub = (SubmissionImpl) i.next();
-				if (candidateSub.getUserId().equals(uid))
+				// keep it if it belongs to allUid
+				// if (candidateSub.getUserId().equals(allUid)) official.add(candidateSub);
+
+				// we should not get a second one that is unstarted
+				if (!candidateSub.getIsStarted())
 				{
-					// take this one out
-					i.remove();
+					M_log.warn("officializeByUser: another unstarted for uid: " + uid + " sid:" + candidateSub.getId());
+					continue;
+				}
 
-					// keep it if it belongs to allUid
-					// if (candidateSub.getUserId().equals(allUid)) official.add(candidateSub);
+				// count as a sibling
+				count++;
 
-					// we should not get a second one that is unstarted
-					if (!candidateSub.getIsStarted())
+				// track the in-progress one, if any
+				if (!candidateSub.getIsComplete())
+				{
+					if (inProgressSubmission != null)
 					{
-						M_log.warn("officializeByUser: another unstarted for uid: " + uid + " sid:" + candidateSub.getId());
-						continue;
+						M_log.warn("officializeByUser: another inprogress for uid: " + uid + " sid:" + candidateSub.getId());
 					}
+					inProgressSubmission = candidateSub;
+				}
 
-					// count as a sibling
-					count++;
+				// if not in progress, then see if it has the best score so far
+				else
+				{
+					// track if any are not completely graded and released
+					if (!ungradedSiblings)
+						ungradedSiblings = (candidateSub.getIsComplete() && !candidateSub.getIsReleased())
+								|| candidateSub.getHasUnscoredAnswers();
 
-					// track the in-progress one, if any
-					if (!candidateSub.getIsComplete())
+					if (bestSubmission == null)
 					{
-						if (inProgressSubmission != null)
-						{
-							M_log.warn("officializeByUser: another inprogress for uid: " + uid + " sid:" + candidateSub.getId());
-						}
-						inProgressSubmission = candidateSub;
+						bestSubmission = candidateSub;
 					}
 
-					// if not in progress, then see if it has the best score so far
-					else
+					// take the new one if it exceeds the best so far
+					else if (candidateBetter(bestSubmission, candidateSub))
+					// else if (bestSubmission.getTotalScore().floatValue() < candidateSub.getTotalScore().floatValue())
 					{
-						// track if any are not completely graded and released
-						if (!ungradedSiblings)
-							ungradedSiblings = (candidateSub.getIsComplete() && !candidateSub.getIsReleased())
-									|| candidateSub.getHasUnscoredAnswers();
-
-						if (bestSubmission == null)
-						{
-							bestSubmission = candidateSub;
-						}
+						loosers.add(bestSubmission);
+						bestSubmission = candidateSub;
+					}
 
-						// take the new one if it exceeds the best so far
-						else if (candidateBetter(bestSubmission, candidateSub))
-						// else if (bestSubmission.getTotalScore().floatValue() < candidateSub.getTotalScore().floatValue())
+					// if we match the best, pick the latest submit date
+					else if (sameScores(bestSubmission, candidateSub))
+					// else if (bestSubmission.getTotalScore().floatValue() == candidateSub.getTotalScore().floatValue())
+					{
+						if ((bestSubmission.getSubmittedDate() != null) && (candidateSub.getSubmittedDate() != null)
+								&& (bestSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
 						{
 							loosers.add(bestSubmission);
 							bestSubmission = candidateSub;
 						}
-
-						// if we match the best, pick the latest submit date
-						else if (sameScores(bestSubmission, candidateSub))
-						// else if (bestSubmission.getTotalScore().floatValue() == candidateSub.getTotalScore().floatValue())
-						{
-							if ((bestSubmission.getSubmittedDate() != null) && (candidateSub.getSubmittedDate() != null)
-									&& (bestSubmission.getSubmittedDate().before(candidateSub.getSubmittedDate())))
-							{
-								loosers.add(bestSubmission);
-								bestSubmission = candidateSub;
-							}
-						}
 					}
+				}
 
-					if ((bestSubmission != candidateSub) && (inProgressSubmission != candidateSub))
-					{
-						loosers.add(candidateSub);
-					}
+				if ((bestSubmission != candidateSub) && (inProgressSubmission != candidateSub))
+				{
+					loosers.add(candidateSub);
 				}
 			}
 
@@ -4267,16 +4627,23 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 				}
 			}
 
-			// remove the loosers from the allOrder (except allUid)
+			// remove the loosers from the result (except allUid)
 			for (Submission looser : loosers)
 			{
 				if (!looser.getUserId().equals(allUid))
 				{
-					allOrder.remove(looser);
+					removed.add(looser);
 				}
 			}
 		}
 
+		// in all's order
+		List<Submission> allOrder = new ArrayList<Submission>(all.size() - removed.size());
+		for (Submission submission : all)
+		{
+			if (!removed.contains(submission)) allOrder.add(submission);
+		}
+
 		// this returns the allUid entries grouped together, against any sort
 		// return official;
 
@@ -4329,6 +4696,44 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		this.storage.removeTestDriveSubmissions(context);
 	}
 
+	/**
+	 * Re-score a chunk of submissions, saving the answers that change.
+	 * 
+	 * @param ids
+	 *        The submission ids.
+	 * @param questionIds
+	 *        The ids of the questions whose answers to re-score, or null for all.
+	 * @return The number of answers changed.
+	 */
+	protected int rescoreSubmissions(List<String> ids, Set<String> questionIds)
+	{
+		List<SubmissionImpl> submissions = this.storage.getSubmissions(ids);
+
+		// collect any that changed
+		List<Answer> toSave = new ArrayList<Answer>();
+
+		// recompute the auto score for each answer
+		for (SubmissionImpl submission : submissions)
+		{
+			for (Answer answer : submission.getAnswers())
+			{
+				if ((questionIds != null) && (!questionIds.contains(((AnswerImpl) answer).getQuestionId()))) continue;
+
+				Float autoScore = ((AnswerImpl) answer).computeAutoScore();
+				if (Different.different(autoScore, answer.getAutoScore()))
+				{
+					((AnswerImpl) answer).initStoredAutoScore(autoScore);
+					toSave.add(answer);
+				}
+			}
+		}
+
+		// save any changed answers, as one batch
+		this.storage.saveAnswers(toSave);
+
+		return toSave.size();
+	}
+
 	/**
 	 * Check if the candidate has a better score than the best so far.
 	 * 
@@ -4348,6 +4753,74 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		return false;
 	}
 
+	/**
+	 * Select the submissions to the assessment, officialized, sorted and section filtered as findAssessmentSubmissions() does, but not paged.<br />
+	 * With summaries, the submissions are read without their answers - use completeSummaries() on a page of them to read it in full.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @param sort
+	 *        The sort.
+	 * @param official
+	 *        if TRUE, pick the official submission for each user.
+	 * @param allUid
+	 *        If official, pick all the submissions for this user.
+	 * @param filterByPermission
+	 *        if TRUE or null, only the users with submit permission.
+	 * @param sectionFilter
+	 *        The section title to limit to, or null for all.
+	 * @param summaries
+	 *        if true, read the submissions as summaries.
+	 * @return The submissions, in sort order.
+	 */
+	protected List<Submission> selectAssessmentSubmissions(Assessment assessment, FindAssessmentSubmissionsSort sort, Boolean official,
+			String allUid, Boolean filterByPermission, String sectionFilter, boolean summaries)
+	{
+		if (sort == null) sort = FindAssessmentSubmissionsSort.userName_a;
+
+		Date asOf = new Date();
+
+		// get the submissions to the assessment made by all possible submitters
+		List<SubmissionImpl> all = getAssessmentSubmissions(assessment, sort, null,
+				((filterByPermission == null) ? true : filterByPermission.booleanValue()), summaries);
+
+		// see if any needs to be completed based on time limit or dates
+		checkAutoComplete(all, asOf);
+
+		// pick one for each assessment - the one in progress, or the official complete one (if official)
+		List<Submission> rv = null;
+		if (official)
+		{
+			rv = officializeByUser(all, allUid);
+		}
+		else
+		{
+			rv = new ArrayList<Submission>(all.size());
+			rv.addAll(all);
+		}
+
+		// if sorting by status, do that sort
+		if (sort == FindAssessmentSubmissionsSort.status_a || sort == FindAssessmentSubmissionsSort.status_d)
+		{
+			rv = sortByGradingSubmissionStatus((sort == FindAssessmentSubmissionsSort.status_d), rv);
+		}
+
+		// filter by section
+		if (sectionFilter != null)
+		{
+			for (Iterator<Submission> i = rv.iterator(); i.hasNext();)
+			{
+				Submission s = i.next();
+				if (!sectionFilter.equalsIgnoreCase(s.getUserSection()))
+				{
+					i.remove();
+				}
+			}
+		}
+
+		return rv;
+	}
+
 	/**
 	 * Sort a list of submissions by their (AssessmentSubmissionStatus) status.
 	 * 
@@ -4561,6 +5034,8 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 	{
 		threadStop = false;
 
+		timeoutExecutor = Executors.newFixedThreadPool(timeoutCheckThreads);
+
 		checkerThread = new Thread(this, getClass().getName());
 		checkerThread.start();
 	}
@@ -4579,6 +5054,10 @@ public class SubmissionServiceImpl implements SubmissionService, Runnable
 		checkerThread.interrupt();
 
 		checkerThread = null;
+
+		// stop the workers
+		timeoutExecutor.shutdownNow();
+		timeoutExecutor = null;
 	}
 
 	/**
@@ -24,6 +24,7 @@
 
 package org.etudes.mneme.impl;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
@@ -110,6 +111,15 @@ public interface SubmissionStorage
 	 */
 	List<Float> getAssessmentScores(Assessment assessment);
 
+	/**
+	 * Get the ids of the submissions to the assignment made by all users.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @return The List of submission ids for the assessment, in id order.
+	 */
+	List<String> getAssessmentSubmissionIds(Assessment assessment);
+
 	/**
 	 * Get the submissions to the assignment made by all users.
 	 * 
@@ -121,6 +131,16 @@ public interface SubmissionStorage
 	 */
 	List<SubmissionImpl> getAssessmentSubmissions(Assessment assessment);
 
+	/**
+	 * Get the submissions to the assignment made by all users, as summaries: without answers, but with the total score and the unscored answer
+	 * information computed by the storage.
+	 * 
+	 * @param assessment
+	 *        The assessment.
+	 * @return A List<Submission> of the submission summaries for the assessment.
+	 */
+	List<SubmissionImpl> getAssessmentSubmissionsSummary(Assessment assessment);
+
 	/**
 	 * Get all the submissions in this context (non-test-drive, for non-archived assesments).
 	 * 
@@ -167,6 +187,15 @@ public interface SubmissionStorage
 	 */
 	SubmissionImpl getSubmission(String id);
 
+	/**
+	 * Access a set of submissions by id.
+	 * 
+	 * @param ids
+	 *        the submission ids.
+	 * @return The submissions found with these ids, in no particular order.
+	 */
+	List<SubmissionImpl> getSubmissions(List<String> ids);
+
 	/**
 	 * Find the highest submission score for this user to this assessment (among completed and released submissions).
 	 * 
@@ -187,6 +216,20 @@ public interface SubmissionStorage
 	 */
 	Float getSubmissionScore(Submission submissionImpl);
 
+	/**
+	 * Get the in-progress (open) submissions (all users, all assessments, all contexts) that may be timed out: past their assessment's time limit
+	 * or submit-until date (plus grace), as of this date.<br />
+	 * This may include some that are not timed out, such as those with special access - the caller needs to check each one.<br />
+	 * Note: the submission answers are not needed nor read in.
+	 * 
+	 * @param asOf
+	 *        The effective date.
+	 * @param grace
+	 *        The number of ms past the time limit or submit-until date that qualifies.
+	 * @return The list of in-progress submissions that may be timed out.
+	 */
+	List<SubmissionImpl> getTimedOutSubmissions(Date asOf, long grace);
+
 	/**
 	 * Get the submissions to the assignment made by this user.
 	 * 
@@ -24,10 +24,17 @@
 
 package org.etudes.mneme.impl;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.mneme.api.Assessment;
-import org.etudes.mneme.api.Question;
 
 /**
  * SubmissionStorageMysql implements SubmissionStorage for MySQL.
@@ -52,12 +59,9 @@ public abstract class SubmissionStorageMysql extends SubmissionStorageSql implem
 	}
 
 	/**
-	 * Insert a new pool (transaction code).
-	 * 
-	 * @param pool
-	 *        The pool.
+	 * {@inheritDoc}
 	 */
-	protected void insertAnswerTx(AnswerImpl answer)
+	protected List<Long> insertAnswersTx(Connection connection, List<AnswerImpl> answers) throws SQLException
 	{
 		StringBuilder sql = new StringBuilder();
 		sql.append("INSERT INTO MNEME_ANSWER (");
@@ -65,33 +69,44 @@ public abstract class SubmissionStorageMysql extends SubmissionStorageSql implem
 		sql.append(" PART_ID, QUESTION_ID, QUESTION_TYPE, REASON, REVIEW, SUBMISSION_ID, SUBMITTED_DATE)");
 		sql.append(" VALUES(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)");
 
-		Object[] fields = new Object[16];
-		fields[0] = answer.getIsAnswered();
-		fields[1] = answer.getAutoScore();
-		fields[2] = SqlHelper.encodeStringArray(answer.getTypeSpecificAnswer().getData());
-		fields[3] = (answer.getEvaluation().getAttribution().getDate() == null) ? null : answer.getEvaluation().getAttribution().getDate().getTime();
-		fields[4] = answer.getEvaluation().getAttribution().getUserId();
-		fields[5] = SqlHelper.encodeReferences(answer.getEvaluation().getAttachments());
-		fields[6] = answer.getEvaluation().getComment();
-		fields[7] = answer.getEvaluation().getEvaluated() ? "1" : "0";
-		fields[8] = answer.getEvaluation().getScore() == null ? null : Float.valueOf(answer.getEvaluation().getScore());
-		fields[9] = Long.valueOf(answer.getPartId());
-		Question q = answer.getQuestion();
-		fields[10] = Long.valueOf(q.getId());
-		fields[11] = q.getType();
-		fields[12] = answer.getReason();
-		fields[13] = answer.getMarkedForReview() ? "1" : "0";
-		fields[14] = Long.valueOf(answer.getSubmission().getId());
-		fields[15] = (answer.getSubmittedDate() == null) ? null : answer.getSubmittedDate().getTime();
+		List<Long> rv = new ArrayList<Long>();
+		PreparedStatement statement = null;
+		try
+		{
+			statement = connection.prepareStatement(sql.toString(), Statement.RETURN_GENERATED_KEYS);
+			for (AnswerImpl answer : answers)
+			{
+				SqlHelper.setFields(statement, insertAnswerFields(answer));
+				statement.addBatch();
+			}
+
+			statement.executeBatch();
+
+			// the generated ids come back in batch order
+			ResultSet keys = statement.getGeneratedKeys();
+			try
+			{
+				while (keys.next())
+				{
+					rv.add(Long.valueOf(keys.getLong(1)));
+				}
+			}
+			finally
+			{
+				keys.close();
+			}
+		}
+		finally
+		{
+			close(statement);
+		}
 
-		Long id = this.sqlService.dbInsert(null, sql.toString(), fields, "ID");
-		if (id == null)
+		if (rv.size() != answers.size())
 		{
-			throw new RuntimeException("insertPoolTx: dbInsert failed");
+			throw new SQLException("insertAnswersTx: " + rv.size() + " ids generated for " + answers.size() + " answers");
 		}
 
-		// set the answer's id
-		answer.initId(id.toString());
+		return rv;
 	}
 
 	/**
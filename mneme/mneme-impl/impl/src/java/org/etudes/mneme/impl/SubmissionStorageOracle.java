@@ -24,10 +24,15 @@
 
 package org.etudes.mneme.impl;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.logging.Log;
 import org.apache.commons.logging.LogFactory;
 import org.etudes.mneme.api.Assessment;
-import org.etudes.mneme.api.Question;
 
 /**
  * SubmissionStorageMysql implements SubmissionStorage for Oracle.
@@ -52,49 +57,44 @@ public abstract class SubmissionStorageOracle extends SubmissionStorageSql imple
 	}
 
 	/**
-	 * Insert a new pool (transaction code).
-	 * 
-	 * @param pool
-	 *        The pool.
+	 * {@inheritDoc}
 	 */
-	protected void insertAnswerTx(AnswerImpl answer)
+	protected List<Long> insertAnswersTx(Connection connection, List<AnswerImpl> answers) throws SQLException
 	{
-		// get the next id
-		Long id = this.sqlService.getNextSequence("MNEME_ANSWER_SEQ", null);
-
 		StringBuilder sql = new StringBuilder();
 		sql.append("INSERT INTO MNEME_ANSWER (ID, ");
 		sql.append(" ANSWERED, AUTO_SCORE, GUEST, EVAL_ATRIB_DATE, EVAL_ATRIB_USER, EVAL_ATTACHMENTS, EVAL_COMMENT, EVAL_EVALUATED, EVAL_SCORE,");
 		sql.append(" PART_ID, QUESTION_ID, QUESTION_TYPE, REASON, REVIEW, SUBMISSION_ID, SUBMITTED_DATE)");
 		sql.append(" VALUES(?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?,?)");
 
-		Object[] fields = new Object[17];
-		fields[0] = id;
-		fields[1] = answer.getIsAnswered();
-		fields[2] = answer.getAutoScore();
-		fields[3] = SqlHelper.encodeStringArray(answer.getTypeSpecificAnswer().getData());
-		fields[4] = (answer.getEvaluation().getAttribution().getDate() == null) ? null : answer.getEvaluation().getAttribution().getDate().getTime();
-		fields[5] = answer.getEvaluation().getAttribution().getUserId();
-		fields[6] = SqlHelper.encodeReferences(answer.getEvaluation().getAttachments());
-		fields[7] = answer.getEvaluation().getComment();
-		fields[8] = answer.getEvaluation().getEvaluated() ? "1" : "0";
-		fields[9] = answer.getEvaluation().getScore() == null ? null : Float.valueOf(answer.getEvaluation().getScore());
-		fields[10] = Long.valueOf(answer.getPartId());
-		Question q = answer.getQuestion();
-		fields[11] = Long.valueOf(q.getId());
-		fields[12] = q.getType();
-		fields[13] = answer.getReason();
-		fields[14] = answer.getMarkedForReview() ? "1" : "0";
-		fields[15] = Long.valueOf(answer.getSubmission().getId());
-		fields[16] = (answer.getSubmittedDate() == null) ? null : answer.getSubmittedDate().getTime();
-
-		if (!this.sqlService.dbWrite(null, sql.toString(), fields))
+		List<Long> rv = new ArrayList<Long>();
+		PreparedStatement statement = null;
+		try
+		{
+			statement = connection.prepareStatement(sql.toString());
+			for (AnswerImpl answer : answers)
+			{
+				// get the next id
+				Long id = this.sqlService.getNextSequence("MNEME_ANSWER_SEQ", connection);
+				rv.add(id);
+
+				Object[] insertFields = insertAnswerFields(answer);
+				Object[] fields = new Object[insertFields.length + 1];
+				fields[0] = id;
+				System.arraycopy(insertFields, 0, fields, 1, insertFields.length);
+
+				SqlHelper.setFields(statement, fields);
+				statement.addBatch();
+			}
+
+			statement.executeBatch();
+		}
+		finally
 		{
-			throw new RuntimeException("insertPoolTx: dbWrite failed");
+			close(statement);
 		}
 
-		// set the answer's id
-		answer.initId(id.toString());
+		return rv;
 	}
 
 	/**
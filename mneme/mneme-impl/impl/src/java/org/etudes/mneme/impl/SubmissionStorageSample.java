@@ -25,6 +25,7 @@
 package org.etudes.mneme.impl;
 
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
@@ -255,6 +256,23 @@ public abstract class SubmissionStorageSample implements SubmissionStorage
 		return rv;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<String> getAssessmentSubmissionIds(Assessment assessment)
+	{
+		List<String> rv = new ArrayList<String>();
+		for (SubmissionImpl submission : this.submissions.values())
+		{
+			if (submission.getAssessment().equals(assessment) && (!submission.getIsTestDrive()))
+			{
+				rv.add(submission.getId());
+			}
+		}
+
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -273,6 +291,15 @@ public abstract class SubmissionStorageSample implements SubmissionStorage
 		return rv;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getAssessmentSubmissionsSummary(Assessment assessment)
+	{
+		// we have the answers at hand, so the full submissions serve as summaries
+		return getAssessmentSubmissions(assessment);
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -332,6 +359,24 @@ public abstract class SubmissionStorageSample implements SubmissionStorage
 		return rv;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getSubmissions(List<String> ids)
+	{
+		List<SubmissionImpl> rv = new ArrayList<SubmissionImpl>();
+		for (String id : ids)
+		{
+			SubmissionImpl submission = this.submissions.get(id);
+			if (submission != null)
+			{
+				rv.add(new SubmissionImpl(submission));
+			}
+		}
+
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -364,6 +409,15 @@ public abstract class SubmissionStorageSample implements SubmissionStorage
 		return 0f;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getTimedOutSubmissions(Date asOf, long grace)
+	{
+		// the caller checks each one
+		return getOpenSubmissions();
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -24,9 +24,13 @@
 
 package org.etudes.mneme.impl;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.sql.Statement;
 import java.util.ArrayList;
+import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -293,6 +297,24 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 		return rv;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<String> getAssessmentSubmissionIds(Assessment assessment)
+	{
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT S.ID FROM MNEME_SUBMISSION S");
+		sql.append(" WHERE S.ASSESSMENT_ID=? AND S.TEST_DRIVE='0'");
+		sql.append(" ORDER BY S.ID ASC");
+
+		Object[] fields = new Object[1];
+		fields[0] = Long.valueOf(assessment.getId());
+
+		List rv = this.sqlService.dbRead(sql.toString(), fields, null);
+
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -309,6 +331,26 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 		return rv;
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getAssessmentSubmissionsSummary(Assessment assessment)
+	{
+		// collect the submissions to this assessment, without answers
+		String where = "WHERE S.ASSESSMENT_ID=? AND S.TEST_DRIVE='0'";
+		String order = "ORDER BY S.SUBMITTED_DATE ASC";
+
+		Object[] fields = new Object[1];
+		fields[0] = Long.valueOf(assessment.getId());
+
+		List<SubmissionImpl> rv = readSubmissions(where, order, fields, false);
+
+		// compute what we need from the answers
+		readSubmissionsSummary(where, fields, rv);
+
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -381,6 +423,34 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 		}
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getSubmissions(List<String> ids)
+	{
+		List<SubmissionImpl> rv = new ArrayList<SubmissionImpl>();
+
+		// read in groups, to keep the IN list reasonable
+		for (int start = 0; start < ids.size(); start += 100)
+		{
+			List<String> group = ids.subList(start, Math.min(start + 100, ids.size()));
+
+			StringBuilder where = new StringBuilder();
+			where.append("WHERE S.ID IN (");
+			Object[] fields = new Object[group.size()];
+			for (int i = 0; i < group.size(); i++)
+			{
+				where.append((i == 0) ? "?" : ",?");
+				fields[i] = Long.valueOf(group.get(i));
+			}
+			where.append(")");
+
+			rv.addAll(readSubmissions(where.toString(), null, fields, true));
+		}
+
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -510,6 +580,31 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 		return Float.valueOf(0f);
 	}
 
+	/**
+	 * {@inheritDoc}
+	 */
+	public List<SubmissionImpl> getTimedOutSubmissions(Date asOf, long grace)
+	{
+		// open, and past the time limit (from the last submitted date), or past the accept until or due date (non test drive)
+		// those in assessments with any special access are all included, since the user's access might change the limits
+		StringBuilder where = new StringBuilder();
+		where.append("JOIN MNEME_ASSESSMENT AA ON S.ASSESSMENT_ID=AA.ID");
+		where.append(" WHERE S.COMPLETE='0' AND (");
+		where.append("(AA.TIME_LIMIT > 0 AND S.SUBMITTED_DATE IS NOT NULL AND S.SUBMITTED_DATE + AA.TIME_LIMIT + ? < ?)");
+		where.append(" OR (S.TEST_DRIVE='0' AND COALESCE(AA.DATES_ACCEPT_UNTIL, AA.DATES_DUE) + ? < ?)");
+		where.append(" OR EXISTS (SELECT 1 FROM MNEME_ASSESSMENT_ACCESS X WHERE X.ASSESSMENT_ID=S.ASSESSMENT_ID))");
+		String order = "ORDER BY S.SUBMITTED_DATE ASC";
+
+		Object[] fields = new Object[4];
+		fields[0] = Long.valueOf(grace);
+		fields[1] = Long.valueOf(asOf.getTime());
+		fields[2] = Long.valueOf(grace);
+		fields[3] = Long.valueOf(asOf.getTime());
+
+		List<SubmissionImpl> rv = readSubmissions(where.toString(), order, fields, false);
+		return rv;
+	}
+
 	/**
 	 * {@inheritDoc}
 	 */
@@ -608,18 +703,84 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 	 */
 	public void saveAnswers(List<Answer> answers)
 	{
-		// for each answer, update or insert
+		// separate the new answers from the existing
+		List<AnswerImpl> inserts = new ArrayList<AnswerImpl>();
+		List<AnswerImpl> updates = new ArrayList<AnswerImpl>();
 		for (Answer a : answers)
 		{
 			if (a.getId() == null)
 			{
-				// insert
-				insertAnswer((AnswerImpl) a);
+				inserts.add((AnswerImpl) a);
 			}
 			else
 			{
-				// update
-				updateAnswer((AnswerImpl) a);
+				updates.add((AnswerImpl) a);
+			}
+		}
+
+		if (inserts.isEmpty() && updates.isEmpty()) return;
+
+		// one transaction, with the inserts and updates each written as a batch
+		Connection connection = null;
+		boolean autoCommit = true;
+		boolean committed = false;
+		try
+		{
+			connection = this.sqlService.borrowConnection();
+			autoCommit = connection.getAutoCommit();
+			connection.setAutoCommit(false);
+
+			List<Long> ids = new ArrayList<Long>();
+			if (!inserts.isEmpty())
+			{
+				ids = insertAnswersTx(connection, inserts);
+			}
+			if (!updates.isEmpty())
+			{
+				updateAnswersTx(connection, updates);
+			}
+
+			connection.commit();
+			committed = true;
+
+			// set the new answers' ids, now that they are committed
+			for (int i = 0; i < inserts.size(); i++)
+			{
+				inserts.get(i).initId(ids.get(i).toString());
+			}
+		}
+		catch (SQLException e)
+		{
+			M_log.warn("saveAnswers: " + e);
+			throw new RuntimeException("saveAnswers: " + e);
+		}
+		finally
+		{
+			if (connection != null)
+			{
+				// on any failure, roll back before restoring auto-commit, which would otherwise commit the partial batch
+				if (!committed)
+				{
+					try
+					{
+						connection.rollback();
+					}
+					catch (SQLException e)
+					{
+						M_log.warn("saveAnswers: rollback: " + e);
+					}
+				}
+
+				try
+				{
+					connection.setAutoCommit(autoCommit);
+				}
+				catch (SQLException e)
+				{
+					M_log.warn("saveAnswers: setAutoCommit: " + e);
+				}
+
+				this.sqlService.returnConnection(connection);
 			}
 		}
 	}
@@ -827,29 +988,67 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 	}
 
 	/**
-	 * Insert a new answer.
+	 * Close a statement, ignoring any errors.
+	 * 
+	 * @param statement
+	 *        The statement (may be null).
+	 */
+	protected void close(Statement statement)
+	{
+		if (statement == null) return;
+		try
+		{
+			statement.close();
+		}
+		catch (SQLException e)
+		{
+			M_log.warn("close: " + e);
+		}
+	}
+
+	/**
+	 * Form the fields for an answer insert, in the order: ANSWERED, AUTO_SCORE, GUEST, EVAL_ATRIB_DATE, EVAL_ATRIB_USER, EVAL_ATTACHMENTS,
+	 * EVAL_COMMENT, EVAL_EVALUATED, EVAL_SCORE, PART_ID, QUESTION_ID, QUESTION_TYPE, REASON, REVIEW, SUBMISSION_ID, SUBMITTED_DATE.
 	 * 
 	 * @param answer
 	 *        The answer.
+	 * @return The fields.
 	 */
-	protected void insertAnswer(final AnswerImpl answer)
+	protected Object[] insertAnswerFields(AnswerImpl answer)
 	{
-		this.sqlService.transact(new Runnable()
-		{
-			public void run()
-			{
-				insertAnswerTx(answer);
-			}
-		}, "insertAnswer: " + answer.getId());
+		Object[] fields = new Object[16];
+		fields[0] = answer.getIsAnswered();
+		fields[1] = answer.getAutoScore();
+		fields[2] = SqlHelper.encodeStringArray(answer.getTypeSpecificAnswer().getData());
+		fields[3] = (answer.getEvaluation().getAttribution().getDate() == null) ? null : answer.getEvaluation().getAttribution().getDate().getTime();
+		fields[4] = answer.getEvaluation().getAttribution().getUserId();
+		fields[5] = SqlHelper.encodeReferences(answer.getEvaluation().getAttachments());
+		fields[6] = answer.getEvaluation().getComment();
+		fields[7] = answer.getEvaluation().getEvaluated() ? "1" : "0";
+		fields[8] = answer.getEvaluation().getScore() == null ? null : Float.valueOf(answer.getEvaluation().getScore());
+		fields[9] = Long.valueOf(answer.getPartId());
+		Question q = answer.getQuestion();
+		fields[10] = Long.valueOf(q.getId());
+		fields[11] = q.getType();
+		fields[12] = answer.getReason();
+		fields[13] = answer.getMarkedForReview() ? "1" : "0";
+		fields[14] = Long.valueOf(answer.getSubmission().getId());
+		fields[15] = (answer.getSubmittedDate() == null) ? null : answer.getSubmittedDate().getTime();
+
+		return fields;
 	}
 
 	/**
-	 * Insert a new pool (transaction code).
+	 * Insert new answers as a batch (transaction code).
 	 * 
-	 * @param pool
-	 *        The pool.
+	 * @param connection
+	 *        The transaction connection.
+	 * @param answers
+	 *        The answers.
+	 * @return The new answer ids, in answer order.
+	 * @throws SQLException
 	 */
-	protected abstract void insertAnswerTx(AnswerImpl answer);
+	protected abstract List<Long> insertAnswersTx(Connection connection, List<AnswerImpl> answers) throws SQLException;
 
 	/**
 	 * Insert a new submission.
@@ -1029,39 +1228,83 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 	}
 
 	/**
-	 * {@inheritDoc}
+	 * Compute the total score and unscored answer information for a selection of submissions read without answers.
+	 * 
+	 * @param where
+	 *        The where clause used to select the submissions.
+	 * @param fields
+	 *        The bind variables.
+	 * @param submissions
+	 *        The submissions, read without answers.
 	 */
-	protected abstract void removeTestDriveSubmissionsTx(Assessment assessment);
+	protected void readSubmissionsSummary(String where, Object[] fields, List<SubmissionImpl> submissions)
+	{
+		final Map<String, SubmissionImpl> index = new HashMap<String, SubmissionImpl>();
+		for (SubmissionImpl submission : submissions)
+		{
+			index.put(submission.getId(), submission);
+
+			// those with no answers score just the submission evaluation
+			submission.initSummary(submission.getEvaluation().getScore(), null, null, 0, 0);
+		}
+
+		StringBuilder sql = new StringBuilder();
+		sql.append("SELECT S.ID, S.EVAL_SCORE, SUM(A.EVAL_SCORE), SUM(A.AUTO_SCORE),");
+		// answered non-survey with no score at all (unscored subjectives)
+		sql.append(" SUM(CASE WHEN A.ANSWERED='1' AND Q.SURVEY='0' AND A.EVAL_SCORE IS NULL AND A.AUTO_SCORE IS NULL THEN 1 ELSE 0 END),");
+		// answered non-survey not evaluation scored, with a reason not yet commented on
+		sql.append(" SUM(CASE WHEN A.ANSWERED='1' AND Q.SURVEY='0' AND A.EVAL_SCORE IS NULL AND A.REASON IS NOT NULL AND A.EVAL_COMMENT IS NULL THEN 1 ELSE 0 END)");
+		sql.append(" FROM MNEME_SUBMISSION S");
+		sql.append(" JOIN MNEME_ANSWER A ON A.SUBMISSION_ID=S.ID");
+		sql.append(" LEFT OUTER JOIN MNEME_QUESTION Q ON A.QUESTION_ID=Q.ID ");
+		sql.append(where);
+		sql.append(" GROUP BY S.ID, S.EVAL_SCORE");
+
+		this.sqlService.dbRead(sql.toString(), fields, new SqlReader()
+		{
+			public Object readSqlResultRecord(ResultSet result)
+			{
+				try
+				{
+					String sid = SqlHelper.readId(result, 1);
+					SubmissionImpl s = index.get(sid);
+					if (s != null)
+					{
+						s.initSummary(SqlHelper.readFloat(result, 2), SqlHelper.readFloat(result, 3), SqlHelper.readFloat(result, 4),
+								result.getInt(5), result.getInt(6));
+					}
+
+					return null;
+				}
+				catch (SQLException e)
+				{
+					M_log.warn("readSubmissionsSummary: " + e);
+					return null;
+				}
+			}
+		});
+	}
 
 	/**
 	 * {@inheritDoc}
 	 */
-	protected abstract void removeTestDriveSubmissionsTx(String context);
+	protected abstract void removeTestDriveSubmissionsTx(Assessment assessment);
 
 	/**
-	 * Update an existing submission answer.
-	 * 
-	 * @param answer
-	 *        The answer.
+	 * {@inheritDoc}
 	 */
-	protected void updateAnswer(final AnswerImpl answer)
-	{
-		this.sqlService.transact(new Runnable()
-		{
-			public void run()
-			{
-				updateAnswerTx(answer);
-			}
-		}, "updateAnswer: " + answer.getId());
-	}
+	protected abstract void removeTestDriveSubmissionsTx(String context);
 
 	/**
-	 * Update an existing submission answer (transaction code).
+	 * Update existing submission answers as a batch (transaction code).
 	 * 
-	 * @param answer
-	 *        The answer.
+	 * @param connection
+	 *        The transaction connection.
+	 * @param answers
+	 *        The answers.
+	 * @throws SQLException
 	 */
-	protected void updateAnswerTx(AnswerImpl answer)
+	protected void updateAnswersTx(Connection connection, List<AnswerImpl> answers) throws SQLException
 	{
 		StringBuilder sql = new StringBuilder();
 		sql.append("UPDATE MNEME_ANSWER SET");
@@ -1069,24 +1312,37 @@ public abstract class SubmissionStorageSql implements SubmissionStorage
 		sql.append(" EVAL_SCORE=?, REASON=?, REVIEW=?, SUBMITTED_DATE=?");
 		sql.append(" WHERE ID=?");
 
-		Object[] fields = new Object[13];
-		fields[0] = answer.getIsAnswered();
-		fields[1] = answer.getAutoScore();
-		fields[2] = SqlHelper.encodeStringArray(answer.getTypeSpecificAnswer().getData());
-		fields[3] = (answer.getEvaluation().getAttribution().getDate() == null) ? null : answer.getEvaluation().getAttribution().getDate().getTime();
-		fields[4] = answer.getEvaluation().getAttribution().getUserId();
-		fields[5] = SqlHelper.encodeReferences(answer.getEvaluation().getAttachments());
-		fields[6] = answer.getEvaluation().getComment();
-		fields[7] = answer.getEvaluation().getEvaluated() ? "1" : "0";
-		fields[8] = answer.getEvaluation().getScore() == null ? null : Float.valueOf(answer.getEvaluation().getScore());
-		fields[9] = answer.getReason();
-		fields[10] = answer.getMarkedForReview() ? "1" : "0";
-		fields[11] = (answer.getSubmittedDate() == null) ? null : answer.getSubmittedDate().getTime();
-		fields[12] = Long.valueOf(answer.getId());
+		PreparedStatement statement = null;
+		try
+		{
+			statement = connection.prepareStatement(sql.toString());
+			for (AnswerImpl answer : answers)
+			{
+				Object[] fields = new Object[13];
+				fields[0] = answer.getIsAnswered();
+				fields[1] = answer.getAutoScore();
+				fields[2] = SqlHelper.encodeStringArray(answer.getTypeSpecificAnswer().getData());
+				fields[3] = (answer.getEvaluation().getAttribution().getDate() == null) ? null : answer.getEvaluation().getAttribution().getDate()
+						.getTime();
+				fields[4] = answer.getEvaluation().getAttribution().getUserId();
+				fields[5] = SqlHelper.encodeReferences(answer.getEvaluation().getAttachments());
+				fields[6] = answer.getEvaluation().getComment();
+				fields[7] = answer.getEvaluation().getEvaluated() ? "1" : "0";
+				fields[8] = answer.getEvaluation().getScore() == null ? null : Float.valueOf(answer.getEvaluation().getScore());
+				fields[9] = answer.getReason();
+				fields[10] = answer.getMarkedForReview() ? "1" : "0";
+				fields[11] = (answer.getSubmittedDate() == null) ? null : answer.getSubmittedDate().getTime();
+				fields[12] = Long.valueOf(answer.getId());
+
+				SqlHelper.setFields(statement, fields);
+				statement.addBatch();
+			}
 
-		if (!this.sqlService.dbWrite(sql.toString(), fields))
+			statement.executeBatch();
+		}
+		finally
 		{
-			throw new RuntimeException("updateAnswerTx: db write failed");
+			close(statement);
 		}
 	}
 
@@ -169,6 +169,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getAuthoringUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "authoring");
+		if (rv != null) return rv;
+
 		Selection selection = this.uiService.newSelection();
 		selection.setProperty(this.uiService.newPropertyReference().setReference("question.typeSpecificQuestion.correctAnswer"));
 		selection.addSelection(this.uiService.newMessage().setMessage("true"), this.uiService.newMessage().setTemplate("true"));
@@ -179,7 +182,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(selection);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "authoring", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -228,6 +231,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "delivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -244,7 +250,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		Section section = this.uiService.newSection();
 		section.add(question)/* .add(attachments) */.add(selection);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(section);
+		return QuestionUiCache.put(getClass(), "delivery", this.uiService.newFragment().setMessages(this.messages).add(section));
 	}
 
 	/**
@@ -314,6 +320,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getReviewUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "review");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("answer.question.presentation.text"));
 
@@ -383,7 +392,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		Section second = this.uiService.newSection();
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), "review", this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -431,6 +440,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewAnswerUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewAnswer");
+		if (rv != null) return rv;
+
 		EntityList entityList = this.uiService.newEntityList();
 		entityList.setStyle(EntityList.Style.form);
 		entityList.setIterator(this.uiService.newPropertyReference().setReference("answer.question.typeSpecificQuestion.choices"), "choice");
@@ -458,7 +470,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		propCol.setProperty(this.uiService.newHtmlPropertyReference().setReference("choice.text"));
 		entityList.addColumn(propCol);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(entityList);
+		return QuestionUiCache.put(getClass(), "viewAnswer", this.uiService.newFragment().setMessages(this.messages).add(entityList));
 	}
 
 	/**
@@ -466,6 +478,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewDeliveryUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewDelivery");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -482,7 +497,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		Section first = this.uiService.newSection();
 		first.add(question)/* .add(attachments) */.add(selection);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first);
+		return QuestionUiCache.put(getClass(), "viewDelivery", this.uiService.newFragment().setMessages(this.messages).add(first));
 	}
 
 	/**
@@ -490,6 +505,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewQuestionUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewQuestion");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -520,7 +538,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		second.setIncluded(this.uiService.newDecision().setProperty(this.uiService.newPropertyReference().setReference("question.hasCorrect")));
 		second.add(answerKey);
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second);
+		return QuestionUiCache.put(getClass(), "viewQuestion", this.uiService.newFragment().setMessages(this.messages).add(first).add(second));
 	}
 
 	/**
@@ -528,6 +546,9 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 	 */
 	public Component getViewStatsUi()
 	{
+		Component rv = QuestionUiCache.get(getClass(), "viewStats");
+		if (rv != null) return rv;
+
 		Text question = this.uiService.newText();
 		question.setText(null, this.uiService.newHtmlPropertyReference().setDirty().setReference("question.presentation.text"));
 
@@ -602,7 +623,7 @@ public class TrueFalseQuestionImpl implements TypeSpecificQuestion
 		reasonSection.setIncluded(this.uiService.newDecision().setProperty(
 				this.uiService.newPropertyReference().setReference("question.explainReason")));
 
-		return this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection);
+		return QuestionUiCache.put(getClass(), "viewStats", this.uiService.newFragment().setMessages(this.messages).add(first).add(second).add(reasonSection));
 	}
 
 	/**
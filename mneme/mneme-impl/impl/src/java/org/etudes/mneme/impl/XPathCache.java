@@ -0,0 +1,80 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.jaxen.JaxenException;
+import org.jaxen.XPath;
+import org.jaxen.dom.DOMXPath;
+
+/**
+ * XPathCache keeps the compiled DOM XPath for each expression the importers use, so an expression is parsed once, not once for each item of each
+ * package. Compiled paths are not changed after, and may be used by many threads at once.<br />
+ * Only constant expressions belong here - expressions built with an item's identifiers or answer text are compiled directly, with new DOMXPath(),
+ * so they don't crowd the cache or wait on its lock.
+ */
+public class XPathCache
+{
+	/** The most compiled paths kept. */
+	protected static final int MAX_PATHS = 200;
+
+	/** The compiled paths, by expression, in least recently used order. */
+	protected static final Map<String, XPath> paths = new LinkedHashMap<String, XPath>(256, 0.75f, true)
+	{
+		private static final long serialVersionUID = 1L;
+
+		protected boolean removeEldestEntry(Map.Entry<String, XPath> eldest)
+		{
+			return size() > MAX_PATHS;
+		}
+	};
+
+	/**
+	 * Get the compiled path for this expression.
+	 * 
+	 * @param expression
+	 *        The XPath expression.
+	 * @return The compiled path.
+	 * @throws JaxenException
+	 *         if the expression is not valid.
+	 */
+	public static XPath path(String expression) throws JaxenException
+	{
+		synchronized (paths)
+		{
+			XPath rv = paths.get(expression);
+			if (rv != null) return rv;
+		}
+
+		// compile outside the lock - two threads may both compile a new expression, which is harmless
+		XPath rv = new DOMXPath(expression);
+		synchronized (paths)
+		{
+			paths.put(expression, rv);
+		}
+
+		return rv;
+	}
+}
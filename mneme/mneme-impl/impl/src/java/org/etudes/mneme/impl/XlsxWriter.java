@@ -0,0 +1,336 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * XlsxWriter writes an Office Open XML (.xlsx) spreadsheet to a stream a row at a time, holding nothing but the current row in memory.<br />
+ * Sheets are written one after another: start a sheet, add its rows, then start the next or finish.
+ */
+public class XlsxWriter
+{
+	/** The content type of the spreadsheet. */
+	public static final String CONTENT_TYPE = "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet";
+
+	/** The most rows a sheet can hold. */
+	public static final int MAX_ROWS = 1048576;
+
+	/** The spreadsheet XML namespace. */
+	protected static final String NS_MAIN = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+
+	/** The relationships namespace. */
+	protected static final String NS_REL = "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+
+	/** The declaration that starts each XML part. */
+	protected static final String XML_DECL = "<?xml version=\"1.0\" encoding=\"UTF-8\" standalone=\"yes\"?>\n";
+
+	/** True while a sheet entry is open. */
+	protected boolean inSheet = false;
+
+	/** The number of rows written to the current sheet. */
+	protected int rowCount = 0;
+
+	/** The names of the sheets started. */
+	protected List<String> sheetNames = new ArrayList<String>();
+
+	/** Character output for the zip entries. */
+	protected Writer writer = null;
+
+	/** The zip stream the spreadsheet parts are written to. */
+	protected ZipOutputStream zip = null;
+
+	/**
+	 * Construct, to write to this stream.
+	 * 
+	 * @param out
+	 *        The stream (left open when finished).
+	 */
+	public XlsxWriter(OutputStream out)
+	{
+		this.zip = new ZipOutputStream(out);
+		this.writer = new BufferedWriter(new OutputStreamWriter(this.zip, Charset.forName("UTF-8")));
+	}
+
+	/**
+	 * Add a row of bold header cells to the current sheet.
+	 * 
+	 * @param cells
+	 *        The header text, null for an empty cell.
+	 * @throws IOException
+	 */
+	public void addHeaderRow(List<String> cells) throws IOException
+	{
+		writeRow(cells.toArray(), true);
+	}
+
+	/**
+	 * Add a row to the current sheet.
+	 * 
+	 * @param cells
+	 *        The cell values: Number (NaN and infinite as #NUM!), Boolean or (by toString()) text; null for an empty cell.
+	 * @throws IOException
+	 */
+	public void addRow(Object[] cells) throws IOException
+	{
+		writeRow(cells, false);
+	}
+
+	/**
+	 * Complete the spreadsheet. The underlying stream is flushed, but not closed.
+	 * 
+	 * @throws IOException
+	 */
+	public void finish() throws IOException
+	{
+		endSheet();
+
+		// the workbook, listing the sheets
+		startEntry("xl/workbook.xml");
+		this.writer.write(XML_DECL);
+		this.writer.write("<workbook xmlns=\"" + NS_MAIN + "\" xmlns:r=\"" + NS_REL + "\"><sheets>");
+		for (int i = 0; i < this.sheetNames.size(); i++)
+		{
+			this.writer.write("<sheet name=\"");
+			escape(this.sheetNames.get(i));
+			this.writer.write("\" sheetId=\"" + (i + 1) + "\" r:id=\"rId" + (i + 1) + "\"/>");
+		}
+		this.writer.write("</sheets></workbook>");
+		endEntry();
+
+		startEntry("xl/_rels/workbook.xml.rels");
+		this.writer.write(XML_DECL);
+		this.writer.write("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+		for (int i = 0; i < this.sheetNames.size(); i++)
+		{
+			this.writer.write("<Relationship Id=\"rId" + (i + 1) + "\" Type=\"" + NS_REL + "/worksheet\" Target=\"worksheets/sheet" + (i + 1)
+					+ ".xml\"/>");
+		}
+		this.writer.write("<Relationship Id=\"rId" + (this.sheetNames.size() + 1) + "\" Type=\"" + NS_REL
+				+ "/styles\" Target=\"styles.xml\"/></Relationships>");
+		endEntry();
+
+		// styles: 0 is the default, 1 is bold
+		startEntry("xl/styles.xml");
+		this.writer.write(XML_DECL);
+		this.writer.write("<styleSheet xmlns=\"" + NS_MAIN + "\">");
+		this.writer.write("<fonts count=\"2\"><font><sz val=\"10\"/><name val=\"Arial\"/></font><font><b/><sz val=\"10\"/><name val=\"Arial\"/></font></fonts>");
+		this.writer.write("<fills count=\"2\"><fill><patternFill patternType=\"none\"/></fill><fill><patternFill patternType=\"gray125\"/></fill></fills>");
+		this.writer.write("<borders count=\"1\"><border><left/><right/><top/><bottom/><diagonal/></border></borders>");
+		this.writer.write("<cellStyleXfs count=\"1\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\"/></cellStyleXfs>");
+		this.writer.write("<cellXfs count=\"2\"><xf numFmtId=\"0\" fontId=\"0\" fillId=\"0\" borderId=\"0\" xfId=\"0\"/>");
+		this.writer.write("<xf numFmtId=\"0\" fontId=\"1\" fillId=\"0\" borderId=\"0\" xfId=\"0\" applyFont=\"1\"/></cellXfs>");
+		this.writer.write("</styleSheet>");
+		endEntry();
+
+		startEntry("_rels/.rels");
+		this.writer.write(XML_DECL);
+		this.writer.write("<Relationships xmlns=\"http://schemas.openxmlformats.org/package/2006/relationships\">");
+		this.writer.write("<Relationship Id=\"rId1\" Type=\"" + NS_REL + "/officeDocument\" Target=\"xl/workbook.xml\"/></Relationships>");
+		endEntry();
+
+		startEntry("[Content_Types].xml");
+		this.writer.write(XML_DECL);
+		this.writer.write("<Types xmlns=\"http://schemas.openxmlformats.org/package/2006/content-types\">");
+		this.writer.write("<Default Extension=\"rels\" ContentType=\"application/vnd.openxmlformats-package.relationships+xml\"/>");
+		this.writer.write("<Default Extension=\"xml\" ContentType=\"application/xml\"/>");
+		this.writer.write("<Override PartName=\"/xl/workbook.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.sheet.main+xml\"/>");
+		this.writer.write("<Override PartName=\"/xl/styles.xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.styles+xml\"/>");
+		for (int i = 0; i < this.sheetNames.size(); i++)
+		{
+			this.writer.write("<Override PartName=\"/xl/worksheets/sheet" + (i + 1)
+					+ ".xml\" ContentType=\"application/vnd.openxmlformats-officedocument.spreadsheetml.worksheet+xml\"/>");
+		}
+		this.writer.write("</Types>");
+		endEntry();
+
+		this.zip.finish();
+	}
+
+	/**
+	 * Start a new sheet, completing any current one.
+	 * 
+	 * @param name
+	 *        The sheet name.
+	 * @throws IOException
+	 */
+	public void startSheet(String name) throws IOException
+	{
+		endSheet();
+
+		this.sheetNames.add(name);
+		startEntry("xl/worksheets/sheet" + this.sheetNames.size() + ".xml");
+		this.writer.write(XML_DECL);
+		this.writer.write("<worksheet xmlns=\"" + NS_MAIN + "\"><sheetData>");
+		this.inSheet = true;
+		this.rowCount = 0;
+	}
+
+	/**
+	 * Form the column letters for a (0 based) column index - A, B, ... Z, AA, AB ...
+	 * 
+	 * @param col
+	 *        The column index.
+	 * @return The column letters.
+	 */
+	protected String columnName(int col)
+	{
+		StringBuilder rv = new StringBuilder();
+		for (int c = col + 1; c > 0; c = (c - 1) / 26)
+		{
+			rv.insert(0, (char) ('A' + ((c - 1) % 26)));
+		}
+
+		return rv.toString();
+	}
+
+	/**
+	 * Complete the zip entry being written.
+	 * 
+	 * @throws IOException
+	 */
+	protected void endEntry() throws IOException
+	{
+		this.writer.flush();
+		this.zip.closeEntry();
+	}
+
+	/**
+	 * Complete the current sheet, if there is one.
+	 * 
+	 * @throws IOException
+	 */
+	protected void endSheet() throws IOException
+	{
+		if (!this.inSheet) return;
+
+		this.writer.write("</sheetData></worksheet>");
+		endEntry();
+		this.inSheet = false;
+	}
+
+	/**
+	 * Write text, escaped for XML, dropping characters XML cannot hold.
+	 * 
+	 * @param value
+	 *        The text.
+	 * @throws IOException
+	 */
+	protected void escape(String value) throws IOException
+	{
+		for (int i = 0; i < value.length(); i++)
+		{
+			char c = value.charAt(i);
+			switch (c)
+			{
+				case '&':
+					this.writer.write("&amp;");
+					break;
+				case '<':
+					this.writer.write("&lt;");
+					break;
+				case '>':
+					this.writer.write("&gt;");
+					break;
+				case '"':
+					this.writer.write("&quot;");
+					break;
+				default:
+					if (((c >= 0x20) && (c < 0xFFFE)) || (c == '\t') || (c == '\n') || (c == '\r'))
+					{
+						this.writer.write(c);
+					}
+			}
+		}
+	}
+
+	/**
+	 * Start a new zip entry.
+	 * 
+	 * @param name
+	 *        The entry name.
+	 * @throws IOException
+	 */
+	protected void startEntry(String name) throws IOException
+	{
+		this.zip.putNextEntry(new ZipEntry(name));
+	}
+
+	/**
+	 * Write a row to the current sheet.
+	 * 
+	 * @param cells
+	 *        The cell values.
+	 * @param bold
+	 *        if true, use the bold style.
+	 * @throws IOException
+	 */
+	protected void writeRow(Object[] cells, boolean bold) throws IOException
+	{
+		if (!this.inSheet) throw new IllegalStateException("no sheet started");
+		if (this.rowCount >= MAX_ROWS) throw new IllegalStateException("too many rows for a sheet: " + this.rowCount);
+
+		this.rowCount++;
+		this.writer.write("<row r=\"" + this.rowCount + "\">");
+		for (int i = 0; i < cells.length; i++)
+		{
+			Object value = cells[i];
+			if (value == null) continue;
+
+			String ref = columnName(i) + this.rowCount;
+			String style = bold ? " s=\"1\"" : "";
+			if (value instanceof Number)
+			{
+				// NaN and the infinities have no number form in the xml - write the #NUM! error Excel shows for them in the .xls
+				double d = ((Number) value).doubleValue();
+				if (Double.isNaN(d) || Double.isInfinite(d))
+				{
+					this.writer.write("<c r=\"" + ref + "\"" + style + " t=\"e\"><v>#NUM!</v></c>");
+				}
+				else
+				{
+					this.writer.write("<c r=\"" + ref + "\"" + style + "><v>" + value.toString() + "</v></c>");
+				}
+			}
+			else if (value instanceof Boolean)
+			{
+				this.writer.write("<c r=\"" + ref + "\"" + style + " t=\"b\"><v>" + (((Boolean) value).booleanValue() ? "1" : "0") + "</v></c>");
+			}
+			else
+			{
+				this.writer.write("<c r=\"" + ref + "\"" + style + " t=\"inlineStr\"><is><t xml:space=\"preserve\">");
+				escape(value.toString());
+				this.writer.write("</t></is></c>");
+			}
+		}
+		this.writer.write("</row>");
+	}
+}
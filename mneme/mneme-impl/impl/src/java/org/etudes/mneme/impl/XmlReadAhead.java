@@ -0,0 +1,151 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.io.File;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.sakaiproject.util.Xml;
+import org.w3c.dom.Document;
+
+/**
+ * XmlReadAhead reads and parses a list of xml files, in order, on a worker pool, a few files ahead of the one being used.<br />
+ * The files read ahead are limited by count and by their total size on disk, so a package of large files does not hold many large documents at
+ * once. A file larger than the size limit is still read, by itself.
+ */
+public class XmlReadAhead
+{
+	/** The workers, or null to read each file when it is asked for. */
+	protected ExecutorService executor = null;
+
+	/** The full paths of the files to read, in order. */
+	protected List<String> fileNames = null;
+
+	/** The files read (or being read) and not yet taken, in order. */
+	protected LinkedList<Future<Document>> files = new LinkedList<Future<Document>>();
+
+	/** The size on disk of each file in files. */
+	protected LinkedList<Long> fileSizes = new LinkedList<Long>();
+
+	/** The most bytes (on disk) to read ahead. */
+	protected long maxBytes = 0;
+
+	/** The most files to read ahead. */
+	protected int maxFiles = 0;
+
+	/** The total size on disk of the files in files. */
+	protected long readBytes = 0;
+
+	/** How many files have been started. */
+	protected int started = 0;
+
+	/**
+	 * Construct.
+	 * 
+	 * @param executor
+	 *        The workers, or null to read each file when it is asked for.
+	 * @param fileNames
+	 *        The full paths of the files to read, in order.
+	 * @param maxFiles
+	 *        The most files to read ahead.
+	 * @param maxBytes
+	 *        The most bytes (on disk) to read ahead.
+	 */
+	public XmlReadAhead(ExecutorService executor, List<String> fileNames, int maxFiles, long maxBytes)
+	{
+		this.executor = executor;
+		this.fileNames = fileNames;
+		this.maxFiles = maxFiles;
+		this.maxBytes = maxBytes;
+	}
+
+	/**
+	 * Take the next file's document, waiting for it to be read if needed.
+	 * 
+	 * @return The next file's document - null if it could not be read.
+	 * @throws InterruptedException
+	 *         if interrupted while waiting.
+	 * @throws ExecutionException
+	 *         if the read failed.
+	 */
+	public Document next() throws InterruptedException, ExecutionException
+	{
+		fill();
+		if (this.files.isEmpty()) return null;
+
+		Future<Document> file = this.files.removeFirst();
+		this.readBytes -= this.fileSizes.removeFirst().longValue();
+
+		// start the next reads while this one is used
+		if (this.executor != null) fill();
+
+		return file.get();
+	}
+
+	/**
+	 * Start reading files, up to the limits.
+	 */
+	protected void fill()
+	{
+		while (this.started < this.fileNames.size())
+		{
+			final String fileName = this.fileNames.get(this.started);
+			long size = new File(fileName).length();
+
+			// always read at least one, even if it is over the size limit - without workers, read only the one asked for
+			if ((!this.files.isEmpty())
+					&& ((this.executor == null) || (this.files.size() >= this.maxFiles) || (this.readBytes + size > this.maxBytes))) break;
+
+			Callable<Document> read = new Callable<Document>()
+			{
+				public Document call()
+				{
+					return Xml.readDocument(fileName);
+				}
+			};
+
+			Future<Document> file = null;
+			if (this.executor == null)
+			{
+				FutureTask<Document> task = new FutureTask<Document>(read);
+				task.run();
+				file = task;
+			}
+			else
+			{
+				file = this.executor.submit(read);
+			}
+
+			this.files.add(file);
+			this.fileSizes.add(Long.valueOf(size));
+			this.readBytes += size;
+			this.started++;
+		}
+	}
+}
@@ -37,3 +37,5 @@ DROP TABLE MNEME_ASSESSMENT;
 DROP TABLE MNEME_POOL;
 
 DROP TABLE MNEME_QUESTION;
+
+DROP TABLE MNEME_GRADE_QUEUE;
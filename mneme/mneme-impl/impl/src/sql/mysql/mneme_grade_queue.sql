@@ -0,0 +1,33 @@
+-- *********************************************************************************
+-- $URL$
+-- $Id$
+-- **********************************************************************************
+--
+-- Copyright (c) 2026 Etudes, Inc.
+-- 
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+-- 
+--      http://www.apache.org/licenses/LICENSE-2.0
+-- 
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- *********************************************************************************/
+
+-- ---------------------------------------------------------------------------
+-- Mneme Grade Queue DDL - grade reports waiting to be pushed to the gradebook
+-- ---------------------------------------------------------------------------
+
+CREATE TABLE MNEME_GRADE_QUEUE
+(
+	ASSESSMENT_ID		VARCHAR (99) NOT NULL,
+	USERID				VARCHAR (99) NOT NULL,
+	QUEUED				BIGINT,
+	ATTEMPTS			INT,
+	PRIMARY KEY (ASSESSMENT_ID, USERID)
+);
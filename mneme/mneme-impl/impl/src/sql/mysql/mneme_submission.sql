@@ -73,6 +73,13 @@ CREATE INDEX MNEME_SUBMISSION_IDX_COMPLETE ON MNEME_SUBMISSION
 	COMPLETE			ASC
 );
 
+CREATE INDEX MNEME_SUBMISSION_IDX_CAS ON MNEME_SUBMISSION
+(
+	COMPLETE			ASC,
+	ASSESSMENT_ID		ASC,
+	SUBMITTED_DATE		ASC
+);
+
 -- ---------------------------------------------------------------------------
 
 CREATE TABLE MNEME_ANSWER
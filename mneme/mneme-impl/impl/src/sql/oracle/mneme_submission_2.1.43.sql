@@ -0,0 +1,31 @@
+-- *********************************************************************************
+-- $URL$
+-- $Id$
+-- **********************************************************************************
+--
+-- Copyright (c) 2026 Etudes, Inc.
+-- 
+-- Licensed under the Apache License, Version 2.0 (the "License");
+-- you may not use this file except in compliance with the License.
+-- You may obtain a copy of the License at
+-- 
+--      http://www.apache.org/licenses/LICENSE-2.0
+-- 
+-- Unless required by applicable law or agreed to in writing, software
+-- distributed under the License is distributed on an "AS IS" BASIS,
+-- WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+-- See the License for the specific language governing permissions and
+-- limitations under the License.
+--
+-- *********************************************************************************/
+
+-- ---------------------------------------------------------------------------
+-- Mneme Submission DDL changes for 2.1.43
+-- ---------------------------------------------------------------------------
+
+CREATE INDEX MNEME_SUBMISSION_IDX_CAS ON MNEME_SUBMISSION
+(
+	COMPLETE			ASC,
+	ASSESSMENT_ID		ASC,
+	SUBMITTED_DATE		ASC
+);
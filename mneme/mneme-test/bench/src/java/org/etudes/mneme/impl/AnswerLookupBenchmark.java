@@ -0,0 +1,122 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.mneme.api.Answer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark finding each of a submission's answers by question and by id, as a table of contents render of a large exam does, against a scan of
+ * the answers, as the lookups used to be done.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AnswerLookupBenchmark
+{
+	@Param({"20", "200", "1000"})
+	public int questions;
+
+	/** The answer ids, in answer order. */
+	protected String[] answerIds = null;
+
+	/** The question ids, in answer order. */
+	protected String[] questionIds = null;
+
+	protected SubmissionImpl submission = null;
+
+	@Setup
+	public void setup()
+	{
+		this.submission = new SubmissionImpl();
+		this.answerIds = new String[this.questions];
+		this.questionIds = new String[this.questions];
+		for (int i = 0; i < this.questions; i++)
+		{
+			this.answerIds[i] = "a" + (i + 1);
+			this.questionIds[i] = "q" + (i + 1);
+
+			AnswerImpl answer = new AnswerImpl();
+			answer.initId(this.answerIds[i]);
+			answer.questionId = this.questionIds[i];
+			this.submission.initAnswer(answer);
+		}
+	}
+
+	@Benchmark
+	public int findByQuestion()
+	{
+		int rv = 0;
+		for (String questionId : this.questionIds)
+		{
+			if (this.submission.findAnswer(questionId) != null) rv++;
+		}
+
+		return rv;
+	}
+
+	@Benchmark
+	public int findByQuestionScan()
+	{
+		int rv = 0;
+		for (String questionId : this.questionIds)
+		{
+			for (Answer answer : this.submission.getAnswers())
+			{
+				if (((AnswerImpl) answer).questionId.equals(questionId))
+				{
+					rv++;
+					break;
+				}
+			}
+		}
+
+		return rv;
+	}
+
+	@Benchmark
+	public int getById()
+	{
+		int rv = 0;
+		for (String answerId : this.answerIds)
+		{
+			if (this.submission.getAnswer(answerId) != null) rv++;
+		}
+
+		return rv;
+	}
+}
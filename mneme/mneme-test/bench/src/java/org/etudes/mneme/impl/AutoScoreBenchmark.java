@@ -0,0 +1,88 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark scoring a class's answers to one question of each auto-scored type, as a submit or a re-score does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class AutoScoreBenchmark
+{
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	@Param({"mneme:TrueFalse", "mneme:MultipleChoice", "mneme:FillBlanks", "mneme:FillInline", "mneme:Match", "mneme:Order"})
+	public String type;
+
+	/** An answer to the question from each student. */
+	protected List<BenchCourse.BenchAnswer> answers = null;
+
+	@Setup
+	public void setup()
+	{
+		BenchCourse course = new BenchCourse(0, 1, 1L);
+		for (QuestionImpl question : course.getQuestions())
+		{
+			if (!question.getType().equals(this.type)) continue;
+
+			this.answers = new ArrayList<BenchCourse.BenchAnswer>(this.students);
+			for (int i = 0; i < this.students; i++)
+			{
+				this.answers.add(course.newAnswer(question));
+			}
+		}
+	}
+
+	@Benchmark
+	public float scoreAnswers()
+	{
+		float rv = 0f;
+		for (BenchCourse.BenchAnswer answer : this.answers)
+		{
+			Float score = answer.computeAutoScore();
+			if (score != null) rv += score.floatValue();
+		}
+
+		return rv;
+	}
+}
@@ -0,0 +1,1005 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.MissingResourceException;
+import java.util.Random;
+import java.util.ResourceBundle;
+
+import org.etudes.ambrosia.impl.UiServiceImpl;
+import org.etudes.mneme.api.Answer;
+import org.etudes.mneme.api.AssessmentService;
+import org.etudes.mneme.api.GradesService;
+import org.etudes.mneme.api.MnemeService;
+import org.etudes.mneme.api.Part;
+import org.etudes.mneme.api.PoolService;
+import org.etudes.mneme.api.Question;
+import org.etudes.mneme.api.QuestionPlugin;
+import org.etudes.mneme.api.QuestionService;
+import org.etudes.mneme.api.SecurityService;
+import org.etudes.mneme.api.SubmissionCompletionStatus;
+import org.sakaiproject.event.api.EventTrackingService;
+import org.sakaiproject.i18n.InternationalizedMessages;
+import org.sakaiproject.id.api.IdManager;
+import org.sakaiproject.thread_local.api.ThreadLocalManager;
+import org.sakaiproject.tool.api.SessionManager;
+import org.sakaiproject.user.api.User;
+import org.sakaiproject.user.api.UserDirectoryService;
+
+/**
+ * BenchCourse is a synthetic course for the benchmarks: a pool holding questions of each auto-scored type, a published assessment of those
+ * questions, and the submissions of a class of students, all held in the Sample storages.<br />
+ * The services the storages and the submission service call on are stood in for by proxies that answer just what the benchmarks reach; the UI
+ * service is Ambrosia's own, reading its messages from the bundles on the classpath. Generation is seeded, so a course of a given size is the
+ * same from run to run.
+ */
+public class BenchCourse
+{
+	/**
+	 * An answer that holds its question, rather than finding it through its submission's assessment parts.
+	 */
+	public class BenchAnswer extends AnswerImpl
+	{
+		protected Question question = null;
+
+		public BenchAnswer(Question question)
+		{
+			this.question = question;
+			setMnemeService(mnemeService);
+			init();
+			initQuestion(question.getId(), question.getType());
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Question getQuestion()
+		{
+			return this.question;
+		}
+	}
+
+	public class BenchAssessmentStorage extends AssessmentStorageSample
+	{
+		public BenchAssessmentStorage()
+		{
+			// the course is generated - skip the canned sample data
+			this.fakedAlready = true;
+		}
+	}
+
+	public class BenchPoolStorage extends PoolStorageSample
+	{
+		public BenchPoolStorage()
+		{
+			this.fakedAlready = true;
+		}
+
+		public PoolImpl newPool()
+		{
+			PoolImpl rv = new PoolImpl();
+			rv.setQuestionService(questionService);
+			return rv;
+		}
+	}
+
+	public class BenchQuestionStorage extends QuestionStorageSample
+	{
+		public BenchQuestionStorage()
+		{
+			this.fakedAlready = true;
+		}
+
+		public QuestionImpl newQuestion()
+		{
+			QuestionImpl rv = new QuestionImpl();
+			rv.setPoolService(poolService);
+			return rv;
+		}
+	}
+
+	public class BenchSubmissionStorage extends SubmissionStorageSample
+	{
+		/**
+		 * Remove a submission, with its answers.
+		 *
+		 * @param id
+		 *        The submission id.
+		 */
+		public void removeSubmission(String id)
+		{
+			this.submissions.remove(id);
+		}
+
+		public AnswerImpl newAnswer()
+		{
+			AnswerImpl rv = new AnswerImpl();
+			rv.setMnemeService(mnemeService);
+			rv.init();
+			return rv;
+		}
+
+		public SubmissionImpl newSubmission()
+		{
+			SubmissionImpl rv = new SubmissionImpl();
+			rv.setAssessmentService(this.assessmentService);
+			rv.setSecurityService(this.securityService);
+			rv.setSubmissionService(this.submissionService);
+
+			// as init() does, without looking up an access advisor in the component manager
+			rv.assessment = new SubmissionAssessmentImpl(null, rv, this.assessmentService);
+			rv.evaluation = new SubmissionEvaluationImpl(rv, null);
+			return rv;
+		}
+	}
+
+	/**
+	 * Ambrosia's UI service, with its messages read from the bundle rather than through the Sakai locale lookup.
+	 */
+	public class BenchUiService extends UiServiceImpl
+	{
+		/**
+		 * {@inheritDoc}
+		 */
+		public void init()
+		{
+			this.messages = BenchCourse.this.messages("ambrosia");
+		}
+	}
+
+	/**
+	 * A stand-in for a service: each method answers what answer() returns, or a zero / false / null if it returns nothing.
+	 */
+	protected abstract static class Stub implements InvocationHandler
+	{
+		/**
+		 * Make a proxy for the interface answered by this stub.
+		 *
+		 * @param api
+		 *        The interface.
+		 * @return The proxy.
+		 */
+		@SuppressWarnings("unchecked")
+		public <T> T as(Class<T> api)
+		{
+			return (T) Proxy.newProxyInstance(api.getClassLoader(), new Class[] {api}, this);
+		}
+
+		/**
+		 * {@inheritDoc}
+		 */
+		public Object invoke(Object proxy, Method method, Object[] args)
+		{
+			String name = method.getName();
+			if (name.equals("equals")) return Boolean.valueOf(proxy == args[0]);
+			if (name.equals("hashCode")) return Integer.valueOf(System.identityHashCode(proxy));
+			if (name.equals("toString")) return "stub:" + proxy.getClass().getInterfaces()[0].getName();
+
+			Object rv = answer(name, args);
+			if ((rv == null) && method.getReturnType().isPrimitive()) rv = zero(method.getReturnType());
+
+			return rv;
+		}
+
+		/**
+		 * Answer a call.
+		 *
+		 * @param method
+		 *        The method name.
+		 * @param args
+		 *        The arguments.
+		 * @return The answer, or null to answer nothing.
+		 */
+		protected abstract Object answer(String method, Object[] args);
+
+		/**
+		 * Form the zero value of a primitive type.
+		 *
+		 * @param type
+		 *        The primitive type.
+		 * @return The zero value, or null for void.
+		 */
+		protected Object zero(Class<?> type)
+		{
+			if (type == Boolean.TYPE) return Boolean.FALSE;
+			if (type == Integer.TYPE) return Integer.valueOf(0);
+			if (type == Long.TYPE) return Long.valueOf(0);
+			if (type == Float.TYPE) return Float.valueOf(0);
+			if (type == Double.TYPE) return Double.valueOf(0);
+			if (type == Short.TYPE) return Short.valueOf((short) 0);
+			if (type == Byte.TYPE) return Byte.valueOf((byte) 0);
+			if (type == Character.TYPE) return Character.valueOf((char) 0);
+			return null;
+		}
+	}
+
+	/** The course context. */
+	public static final String CONTEXT = "bench";
+
+	/** The question types generated - those scored automatically. */
+	public static final String[] TYPES = {"mneme:TrueFalse", "mneme:MultipleChoice", "mneme:FillBlanks", "mneme:FillInline", "mneme:Match",
+			"mneme:Order"};
+
+	/** The assessment, as read from storage. */
+	protected AssessmentImpl assessment = null;
+
+	/** Stand-in AssessmentService, reading from the assessment storage. */
+	protected AssessmentService assessmentService = null;
+
+	protected BenchAssessmentStorage assessmentStorage = null;
+
+	/** The user the stand-in SessionManager answers as current. */
+	protected String currentUserId = null;
+
+	/** Stand-in EventTrackingService: events go nowhere. */
+	protected EventTrackingService eventTrackingService = null;
+
+	/** Stand-in GradesService: grades go nowhere. */
+	protected GradesService gradesService = null;
+
+	/** Stand-in IdManager, for the match question pairs. */
+	protected IdManager idManager = null;
+
+	/** Stand-in MnemeService, holding the registered question plugins. */
+	protected MnemeService mnemeService = null;
+
+	/** The question plugins, by type. */
+	protected Map<String, QuestionPlugin> plugins = new HashMap<String, QuestionPlugin>();
+
+	/** The id of the assessment's part. */
+	protected String partId = null;
+
+	/** The pool. */
+	protected PoolImpl pool = null;
+
+	/** Stand-in PoolService, reading from the pool storage. */
+	protected PoolService poolService = null;
+
+	/** The ids of the questions in the pool, in order. */
+	protected List<String> poolQuestionIds = new ArrayList<String>();
+
+	protected BenchPoolStorage poolStorage = null;
+
+	/** The questions, as generated. */
+	protected List<QuestionImpl> questions = new ArrayList<QuestionImpl>();
+
+	/** Stand-in QuestionService, reading from the question storage and answering the pool's question ids as storage would. */
+	protected QuestionService questionService = null;
+
+	protected BenchQuestionStorage questionStorage = null;
+
+	/** Drives the generated choices. */
+	protected Random random = null;
+
+	/** Stand-in SecurityService: all the students may submit. */
+	protected SecurityService securityService = null;
+
+	/** Stand-in SessionManager, answering the current user. */
+	protected SessionManager sessionManager = null;
+
+	/** The submission service, wired to the submission storage. */
+	protected SubmissionServiceImpl submissionService = null;
+
+	protected BenchSubmissionStorage submissionStorage = null;
+
+	/** Stand-in ThreadLocalManager: holds nothing, so each call reads storage as a new request would. */
+	protected ThreadLocalManager threadLocalManager = null;
+
+	/** The UI service. */
+	protected BenchUiService uiService = null;
+
+	/** Stand-in UserDirectoryService, knowing the students. */
+	protected UserDirectoryService userDirectoryService = null;
+
+	/** The students, by id, in class order. */
+	protected Map<String, User> users = new LinkedHashMap<String, User>();
+
+	/**
+	 * Construct, generating the course.
+	 *
+	 * @param students
+	 *        The number of students in the class.
+	 * @param questionsPerType
+	 *        The number of questions of each type in the pool and assessment.
+	 * @param seed
+	 *        The seed for the generated choices.
+	 */
+	public BenchCourse(int students, int questionsPerType, long seed)
+	{
+		this.random = new Random(seed);
+
+		wire();
+		generatePool(questionsPerType);
+		generateAssessment();
+		generateSubmissions(students);
+	}
+
+	/**
+	 * @return The assessment.
+	 */
+	public AssessmentImpl getAssessment()
+	{
+		return this.assessment;
+	}
+
+	/**
+	 * @return The pool.
+	 */
+	public PoolImpl getPool()
+	{
+		return this.pool;
+	}
+
+	/**
+	 * @return The questions, in order.
+	 */
+	public List<QuestionImpl> getQuestions()
+	{
+		return this.questions;
+	}
+
+	/**
+	 * @return The submission service.
+	 */
+	public SubmissionServiceImpl getSubmissionService()
+	{
+		return this.submissionService;
+	}
+
+	/**
+	 * @return The submission storage.
+	 */
+	public BenchSubmissionStorage getSubmissionStorage()
+	{
+		return this.submissionStorage;
+	}
+
+	/**
+	 * @return The UI service.
+	 */
+	public BenchUiService getUiService()
+	{
+		return this.uiService;
+	}
+
+	/**
+	 * @return The student ids, in class order.
+	 */
+	public List<String> getUserIds()
+	{
+		return new ArrayList<String>(this.users.keySet());
+	}
+
+	/**
+	 * Make an answer to a question, with a generated response - sometimes correct, sometimes not, sometimes left unanswered.
+	 *
+	 * @param question
+	 *        The question.
+	 * @return The answer.
+	 */
+	public BenchAnswer newAnswer(Question question)
+	{
+		BenchAnswer rv = new BenchAnswer(question);
+
+		// leave one in ten unanswered
+		if (this.random.nextInt(10) != 0)
+		{
+			rv.getTypeSpecificAnswer().setData(answerData(question.getType()));
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Make an assessment with one part drawing questions from the pool.
+	 *
+	 * @param numQuestions
+	 *        The number of questions to draw.
+	 * @return The assessment, as read from storage.
+	 */
+	public AssessmentImpl newDrawAssessment(Integer numQuestions)
+	{
+		AssessmentImpl assessment = this.assessmentStorage.newAssessment();
+		assessment.setContext(CONTEXT);
+		assessment.setTitle("Benchmark Draw");
+		assessment.getParts().addPart().addDrawDetail(this.pool, numQuestions);
+		this.assessmentStorage.saveAssessment(assessment);
+
+		return this.assessmentStorage.getAssessment(assessment.getId());
+	}
+
+	/**
+	 * Make a submission not yet started by a student, as the delivery tool hands to enterSubmission.
+	 *
+	 * @param userId
+	 *        The student id.
+	 * @return The submission.
+	 */
+	public SubmissionImpl newSubmission(String userId)
+	{
+		SubmissionImpl rv = this.submissionStorage.newSubmission();
+		rv.initUserId(userId);
+		rv.initAssessmentId(this.assessment.getId());
+		return rv;
+	}
+
+	/**
+	 * Give an answer a new generated response.
+	 *
+	 * @param answer
+	 *        The answer.
+	 */
+	public void respond(Answer answer)
+	{
+		answer.getTypeSpecificAnswer().setData(answerData(answer.getQuestion().getType()));
+	}
+
+	/**
+	 * Set the user the stand-in SessionManager answers as current.
+	 *
+	 * @param userId
+	 *        The user id.
+	 */
+	public void setCurrentUser(String userId)
+	{
+		this.currentUserId = userId;
+	}
+
+	/**
+	 * Generate a response to a question of this type.
+	 *
+	 * @param type
+	 *        The question type.
+	 * @return The answer data.
+	 */
+	protected String[] answerData(String type)
+	{
+		if (type.equals("mneme:TrueFalse"))
+		{
+			return new String[] {Boolean.toString(this.random.nextBoolean())};
+		}
+
+		if (type.equals("mneme:MultipleChoice"))
+		{
+			return new String[] {Integer.toString(this.random.nextInt(4))};
+		}
+
+		if (type.equals("mneme:FillBlanks"))
+		{
+			return new String[] {pick("red", "Red", "pink"), pick("blue", "purple", "green")};
+		}
+
+		if (type.equals("mneme:Match"))
+		{
+			// pair id, choice id - the pair's own choice is correct
+			String[] rv = new String[8];
+			for (int i = 0; i < 4; i++)
+			{
+				rv[2 * i] = "p" + (i + 1);
+				rv[2 * i + 1] = "c" + (1 + this.random.nextInt(4));
+			}
+			return rv;
+		}
+
+		if (type.equals("mneme:Order"))
+		{
+			// choice id, position - the as-authored position is correct
+			List<String> positions = new ArrayList<String>();
+			for (int i = 0; i < 4; i++)
+			{
+				positions.add(Integer.toString(i));
+			}
+			if (this.random.nextBoolean()) Collections.shuffle(positions, this.random);
+
+			String[] rv = new String[8];
+			for (int i = 0; i < 4; i++)
+			{
+				rv[2 * i] = Integer.toString(i);
+				rv[2 * i + 1] = positions.get(i);
+			}
+			return rv;
+		}
+
+		return new String[] {pick("red", "white", "yellow"), pick("blue", "green")};
+	}
+
+	/**
+	 * Add a submission by a student, with an answer to each question.
+	 *
+	 * @param userId
+	 *        The student id.
+	 * @param complete
+	 *        if true, the submission is complete, otherwise in progress.
+	 * @param now
+	 *        The time the submissions are generated.
+	 */
+	protected void generateSubmission(String userId, boolean complete, Date now)
+	{
+		SubmissionImpl submission = this.submissionStorage.newSubmission();
+		submission.initUserId(userId);
+		submission.initAssessmentId(this.assessment.getId());
+		Date started = new Date(now.getTime() - 7200000L + this.random.nextInt(3600000));
+		submission.setStartDate(started);
+		this.submissionStorage.saveSubmission(submission);
+
+		List<Answer> answers = new ArrayList<Answer>();
+		for (QuestionImpl question : this.questions)
+		{
+			BenchAnswer answer = newAnswer(question);
+			answer.initSubmission(submission);
+			answer.initPartId(this.partId);
+
+			// complete submissions keep their answers' scores
+			if (complete) answer.initStoredAutoScore(answer.computeAutoScore());
+			answers.add(answer);
+		}
+		this.submissionStorage.saveAnswers(answers);
+
+		if (complete)
+		{
+			submission.setIsComplete(Boolean.TRUE);
+			submission.setCompletionStatus(SubmissionCompletionStatus.userFinished);
+			submission.setSubmittedDate(new Date(started.getTime() + this.random.nextInt(3600000)));
+			submission.setIsReleased(Boolean.valueOf(this.random.nextBoolean()));
+			this.submissionStorage.saveSubmission(submission);
+		}
+	}
+
+	/**
+	 * Generate the assessment: one part picking each question, any number of tries, published and live.
+	 */
+	protected void generateAssessment()
+	{
+		AssessmentImpl assessment = this.assessmentStorage.newAssessment();
+		assessment.setContext(CONTEXT);
+		assessment.setTitle("Benchmark Assessment");
+		assessment.setTries(null);
+
+		Part part = assessment.getParts().addPart();
+		for (QuestionImpl question : this.questions)
+		{
+			part.addPickDetail(question);
+		}
+
+		assessment.initPublished(Boolean.TRUE);
+		assessment.initLive(Boolean.TRUE);
+		this.assessmentStorage.saveAssessment(assessment);
+
+		this.assessment = this.assessmentStorage.getAssessment(assessment.getId());
+		this.partId = this.assessment.getParts().getParts().get(0).getId();
+	}
+
+	/**
+	 * Generate the pool and its questions.
+	 *
+	 * @param questionsPerType
+	 *        The number of questions of each type.
+	 */
+	protected void generatePool(int questionsPerType)
+	{
+		PoolImpl pool = this.poolStorage.newPool();
+		pool.setContext(CONTEXT);
+		pool.setTitle("Benchmark Pool");
+		pool.setPoints(Float.valueOf(10f));
+		this.poolStorage.savePool(pool);
+		this.pool = this.poolStorage.getPool(pool.getId());
+
+		for (int i = 0; i < questionsPerType; i++)
+		{
+			for (String type : TYPES)
+			{
+				QuestionImpl question = this.questionStorage.newQuestion();
+				question.initType(type);
+				question.initTypeSpecificQuestion(this.plugins.get(type).newQuestion(question));
+				question.setPool(this.pool);
+				question.getPresentation().setText("Question " + (this.questions.size() + 1));
+				question.getTypeSpecificQuestion().setData(questionData(type, i));
+				question.clearMint();
+				this.questionStorage.saveQuestion(question);
+
+				this.questions.add(question);
+				this.poolQuestionIds.add(question.getId());
+			}
+		}
+	}
+
+	/**
+	 * Generate the class and their submissions: most students have one to three submissions, the last of which may be in progress; some have not
+	 * started.
+	 *
+	 * @param students
+	 *        The number of students.
+	 */
+	protected void generateSubmissions(int students)
+	{
+		Date now = new Date();
+		for (int i = 0; i < students; i++)
+		{
+			String userId = "student" + (i + 1);
+			this.users.put(userId, newUser(userId));
+
+			if (this.random.nextInt(10) == 0) continue;
+
+			int attempts = 1 + this.random.nextInt(3);
+			for (int attempt = 1; attempt <= attempts; attempt++)
+			{
+				boolean complete = (attempt < attempts) || (this.random.nextInt(10) != 0);
+				generateSubmission(userId, complete, now);
+			}
+		}
+	}
+
+	/**
+	 * Read a message bundle from the classpath.
+	 *
+	 * @param bundle
+	 *        The bundle name.
+	 * @return The messages; a message missing from the bundle (or a bundle missing altogether) reads as null, or its default.
+	 */
+	protected InternationalizedMessages messages(String bundle)
+	{
+		ResourceBundle found = null;
+		try
+		{
+			found = ResourceBundle.getBundle(bundle, Locale.getDefault(), getClass().getClassLoader());
+		}
+		catch (MissingResourceException e)
+		{
+		}
+		final ResourceBundle messages = found;
+
+		return new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getLocale")) return Locale.getDefault();
+
+				if (method.equals("getString") || method.equals("getFormattedMessage"))
+				{
+					String rv = null;
+					if ((messages != null) && messages.containsKey((String) args[0])) rv = messages.getString((String) args[0]);
+
+					if (method.equals("getFormattedMessage"))
+					{
+						return (rv == null) ? null : MessageFormat.format(rv, (Object[]) args[1]);
+					}
+					if ((rv == null) && (args.length > 1)) rv = (String) args[1];
+					return rv;
+				}
+				return null;
+			}
+		}.as(InternationalizedMessages.class);
+	}
+
+	/**
+	 * Make a student.
+	 *
+	 * @param userId
+	 *        The student id.
+	 * @return The student.
+	 */
+	protected User newUser(final String userId)
+	{
+		final String sortName = pick("Adams", "Baker", "Chen", "Diaz", "Evans", "Garcia", "Kim", "Lopez", "Nguyen", "Smith") + ", " + userId;
+
+		return new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getId") || method.equals("getEid")) return userId;
+				if (method.equals("getSortName")) return sortName;
+				if (method.equals("getDisplayName")) return userId;
+				return null;
+			}
+		}.as(User.class);
+	}
+
+	/**
+	 * Pick one of these values.
+	 *
+	 * @param values
+	 *        The values.
+	 * @return The value picked.
+	 */
+	protected String pick(String... values)
+	{
+		return values[this.random.nextInt(values.length)];
+	}
+
+	/**
+	 * Form the type-specific data for a question.
+	 *
+	 * @param type
+	 *        The question type.
+	 * @param i
+	 *        The question's position among those of its type.
+	 * @return The question data.
+	 */
+	protected String[] questionData(String type, int i)
+	{
+		if (type.equals("mneme:TrueFalse"))
+		{
+			return new String[] {Boolean.toString((i % 2) == 0)};
+		}
+
+		if (type.equals("mneme:MultipleChoice"))
+		{
+			// single correct, not shuffled, four choices
+			String[] rv = new String[] {"true", "false", "Choice A", "false", "Choice B", "false", "Choice C", "false", "Choice D", "false"};
+			rv[3 + 2 * (i % 4)] = "true";
+			return rv;
+		}
+
+		if (type.equals("mneme:FillBlanks"))
+		{
+			// any order, case sensitive, textual, text
+			return new String[] {"false", "false", "true", "Roses are {red} and violets are {blue|purple}."};
+		}
+
+		if (type.equals("mneme:Match"))
+		{
+			// no distractor, then choice, choice id, match, pair id for each pair
+			return new String[] {null, null, null, null, "Red", "c1", "Roses", "p1", "Blue", "c2", "Violets", "p2", "Yellow", "c3", "Daffodils",
+					"p3", "White", "c4", "Lilies", "p4"};
+		}
+
+		if (type.equals("mneme:Order"))
+		{
+			// the choices in the correct order, then padding
+			return new String[] {"Seed", "Sprout", "Bud", "Bloom", null, null, null, null, null, null};
+		}
+
+		return new String[] {"Roses are {*red|white|yellow} and violets are {*blue|green}."};
+	}
+
+	/**
+	 * Set up the storages and services, and the stand-ins they need.
+	 */
+	protected void wire()
+	{
+		this.mnemeService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("registerQuestionPlugin"))
+				{
+					QuestionPlugin plugin = (QuestionPlugin) args[0];
+					plugins.put(plugin.getType(), plugin);
+				}
+				else if (method.equals("getQuestionPlugin"))
+				{
+					return plugins.get(args[0]);
+				}
+				else if (method.equals("getQuestionPlugins"))
+				{
+					return new ArrayList<QuestionPlugin>(plugins.values());
+				}
+				return null;
+			}
+		}.as(MnemeService.class);
+
+		this.poolService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getPool")) return poolStorage.getPool((String) args[0]);
+				return null;
+			}
+		}.as(PoolService.class);
+
+		// the generated questions are all valid and none are survey, so the filters do not apply
+		this.questionService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getQuestion")) return questionStorage.getQuestion((String) args[0]);
+				if (method.equals("getPoolQuestionIds")) return new ArrayList<String>(poolQuestionIds);
+				if (method.equals("countQuestions")) return Integer.valueOf(poolQuestionIds.size());
+				if (method.equals("findQuestions")) return new ArrayList<Question>();
+				return null;
+			}
+		}.as(QuestionService.class);
+
+		this.assessmentService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getAssessment")) return assessmentStorage.getAssessment((String) args[0]);
+				return null;
+			}
+		}.as(AssessmentService.class);
+
+		this.securityService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("checkSecurity")) return Boolean.TRUE;
+				if (method.equals("getUsersIsAllowed")) return new HashSet<String>(users.keySet());
+				return null;
+			}
+		}.as(SecurityService.class);
+
+		this.userDirectoryService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getUsers"))
+				{
+					List<User> rv = new ArrayList<User>();
+					for (Object id : (Collection<?>) args[0])
+					{
+						User user = users.get(id);
+						if (user != null) rv.add(user);
+					}
+					return rv;
+				}
+				if (method.equals("getUser")) return users.get(args[0]);
+				return null;
+			}
+		}.as(UserDirectoryService.class);
+
+		this.sessionManager = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("getCurrentSessionUserId")) return currentUserId;
+				return null;
+			}
+		}.as(SessionManager.class);
+
+		this.idManager = new Stub()
+		{
+			protected long next = 0;
+
+			protected Object answer(String method, Object[] args)
+			{
+				if (method.equals("createUuid")) return "id" + (++this.next);
+				return null;
+			}
+		}.as(IdManager.class);
+
+		this.eventTrackingService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				return null;
+			}
+		}.as(EventTrackingService.class);
+
+		this.gradesService = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				return null;
+			}
+		}.as(GradesService.class);
+
+		this.threadLocalManager = new Stub()
+		{
+			protected Object answer(String method, Object[] args)
+			{
+				return null;
+			}
+		}.as(ThreadLocalManager.class);
+
+		this.uiService = new BenchUiService();
+		this.uiService.init();
+
+		// the plugins register themselves
+		TrueFalsePlugin trueFalse = new TrueFalsePlugin();
+		trueFalse.setBundle("mnemeTrueFalse");
+		trueFalse.setMnemeService(this.mnemeService);
+		trueFalse.setUi(this.uiService);
+		trueFalse.init();
+		trueFalse.messages = messages("mnemeTrueFalse");
+
+		MultipleChoicePlugin multipleChoice = new MultipleChoicePlugin();
+		multipleChoice.setBundle("mnemeMultipleChoice");
+		multipleChoice.setMnemeService(this.mnemeService);
+		multipleChoice.setUi(this.uiService);
+		multipleChoice.init();
+		multipleChoice.messages = messages("mnemeMultipleChoice");
+
+		FillBlanksPlugin fillBlanks = new FillBlanksPlugin();
+		fillBlanks.setBundle("mnemeFillBlanks");
+		fillBlanks.setMnemeService(this.mnemeService);
+		fillBlanks.setUi(this.uiService);
+		fillBlanks.init();
+		fillBlanks.messages = messages("mnemeFillBlanks");
+
+		FillInlinePlugin fillInline = new FillInlinePlugin();
+		fillInline.setBundle("mnemeFillInline");
+		fillInline.setMnemeService(this.mnemeService);
+		fillInline.setUi(this.uiService);
+		fillInline.init();
+		fillInline.messages = messages("mnemeFillInline");
+
+		MatchPlugin match = new MatchPlugin();
+		match.setBundle("mnemeMatch");
+		match.setIdManager(this.idManager);
+		match.setMnemeService(this.mnemeService);
+		match.setUi(this.uiService);
+		match.init();
+		match.messages = messages("mnemeMatch");
+
+		OrderPlugin order = new OrderPlugin();
+		order.setBundle("mnemeOrder");
+		order.setMnemeService(this.mnemeService);
+		order.setUi(this.uiService);
+		order.init();
+		order.messages = messages("mnemeOrder");
+
+		// storage
+		this.submissionService = new SubmissionServiceImpl();
+
+		this.poolStorage = new BenchPoolStorage();
+		this.poolStorage.init();
+
+		this.questionStorage = new BenchQuestionStorage();
+		this.questionStorage.setMnemeService(this.mnemeService);
+		this.questionStorage.init();
+
+		this.assessmentStorage = new BenchAssessmentStorage();
+		this.assessmentStorage.setAssessmentService(this.assessmentService);
+		this.assessmentStorage.setPoolService(this.poolService);
+		this.assessmentStorage.setQuestionService(this.questionService);
+		this.assessmentStorage.setSecurityService(this.securityService);
+		this.assessmentStorage.setSubmissionService(this.submissionService);
+		this.assessmentStorage.setUserDirectoryService(this.userDirectoryService);
+		this.assessmentStorage.init();
+
+		this.submissionStorage = new BenchSubmissionStorage();
+		this.submissionStorage.setAssessmentService(this.assessmentService);
+		this.submissionStorage.setMnemeService(this.mnemeService);
+		this.submissionStorage.setSecurityService(this.securityService);
+		this.submissionStorage.setSessionManager(this.sessionManager);
+		this.submissionStorage.setSubmissionService(this.submissionService);
+		this.submissionStorage.init();
+
+		// the submission service, without init() - which reaches for the Sakai cluster, threads and events
+		// the event writer is not started, so events are posted (to the stand-in) on the calling thread
+		this.submissionService.setAssessmentService(this.assessmentService);
+		this.submissionService.setEventTrackingService(this.eventTrackingService);
+		this.submissionService.setGradesService(this.gradesService);
+		this.submissionService.setQuestionService(this.questionService);
+		this.submissionService.setSecurityService(this.securityService);
+		this.submissionService.setSessionManager(this.sessionManager);
+		this.submissionService.setThreadLocalManager(this.threadLocalManager);
+		this.submissionService.setUserDirectoryService(this.userDirectoryService);
+		this.submissionService.eventWriter = new EventWriter(this.eventTrackingService, 1);
+		this.submissionService.storage = this.submissionStorage;
+	}
+}
@@ -0,0 +1,108 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.ambrosia.api.Component;
+import org.etudes.ambrosia.impl.UiContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark Ambrosia rendering a question's delivery view for a student's answer, for each question type, as each page of a submission in
+ * progress does.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class DeliveryRenderBenchmark
+{
+	/** The number of answers to cycle through - answered and not. */
+	protected static final int ANSWERS = 20;
+
+	@Param({"mneme:TrueFalse", "mneme:MultipleChoice", "mneme:FillBlanks", "mneme:FillInline", "mneme:Match", "mneme:Order"})
+	public String type;
+
+	/** Answers to the question. */
+	protected List<BenchCourse.BenchAnswer> answers = null;
+
+	protected BenchCourse course = null;
+
+	/** The question's delivery view. */
+	protected Component delivery = null;
+
+	/** The answer to render next. */
+	protected int next = 0;
+
+	@Setup
+	public void setup()
+	{
+		this.course = new BenchCourse(0, 1, 1L);
+		for (QuestionImpl question : this.course.getQuestions())
+		{
+			if (!question.getType().equals(this.type)) continue;
+
+			this.delivery = question.getTypeSpecificQuestion().getDeliveryUi();
+			this.answers = new ArrayList<BenchCourse.BenchAnswer>(ANSWERS);
+			for (int i = 0; i < ANSWERS; i++)
+			{
+				this.answers.add(this.course.newAnswer(question));
+			}
+		}
+	}
+
+	@Benchmark
+	public int render()
+	{
+		BenchCourse.BenchAnswer answer = this.answers.get(this.next);
+		this.next = (this.next + 1) % ANSWERS;
+
+		// a new context for each, as for each request
+		StringWriter out = new StringWriter();
+		UiContext context = new UiContext(this.course.getUiService());
+		context.addMessages(this.course.getUiService().getMessages());
+		context.setResponseWriter(new PrintWriter(out));
+		context.put("answer", answer);
+
+		this.delivery.render(context, null);
+
+		return out.getBuffer().length();
+	}
+}
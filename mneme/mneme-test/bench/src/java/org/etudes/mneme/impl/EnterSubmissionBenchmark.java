@@ -0,0 +1,84 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.mneme.api.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark a student starting a new submission: the permission and open checks, the new submission and an answer for each question.<br />
+ * Each new submission is removed once entered, so the class stays the size it was generated.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class EnterSubmissionBenchmark
+{
+	@Param({"1", "5"})
+	public int questionsPerType;
+
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	protected BenchCourse course = null;
+
+	/** The student to enter next. */
+	protected int next = 0;
+
+	protected List<String> userIds = null;
+
+	@Setup
+	public void setup()
+	{
+		this.course = new BenchCourse(this.students, this.questionsPerType, 1L);
+		this.userIds = this.course.getUserIds();
+	}
+
+	@Benchmark
+	public Submission enterSubmission() throws Exception
+	{
+		String userId = this.userIds.get(this.next);
+		this.next = (this.next + 1) % this.userIds.size();
+
+		Submission rv = this.course.getSubmissionService().enterSubmission(this.course.newSubmission(userId));
+		this.course.getSubmissionStorage().removeSubmission(rv.getId());
+
+		return rv;
+	}
+}
@@ -0,0 +1,83 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.mneme.api.Submission;
+import org.etudes.mneme.api.SubmissionService.FindAssessmentSubmissionsSort;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark finding a page of an assessment's official submissions, as the grading views do, for a class of each size and a few sorts.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class FindSubmissionsBenchmark
+{
+	/** The page size the grading views use. */
+	protected static final int PAGE_SIZE = 50;
+
+	@Param({"userName_a", "final_d", "status_a"})
+	public String sort;
+
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	protected BenchCourse course = null;
+
+	@Setup
+	public void setup()
+	{
+		this.course = new BenchCourse(this.students, 5, 1L);
+	}
+
+	@Benchmark
+	public List<Submission> firstPage()
+	{
+		return this.course.getSubmissionService().findAssessmentSubmissions(this.course.getAssessment(),
+				FindAssessmentSubmissionsSort.valueOf(this.sort), Boolean.TRUE, null, Integer.valueOf(1), Integer.valueOf(PAGE_SIZE), Boolean.TRUE);
+	}
+
+	@Benchmark
+	public List<Submission> lastPage()
+	{
+		int last = Math.max(1, (this.students + PAGE_SIZE - 1) / PAGE_SIZE);
+		return this.course.getSubmissionService().findAssessmentSubmissions(this.course.getAssessment(),
+				FindAssessmentSubmissionsSort.valueOf(this.sort), Boolean.TRUE, null, Integer.valueOf(last), Integer.valueOf(PAGE_SIZE), Boolean.TRUE);
+	}
+}
@@ -0,0 +1,98 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark a part's question order for each student: the draw from the pool, shuffled by the part's own shuffler for the student's submission.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PoolDrawBenchmark
+{
+	/** The number of questions each student draws. */
+	protected static final Integer DRAW = Integer.valueOf(10);
+
+	@Param({"20", "200"})
+	public int poolSize;
+
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	/** The assessment drawing from the pool. */
+	protected AssessmentImpl assessment = null;
+
+	/** The assessment's part. */
+	protected PartImpl part = null;
+
+	/** A submission for each student. */
+	protected List<SubmissionImpl> submissions = null;
+
+	@Setup
+	public void setup()
+	{
+		BenchCourse course = new BenchCourse(0, this.poolSize / BenchCourse.TYPES.length, 1L);
+		this.assessment = course.newDrawAssessment(DRAW);
+		this.part = (PartImpl) this.assessment.getParts().getParts().get(0);
+
+		this.submissions = new ArrayList<SubmissionImpl>(this.students);
+		for (int i = 0; i < this.students; i++)
+		{
+			SubmissionImpl submission = course.newSubmission("student" + (i + 1));
+			submission.initId(Long.toString(100 + i));
+			this.submissions.add(submission);
+		}
+	}
+
+	@Benchmark
+	public int drawForClass()
+	{
+		// each submission is a new shuffle seed, so the part's cached order does not apply
+		int rv = 0;
+		for (SubmissionImpl submission : this.submissions)
+		{
+			this.assessment.initSubmissionContext(submission);
+			rv += this.part.getQuestionPickOrder().size();
+		}
+
+		return rv;
+	}
+}
@@ -0,0 +1,100 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.mneme.api.Answer;
+import org.etudes.mneme.api.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark the work done over all of an assessment's submissions once they are read: picking each student's official submission, the answer
+ * statistics of the review and stats views, and finding each answer of a submission by question.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SubmissionListBenchmark
+{
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	/** The submissions, in full. */
+	protected List<Submission> all = null;
+
+	protected BenchCourse course = null;
+
+	/** The submissions, as read for officializing. */
+	protected List<SubmissionImpl> summaries = null;
+
+	@Setup
+	public void setup()
+	{
+		this.course = new BenchCourse(this.students, 5, 1L);
+		this.summaries = this.course.getSubmissionStorage().getAssessmentSubmissionsSummary(this.course.getAssessment());
+		this.all = new ArrayList<Submission>(this.course.getSubmissionStorage().getAssessmentSubmissions(this.course.getAssessment()));
+	}
+
+	@Benchmark
+	public int answerStats()
+	{
+		return AnswerStats.compute(this.all).stats.size();
+	}
+
+	@Benchmark
+	public int findAnswers()
+	{
+		int rv = 0;
+		for (Submission submission : this.all)
+		{
+			for (QuestionImpl question : this.course.getQuestions())
+			{
+				Answer answer = ((SubmissionImpl) submission).findAnswer(question.getId());
+				if (answer != null) rv++;
+			}
+		}
+
+		return rv;
+	}
+
+	@Benchmark
+	public List<Submission> officializeByUser()
+	{
+		return this.course.getSubmissionService().officializeByUser(this.summaries, null);
+	}
+}
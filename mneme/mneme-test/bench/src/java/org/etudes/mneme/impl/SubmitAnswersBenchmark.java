@@ -0,0 +1,103 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.etudes.mneme.api.Answer;
+import org.etudes.mneme.api.Submission;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Benchmark a student saving their answers to a submission in progress, as the delivery views do on each page: the submission read, the
+ * auto-scores, the checks, the saves and the events.<br />
+ * Every student has a submission in progress; the answers are saved, not finished, so each stays in progress for the next round.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class SubmitAnswersBenchmark
+{
+	@Param({"1", "5"})
+	public int questionsPerType;
+
+	@Param({"50", "500", "5000"})
+	public int students;
+
+	protected BenchCourse course = null;
+
+	/** The student to submit for next. */
+	protected int next = 0;
+
+	/** The id of each student's submission in progress. */
+	protected List<String> submissionIds = null;
+
+	protected List<String> userIds = null;
+
+	@Setup
+	public void setup() throws Exception
+	{
+		this.course = new BenchCourse(this.students, this.questionsPerType, 1L);
+		this.userIds = this.course.getUserIds();
+
+		this.submissionIds = new ArrayList<String>(this.userIds.size());
+		for (String userId : this.userIds)
+		{
+			this.submissionIds.add(this.course.getSubmissionService().enterSubmission(this.course.newSubmission(userId)).getId());
+		}
+	}
+
+	@Benchmark
+	public int submitAnswers() throws Exception
+	{
+		int i = this.next;
+		this.next = (this.next + 1) % this.userIds.size();
+
+		this.course.setCurrentUser(this.userIds.get(i));
+		Submission submission = this.course.getSubmissionService().getSubmission(this.submissionIds.get(i));
+
+		List<Answer> answers = submission.getAnswers();
+		for (Answer answer : answers)
+		{
+			this.course.respond(answer);
+		}
+		this.course.getSubmissionService().submitAnswers(answers, Boolean.TRUE, Boolean.FALSE, Boolean.FALSE);
+
+		return answers.size();
+	}
+}
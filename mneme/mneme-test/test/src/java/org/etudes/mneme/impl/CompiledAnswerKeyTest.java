@@ -0,0 +1,132 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+
+package org.etudes.mneme.impl;
+
+import java.util.Arrays;
+import java.util.regex.Pattern;
+
+import junit.framework.TestCase;
+
+/**
+ * Test the compiled fill-in answer key against the pattern matching it replaces.
+ */
+public class CompiledAnswerKeyTest extends TestCase
+{
+	/**
+	 * @param arg0
+	 */
+	public CompiledAnswerKeyTest(String arg0)
+	{
+		super(arg0);
+	}
+
+	/**
+	 * Test the key is current only for the text and settings it was made from.
+	 */
+	public void testIsFor() throws Exception
+	{
+		CompiledAnswerKey key = new CompiledAnswerKey("roses are {red}.", false, false, true, Arrays.asList("red"));
+		assertTrue(key.isFor("roses are {red}.", false, false, true));
+		assertTrue(key.isFor(new String("roses are {red}."), false, false, true));
+		assertFalse(key.isFor("roses are {pink}.", false, false, true));
+		assertFalse(key.isFor(null, false, false, true));
+		assertFalse(key.isFor("roses are {red}.", true, false, true));
+		assertFalse(key.isFor("roses are {red}.", false, true, true));
+		assertFalse(key.isFor("roses are {red}.", false, false, false));
+
+		try
+		{
+			key.getCorrectAnswers().add("blue");
+			fail();
+		}
+		catch (UnsupportedOperationException e)
+		{
+		}
+	}
+
+	/**
+	 * Test numeric values and ranges.
+	 */
+	public void testNumeric() throws Exception
+	{
+		CompiledAnswerKey.Entry entry = new CompiledAnswerKey.Entry("3,5", false, false);
+		assertTrue(entry.matches("3.5"));
+		assertTrue(entry.matches("3,5"));
+		assertFalse(entry.matches("3.6"));
+		assertFalse(entry.matches("three"));
+
+		entry = new CompiledAnswerKey.Entry("10 | 2", false, false);
+		assertTrue(entry.matches("2"));
+		assertTrue(entry.matches("7.25"));
+		assertTrue(entry.matches("10"));
+		assertFalse(entry.matches("10.5"));
+
+		entry = new CompiledAnswerKey.Entry("ten", false, false);
+		assertFalse(entry.matches("10"));
+	}
+
+	/**
+	 * Test exact and wild card alternatives, with and without case sensitivity, against the original matching.
+	 */
+	public void testTextual() throws Exception
+	{
+		String[] patterns = {"blue|purple", "red*", "*berry| straw ", "a.b", "", "\u00c9mile|x*Y"};
+		String[] answers = {"blue", "Blue", "PURPLE", "red", "reddish", "RED ROSE", "blueberry", "berry", "straw", "a.b", "axb", "", "\u00e9mile", "\u00c9mile",
+				"xzy", "XZY"};
+
+		for (String pattern : patterns)
+		{
+			for (boolean caseSensitive : new boolean[] {true, false})
+			{
+				CompiledAnswerKey.Entry entry = new CompiledAnswerKey.Entry(pattern, caseSensitive, true);
+				for (String answer : answers)
+				{
+					assertEquals(pattern + " " + caseSensitive + " " + answer, regexMatches(answer, pattern, caseSensitive), entry.matches(answer));
+				}
+			}
+		}
+
+		assertTrue(new CompiledAnswerKey.Entry("blue|purple", false, true).matches("Purple"));
+		assertFalse(new CompiledAnswerKey.Entry("blue|purple", true, true).matches("Purple"));
+		assertFalse(new CompiledAnswerKey.Entry("red*", false, true).matches("red"));
+	}
+
+	/**
+	 * The matching the key replaces: each alternative compiled to a regex for each answer.
+	 */
+	protected boolean regexMatches(String answer, String correct, boolean caseSensitive)
+	{
+		for (String test : correct.split("\\|"))
+		{
+			test = test.replace("&nbsp;", " ").trim();
+			StringBuilder regex = new StringBuilder();
+			for (String part : test.replaceAll("\\*", "|*|").split("\\|"))
+			{
+				regex.append("*".equals(part) ? ".+" : Pattern.quote(part));
+			}
+			if (Pattern.compile(regex.toString(), (!caseSensitive) ? Pattern.CASE_INSENSITIVE : 0).matcher(answer).matches()) return true;
+		}
+
+		return false;
+	}
+}
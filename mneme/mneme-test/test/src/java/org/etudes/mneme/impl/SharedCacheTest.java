@@ -0,0 +1,122 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import junit.framework.TestCase;
+
+/**
+ * Test SharedCache, with the in-JVM bus standing in for the cluster.
+ */
+public class SharedCacheTest extends TestCase
+{
+	/**
+	 * @param arg0
+	 */
+	public SharedCacheTest(String arg0)
+	{
+		super(arg0);
+	}
+
+	/**
+	 * Test that the cache holds no more than its size, dropping the least recently used.
+	 */
+	public void testBounded() throws Exception
+	{
+		SharedCache cache = new SharedCache("test", 2, 60000, null);
+		cache.put("a", "A", cache.getVersion("a"));
+		cache.put("b", "B", cache.getVersion("b"));
+		assertEquals("A", cache.get("a"));
+		cache.put("c", "C", cache.getVersion("c"));
+
+		assertEquals("A", cache.get("a"));
+		assertNull(cache.get("b"));
+		assertEquals("C", cache.get("c"));
+	}
+
+	/**
+	 * Test that an invalidation on one app server reaches the others.
+	 */
+	public void testClusterInvalidate() throws Exception
+	{
+		SharedCacheBusLocal bus1 = new SharedCacheBusLocal();
+		SharedCacheBusLocal bus2 = new SharedCacheBusLocal();
+		bus1.connect(bus2);
+
+		SharedCache cache1 = bus1.getCache("test");
+		SharedCache cache2 = bus2.getCache("test");
+		cache1.put("a", "A", cache1.getVersion("a"));
+		cache2.put("a", "A", cache2.getVersion("a"));
+		cache2.put("b", "B", cache2.getVersion("b"));
+
+		cache1.invalidate("a");
+		assertNull(cache1.get("a"));
+		assertNull(cache2.get("a"));
+		assertEquals("B", cache2.get("b"));
+
+		cache1.invalidateAll();
+		assertNull(cache2.get("b"));
+
+		// other caches are not affected
+		SharedCache other = bus2.getCache("other");
+		other.put("a", "A", other.getVersion("a"));
+		cache1.invalidate("a");
+		assertEquals("A", other.get("a"));
+	}
+
+	/**
+	 * Test that a size of 0 disables the cache.
+	 */
+	public void testDisabled() throws Exception
+	{
+		SharedCache cache = new SharedCache("test", 0, 60000, null);
+		cache.put("a", "A", cache.getVersion("a"));
+		assertNull(cache.get("a"));
+	}
+
+	/**
+	 * Test that entries expire.
+	 */
+	public void testExpires() throws Exception
+	{
+		SharedCache cache = new SharedCache("test", 10, 0, null);
+		cache.put("a", "A", cache.getVersion("a"));
+		Thread.sleep(5);
+		assertNull(cache.get("a"));
+	}
+
+	/**
+	 * Test that a value read before an invalidation is not cached.
+	 */
+	public void testStaleRead() throws Exception
+	{
+		SharedCache cache = new SharedCache("test", 10, 60000, null);
+
+		// read the version, then (while "reading storage") the key is invalidated
+		long version = cache.getVersion("a");
+		cache.invalidate("a");
+		cache.put("a", "stale", version);
+		assertNull(cache.get("a"));
+
+		cache.put("a", "A", cache.getVersion("a"));
+		assertEquals("A", cache.get("a"));
+	}
+}
@@ -0,0 +1,93 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * 
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ * 
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import junit.framework.TestCase;
+
+import org.etudes.mneme.api.Answer;
+
+/**
+ * Test the submission's answer lookups.
+ */
+public class SubmissionAnswersTest extends TestCase
+{
+	/**
+	 * @param arg0
+	 */
+	public SubmissionAnswersTest(String arg0)
+	{
+		super(arg0);
+	}
+
+	/**
+	 * Test finding answers by question id and answer id, including ids set after the answers are first found.
+	 */
+	public void testLookup() throws Exception
+	{
+		SubmissionImpl submission = new SubmissionImpl();
+		for (int i = 1; i <= 5; i++)
+		{
+			submission.initAnswer(newAnswer(null, "q" + i));
+		}
+
+		// found by question before the answers have ids
+		Answer third = submission.findAnswer("q3");
+		assertNotNull(third);
+		assertEquals("q3", ((AnswerImpl) third).questionId);
+		assertNull(submission.findAnswer("q6"));
+		assertNull(submission.getAnswer("a3"));
+
+		// ids set, as when saved
+		for (int i = 0; i < 5; i++)
+		{
+			((AnswerImpl) submission.getAnswers().get(i)).initId("a" + (i + 1));
+		}
+		assertSame(third, submission.getAnswer("a3"));
+		assertNull(submission.getAnswer("a6"));
+
+		// added later
+		submission.initAnswer(newAnswer("a6", "q6"));
+		assertSame(submission.getAnswers().get(5), submission.findAnswer("q6"));
+		assertSame(submission.getAnswers().get(5), submission.getAnswer("a6"));
+
+		submission.clearAnswers();
+		assertNull(submission.findAnswer("q3"));
+		assertNull(submission.getAnswer("a3"));
+	}
+
+	/**
+	 * Make an answer.
+	 * 
+	 * @param id
+	 *        The answer id.
+	 * @param questionId
+	 *        The question id.
+	 * @return The answer.
+	 */
+	protected AnswerImpl newAnswer(String id, String questionId)
+	{
+		AnswerImpl rv = new AnswerImpl();
+		rv.initId(id);
+		rv.questionId = questionId;
+		return rv;
+	}
+}
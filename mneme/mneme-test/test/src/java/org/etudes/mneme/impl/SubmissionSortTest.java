@@ -0,0 +1,185 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.mneme.impl;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+
+import junit.framework.TestCase;
+
+import org.etudes.mneme.api.Assessment;
+import org.etudes.mneme.api.SecurityService;
+import org.etudes.mneme.api.SubmissionService.FindAssessmentSubmissionsSort;
+import org.sakaiproject.user.api.User;
+import org.sakaiproject.user.api.UserDirectoryService;
+
+/**
+ * Test the sorting of an assessment's submissions.
+ */
+public class SubmissionSortTest extends TestCase
+{
+	/**
+	 * @param arg0
+	 */
+	public SubmissionSortTest(String arg0)
+	{
+		super(arg0);
+	}
+
+	/**
+	 * Test that in-progress submissions from users not in the directory, or not in the allowed set, sort by user id.
+	 */
+	public void testInProgressUndefinedUsers() throws Exception
+	{
+		final List<SubmissionImpl> submissions = new ArrayList<SubmissionImpl>();
+		submissions.add(newSubmission("gone", new Date(1000), null));
+		submissions.add(newSubmission("b", new Date(1000), new Date(3000)));
+		submissions.add(newSubmission("admin", new Date(1000), null));
+		submissions.add(newSubmission("a", new Date(1000), new Date(2000)));
+
+		SubmissionServiceImpl service = new SubmissionServiceImpl();
+		service.storage = stub(SubmissionStorage.class, new InvocationHandler()
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("getAssessmentSubmissions")) return new ArrayList<SubmissionImpl>(submissions);
+				return null;
+			}
+		});
+
+		// "gone" may submit but is no longer defined, "admin" may submit but only by the individual check
+		service.securityService = stub(SecurityService.class, new InvocationHandler()
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("getUsersIsAllowed")) return new HashSet<String>(Arrays.asList("a", "b", "gone"));
+				if (method.getName().equals("checkSecurity")) return Boolean.TRUE;
+				return null;
+			}
+		});
+
+		service.userDirectoryService = stub(UserDirectoryService.class, new InvocationHandler()
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("getUsers"))
+				{
+					List<User> rv = new ArrayList<User>();
+					for (Object id : (Collection<?>) args[0])
+					{
+						if (id.equals("a")) rv.add(newUser("a", "Zed, A"));
+						if (id.equals("b")) rv.add(newUser("b", "Alpha, B"));
+					}
+					return rv;
+				}
+				return null;
+			}
+		});
+
+		Assessment assessment = stub(Assessment.class, new InvocationHandler()
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("getContext")) return "context";
+				return null;
+			}
+		});
+
+		List<SubmissionImpl> sorted = service.getAssessmentSubmissions(assessment, FindAssessmentSubmissionsSort.sdate_a, null, true);
+
+		// complete by submit date, then in-progress by sort name - the user id for those not defined
+		assertEquals(4, sorted.size());
+		assertEquals("a", sorted.get(0).getUserId());
+		assertEquals("b", sorted.get(1).getUserId());
+		assertEquals("admin", sorted.get(2).getUserId());
+		assertEquals("gone", sorted.get(3).getUserId());
+	}
+
+	/**
+	 * Make a submission.
+	 * 
+	 * @param userId
+	 *        The user id.
+	 * @param started
+	 *        The start date.
+	 * @param submitted
+	 *        The submitted date, or null if in progress.
+	 * @return The submission.
+	 */
+	protected SubmissionImpl newSubmission(String userId, Date started, Date submitted)
+	{
+		SubmissionImpl rv = new SubmissionImpl();
+		rv.initUserId(userId);
+		rv.setStartDate(started);
+		if (submitted != null)
+		{
+			rv.setSubmittedDate(submitted);
+			rv.setIsComplete(Boolean.TRUE);
+		}
+
+		return rv;
+	}
+
+	/**
+	 * Make a user.
+	 * 
+	 * @param id
+	 *        The user id.
+	 * @param sortName
+	 *        The user sort name.
+	 * @return The user.
+	 */
+	protected User newUser(final String id, final String sortName)
+	{
+		return stub(User.class, new InvocationHandler()
+		{
+			public Object invoke(Object proxy, Method method, Object[] args)
+			{
+				if (method.getName().equals("getId")) return id;
+				if (method.getName().equals("getSortName")) return sortName;
+				return null;
+			}
+		});
+	}
+
+	/**
+	 * Make a stand-in for an interface.
+	 * 
+	 * @param api
+	 *        The interface.
+	 * @param handler
+	 *        Answers the calls.
+	 * @return The stand-in.
+	 */
+	@SuppressWarnings("unchecked")
+	protected <T> T stub(Class<T> api, InvocationHandler handler)
+	{
+		return (T) Proxy.newProxyInstance(api.getClassLoader(), new Class[] {api}, handler);
+	}
+}
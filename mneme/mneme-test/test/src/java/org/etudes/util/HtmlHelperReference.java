@@ -0,0 +1,356 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.util;
+
+import java.io.UnsupportedEncodingException;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+
+/**
+ * HtmlHelperReference is HtmlHelper's string passes as they were before the patterns were precompiled, kept to test the current passes against.
+ */
+public class HtmlHelperReference
+{
+	/** Our log. */
+	private static Log M_log = LogFactory.getLog(HtmlHelperReference.class);
+
+	/**
+	 * Assure that any anchor tag to external content that does not have a target attribute gets one as target="_blank".
+	 * 
+	 * @param data
+	 *        The html data.
+	 * @return The modified data.
+	 */
+	public static String assureAnchorTargetBlank(String data)
+	{
+		if (data == null)
+		{
+			return null;
+		}
+
+		StringBuffer sb = new StringBuffer();
+
+		// find the <a> tags, and isolate the contents of a tag
+		Pattern p = Pattern.compile("<a\\s+([^>]+)>", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE);
+
+		// find the href attribute and isolate the value
+		Pattern hrefPattern = Pattern.compile("href\\s*=\\s*[\"\'](.*?)[\"\']", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		// find the target attribute
+		Pattern targetPattern = Pattern.compile("target\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+
+		// find the onclick attribute
+		Pattern onclickPattern = Pattern.compile("onclick\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*");
+
+		Matcher m = p.matcher(data);
+		while (m.find())
+		{
+			if (m.groupCount() == 1)
+			{
+				String tagContents = m.group(1);
+
+				// only if we do NOT have a target attribute at all
+				Matcher targetMatcher = targetPattern.matcher(tagContents);
+				if (!targetMatcher.find())
+				{
+					// only if we do not have an onclick (CKEditor puts this in for the "popup" target option in the link dialog
+					Matcher onclickMatcher = onclickPattern.matcher(tagContents);
+					if (!onclickMatcher.find())
+					{
+						// only if we do NOT have an internal href
+						Matcher hrefMatcher = hrefPattern.matcher(tagContents);
+						if (hrefMatcher.find() && hrefMatcher.groupCount() == 1)
+						{
+							String href = hrefMatcher.group(1);
+							if (!href.startsWith("#"))
+							{
+								// we have an href that's not to a local anchor, so do the target stuff
+								// Note: no need to remove existing target attributes, as we have checked that there is none
+								// tagContents = "target=\"_blank\" " + tagContents.replaceAll("(target\\s*=\\s*[\"\'][^\"\']*[\"\']\\s*)?", "");
+								tagContents = "target=\"_blank\" " + tagContents;
+							}
+						}
+					}
+				}
+
+				tagContents = "<a " + tagContents + ">";
+				m.appendReplacement(sb, Matcher.quoteReplacement(tagContents));
+			}
+		}
+
+		m.appendTail(sb);
+
+		return sb.toString();
+	}
+
+	/**
+	 * Remove any characters from the data that will cause mysql to reject the record because of encoding errors<br />
+	 * (java.sql.SQLException: Incorrect string value) if they are present.
+	 * 
+	 * @param data
+	 *        The html data.
+	 * @return The data with the bad characters replaced with spaces.
+	 */
+	public static String stripBadEncodingCharacters(String data)
+	{
+		if (data == null) return data;
+
+		// MySQL does not support 4 byte UTF-8 characters, in versions before 5.5
+		// so we will replace any character in the data that needs 4 byte encoding with the html escape
+		// we also use the encoding for any multi-character codepoints
+		StringBuilder buf = new StringBuilder();
+		for (int cp, i = 0; i < data.length(); i += Character.charCount(cp))
+		{
+			cp = data.codePointAt(i);
+
+			// for single character codepoints
+			if (Character.charCount(cp) == 1)
+			{
+				try
+				{
+					String str = "" + (char) cp;
+					byte[] bytes = str.getBytes("UTF-8");
+					if (bytes.length < 4)
+					{
+						buf.append((char) cp);
+					}
+					else
+					{
+						// encode &#8704; for html
+						buf.append("&#" + cp + ";");
+					}
+				}
+				catch (UnsupportedEncodingException e)
+				{
+					buf.append((char) cp);
+				}
+			}
+
+			// for multi character surrogates
+			else
+			{
+				// encode &#8704; for html
+				buf.append("&#" + cp + ";");
+			}
+		}
+
+		return buf.toString();
+	}
+
+	/**
+	 * Remove any HTML comments from the data.
+	 * 
+	 * @param data
+	 *        the html data.
+	 * @return The cleaned up data.
+	 */
+	public static String stripComments(String data)
+	{
+		if (data == null) return data;
+
+		// quick check for any comments
+		if (data.indexOf("<!--") == -1) return data;
+
+		// pattern to find html comments
+		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
+		Pattern p = Pattern.compile("<!--.*?-->", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		Matcher m = p.matcher(data);
+		StringBuffer sb = new StringBuffer();
+
+		while (m.find())
+		{
+			m.appendReplacement(sb, "");
+		}
+
+		m.appendTail(sb);
+
+		data = sb.toString();
+
+		// if any open tags are left, likely because of missing a matching close tag, we will remove them.
+		// if we leave them in, a missing close comment tag will be inserted by HtmlCleaner at the very END of the document, making the rest a big comment.
+		// this fix exposes some comment text into the content, but preserves actual content.
+		data = data.replaceAll("<!--", "");
+
+		return data;
+	}
+
+	/**
+	 * Remove any text that match the "comments damaged from IE and Tiny" from the data.
+	 * 
+	 * @param data
+	 *        the html data.
+	 * @return The cleaned up data.
+	 */
+	public static String stripDamagedComments(String data)
+	{
+		if (data == null) return data;
+
+		// quick check for any hint of the pattern
+		if (data.indexOf("<! [endif] >") == -1) return data;
+
+		// log that we are doing this
+		M_log.warn("HtmlClean: stripDamagedComments");
+
+		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
+		Pattern p = Pattern.compile("<!--\\[if.*?<! \\[endif\\] >", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		Matcher m = p.matcher(data);
+		StringBuffer sb = new StringBuffer();
+
+		while (m.find())
+		{
+			m.appendReplacement(sb, "");
+		}
+
+		m.appendTail(sb);
+
+		// now remove the bad comment end
+		String rv = sb.toString().replace("<-->", "");
+		return rv;
+	}
+
+	/**
+	 * Remove any text that match the "comments from Word font definitions encoded into html by Tiny" from the data.
+	 * 
+	 * @param data
+	 *        the html data.
+	 * @return The cleaned up data.
+	 */
+	public static String stripEncodedFontDefinitionComments(String data)
+	{
+		if (data == null) return data;
+
+		// quick check for any hint of the pattern
+		if (data.indexOf("&lt;!--  /* Font Definitions */") == -1) return data;
+
+		// log that we are doing this
+		M_log.warn("HtmlClean: stripEncodedFontDefinitionComments");
+
+		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
+		Pattern p = Pattern.compile("&lt;!--  /\\* Font Definitions \\*/.*?--&gt;", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		Matcher m = p.matcher(data);
+		StringBuffer sb = new StringBuffer();
+
+		while (m.find())
+		{
+			m.appendReplacement(sb, "");
+		}
+
+		m.appendTail(sb);
+
+		return sb.toString();
+	}
+
+	/**
+	 * Remove any text that match the "comments from Word style definitions encoded into html by Tiny" from the data.
+	 * 
+	 * @param data
+	 *        the html data.
+	 * @return The cleaned up data.
+	 */
+	public static String stripEncodedStyleDefinitionComments(String data)
+	{
+		if (data == null) return data;
+
+		// quick check for any hint of the pattern
+		if (data.indexOf("&lt;!-- /* Style Definitions */") == -1) return data;
+
+		// log that we are doing this
+		M_log.warn("HtmlClean: stripEncodedStyleDefinitionComments");
+
+		// Notes: DOTALL so the "." matches line terminators too, "*?" Reluctant quantifier so text between two different comments is not lost
+		Pattern p = Pattern.compile("&lt;!-- /\\* Style Definitions \\*/.*?--&gt;", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		Matcher m = p.matcher(data);
+		StringBuffer sb = new StringBuffer();
+
+		while (m.find())
+		{
+			m.appendReplacement(sb, "");
+		}
+
+		m.appendTail(sb);
+
+		return sb.toString();
+	}
+
+	/**
+	 * Remove form tags in content by changing them to div tags. Also disable any input tags.
+	 * 
+	 * @param source
+	 *        The source content.
+	 * @return The converted content.
+	 */
+	public static String stripForms(String source)
+	{
+		source = source.replaceAll("<form", "<div");
+		source = source.replaceAll("</form", "</div");
+		source = source.replaceAll("<input", "<input disabled");
+		return source;
+	}
+
+	/**
+	 * String out 8203 codes from content
+	 * 
+	 * @param source
+	 *        The source content.
+	 * @return The converted content.
+	 */
+	public static String stripEmptyCode(String source)
+	{
+		if (source == null) return source;
+		source = source.replaceAll("&#8203;", "");
+		return source;
+	}
+
+	/**
+	 * Remove any tags only valid in headers (title base meta link style)
+	 * 
+	 * @param data
+	 *        the html data.
+	 * @return The cleaned up data.
+	 */
+	public static String stripHeaderTags(String data)
+	{
+		if (data == null) return data;
+
+		// pattern to find link/meta tags
+		Pattern p = Pattern.compile("<(link|meta|title|base|style)\\s+.*?(/*>)", Pattern.CASE_INSENSITIVE | Pattern.UNICODE_CASE | Pattern.DOTALL);
+
+		Matcher m = p.matcher(data);
+		StringBuffer sb = new StringBuffer();
+
+		while (m.find())
+		{
+			m.appendReplacement(sb, "");
+		}
+
+		m.appendTail(sb);
+
+		return sb.toString();
+	}
+}
@@ -0,0 +1,208 @@
+/**********************************************************************************
+ * $URL$
+ * $Id$
+ ***********************************************************************************
+ *
+ * Copyright (c) 2026 Etudes, Inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ *
+ **********************************************************************************/
+
+package org.etudes.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.Random;
+
+import junit.framework.TestCase;
+
+import org.sakaiproject.component.api.ServerConfigurationService;
+
+/**
+ * Test HtmlHelper's passes against HtmlHelperReference, and cleanCached() against clean(), over randomly composed html.
+ */
+public class HtmlHelperTest extends TestCase
+{
+	/** How many random sources each test tries. */
+	protected static final int SOURCES = 50000;
+
+	/** The fragments random sources are composed of. */
+	protected static final String[] TOKENS = {"<a href=\"http://x\">", "<A HREF='#top'>", "<a target=\"_self\" href=\"y\">",
+			"<a onclick='z' href='q'>", "<a href=\"http://one.edu/access/content/x.html\">", "<img src=\"http://two.edu/access/y.png\"/>",
+			"<a href=\"../../access/z\">", "<!--", "-->", "<!--[if gte]>", "<! [endif] >", "<-->", "&lt;!--  /* Font Definitions */",
+			"&lt;!-- /* Style Definitions */", "--&gt;", "<link rel=x>", "<META a=b/>", "<style type=t>", "</style>", "<title x>", "text ", "\n",
+			"\uD83D\uDE00", "\uD83D", "\uDE00", "\u00E9", "&#8203;", "<form>", "</form>", "<input>", "<p>", "</p>", "<", "a", "$", "\\"};
+
+	/** The server URL of the current request, as the stand-in ServerConfigurationService reports it. */
+	protected String serverUrl = "http://one.edu";
+
+	/**
+	 * @param arg0
+	 */
+	public HtmlHelperTest(String arg0)
+	{
+		super(arg0);
+	}
+
+	/**
+	 * Test that cleanCached() keeps no more than its limit of characters, and does not keep long sources.
+	 */
+	public void testCleanCacheBounded() throws Exception
+	{
+		StringBuilder padding = new StringBuilder();
+		for (int i = 0; i < HtmlHelper.CLEAN_CACHE_MAX_SOURCE - 16; i++)
+		{
+			padding.append('x');
+		}
+
+		String source = null;
+		int sources = 2 * HtmlHelper.CLEAN_CACHE_MAX_CHARS / HtmlHelper.CLEAN_CACHE_MAX_SOURCE;
+		for (int i = 0; i < sources; i++)
+		{
+			source = "<p>" + i + padding + "</p>";
+			HtmlHelper.cleanCached(source, true);
+		}
+
+		synchronized (HtmlHelper.cleaned)
+		{
+			assertTrue(HtmlHelper.cleanedChars <= HtmlHelper.CLEAN_CACHE_MAX_CHARS);
+			assertTrue(HtmlHelper.cleaned.size() < sources);
+			assertTrue(HtmlHelper.cleaned.containsKey(HtmlHelper.cleanCacheKey(source, true)));
+			assertFalse(HtmlHelper.cleaned.containsKey(HtmlHelper.cleanCacheKey("<p>0" + padding + "</p>", true)));
+		}
+
+		String tooLong = "<p>" + padding + padding + "</p>";
+		assertEquals(HtmlHelper.clean(tooLong, true), HtmlHelper.cleanCached(tooLong, true));
+		synchronized (HtmlHelper.cleaned)
+		{
+			assertFalse(HtmlHelper.cleaned.containsKey(HtmlHelper.cleanCacheKey(tooLong, true)));
+		}
+	}
+
+	/**
+	 * Test that the cache keys tell apart what clean() would.
+	 */
+	public void testCleanCacheKey() throws Exception
+	{
+		assertEquals(HtmlHelper.cleanCacheKey("<p>a</p>", true), HtmlHelper.cleanCacheKey("<p>a</p>", true));
+		assertFalse(HtmlHelper.cleanCacheKey("<p>a</p>", true).equals(HtmlHelper.cleanCacheKey("<p>a</p>", false)));
+
+		// unpaired surrogates, which UTF-8 would encode alike
+		assertFalse(HtmlHelper.cleanCacheKey("\uD83D", true).equals(HtmlHelper.cleanCacheKey("\uDE00", true)));
+	}
+
+	/**
+	 * Test that cleanCached() gives what clean() gives, the first time and from the cache, for requests to either server URL.
+	 */
+	public void testCleanCached() throws Exception
+	{
+		assertNull(HtmlHelper.cleanCached(null, true));
+
+		Random rnd = new Random(7);
+		for (int i = 0; i < SOURCES; i++)
+		{
+			String source = randomSource(rnd);
+			boolean fragment = rnd.nextBoolean();
+			this.serverUrl = rnd.nextBoolean() ? "http://one.edu" : "http://two.edu";
+
+			String expected = HtmlHelper.clean(source, fragment);
+			assertEquals(source, expected, HtmlHelper.cleanCached(source, fragment));
+			assertEquals(source, expected, HtmlHelper.cleanCached(source, fragment));
+		}
+	}
+
+	/**
+	 * Test that cleanCached() shortens full URLs for the server of each request, not the server of the request that first cleaned the source.
+	 */
+	public void testCleanCachedServerUrl() throws Exception
+	{
+		String source = "<p><a href=\"http://one.edu/access/content/group/site/x.html\">x</a></p>";
+
+		this.serverUrl = "http://one.edu";
+		String cleaned = HtmlHelper.cleanCached(source, true);
+		assertEquals(HtmlHelper.clean(source, true), cleaned);
+		assertTrue(cleaned.indexOf("href=\"/access/content/group/site/x.html\"") != -1);
+
+		this.serverUrl = "http://two.edu";
+		cleaned = HtmlHelper.cleanCached(source, true);
+		assertEquals(HtmlHelper.clean(source, true), cleaned);
+		assertTrue(cleaned.indexOf("href=\"http://one.edu/access/content/group/site/x.html\"") != -1);
+		assertTrue(cleaned.indexOf("target=\"_blank\"") != -1);
+	}
+
+	/**
+	 * Test that each pass gives what HtmlHelperReference's gives.
+	 */
+	public void testPasses() throws Exception
+	{
+		Random rnd = new Random(7);
+		for (int i = 0; i < SOURCES; i++)
+		{
+			String source = randomSource(rnd);
+
+			assertEquals(source, HtmlHelperReference.assureAnchorTargetBlank(source), HtmlHelper.assureAnchorTargetBlank(source));
+			assertEquals(source, HtmlHelperReference.stripBadEncodingCharacters(source), HtmlHelper.stripBadEncodingCharacters(source));
+			assertEquals(source, HtmlHelperReference.stripComments(source), HtmlHelper.stripComments(source));
+			assertEquals(source, HtmlHelperReference.stripDamagedComments(source), HtmlHelper.stripDamagedComments(source));
+			assertEquals(source, HtmlHelperReference.stripEmptyCode(source), HtmlHelper.stripEmptyCode(source));
+			assertEquals(source, HtmlHelperReference.stripEncodedFontDefinitionComments(source),
+					HtmlHelper.stripEncodedFontDefinitionComments(source));
+			assertEquals(source, HtmlHelperReference.stripEncodedStyleDefinitionComments(source),
+					HtmlHelper.stripEncodedStyleDefinitionComments(source));
+			assertEquals(source, HtmlHelperReference.stripForms(source), HtmlHelper.stripForms(source));
+			assertEquals(source, HtmlHelperReference.stripHeaderTags(source), HtmlHelper.stripHeaderTags(source));
+		}
+	}
+
+	/**
+	 * Stand in for the ServerConfigurationService, answering the server URL from serverUrl. The cover keeps the service it finds, so we set that.
+	 */
+	protected void setUp() throws Exception
+	{
+		ServerConfigurationService service = (ServerConfigurationService) Proxy.newProxyInstance(ServerConfigurationService.class.getClassLoader(),
+				new Class[] {ServerConfigurationService.class}, new InvocationHandler()
+				{
+					public Object invoke(Object proxy, Method method, Object[] args)
+					{
+						if (method.getName().equals("getServerUrl")) return serverUrl;
+						return null;
+					}
+				});
+
+		Field instance = org.sakaiproject.component.cover.ServerConfigurationService.class.getDeclaredField("m_instance");
+		instance.setAccessible(true);
+		instance.set(null, service);
+	}
+
+	/**
+	 * Compose a random source from up to a dozen TOKENS.
+	 * 
+	 * @param rnd
+	 *        The random source.
+	 * @return The source.
+	 */
+	protected String randomSource(Random rnd)
+	{
+		StringBuilder rv = new StringBuilder();
+		int count = rnd.nextInt(12);
+		for (int i = 0; i < count; i++)
+		{
+			rv.append(TOKENS[rnd.nextInt(TOKENS.length)]);
+		}
+
+		return rv.toString();
+	}
+}